@@ -1,12 +1,28 @@
 package finsight;
 
+import finsight.expense.Expense;
 import finsight.income.incomelist.IncomeList;
 import finsight.expense.expenselist.ExpenseList;
+import finsight.investment.Investment;
+import finsight.loan.LoanDueScheduler;
 import finsight.investment.investmentlist.InvestmentList;
 import finsight.loan.loanlist.LoanList;
 import finsight.parser.Parser;
+import finsight.storage.DurabilityPolicy;
+import finsight.storage.LastRunFile;
+import finsight.storage.LedgerSnapshot;
 import finsight.ui.Ui;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * <h1>FinSight</h1>
  * FinSight is a CLI-based app for managing finances such as income, expenses, loans and investments.
@@ -19,19 +35,216 @@ import finsight.ui.Ui;
  * @since 2025-10-08
  */
 public class FinSight {
+    private static final int NUMBER_OF_LEDGERS = 4;
+    private static final String PREFETCH_PROPERTY = "finsight.prefetch";
+    private static final String SNAPSHOT_PROPERTY = "finsight.snapshot";
+    private static final String WATCH_PROPERTY = "finsight.watch";
+    private static final String CATCH_UP_PROPERTY = "finsight.catchup";
+    private static final String ALERTS_PROPERTY = "finsight.alerts";
+    private static final Path SNAPSHOT_FILE = Path.of("./data/snapshot.bin");
+    private static final LastRunFile LAST_RUN_FILE = new LastRunFile(Path.of("./data/lastrun.txt"));
+    private static final List<Path> DATA_FILES = List.of(Path.of(ExpenseList.DATA_FILE), Path.of(IncomeList.DATA_FILE),
+            Path.of(InvestmentList.DATA_FILE), Path.of(LoanList.DATA_FILE));
+
+    private static ExpenseList expenseList;
+    private static IncomeList incomeList;
+    private static InvestmentList investmentList;
+    private static LoanList loanList;
+
     /**
      * Main entry-point for the FinSight application.
      */
     public static void main(String[] args) {
-        Parser parser = new Parser(new ExpenseList(), new IncomeList(), new InvestmentList(), new LoanList());
+        boolean isSnapshotEnabled = Boolean.parseBoolean(System.getProperty(SNAPSHOT_PROPERTY, "true"));
+        Parser parser = loadLedgers(isSnapshotEnabled);
+        if (Boolean.parseBoolean(System.getProperty(WATCH_PROPERTY, "true"))) {
+            watchDataFiles();
+        }
 
         Ui.printWelcomeMessage();
+        if (Boolean.parseBoolean(System.getProperty(ALERTS_PROPERTY, "true"))) {
+            loanList.setDueScheduler(new LoanDueScheduler(Ui::printLoanDueAlert));
+        }
 
         String userInput = Ui.getNextLine();
+        if (Boolean.parseBoolean(System.getProperty(CATCH_UP_PROPERTY, "true"))) {
+            catchUpDeposits(LocalDate.now());
+        }
         while (!userInput.toLowerCase().startsWith("bye")) {
             parser.tryCommand(userInput);
             userInput = Ui.getNextLine();
         }
+        if (DurabilityPolicy.configured().isForcedOnClose()) {
+            forceDataFiles();
+        }
+        if (isSnapshotEnabled) {
+            saveSnapshot();
+        }
         Ui.printByeMessage();
     }
+
+    /**
+     * Creates the expense, income, investment and loan ledgers and returns a parser over them.
+     *
+     * <p>If a snapshot saved on the last exit is still valid for the current data files, the
+     * ledgers are restored from it. Otherwise each ledger reads its data file only when it is
+     * first used. Unless background prefetching is disabled with {@code -Dfinsight.prefetch=false},
+     * all four files also start loading right away on daemon threads so they are usually ready
+     * by the first command.</p>
+     *
+     * @param isSnapshotEnabled whether to try restoring the ledgers from the snapshot
+     * @return Parser over the four ledgers
+     */
+    private static Parser loadLedgers(boolean isSnapshotEnabled) {
+        LedgerSnapshot snapshot = isSnapshotEnabled ? LedgerSnapshot.tryRead(SNAPSHOT_FILE, DATA_FILES) : null;
+        if (snapshot != null) {
+            expenseList = new ExpenseList(snapshot.getExpenses());
+            incomeList = new IncomeList(snapshot.getIncomes());
+            investmentList = new InvestmentList(snapshot.getInvestments());
+            loanList = new LoanList(snapshot.getLoans());
+            markRestored(snapshot);
+            return new Parser(expenseList, incomeList, investmentList, loanList);
+        }
+
+        expenseList = ExpenseList.createLazily();
+        incomeList = IncomeList.createLazily();
+        investmentList = InvestmentList.createLazily();
+        loanList = LoanList.createLazily();
+
+        if (Boolean.parseBoolean(System.getProperty(PREFETCH_PROPERTY, "true"))) {
+            ExecutorService loaderPool = Executors.newFixedThreadPool(NUMBER_OF_LEDGERS, runnable -> {
+                Thread loaderThread = new Thread(runnable, "ledger-loader");
+                loaderThread.setDaemon(true);
+                return loaderThread;
+            });
+            expenseList.prefetch(loaderPool);
+            incomeList.prefetch(loaderPool);
+            investmentList.prefetch(loaderPool);
+            loanList.prefetch(loaderPool);
+            loaderPool.shutdown();
+        }
+        return new Parser(expenseList, incomeList, investmentList, loanList);
+    }
+
+    /**
+     * Records how much of each data file the ledgers restored from a snapshot hold, so that
+     * records appended to the files since are read before the ledgers are next changed. The sizes
+     * are in the order of {@link #DATA_FILES}.
+     *
+     * @param snapshot the snapshot the ledgers were restored from
+     */
+    private static void markRestored(LedgerSnapshot snapshot) {
+        try {
+            expenseList.markRestored(snapshot.getSourceSize(0));
+            incomeList.markRestored(snapshot.getSourceSize(1));
+            investmentList.markRestored(snapshot.getSourceSize(2));
+            loanList.markRestored(snapshot.getSourceSize(3));
+        } catch (IOException e) {
+            Ui.printErrorMessage("Could not read the data files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts watching the four data files, so that records other programs append to them show up
+     * without restarting. Disabled with {@code -Dfinsight.watch=false}.
+     */
+    private static void watchDataFiles() {
+        try {
+            expenseList.watchDataFile();
+            incomeList.watchDataFile();
+            investmentList.watchDataFile();
+            loanList.watchDataFile();
+        } catch (IOException e) {
+            Ui.printErrorMessage("Could not watch the data files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Forces the changes to the four data files that are not on the storage device yet. Skipped
+     * under {@code -Dfinsight.durability=none} and {@code per-command}, where there are none left.
+     */
+    private static void forceDataFiles() {
+        try {
+            expenseList.forceDataFile();
+            incomeList.forceDataFile();
+            investmentList.forceDataFile();
+            loanList.forceDataFile();
+        } catch (IOException e) {
+            Ui.printErrorMessage("Could not force the data files to disk: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the investment deposits that fell due after the last run, up to and including today,
+     * to the expenses in one batch, then records today as the last run. Nothing is added on the
+     * first run. Runs once the first command has been entered rather than before the first
+     * prompt, since it needs the investments and expenses, which are still loading in the
+     * background until then. Disabled with {@code -Dfinsight.catchup=false}.
+     *
+     * <p>The last run file stays locked from reading the date to writing the new one, so that of
+     * two instances started on the same data directory, only the first adds the deposits.</p>
+     *
+     * @param today the date of this run
+     */
+    private static void catchUpDeposits(LocalDate today) {
+        try {
+            Closeable lock = LAST_RUN_FILE.lock();
+            try {
+                catchUpDepositsSince(LAST_RUN_FILE.read(), today);
+                LAST_RUN_FILE.write(today);
+            } finally {
+                lock.close();
+            }
+        } catch (IOException e) {
+            Ui.printErrorMessage("Could not add the investment deposits due since the last run: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the investment deposits that fell due after the last run, up to and including today,
+     * to the expenses in one batch
+     *
+     * @param lastRun the date of the last run, or {@code null} on the first run
+     * @param today the date of this run
+     * @throws IOException if the deposits cannot be saved to the expense data file
+     */
+    private static void catchUpDepositsSince(LocalDate lastRun, LocalDate today) throws IOException {
+        if (lastRun == null || !lastRun.isBefore(today)) {
+            return;
+        }
+        investmentList.syncWithDataFile();
+        List<Expense> deposits = new ArrayList<>();
+        for (Map.Entry<LocalDate, Map<Integer, Investment>> dueOnDate
+                : investmentList.findDueBetween(lastRun.plusDays(1), today).entrySet()) {
+            for (Investment investment : dueOnDate.getValue().values()) {
+                deposits.add(investment.toDeposit(dueOnDate.getKey()));
+            }
+        }
+        if (!deposits.isEmpty()) {
+            expenseList.addExpenses(deposits, "add " + deposits.size() + " investment deposit(s)");
+            Ui.printDepositCatchUp(lastRun, deposits);
+        }
+    }
+
+    /**
+     * Saves a snapshot of the four ledgers so that the next start can skip parsing the data files.
+     * The ledgers are first brought up to date with their data files, and the snapshot records how
+     * much of each file they hold, so that a record appended after that is never left out of the
+     * ledgers on the next start.
+     */
+    private static void saveSnapshot() {
+        expenseList.syncWithDataFile();
+        incomeList.syncWithDataFile();
+        investmentList.syncWithDataFile();
+        loanList.syncWithDataFile();
+        LedgerSnapshot snapshot = new LedgerSnapshot(expenseList.getExpenses(), incomeList.getIncomes(),
+                investmentList.getInvestments(), loanList.getLoans());
+        long[] sourceSizes = {expenseList.getSyncedDataFileBytes(), incomeList.getSyncedDataFileBytes(),
+            investmentList.getSyncedDataFileBytes(), loanList.getSyncedDataFileBytes()};
+        try {
+            snapshot.write(SNAPSHOT_FILE, DATA_FILES, sourceSizes);
+        } catch (IOException e) {
+            Ui.printErrorMessage("Could not save snapshot: " + e.getMessage());
+        }
+    }
 }
@@ -1,9 +1,14 @@
 package finsight.expense;
 
 import finsight.expense.exceptions.AddExpenseCommandWrongFormatException;
+import finsight.money.Money;
+import finsight.summary.TransactionDate;
+
+import java.time.LocalDate;
 
 /**
- * Represents an expense object with the item/description and the amount used
+ * Represents an expense object with the item/description, the amount used
+ * and optionally the date it was made on
  *
  * @author Goh Bin Wee
  * @since 13/Oct/2025
@@ -11,33 +16,117 @@ import finsight.expense.exceptions.AddExpenseCommandWrongFormatException;
 public class Expense {
     public static int numberOfExpenses = 0;
     protected String description;
-    protected Double expenseAmount;
+    protected long expenseAmountCents;
+    protected LocalDate date;
+    protected boolean isDeposit;
+    private String renderedText;
 
     public Expense(String description, String expenseAmount) throws AddExpenseCommandWrongFormatException {
         this.description = description;
 
         try{
-            this.expenseAmount = Double.parseDouble(expenseAmount);
+            this.expenseAmountCents = Money.parseCents(expenseAmount);
         } catch (NumberFormatException e){
             throw new AddExpenseCommandWrongFormatException();
         }
     }
 
+    /**
+     * Constructs a dated Expense from user input
+     *
+     * @param description   Description of the expense
+     * @param expenseAmount Amount of the expense
+     * @param date          Date the expense was made on, or {@code null} if not given
+     * @throws AddExpenseCommandWrongFormatException If the amount is not a number
+     */
+    public Expense(String description, String expenseAmount, LocalDate date)
+            throws AddExpenseCommandWrongFormatException {
+        this(description, expenseAmount);
+        this.date = date;
+    }
+
+    /**
+     * Constructs an Expense from an amount that has already been parsed, such as one
+     * read from the data file or restored from a ledger snapshot
+     *
+     * @param description        Description of the expense
+     * @param expenseAmountCents Amount of the expense in cents
+     */
+    public Expense(String description, long expenseAmountCents) {
+        this(description, expenseAmountCents, null);
+    }
+
+    /**
+     * Constructs a possibly dated Expense from an amount that has already been parsed
+     *
+     * @param description        Description of the expense
+     * @param expenseAmountCents Amount of the expense in cents
+     * @param date               Date the expense was made on, or {@code null} if it has none
+     */
+    public Expense(String description, long expenseAmountCents, LocalDate date) {
+        this(description, expenseAmountCents, date, false);
+    }
+
+    /**
+     * Constructs a possibly dated Expense that may be an investment deposit added by FinSight
+     *
+     * @param description        Description of the expense
+     * @param expenseAmountCents Amount of the expense in cents
+     * @param date               Date the expense was made on, or {@code null} if it has none
+     * @param isDeposit          Whether the expense is a deposit into an investment
+     */
+    public Expense(String description, long expenseAmountCents, LocalDate date, boolean isDeposit) {
+        this.description = description;
+        this.expenseAmountCents = expenseAmountCents;
+        this.date = date;
+        this.isDeposit = isDeposit;
+    }
+
     public String getDescription() {
         return description;
     }
 
-    public Double getExpenseAmount() {
-        return expenseAmount;
+    public long getExpenseAmountCents() {
+        return expenseAmountCents;
+    }
+
+    /**
+     * Returns the date the expense was made on
+     *
+     * @return date of the expense, or {@code null} if it has none
+     */
+    public LocalDate getDate() {
+        return date;
     }
 
+    /**
+     * Returns whether the expense is a deposit into an investment, added when its deposit fell due
+     *
+     * @return true if the expense is an investment deposit
+     */
+    public boolean isDeposit() {
+        return isDeposit;
+    }
+
+    /**
+     * Returns String output of description, amount and date, rendered once and reused as an
+     * expense does not change after it is made
+     *
+     * @return String output of description, amount and date
+     */
     @Override
     public String toString() {
-        StringBuilder outputStringBuilder = new StringBuilder();
+        if (renderedText == null) {
+            StringBuilder outputStringBuilder = new StringBuilder();
 
-        outputStringBuilder.append("\nDescription: ").append(description);
-        outputStringBuilder.append("\nAmount: $").append(String.format("%.2f", expenseAmount));
+            outputStringBuilder.append("\nDescription: ").append(description);
+            Money.appendTo(outputStringBuilder.append("\nAmount: $"), expenseAmountCents);
+            if (date != null) {
+                outputStringBuilder.append("\nDate: ").append(TransactionDate.format(date));
+            }
 
-        return outputStringBuilder.toString();
+            renderedText = outputStringBuilder.toString();
+        }
+        return renderedText;
     }
 }
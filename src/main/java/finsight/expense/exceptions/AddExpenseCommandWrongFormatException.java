@@ -11,7 +11,7 @@ public class AddExpenseCommandWrongFormatException extends RuntimeException {
     @Override
     public String getMessage() {
         return "Add Expense Command is in the wrong format. Please try again with the format:\n" +
-                "\tadd expense d/<DESCRIPTION> a/<AMOUNT_SPENT>\n" +
-                "where <AMOUNT_SPENT> is only numbers";
+                "\tadd expense d/<DESCRIPTION> a/<AMOUNT_SPENT> [t/<DATE>]\n" +
+                "where <AMOUNT_SPENT> is only numbers and the optional <DATE> is of format 'dd-MM-yyyy'";
     }
 }
@@ -1,11 +1,31 @@
 package finsight.expense.expenselist;
 
 import finsight.expense.Expense;
+import finsight.export.ExportColumn;
+import finsight.export.ExportLedger;
+import finsight.filter.Filter;
+import finsight.filter.FilterCompiler;
+import finsight.filter.FilterField;
+import finsight.filter.exceptions.ListFilterWrongFormatException;
+import finsight.history.Change;
+import finsight.history.History;
 import finsight.storage.ExpenseDataManager;
+import finsight.search.AmountIndex;
+import finsight.search.DescriptionIndex;
+import finsight.storage.DataFileChange;
+import finsight.storage.LedgerLoader;
+import finsight.storage.QuarantineRepair;
+import finsight.summary.DailyTotalsIndex;
+import finsight.ui.ListingCache;
 import finsight.ui.Ui;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
 
 /**
  * Represents a list of Expense objects and provide methods to manage them
@@ -16,17 +36,69 @@ import java.util.ArrayList;
  * @since 13/Oct/2025
  */
 public class ExpenseList {
+    public static final String DATA_FILE = "./data/expense.txt";
+    private static final FilterCompiler<Expense> FILTER_COMPILER = new FilterCompiler<>("expense", Map.of(
+            "amount", FilterField.amount(Expense::getExpenseAmountCents),
+            "desc", FilterField.text(Expense::getDescription),
+            "date", FilterField.date(Expense::getDate)));
+    private static final List<ExportColumn<Expense>> EXPORT_COLUMNS = List.of(
+            ExportColumn.text("description", Expense::getDescription),
+            ExportColumn.amount("amount", Expense::getExpenseAmountCents),
+            ExportColumn.text("date", expense -> expense.getDate() == null ? null : expense.getDate().toString()));
+
     protected ArrayList<Expense> expenses;
-    private final ExpenseDataManager dataManager = new ExpenseDataManager("./data/expense.txt");
+    private final ExpenseDataManager dataManager = new ExpenseDataManager(DATA_FILE);
+    private final LedgerLoader<Expense> loader;
+    private DailyTotalsIndex dailyTotals;
+    private DescriptionIndex<Expense> descriptionIndex;
+    private AmountIndex<Expense> amountIndex;
+    private History history;
+    private long version;
+    private final ListingCache listingCache = new ListingCache();
 
     public ExpenseList(ArrayList<Expense> expenses) {
+        this.loader = null;
         this.expenses = expenses;
         Expense.numberOfExpenses = expenses.size();
     }
 
     public ExpenseList() {
-        this.expenses = dataManager.tryLoad();
-        Expense.numberOfExpenses = expenses.size();
+        this(false);
+    }
+
+    /**
+     * Constructs an ExpenseList backed by the data file, which is read either immediately or,
+     * if loaded lazily, only when the expenses are first needed
+     *
+     * @param isLoadedLazily whether to defer reading the data file until first use
+     */
+    private ExpenseList(boolean isLoadedLazily) {
+        this.loader = new LedgerLoader<>(dataManager, Ui::printErrorMessage,
+                loadedExpenses -> Expense.numberOfExpenses = loadedExpenses.size());
+        if (!isLoadedLazily) {
+            ensureLoaded();
+        }
+    }
+
+    /**
+     * Returns an ExpenseList whose data file is only read when the expenses are first needed
+     *
+     * @return ExpenseList that loads lazily
+     */
+    public static ExpenseList createLazily() {
+        return new ExpenseList(true);
+    }
+
+    /**
+     * Starts reading the data file in the background so that the expenses are
+     * ready by the time they are first needed
+     *
+     * @param executor Executor to read the data file on
+     */
+    public void prefetch(Executor executor) {
+        if (loader != null) {
+            loader.prefetch(executor);
+        }
     }
 
 
@@ -35,11 +107,12 @@ public class ExpenseList {
      *
      **/
     public void listExpenses() {
+        ensureLoaded();
         if(expenses.isEmpty()) {
             Ui.printEmptyExpenses();
             return;
         }
-        Ui.printAllExpenses(expenses);
+        Ui.printListing(listingCache.get(version, () -> Ui.renderAllExpenses(expenses)));
     }
 
     /**
@@ -48,10 +121,29 @@ public class ExpenseList {
      * @param expense the expense object to be added
      */
     public void addExpense(Expense expense) throws IOException {
-        expenses.add(expense);
-        Expense.numberOfExpenses++;
+        syncWithDataFile();
+        int index = expenses.size();
+        insertExpense(index, expense);
         Ui.printAddExpenseOutput(expenses);
         dataManager.appendToFile(expense);
+        recordChange(new Change("add expense: " + expense.getDescription(),
+                () -> removeExpenseAndSave(index), () -> insertExpenseAndSave(index, expense)));
+    }
+
+    /**
+     * Adds several expenses to the end of the list, saving them in one append and recording
+     * them as one change, so that they are undone together
+     *
+     * @param newExpenses       the expenses to add, in order
+     * @param changeDescription description of the addition in the undo log
+     * @throws IOException If an I/O error occurs when writing to the data file
+     */
+    public void addExpenses(List<Expense> newExpenses, String changeDescription) throws IOException {
+        syncWithDataFile();
+        int firstIndex = expenses.size();
+        insertExpensesAndSave(firstIndex, newExpenses);
+        recordChange(new Change(changeDescription, () -> removeExpensesAndSave(firstIndex, newExpenses.size()),
+                () -> insertExpensesAndSave(firstIndex, newExpenses)));
     }
 
     /**
@@ -61,10 +153,109 @@ public class ExpenseList {
      */
 
     public void deleteExpense(int indexToDelete) throws IOException {
+        syncWithDataFile();
         Ui.printDeleteExpenseOutput(expenses, indexToDelete);
-        expenses.remove(indexToDelete);
-        Expense.numberOfExpenses--;
+        Expense deletedExpense = removeExpense(indexToDelete);
         dataManager.writeToFile(expenses);
+        recordChange(new Change("delete expense: " + deletedExpense.getDescription(),
+                () -> insertExpenseAndSave(indexToDelete, deletedExpense), () -> removeExpenseAndSave(indexToDelete)));
+    }
+
+    /**
+     * Starts watching the data file, so that expenses another program appends to it show up
+     * in the list before the next command that uses it
+     *
+     * @throws IOException If the data file cannot be watched
+     */
+    public void watchDataFile() throws IOException {
+        dataManager.watch();
+    }
+
+    /**
+     * Forces the changes to the data file that are not on the storage device yet, so that
+     * they survive a crash
+     *
+     * @throws IOException If the data file cannot be forced
+     */
+    public void forceDataFile() throws IOException {
+        dataManager.forceWrites();
+    }
+
+    /**
+     * Reads the data file if this ExpenseList has not been used yet, then brings the list up to date
+     * with any change another instance of FinSight made to the data file, even one the watcher
+     * has not reported yet. Called before the expenses are changed, so that the change is made to
+     * the records as they are in the file.
+     */
+    public void syncWithDataFile() {
+        dataManager.checkForChanges();
+        ensureLoaded();
+    }
+
+    /**
+     * Returns how much of the data file the expenses in this list were read from or written to
+     *
+     * @return the number of bytes, or -1 if the data file has not been read or written yet
+     */
+    public long getSyncedDataFileBytes() {
+        return dataManager.getSyncedBytes();
+    }
+
+    /**
+     * Records that the expenses in this list were restored from a snapshot of the data file at the
+     * given size, so that anything appended to the file after it is read before the next change
+     *
+     * @param dataFileBytes the size of the data file recorded in the snapshot
+     * @throws IOException If the data file cannot be created or its attributes read
+     */
+    public void markRestored(long dataFileBytes) throws IOException {
+        dataManager.markRestored(dataFileBytes);
+    }
+
+    /**
+     * Loads the expenses in the quarantine file that can now be parsed, adding them to the end of
+     * the list and saving them to the data file. The rest stay quarantined.
+     *
+     * @return the expenses recovered and the number still quarantined
+     * @throws IOException If an I/O error occurs when reading or writing the data or quarantine file
+     */
+    public QuarantineRepair<Expense> repairExpenses() throws IOException {
+        syncWithDataFile();
+        QuarantineRepair<Expense> repair = dataManager.repairQuarantine(expenses);
+        for (Expense expense : repair.getRecords()) {
+            insertExpense(expenses.size(), expense);
+        }
+        return repair;
+    }
+
+    /**
+     * Sets the log that additions and deletions are recorded in, so that they can be undone
+     *
+     * @param history log of changes, or {@code null} to stop recording
+     */
+    public void setHistory(History history) {
+        this.history = history;
+    }
+
+    /**
+     * Returns the expenses with the columns they are exported with, for streaming to a file
+     *
+     * @return the expense ledger to export
+     */
+    public ExportLedger<Expense> toExportLedger() {
+        return new ExportLedger<>("expense", EXPORT_COLUMNS, getExpenses());
+    }
+
+    /**
+     * Displays the total of the expenses dated within the given range, broken down by month
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     */
+    public void listExpenseSummary(LocalDate from, LocalDate to) {
+        DailyTotalsIndex index = getDailyTotals();
+        Ui.printSummary("Expense", from, to, index.getTotalCents(from, to), index.getMonthlyTotals(from, to),
+                index.getUndatedCount());
     }
 
     /**
@@ -73,6 +264,7 @@ public class ExpenseList {
      * @return ArrayList of expenses
      */
     public ArrayList<Expense> getExpenses() {
+        ensureLoaded();
         return expenses;
     }
 
@@ -83,7 +275,292 @@ public class ExpenseList {
      */
 
     public int getSize() {
+        ensureLoaded();
         Expense.numberOfExpenses = expenses.size();
         return Expense.numberOfExpenses;
     }
+
+    /**
+     * Returns the index of expense amounts by date, building it on first use and
+     * keeping it up to date as expenses are added and deleted afterwards
+     *
+     * @return index of expense amounts by date
+     */
+    private DailyTotalsIndex getDailyTotals() {
+        ensureLoaded();
+        if (dailyTotals == null) {
+            dailyTotals = new DailyTotalsIndex();
+            for (Expense expense : expenses) {
+                dailyTotals.add(expense.getDate(), expense.getExpenseAmountCents());
+            }
+        }
+        return dailyTotals;
+    }
+
+    /**
+     * Returns the expenses whose descriptions contain a word starting with every term of the query
+     *
+     * @param query search terms, separated by spaces
+     * @return matching expenses keyed by their index in the list, in list order
+     */
+    public Map<Integer, Expense> find(String query) {
+        return getDescriptionIndex().findByIndex(query);
+    }
+
+    /**
+     * Returns the index of expenses by description words, building it on first use and
+     * keeping it up to date as expenses are changed afterwards
+     *
+     * @return index of expenses by description words
+     */
+    private DescriptionIndex<Expense> getDescriptionIndex() {
+        ensureLoaded();
+        if (descriptionIndex == null) {
+            descriptionIndex = new DescriptionIndex<>(Expense::getDescription);
+            for (Expense record : expenses) {
+                descriptionIndex.add(record);
+            }
+        }
+        return descriptionIndex;
+    }
+
+    /**
+     * Returns the expenses with the largest amounts
+     *
+     * @param count number of expenses to return
+     * @return at most {@code count} expenses keyed by their index in the list, from the largest amount down
+     */
+    public Map<Integer, Expense> findLargest(int count) {
+        return getAmountIndex().findLargest(count);
+    }
+
+    /**
+     * Returns the expenses with amounts within the given range
+     *
+     * @param minCents smallest amount in cents, inclusive
+     * @param maxCents largest amount in cents, inclusive
+     * @return matching expenses keyed by their index in the list, from the smallest amount up
+     */
+    public Map<Integer, Expense> findInRange(long minCents, long maxCents) {
+        return getAmountIndex().findInRange(minCents, maxCents);
+    }
+
+    /**
+     * Returns the index of expenses by amount, building it on first use and
+     * keeping it up to date as expenses are changed afterwards
+     *
+     * @return index of expenses by amount
+     */
+    private AmountIndex<Expense> getAmountIndex() {
+        ensureLoaded();
+        if (amountIndex == null) {
+            amountIndex = new AmountIndex<>(Expense::getExpenseAmountCents);
+            for (Expense record : expenses) {
+                amountIndex.add(record);
+            }
+        }
+        return amountIndex;
+    }
+
+    /**
+     * Returns the expenses that match a filter expression. If the expression bounds the amount and
+     * the index by amount has already been built, only the expenses within the bounds are tested;
+     * otherwise every expense is, as building the index costs more than one scan.
+     *
+     * @param expression filter expression over amount, desc and date
+     * @return matching expenses keyed by their index in the list, in list order
+     * @throws ListFilterWrongFormatException If the expression cannot be parsed or uses a field wrongly
+     */
+    public Map<Integer, Expense> filter(String expression) throws ListFilterWrongFormatException {
+        Filter<Expense> filter = FILTER_COMPILER.compile(expression);
+        if (filter.hasAmountBounds() && amountIndex != null) {
+            return new TreeMap<>(amountIndex.findInRange(filter.getMinCents(), filter.getMaxCents(),
+                    filter::test));
+        }
+        return filter.select(getExpenses());
+    }
+
+    /**
+     * Inserts an expense into the list and into the indexes built so far. The indexes by
+     * description and amount can only follow additions at the end of the list, so inserting
+     * before the end drops them, to be rebuilt when next used.
+     *
+     * @param index   index to insert the expense at
+     * @param expense the expense to insert
+     */
+    private void insertExpense(int index, Expense expense) {
+        expenses.add(index, expense);
+        version++;
+        Expense.numberOfExpenses++;
+        if (dailyTotals != null) {
+            dailyTotals.add(expense.getDate(), expense.getExpenseAmountCents());
+        }
+        if (index < expenses.size() - 1) {
+            descriptionIndex = null;
+            amountIndex = null;
+            return;
+        }
+        if (descriptionIndex != null) {
+            descriptionIndex.add(expense);
+        }
+        if (amountIndex != null) {
+            amountIndex.add(expense);
+        }
+    }
+
+    /**
+     * Removes an expense from the list and from the indexes built so far
+     *
+     * @param index index of the expense to remove
+     * @return the expense removed
+     */
+    private Expense removeExpense(int index) {
+        Expense removedExpense = expenses.remove(index);
+        version++;
+        Expense.numberOfExpenses--;
+        if (dailyTotals != null) {
+            dailyTotals.remove(removedExpense.getDate(), removedExpense.getExpenseAmountCents());
+        }
+        if (descriptionIndex != null) {
+            descriptionIndex.remove(removedExpense);
+        }
+        if (amountIndex != null) {
+            amountIndex.remove(removedExpense);
+        }
+        return removedExpense;
+    }
+
+    /**
+     * Inserts an expense and saves it, appending it to the data file if it is now the last expense
+     *
+     * @param index   index to insert the expense at
+     * @param expense the expense to insert
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void insertExpenseAndSave(int index, Expense expense) throws IOException {
+        insertExpense(index, expense);
+        try {
+            if (index == expenses.size() - 1) {
+                dataManager.appendToFile(expense);
+            } else {
+                dataManager.writeToFile(expenses);
+            }
+        } catch (IOException e) {
+            removeExpense(index);
+            throw e;
+        }
+    }
+
+    /**
+     * Inserts consecutive expenses and saves them, appending them to the data file in one write
+     * if they are now the last expenses
+     *
+     * @param index       index to insert the first expense at
+     * @param newExpenses the expenses to insert, in order
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void insertExpensesAndSave(int index, List<Expense> newExpenses) throws IOException {
+        for (int i = 0; i < newExpenses.size(); i++) {
+            insertExpense(index + i, newExpenses.get(i));
+        }
+        try {
+            if (index + newExpenses.size() == expenses.size()) {
+                dataManager.appendAllToFile(newExpenses);
+            } else {
+                dataManager.writeToFile(expenses);
+            }
+        } catch (IOException e) {
+            for (int i = 0; i < newExpenses.size(); i++) {
+                removeExpense(index);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Removes consecutive expenses and rewrites the data file
+     *
+     * @param index index of the first expense to remove
+     * @param count number of expenses to remove
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void removeExpensesAndSave(int index, int count) throws IOException {
+        List<Expense> removedExpenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            removedExpenses.add(removeExpense(index));
+        }
+        try {
+            dataManager.writeToFile(expenses);
+        } catch (IOException e) {
+            for (int i = 0; i < count; i++) {
+                insertExpense(index + i, removedExpenses.get(i));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Removes an expense and rewrites the data file
+     *
+     * @param index index of the expense to remove
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void removeExpenseAndSave(int index) throws IOException {
+        Expense removedExpense = removeExpense(index);
+        try {
+            dataManager.writeToFile(expenses);
+        } catch (IOException e) {
+            insertExpense(index, removedExpense);
+            throw e;
+        }
+    }
+
+    private void recordChange(Change change) {
+        if (history != null) {
+            history.record(change);
+        }
+    }
+
+    /**
+     * Reads the data file if this ExpenseList was loaded lazily and has not been used yet
+     */
+    private void ensureLoaded() {
+        if (expenses == null) {
+            expenses = loader.get();
+        }
+        applyExternalChange(dataManager.pollExternalChanges(Ui::printErrorMessage));
+    }
+
+    /**
+     * Brings the list up to date with a change another program made to the data file, adding
+     * the expenses appended to it or, if the file was replaced, reloading the list and
+     * clearing the undo log, whose changes no longer apply
+     *
+     * @param change the change to the data file, or {@code null} if there is none
+     */
+    private void applyExternalChange(DataFileChange<Expense> change) {
+        if (change == null) {
+            return;
+        }
+        if (change.isReload()) {
+            expenses = new ArrayList<>(change.getRecords());
+            version++;
+            Expense.numberOfExpenses = expenses.size();
+            dailyTotals = null;
+            descriptionIndex = null;
+            amountIndex = null;
+            if (history != null) {
+                history.clear();
+            }
+        } else {
+            for (Expense expense : change.getRecords()) {
+                insertExpense(expenses.size(), expense);
+            }
+        }
+        Ui.printDataFileChange("expense", change.isReload(), change.getRecords().size());
+    }
 }
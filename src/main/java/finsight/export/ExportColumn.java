@@ -0,0 +1,85 @@
+package finsight.export;
+
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Represents a column of exported records: its name and how to read its value from a record.
+ *
+ * <p>Text columns are always quoted in both formats, and escaped while they are written.
+ * Value columns hold numbers or {@code true}/{@code false}, which need no escaping, and are
+ * written as they are, so they stay numbers in JSON. A {@code null} value is written as an
+ * empty CSV field or a JSON {@code null}. Amount columns hold amounts in cents, whose digits
+ * are written straight to the file with {@link finsight.money.Money#writeTo}.</p>
+ *
+ * @param <T> type of record the column belongs to
+ */
+public final class ExportColumn<T> {
+    private final String name;
+    private final Function<T, String> valueOf;
+    private final boolean isText;
+    private final ToLongFunction<T> centsOf;
+
+    private ExportColumn(String name, Function<T, String> valueOf, boolean isText, ToLongFunction<T> centsOf) {
+        this.name = name;
+        this.valueOf = valueOf;
+        this.isText = isText;
+        this.centsOf = centsOf;
+    }
+
+    /**
+     * Returns a column holding text, which is quoted and escaped when written
+     *
+     * @param name   name of the column
+     * @param textOf function returning the text of a record, or {@code null} if it has none
+     * @param <T>    type of record
+     * @return the text column
+     */
+    public static <T> ExportColumn<T> text(String name, Function<T, String> textOf) {
+        return new ExportColumn<>(name, textOf, true, null);
+    }
+
+    /**
+     * Returns a column holding a number or a flag, which is written as it is
+     *
+     * @param name    name of the column
+     * @param valueOf function returning the value of a record, which must not need escaping
+     * @param <T>     type of record
+     * @return the value column
+     */
+    public static <T> ExportColumn<T> value(String name, Function<T, String> valueOf) {
+        return new ExportColumn<>(name, valueOf, false, null);
+    }
+
+    /**
+     * Returns a column holding an amount of money, which is written with two decimal places
+     *
+     * @param name    name of the column
+     * @param centsOf function returning the amount of a record in cents
+     * @param <T>     type of record
+     * @return the amount column
+     */
+    public static <T> ExportColumn<T> amount(String name, ToLongFunction<T> centsOf) {
+        return new ExportColumn<>(name, null, false, centsOf);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String valueOf(T record) {
+        return valueOf.apply(record);
+    }
+
+    boolean isText() {
+        return isText;
+    }
+
+    boolean isAmount() {
+        return centsOf != null;
+    }
+
+    long centsOf(T record) {
+        return centsOf.applyAsLong(record);
+    }
+}
@@ -0,0 +1,37 @@
+package finsight.export;
+
+import java.util.Locale;
+
+/**
+ * Represents a file format that records can be exported to
+ */
+public enum ExportFormat {
+    CSV("csv"),
+    JSON("json");
+
+    private final String name;
+
+    ExportFormat(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the format with the given name, ignoring case
+     *
+     * @param name name of the format, e.g. csv
+     * @return the matching format, or {@code null} if there is none
+     */
+    public static ExportFormat fromName(String name) {
+        String lowerCaseName = name.trim().toLowerCase(Locale.ROOT);
+        for (ExportFormat format : values()) {
+            if (format.name.equals(lowerCaseName)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
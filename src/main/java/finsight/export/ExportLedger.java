@@ -0,0 +1,39 @@
+package finsight.export;
+
+import java.util.List;
+
+/**
+ * Represents the records of one ledger to be exported, together with the columns to export
+ *
+ * @param <T> type of record exported
+ */
+public class ExportLedger<T> {
+    private final String name;
+    private final List<ExportColumn<T>> columns;
+    private final List<T> records;
+
+    /**
+     * Creates a ledger to export
+     *
+     * @param name    name of the ledger, e.g. expense
+     * @param columns columns to export, in order
+     * @param records records to export, in list order; they are read while being written, not copied
+     */
+    public ExportLedger(String name, List<ExportColumn<T>> columns, List<T> records) {
+        this.name = name;
+        this.columns = columns;
+        this.records = records;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    List<ExportColumn<T>> getColumns() {
+        return columns;
+    }
+
+    List<T> getRecords() {
+        return records;
+    }
+}
@@ -0,0 +1,334 @@
+package finsight.export;
+
+import finsight.export.exceptions.ExportIntoDataDirectoryException;
+import finsight.money.Money;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Exports ledgers to CSV or JSON files, streaming the records straight from their lists.
+ *
+ * <p>Each record is written field by field to a buffered writer over a {@link FileChannel},
+ * so the output is never built up in memory and exporting costs one pass over the records.
+ * Text is escaped in the same pass that writes it: runs of characters that need no escaping
+ * are written as they are, and only the characters that do are replaced.</p>
+ *
+ * <p>A JSON export writes one array of objects per ledger, and an export of several ledgers
+ * writes an object holding one array per ledger name. A CSV file can only hold one table,
+ * so a CSV export of several ledgers writes one file per ledger, named after the given file
+ * with the ledger name added, e.g. {@code backup-loan.csv}. Like the data files, every file
+ * is written to a temporary file first and then moved into place, so a failed export never
+ * leaves a partly written file behind.</p>
+ *
+ * <p>Nothing is written into the data directory. A file there is replaced behind the back of
+ * its data manager and the lock on it, so an export over a data file would be taken for a
+ * change by another program and lose its records. The files to write are checked before the
+ * first is written, after following any links, and a file elsewhere that is a hard link to a
+ * file in the data directory is refused as well.</p>
+ */
+public final class LedgerExporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final char LINE_SEPARATOR = '\n';
+
+    private LedgerExporter() {
+    }
+
+    /**
+     * Exports ledgers to a file
+     *
+     * @param file          the file to export to
+     * @param format        the format to export in
+     * @param ledgers       the ledgers to export, in order
+     * @param dataDirectory the directory holding the data files, which nothing is exported to
+     * @return the number of records written to each file, in the order written
+     * @throws ExportIntoDataDirectoryException If a file to write is in the data directory
+     * @throws IOException                      If an I/O error occurs when writing a file
+     */
+    public static Map<Path, Integer> export(Path file, ExportFormat format, List<ExportLedger<?>> ledgers,
+            Path dataDirectory) throws IOException {
+        assert !ledgers.isEmpty() : "there must be a ledger to export";
+        List<Path> files = new ArrayList<>();
+        if (format == ExportFormat.JSON || ledgers.size() == 1) {
+            files.add(file);
+        } else {
+            for (ExportLedger<?> ledger : ledgers) {
+                files.add(withLedgerName(file, ledger.getName()));
+            }
+        }
+        for (Path fileToWrite : files) {
+            checkOutsideDirectory(fileToWrite, dataDirectory);
+        }
+
+        Map<Path, Integer> recordsWrittenByFile = new LinkedHashMap<>();
+        if (format == ExportFormat.JSON) {
+            writeAtomically(file, writer -> writeJson(writer, ledgers));
+            int recordsWritten = 0;
+            for (ExportLedger<?> ledger : ledgers) {
+                recordsWritten += ledger.getRecords().size();
+            }
+            recordsWrittenByFile.put(file, recordsWritten);
+            return recordsWrittenByFile;
+        }
+
+        Iterator<Path> ledgerFiles = files.iterator();
+        for (ExportLedger<?> ledger : ledgers) {
+            Path ledgerFile = ledgerFiles.next();
+            writeAtomically(ledgerFile, writer -> writeCsv(writer, ledger));
+            recordsWrittenByFile.put(ledgerFile, ledger.getRecords().size());
+        }
+        return recordsWrittenByFile;
+    }
+
+    /**
+     * Refuses a file to export to if it is in the given directory, once links are followed,
+     * or if it already exists as another name of a file in that directory
+     *
+     * @param file      the file to export to
+     * @param directory the directory nothing may be exported to
+     * @throws ExportIntoDataDirectoryException If the file is in the directory or is one of its files
+     * @throws IOException                      If the directory cannot be listed
+     */
+    static void checkOutsideDirectory(Path file, Path directory) throws IOException {
+        if (toRealPath(file).startsWith(toRealPath(directory))) {
+            throw new ExportIntoDataDirectoryException(file, directory);
+        }
+        if (!Files.exists(file) || !Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> directoryFiles;
+        try (Stream<Path> directoryFileStream = Files.list(directory)) {
+            directoryFiles = directoryFileStream.toList();
+        }
+        for (Path directoryFile : directoryFiles) {
+            if (Files.isSameFile(file, directoryFile)) {
+                throw new ExportIntoDataDirectoryException(file, directory);
+            }
+        }
+    }
+
+    /**
+     * Returns the absolute path of a file with every link in the part of it that exists followed
+     *
+     * @param path the path, which need not exist
+     * @return the real path of its longest existing ancestor, followed by the rest of the path
+     * @throws IOException If the existing part cannot be resolved
+     */
+    private static Path toRealPath(Path path) throws IOException {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        Path existingPath = absolutePath;
+        while (existingPath != null && !Files.exists(existingPath)) {
+            existingPath = existingPath.getParent();
+        }
+        if (existingPath == null) {
+            return absolutePath;
+        }
+        return existingPath.toRealPath().resolve(existingPath.relativize(absolutePath));
+    }
+
+    /**
+     * Returns the path of the file a ledger is written to when several ledgers are exported
+     * to CSV, e.g. {@code backup-loan.csv} for {@code backup.csv}
+     *
+     * @param file       the file given to export to
+     * @param ledgerName name of the ledger
+     * @return path of the ledger's own file, in the same directory
+     */
+    static Path withLedgerName(Path file, String ledgerName) {
+        String fileName = file.getFileName().toString();
+        int extensionStart = fileName.lastIndexOf('.');
+        if (extensionStart <= 0) {
+            return file.resolveSibling(fileName + "-" + ledgerName);
+        }
+        return file.resolveSibling(fileName.substring(0, extensionStart) + "-" + ledgerName
+                + fileName.substring(extensionStart));
+    }
+
+    private static void writeAtomically(Path file, WriteAction action) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".temp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                Writer writer = new BufferedWriter(Channels.newWriter(channel,
+                        StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE)) {
+            action.write(writer);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static <T> void writeCsv(Writer writer, ExportLedger<T> ledger) throws IOException {
+        List<ExportColumn<T>> columns = ledger.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns.get(i).getName());
+        }
+        writer.write(LINE_SEPARATOR);
+
+        for (T record : ledger.getRecords()) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                ExportColumn<T> column = columns.get(i);
+                if (column.isAmount()) {
+                    Money.writeTo(writer, column.centsOf(record));
+                    continue;
+                }
+                String value = column.valueOf(record);
+                if (value == null) {
+                    continue;
+                }
+                if (column.isText()) {
+                    writeCsvText(writer, value);
+                } else {
+                    writer.write(value);
+                }
+            }
+            writer.write(LINE_SEPARATOR);
+        }
+    }
+
+    private static void writeJson(Writer writer, List<ExportLedger<?>> ledgers) throws IOException {
+        if (ledgers.size() == 1) {
+            writeJsonArray(writer, ledgers.get(0));
+            writer.write(LINE_SEPARATOR);
+            return;
+        }
+        writer.write('{');
+        writer.write(LINE_SEPARATOR);
+        for (int i = 0; i < ledgers.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+                writer.write(LINE_SEPARATOR);
+            }
+            writeJsonText(writer, ledgers.get(i).getName());
+            writer.write(": ");
+            writeJsonArray(writer, ledgers.get(i));
+        }
+        writer.write(LINE_SEPARATOR);
+        writer.write('}');
+        writer.write(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes the records of a ledger as a JSON array with one object per line
+     */
+    private static <T> void writeJsonArray(Writer writer, ExportLedger<T> ledger) throws IOException {
+        List<ExportColumn<T>> columns = ledger.getColumns();
+        writer.write('[');
+        boolean isFirstRecord = true;
+        for (T record : ledger.getRecords()) {
+            writer.write(isFirstRecord ? "\n{" : ",\n{");
+            isFirstRecord = false;
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                ExportColumn<T> column = columns.get(i);
+                writeJsonText(writer, column.getName());
+                writer.write(':');
+                if (column.isAmount()) {
+                    Money.writeTo(writer, column.centsOf(record));
+                    continue;
+                }
+                String value = column.valueOf(record);
+                if (value == null) {
+                    writer.write("null");
+                } else if (column.isText()) {
+                    writeJsonText(writer, value);
+                } else {
+                    writer.write(value);
+                }
+            }
+            writer.write('}');
+        }
+        writer.write(LINE_SEPARATOR);
+        writer.write(']');
+    }
+
+    /**
+     * Writes text as a quoted CSV field, doubling any double quotes in it
+     */
+    static void writeCsvText(Writer writer, String text) throws IOException {
+        writer.write('"');
+        int runStart = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                writer.write(text, runStart, i + 1 - runStart);
+                writer.write('"');
+                runStart = i + 1;
+            }
+        }
+        writer.write(text, runStart, text.length() - runStart);
+        writer.write('"');
+    }
+
+    /**
+     * Writes text as a quoted JSON string, escaping quotes, backslashes and control characters
+     */
+    static void writeJsonText(Writer writer, String text) throws IOException {
+        writer.write('"');
+        int runStart = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\' || c < ' ') {
+                writer.write(text, runStart, i - runStart);
+                writer.write(jsonEscape(c));
+                runStart = i + 1;
+            }
+        }
+        writer.write(text, runStart, text.length() - runStart);
+        writer.write('"');
+    }
+
+    private static String jsonEscape(char c) {
+        switch (c) {
+        case '"':
+            return "\\\"";
+        case '\\':
+            return "\\\\";
+        case '\n':
+            return "\\n";
+        case '\r':
+            return "\\r";
+        case '\t':
+            return "\\t";
+        case '\b':
+            return "\\b";
+        case '\f':
+            return "\\f";
+        default:
+            return String.format("\\u%04x", (int) c);
+        }
+    }
+
+    /**
+     * Writes the contents of an exported file
+     */
+    @FunctionalInterface
+    private interface WriteAction {
+        void write(Writer writer) throws IOException;
+    }
+}
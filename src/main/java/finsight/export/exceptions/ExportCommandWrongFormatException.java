@@ -0,0 +1,14 @@
+package finsight.export.exceptions;
+
+/**
+ * Exception thrown if an export command has an unknown ledger or format, a missing file
+ * or its subcommands in the wrong order
+ */
+public class ExportCommandWrongFormatException extends Exception {
+    @Override
+    public String getMessage() {
+        return "Export Command is in the wrong format. Please try again with the format:\n" +
+                "\texport <LEDGER> f/<FILE> fmt/<FORMAT>\n" +
+                "where <LEDGER> is loan, expense, income, investment or all and <FORMAT> is csv or json";
+    }
+}
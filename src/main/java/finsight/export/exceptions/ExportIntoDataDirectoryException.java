@@ -0,0 +1,21 @@
+package finsight.export.exceptions;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Exception thrown if an export would write to the data directory, replacing a file that
+ * FinSight keeps there, such as a data file or its lock
+ */
+public class ExportIntoDataDirectoryException extends IOException {
+    /**
+     * Creates the exception for a file refused as an export target
+     *
+     * @param file          the file that was to be written
+     * @param dataDirectory the data directory it lies in or links into
+     */
+    public ExportIntoDataDirectoryException(Path file, Path dataDirectory) {
+        super("Cannot export to " + file + " as it is in the data directory " + dataDirectory
+                + ", which only FinSight may write to. Please choose a file outside it.");
+    }
+}
@@ -0,0 +1,85 @@
+package finsight.filter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Represents a compiled filter expression, which selects the records of a list that satisfy it.
+ *
+ * <p>Besides its predicate, a filter knows the range of amounts its matches must fall
+ * within, derived from the amount comparisons it requires. When the range is bounded, the
+ * list can narrow the candidates down with an index of records by amount and test only
+ * those. Otherwise every record is tested, in parallel when the list holds
+ * at least {@value #PARALLEL_THRESHOLD} records.</p>
+ *
+ * @param <T> type of record filtered
+ */
+public class Filter<T> {
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    private final Predicate<T> predicate;
+    private final long minCents;
+    private final long maxCents;
+
+    /**
+     * Creates a filter
+     *
+     * @param predicate predicate that is true for the records matching the filter
+     * @param minCents  smallest amount in cents a match can have, or {@code Long.MIN_VALUE}
+     * @param maxCents  largest amount in cents a match can have, or {@code Long.MAX_VALUE}
+     */
+    Filter(Predicate<T> predicate, long minCents, long maxCents) {
+        this.predicate = predicate;
+        this.minCents = minCents;
+        this.maxCents = maxCents;
+    }
+
+    /**
+     * Returns whether a record matches the filter
+     *
+     * @param record the record to test
+     * @return true if the record matches
+     */
+    public boolean test(T record) {
+        return predicate.test(record);
+    }
+
+    /**
+     * Returns whether the filter only matches records within a range of amounts
+     *
+     * @return true if the smallest or largest amount a match can have is bounded
+     */
+    public boolean hasAmountBounds() {
+        return minCents != Long.MIN_VALUE || maxCents != Long.MAX_VALUE;
+    }
+
+    public long getMinCents() {
+        return minCents;
+    }
+
+    public long getMaxCents() {
+        return maxCents;
+    }
+
+    /**
+     * Returns the records of a list that match the filter, testing them in parallel if the list is large
+     *
+     * @param records the records to filter, in list order
+     * @return matching records keyed by their index in the list, in list order
+     */
+    public Map<Integer, T> select(List<T> records) {
+        IntStream indices = IntStream.range(0, records.size());
+        if (records.size() >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        int[] matchingIndices = indices.filter(i -> predicate.test(records.get(i))).toArray();
+        Map<Integer, T> matchesByIndex = new LinkedHashMap<>();
+        for (int index : matchingIndices) {
+            matchesByIndex.put(index, records.get(index));
+        }
+        return matchesByIndex;
+    }
+}
@@ -0,0 +1,285 @@
+package finsight.filter;
+
+import finsight.filter.exceptions.ListFilterWrongFormatException;
+import finsight.money.Money;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Compiles filter expressions over the fields of one type of record into {@link Filter}s,
+ * caching them by the text of the expression.
+ *
+ * <p>An expression is one or more comparisons such as {@code amount>50} or
+ * {@code desc~"food"}, combined with {@code and}, {@code or}, {@code not} and brackets,
+ * where {@code and} binds tighter than {@code or}. Values containing spaces or operator
+ * characters are written in double quotes. The expression is parsed once into a tree of
+ * predicates, and the range of amounts its matches must fall within is worked out along the
+ * way: comparisons on an amount field bound the range, {@code and} intersects ranges,
+ * {@code or} takes the smallest range covering both sides and {@code not} drops the bound.</p>
+ *
+ * <p>Compiled filters are kept in a cache of the {@value #CACHE_CAPACITY} most recently
+ * used expressions, so running the same filter again skips parsing.</p>
+ *
+ * @param <T> type of record filtered
+ */
+public class FilterCompiler<T> {
+    private static final int CACHE_CAPACITY = 64;
+    private static final String OPERATOR_CHARS = "<>=!~";
+
+    private final String recordType;
+    private final Map<String, FilterField<T>> fields;
+    private final Map<String, Filter<T>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Filter<T>> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    /**
+     * Creates a compiler for expressions over the given fields
+     *
+     * @param recordType Type of record filtered, used in error messages, e.g. expense
+     * @param fields     Fields that can be used in expressions, by lower case name
+     */
+    public FilterCompiler(String recordType, Map<String, FilterField<T>> fields) {
+        this.recordType = recordType;
+        this.fields = new TreeMap<>(fields);
+    }
+
+    /**
+     * Returns the compiled filter for an expression, compiling it if it is not cached
+     *
+     * @param expression the filter expression
+     * @return the compiled filter
+     * @throws ListFilterWrongFormatException If the expression cannot be parsed, uses an unknown
+     *                                        field or compares a field in a way it does not support
+     */
+    public synchronized Filter<T> compile(String expression) throws ListFilterWrongFormatException {
+        String key = expression.trim();
+        Filter<T> filter = cache.get(key);
+        if (filter == null) {
+            filter = new ExpressionReader(key).read();
+            cache.put(key, filter);
+        }
+        return filter;
+    }
+
+    /**
+     * Represents a compiled part of an expression with the range of amounts its matches fall within
+     */
+    private static class Node<T> {
+        private final Predicate<T> predicate;
+        private final long minCents;
+        private final long maxCents;
+
+        private Node(Predicate<T> predicate, long minCents, long maxCents) {
+            this.predicate = predicate;
+            this.minCents = minCents;
+            this.maxCents = maxCents;
+        }
+
+        private Node(Predicate<T> predicate) {
+            this(predicate, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Represents a token of an expression: a word, a quoted value, an operator or a bracket
+     */
+    private static class Token {
+        private final String text;
+        private final boolean isQuoted;
+
+        private Token(String text, boolean isQuoted) {
+            this.text = text;
+            this.isQuoted = isQuoted;
+        }
+
+        private boolean isWord(String word) {
+            return !isQuoted && text.equalsIgnoreCase(word);
+        }
+
+        private boolean isOperator() {
+            return !isQuoted && OPERATOR_CHARS.indexOf(text.charAt(0)) >= 0;
+        }
+    }
+
+    /**
+     * Parses one expression by recursive descent
+     */
+    private class ExpressionReader {
+        private final List<Token> tokens;
+        private int position = 0;
+
+        private ExpressionReader(String expression) throws ListFilterWrongFormatException {
+            this.tokens = tokenize(expression);
+        }
+
+        private Filter<T> read() throws ListFilterWrongFormatException {
+            if (tokens.isEmpty()) {
+                throw new ListFilterWrongFormatException(recordType, "the condition is missing");
+            }
+            Node<T> node = readOr();
+            if (position < tokens.size()) {
+                throw new ListFilterWrongFormatException(recordType,
+                        "'" + tokens.get(position).text + "' was not expected");
+            }
+            return new Filter<>(node.predicate, node.minCents, node.maxCents);
+        }
+
+        private Node<T> readOr() throws ListFilterWrongFormatException {
+            Node<T> node = readAnd();
+            while (peekIsWord("or")) {
+                position++;
+                Node<T> other = readAnd();
+                node = new Node<>(node.predicate.or(other.predicate), Math.min(node.minCents, other.minCents),
+                        Math.max(node.maxCents, other.maxCents));
+            }
+            return node;
+        }
+
+        private Node<T> readAnd() throws ListFilterWrongFormatException {
+            Node<T> node = readUnary();
+            while (peekIsWord("and")) {
+                position++;
+                Node<T> other = readUnary();
+                node = new Node<>(node.predicate.and(other.predicate), Math.max(node.minCents, other.minCents),
+                        Math.min(node.maxCents, other.maxCents));
+            }
+            return node;
+        }
+
+        private Node<T> readUnary() throws ListFilterWrongFormatException {
+            if (peekIsWord("not")) {
+                position++;
+                return new Node<>(readUnary().predicate.negate());
+            }
+            if (peekIsWord("(")) {
+                position++;
+                Node<T> node = readOr();
+                if (!peekIsWord(")")) {
+                    throw new ListFilterWrongFormatException(recordType, "a closing bracket is missing");
+                }
+                position++;
+                return node;
+            }
+            return readComparison();
+        }
+
+        private Node<T> readComparison() throws ListFilterWrongFormatException {
+            Token fieldToken = next("a field");
+            FilterField<T> field = fields.get(fieldToken.text.toLowerCase(Locale.ROOT));
+            if (fieldToken.isQuoted || field == null) {
+                throw new ListFilterWrongFormatException(recordType, "'" + fieldToken.text
+                        + "' is not a field, expected one of " + String.join(", ", fields.keySet()));
+            }
+            String operator = null;
+            String value = null;
+            if (position < tokens.size() && tokens.get(position).isOperator()) {
+                operator = tokens.get(position++).text;
+                Token valueToken = next("a value after " + fieldToken.text + operator);
+                if (!valueToken.isQuoted && (valueToken.isOperator() || valueToken.isWord("(")
+                        || valueToken.isWord(")"))) {
+                    throw new ListFilterWrongFormatException(recordType,
+                            "a value is missing after " + fieldToken.text + operator);
+                }
+                value = valueToken.text;
+            }
+
+            Predicate<T> predicate;
+            try {
+                predicate = field.compile(operator, value);
+            } catch (IllegalArgumentException e) {
+                throw new ListFilterWrongFormatException(recordType, fieldToken.text + ": " + e.getMessage());
+            }
+            if (!field.isAmount()) {
+                return new Node<>(predicate);
+            }
+            return amountNode(predicate, operator, Money.parseCents(value));
+        }
+
+        /**
+         * Returns the node of an amount comparison, bounded by the amounts that can satisfy it
+         */
+        private Node<T> amountNode(Predicate<T> predicate, String operator, long cents) {
+            switch (operator) {
+            case "<":
+                return new Node<>(predicate, Long.MIN_VALUE, cents - 1);
+            case "<=":
+                return new Node<>(predicate, Long.MIN_VALUE, cents);
+            case ">":
+                return new Node<>(predicate, cents + 1, Long.MAX_VALUE);
+            case ">=":
+                return new Node<>(predicate, cents, Long.MAX_VALUE);
+            case "=":
+                return new Node<>(predicate, cents, cents);
+            default:
+                return new Node<>(predicate);
+            }
+        }
+
+        private boolean peekIsWord(String word) {
+            return position < tokens.size() && tokens.get(position).isWord(word);
+        }
+
+        private Token next(String expected) throws ListFilterWrongFormatException {
+            if (position >= tokens.size()) {
+                throw new ListFilterWrongFormatException(recordType, expected + " is missing");
+            }
+            return tokens.get(position++);
+        }
+
+        /**
+         * Splits an expression into brackets, operators, quoted values and words
+         */
+        private List<Token> tokenize(String expression) throws ListFilterWrongFormatException {
+            List<Token> expressionTokens = new ArrayList<>();
+            int i = 0;
+            while (i < expression.length()) {
+                char c = expression.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')') {
+                    expressionTokens.add(new Token(String.valueOf(c), false));
+                    i++;
+                } else if (c == '"') {
+                    int end = expression.indexOf('"', i + 1);
+                    if (end < 0) {
+                        throw new ListFilterWrongFormatException(recordType, "a closing quote is missing");
+                    }
+                    expressionTokens.add(new Token(expression.substring(i + 1, end), true));
+                    i = end + 1;
+                } else if (OPERATOR_CHARS.indexOf(c) >= 0) {
+                    int end = i + 1;
+                    if (end < expression.length() && expression.charAt(end) == '=' && c != '=' && c != '~') {
+                        end++;
+                    }
+                    String operator = expression.substring(i, end);
+                    if (operator.equals("!")) {
+                        throw new ListFilterWrongFormatException(recordType, "'!' must be followed by '='");
+                    }
+                    expressionTokens.add(new Token(operator, false));
+                    i = end;
+                } else {
+                    int end = i;
+                    while (end < expression.length() && !isWordBoundary(expression.charAt(end))) {
+                        end++;
+                    }
+                    expressionTokens.add(new Token(expression.substring(i, end), false));
+                    i = end;
+                }
+            }
+            return expressionTokens;
+        }
+
+        private boolean isWordBoundary(char c) {
+            return Character.isWhitespace(c) || c == '(' || c == ')' || c == '"' || OPERATOR_CHARS.indexOf(c) >= 0;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package finsight.filter;
+
+import finsight.money.Money;
+import finsight.summary.TransactionDate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Represents a property of a record that can be used in a filter expression, and compiles
+ * comparisons on it into predicates.
+ *
+ * <p>Each kind of field accepts its own operators: amounts, dates and numbers can be
+ * compared with {@code < <= > >= = !=}, text can be matched with {@code ~} (contains) or
+ * compared with {@code =} and {@code !=} ignoring case, and a flag can be used on its own
+ * or compared with {@code =} and {@code !=} to {@code true} or {@code false}. A record
+ * without a date never matches a comparison on its date.</p>
+ *
+ * @param <T> type of record the field belongs to
+ */
+public final class FilterField<T> {
+    private final ComparisonCompiler<T> comparisonCompiler;
+    private final boolean isAmount;
+
+    private FilterField(ComparisonCompiler<T> comparisonCompiler, boolean isAmount) {
+        this.comparisonCompiler = comparisonCompiler;
+        this.isAmount = isAmount;
+    }
+
+    /**
+     * Returns a field holding an amount of money, compared in cents
+     *
+     * @param amountOf function returning the amount of a record in cents
+     * @param <T>      type of record
+     * @return the amount field
+     */
+    public static <T> FilterField<T> amount(ToLongFunction<T> amountOf) {
+        return new FilterField<>((operator, value) -> {
+            long cents;
+            try {
+                cents = Money.parseCents(requireValue(operator, value, "an amount"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("'" + value + "' is not an amount");
+            }
+            requireOrdering(operator, "an amount");
+            return record -> isSatisfied(Long.compare(amountOf.applyAsLong(record), cents), operator);
+        }, true);
+    }
+
+    /**
+     * Returns a field holding text, matched ignoring case
+     *
+     * @param textOf function returning the text of a record
+     * @param <T>    type of record
+     * @return the text field
+     */
+    public static <T> FilterField<T> text(Function<T, String> textOf) {
+        return new FilterField<>((operator, value) -> {
+            String lowerCaseValue = requireValue(operator, value, "text").toLowerCase(Locale.ROOT);
+            switch (operator) {
+            case "~":
+                return record -> textOf.apply(record).toLowerCase(Locale.ROOT).contains(lowerCaseValue);
+            case "=":
+                return record -> textOf.apply(record).equalsIgnoreCase(lowerCaseValue);
+            case "!=":
+                return record -> !textOf.apply(record).equalsIgnoreCase(lowerCaseValue);
+            default:
+                throw new IllegalArgumentException("text can only be compared with ~, = or !=");
+            }
+        }, false);
+    }
+
+    /**
+     * Returns a field holding an optional date, compared by day
+     *
+     * @param dateOf function returning the date of a record, or {@code null} if it has none
+     * @param <T>    type of record
+     * @return the date field
+     */
+    public static <T> FilterField<T> date(Function<T, LocalDate> dateOf) {
+        return new FilterField<>((operator, value) -> {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(requireValue(operator, value, "a date"), TransactionDate.FORMAT);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("'" + value + "' is not a date of format dd-MM-yyyy");
+            }
+            requireOrdering(operator, "a date");
+            return record -> {
+                LocalDate recordDate = dateOf.apply(record);
+                return recordDate != null && isSatisfied(recordDate.compareTo(date), operator);
+            };
+        }, false);
+    }
+
+    /**
+     * Returns a field holding a number
+     *
+     * @param numberOf function returning the number of a record
+     * @param <T>      type of record
+     * @return the number field
+     */
+    public static <T> FilterField<T> number(ToDoubleFunction<T> numberOf) {
+        return new FilterField<>((operator, value) -> {
+            double number;
+            try {
+                number = Double.parseDouble(requireValue(operator, value, "a number"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("'" + value + "' is not a number");
+            }
+            if (!Double.isFinite(number)) {
+                throw new IllegalArgumentException("'" + value + "' is not a number");
+            }
+            requireOrdering(operator, "a number");
+            return record -> isSatisfied(Double.compare(numberOf.applyAsDouble(record), number), operator);
+        }, false);
+    }
+
+    /**
+     * Returns a field that is either true or false
+     *
+     * @param flagOf predicate returning the flag of a record
+     * @param <T>    type of record
+     * @return the flag field
+     */
+    public static <T> FilterField<T> flag(Predicate<T> flagOf) {
+        return new FilterField<>((operator, value) -> {
+            if (operator == null) {
+                return flagOf;
+            }
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("'" + value + "' is not true or false");
+            }
+            boolean isNegated = value.equalsIgnoreCase("true") == operator.equals("!=");
+            switch (operator) {
+            case "=":
+            case "!=":
+                return isNegated ? flagOf.negate() : flagOf;
+            default:
+                throw new IllegalArgumentException("true or false can only be compared with = or !=");
+            }
+        }, false);
+    }
+
+    /**
+     * Returns whether the field holds an amount of money, so that comparisons on it can be
+     * answered from an index of records by amount
+     *
+     * @return true if the field is an amount field
+     */
+    boolean isAmount() {
+        return isAmount;
+    }
+
+    /**
+     * Compiles a comparison of this field against a value into a predicate
+     *
+     * @param operator the comparison operator, or {@code null} if the field is used on its own
+     * @param value    the value compared against, or {@code null} if the field is used on its own
+     * @return predicate that is true for the records satisfying the comparison
+     * @throws IllegalArgumentException If the operator does not apply to this field or the value is invalid
+     */
+    Predicate<T> compile(String operator, String value) {
+        return comparisonCompiler.compile(operator, value);
+    }
+
+    /**
+     * Returns whether the result of comparing a record's value with the compared value
+     * satisfies an ordering operator
+     *
+     * @param comparison negative, zero or positive as the record's value is less than, equal
+     *                   to or greater than the compared value
+     * @param operator   one of {@code < <= > >= = !=}
+     * @return true if the comparison satisfies the operator
+     */
+    static boolean isSatisfied(int comparison, String operator) {
+        switch (operator) {
+        case "<":
+            return comparison < 0;
+        case "<=":
+            return comparison <= 0;
+        case ">":
+            return comparison > 0;
+        case ">=":
+            return comparison >= 0;
+        case "=":
+            return comparison == 0;
+        case "!=":
+            return comparison != 0;
+        default:
+            throw new IllegalArgumentException(operator + " cannot be used here");
+        }
+    }
+
+    private static String requireValue(String operator, String value, String kind) {
+        if (operator == null) {
+            throw new IllegalArgumentException(kind + " must be compared to a value");
+        }
+        return value;
+    }
+
+    private static void requireOrdering(String operator, String kind) {
+        if (operator.equals("~")) {
+            throw new IllegalArgumentException(kind + " cannot be compared with ~");
+        }
+    }
+
+    /**
+     * Compiles a comparison of a field against a value into a predicate
+     *
+     * @param <T> type of record
+     */
+    @FunctionalInterface
+    private interface ComparisonCompiler<T> {
+        Predicate<T> compile(String operator, String value);
+    }
+}
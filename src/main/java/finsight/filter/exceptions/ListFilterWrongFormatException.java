@@ -0,0 +1,28 @@
+package finsight.filter.exceptions;
+
+/**
+ * Exception thrown if the filter expression of a list command cannot be parsed, uses an
+ * unknown field or compares a field in a way it does not support
+ */
+public class ListFilterWrongFormatException extends Exception {
+    private final String recordType;
+    private final String reason;
+
+    /**
+     * Constructs the exception for the list command of the given type of record
+     *
+     * @param recordType Type of record listed, e.g. expense
+     * @param reason     What is wrong with the filter expression
+     */
+    public ListFilterWrongFormatException(String recordType, String reason) {
+        this.recordType = recordType;
+        this.reason = reason;
+    }
+
+    @Override
+    public String getMessage() {
+        return "List Command filter is invalid: " + reason + ". Please try again with the format:\n" +
+                "\tlist " + recordType + " where <CONDITION>\n" +
+                "where conditions such as amount>50 or desc~\"food\" can be combined with and, or, not and brackets";
+    }
+}
@@ -0,0 +1,220 @@
+package finsight.forecast;
+
+import finsight.expense.Expense;
+import finsight.income.Income;
+import finsight.investment.Investment;
+import finsight.loan.Loan;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Represents a day-by-day projection of the balance across all ledgers, from the day after
+ * the forecast is made.
+ *
+ * <p>The balance starts at the total of all incomes less all expenses, and each day adds the
+ * average daily income and subtracts the average daily expense of the last
+ * {@value #RATE_WINDOW_DAYS} days. On top of these rates, every investment deposit and every
+ * outstanding loan repayment is booked on the day it falls due. Loans already past their
+ * deadline are booked on the first day.</p>
+ *
+ * <p>The projection works on primitive arrays. Deposits are summed into one bucket per day of
+ * the month, and each loan into the day it is due, in one pass over the records. A second
+ * pass over the days then reads one deposit bucket per day, or a precomputed sum of the
+ * remaining buckets on the last day of a short month, and accumulates the balance. A forecast
+ * therefore costs {@code O(records + days)}.</p>
+ */
+public class CashFlowForecast {
+    public static final int MAX_DAYS = 36_525;
+    static final int RATE_WINDOW_DAYS = 90;
+    private static final int DAYS_IN_LONGEST_MONTH = 31;
+
+    private final LocalDate startDate;
+    private final long[] balanceCents;
+    private final double incomeCentsPerDay;
+    private final double expenseCentsPerDay;
+    private final long depositCents;
+    private final long loanRepaymentCents;
+
+    private CashFlowForecast(LocalDate startDate, long[] balanceCents, double incomeCentsPerDay,
+            double expenseCentsPerDay, long depositCents, long loanRepaymentCents) {
+        this.startDate = startDate;
+        this.balanceCents = balanceCents;
+        this.incomeCentsPerDay = incomeCentsPerDay;
+        this.expenseCentsPerDay = expenseCentsPerDay;
+        this.depositCents = depositCents;
+        this.loanRepaymentCents = loanRepaymentCents;
+    }
+
+    /**
+     * Projects the balance from the records of all four ledgers. Expenses recorded for
+     * investment deposits are left out of the average daily expense, as the deposits are
+     * booked separately.
+     *
+     * @param today       the day the forecast is made
+     * @param days        number of days to project, from 1 to {@value #MAX_DAYS}
+     * @param incomes     all incomes
+     * @param expenses    all expenses
+     * @param investments all investments
+     * @param loans       all loans
+     * @return the forecast
+     */
+    public static CashFlowForecast project(LocalDate today, int days, List<Income> incomes, List<Expense> expenses,
+            List<Investment> investments, List<Loan> loans) {
+        long windowStartDay = today.toEpochDay() - RATE_WINDOW_DAYS + 1;
+        long earliestDay = today.toEpochDay();
+        long openingCents = 0;
+        long windowIncomeCents = 0;
+        for (Income income : incomes) {
+            openingCents += income.getAmountEarnedCents();
+            if (isWithin(income.getDate(), windowStartDay, today)) {
+                windowIncomeCents += income.getAmountEarnedCents();
+                earliestDay = Math.min(earliestDay, income.getDate().toEpochDay());
+            }
+        }
+        long windowExpenseCents = 0;
+        for (Expense expense : expenses) {
+            openingCents -= expense.getExpenseAmountCents();
+            if (!expense.isDeposit() && isWithin(expense.getDate(), windowStartDay, today)) {
+                windowExpenseCents += expense.getExpenseAmountCents();
+                earliestDay = Math.min(earliestDay, expense.getDate().toEpochDay());
+            }
+        }
+        long windowDays = today.toEpochDay() - earliestDay + 1;
+        return project(today, days, openingCents, (double) windowIncomeCents / windowDays,
+                (double) windowExpenseCents / windowDays, investments, loans);
+    }
+
+    /**
+     * Projects the balance from an opening balance, daily rates, deposits and loan repayments
+     *
+     * @param today              the day the forecast is made
+     * @param days               number of days to project, from 1 to {@value #MAX_DAYS}
+     * @param openingCents       balance at the end of today, in cents
+     * @param incomeCentsPerDay  income added each day, in cents
+     * @param expenseCentsPerDay expense subtracted each day, in cents
+     * @param investments        investments whose monthly deposits are subtracted on their deposit day
+     * @param loans              loans whose amounts are subtracted on their deadline unless repaid
+     * @return the forecast
+     */
+    public static CashFlowForecast project(LocalDate today, int days, long openingCents, double incomeCentsPerDay,
+            double expenseCentsPerDay, List<Investment> investments, List<Loan> loans) {
+        assert days >= 1 && days <= MAX_DAYS : "days must be within range";
+
+        long[] depositCentsByDay = new long[DAYS_IN_LONGEST_MONTH + 2];
+        for (Investment investment : investments) {
+            depositCentsByDay[investment.getInvestmentDateOfMonth()] += investment.getInvestmentAmountCents();
+        }
+        long[] depositCentsFromDay = new long[DAYS_IN_LONGEST_MONTH + 2];
+        for (int day = DAYS_IN_LONGEST_MONTH; day >= 1; day--) {
+            depositCentsFromDay[day] = depositCentsFromDay[day + 1] + depositCentsByDay[day];
+        }
+
+        long[] eventCents = new long[days + 1];
+        long loanRepaymentCents = 0;
+        for (Loan loan : loans) {
+            if (loan.isRepaid()) {
+                continue;
+            }
+            long day = Math.max(1, ChronoUnit.DAYS.between(today, loan.getLoanReturnDate().toLocalDate()));
+            if (day <= days) {
+                eventCents[(int) day] -= loan.getAmountLoanedCents();
+                loanRepaymentCents += loan.getAmountLoanedCents();
+            }
+        }
+
+        long depositCents = 0;
+        LocalDate monthStart = today.plusDays(1).withDayOfMonth(1);
+        int dayOfMonth = today.plusDays(1).getDayOfMonth();
+        int monthLength = monthStart.lengthOfMonth();
+        for (int day = 1; day <= days; day++) {
+            long dayDepositCents = dayOfMonth == monthLength
+                    ? depositCentsFromDay[dayOfMonth] : depositCentsByDay[dayOfMonth];
+            eventCents[day] -= dayDepositCents;
+            depositCents += dayDepositCents;
+            if (dayOfMonth == monthLength) {
+                monthStart = monthStart.plusMonths(1);
+                monthLength = monthStart.lengthOfMonth();
+                dayOfMonth = 1;
+            } else {
+                dayOfMonth++;
+            }
+        }
+
+        long[] balanceCents = new long[days + 1];
+        balanceCents[0] = openingCents;
+        long eventTotalCents = 0;
+        for (int day = 1; day <= days; day++) {
+            eventTotalCents += eventCents[day];
+            balanceCents[day] = openingCents + Math.round(day * incomeCentsPerDay)
+                    - Math.round(day * expenseCentsPerDay) + eventTotalCents;
+        }
+        return new CashFlowForecast(today, balanceCents, incomeCentsPerDay, expenseCentsPerDay, depositCents,
+                loanRepaymentCents);
+    }
+
+    /**
+     * Returns the number of days projected
+     *
+     * @return the number of days, not counting the day the forecast was made
+     */
+    public int getDays() {
+        return balanceCents.length - 1;
+    }
+
+    /**
+     * Returns the date of a projected day
+     *
+     * @param day the day, where 0 is the day the forecast was made
+     * @return the date of the day
+     */
+    public LocalDate getDate(int day) {
+        return startDate.plusDays(day);
+    }
+
+    /**
+     * Returns the projected balance at the end of a day
+     *
+     * @param day the day, where 0 is the day the forecast was made
+     * @return the balance in cents
+     */
+    public long getBalanceCents(int day) {
+        return balanceCents[day];
+    }
+
+    /**
+     * Returns the projected day with the lowest balance, the earliest one if several share it
+     *
+     * @return the day, from 1 to {@link #getDays()}
+     */
+    public int getLowestDay() {
+        int lowestDay = 1;
+        for (int day = 2; day < balanceCents.length; day++) {
+            if (balanceCents[day] < balanceCents[lowestDay]) {
+                lowestDay = day;
+            }
+        }
+        return lowestDay;
+    }
+
+    public double getIncomeCentsPerDay() {
+        return incomeCentsPerDay;
+    }
+
+    public double getExpenseCentsPerDay() {
+        return expenseCentsPerDay;
+    }
+
+    public long getDepositCents() {
+        return depositCents;
+    }
+
+    public long getLoanRepaymentCents() {
+        return loanRepaymentCents;
+    }
+
+    private static boolean isWithin(LocalDate date, long windowStartDay, LocalDate today) {
+        return date != null && date.toEpochDay() >= windowStartDay && !date.isAfter(today);
+    }
+}
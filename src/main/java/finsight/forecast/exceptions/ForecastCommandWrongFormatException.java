@@ -0,0 +1,15 @@
+package finsight.forecast.exceptions;
+
+import finsight.forecast.CashFlowForecast;
+
+/**
+ * Exception thrown if a forecast command has a missing, non-numeric or out of range number of days
+ */
+public class ForecastCommandWrongFormatException extends Exception {
+    @Override
+    public String getMessage() {
+        return "Forecast Command is in the wrong format. Please try again with the format:\n" +
+                "\tforecast d/<DAYS>\n" +
+                "where <DAYS> is a whole number from 1 to " + CashFlowForecast.MAX_DAYS;
+    }
+}
@@ -0,0 +1,55 @@
+package finsight.history;
+
+import java.io.IOException;
+
+/**
+ * Represents a change made to a list by a command, together with the operations that
+ * reverse it and apply it again.
+ *
+ * <p>A change holds only what is needed to invert one mutation, such as the record that
+ * was deleted and where it was, rather than a copy of the list, so undoing or redoing it
+ * costs about as much as the command that made it.</p>
+ */
+public final class Change {
+    private final String description;
+    private final Action undoAction;
+    private final Action redoAction;
+
+    /**
+     * Creates a change
+     *
+     * @param description what the change did, e.g. delete loan: car repair
+     * @param undoAction  operation that reverses the change, including saving the list
+     * @param redoAction  operation that applies the change again, including saving the list
+     */
+    public Change(String description, Action undoAction, Action redoAction) {
+        this.description = description;
+        this.undoAction = undoAction;
+        this.redoAction = redoAction;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    void undo() throws IOException {
+        undoAction.run();
+    }
+
+    void redo() throws IOException {
+        redoAction.run();
+    }
+
+    /**
+     * Represents an operation on a list that may save the list to its data file
+     */
+    @FunctionalInterface
+    public interface Action {
+        /**
+         * Runs the operation
+         *
+         * @throws IOException If an I/O error occurs when saving the list
+         */
+        void run() throws IOException;
+    }
+}
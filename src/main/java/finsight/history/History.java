@@ -0,0 +1,98 @@
+package finsight.history;
+
+import finsight.history.exceptions.NothingToRedoException;
+import finsight.history.exceptions.NothingToUndoException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+/**
+ * Represents a bounded log of the changes made to the lists, which can be undone and redone
+ * in order.
+ *
+ * <p>Changes are kept on an undo stack. Undoing a change moves it to a redo stack, and
+ * redoing it moves it back. Recording a new change clears the redo stack, as the changes
+ * on it no longer follow from the current state. Once the undo stack holds
+ * {@code capacity} changes, the oldest one is dropped, so memory use stays bounded however
+ * long FinSight runs. The log is not saved, so only changes made since start-up can be
+ * undone.</p>
+ *
+ * <p>A change only moves between the stacks once it has been undone or redone. If saving
+ * the list fails, the change stays where it was, so the same undo or redo can be tried again.</p>
+ */
+public class History {
+    public static final int DEFAULT_CAPACITY = 100;
+
+    private final int capacity;
+    private final ArrayDeque<Change> undoableChanges = new ArrayDeque<>();
+    private final ArrayDeque<Change> redoableChanges = new ArrayDeque<>();
+
+    /**
+     * Creates an empty log
+     *
+     * @param capacity the most changes that can be undone
+     */
+    public History(int capacity) {
+        assert capacity > 0 : "capacity must be positive";
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records a change that was just made
+     *
+     * @param change the change made
+     */
+    public void record(Change change) {
+        redoableChanges.clear();
+        undoableChanges.push(change);
+        if (undoableChanges.size() > capacity) {
+            undoableChanges.removeLast();
+        }
+    }
+
+    /**
+     * Reverses the most recent change that has not been undone
+     *
+     * @return the change undone
+     * @throws NothingToUndoException If there is no change to undo
+     * @throws IOException            If an I/O error occurs when saving the list, in which case the
+     *                                 change can still be undone
+     */
+    public Change undo() throws NothingToUndoException, IOException {
+        Change change = undoableChanges.peek();
+        if (change == null) {
+            throw new NothingToUndoException();
+        }
+        change.undo();
+        undoableChanges.pop();
+        redoableChanges.push(change);
+        return change;
+    }
+
+    /**
+     * Applies the most recently undone change again
+     *
+     * @return the change redone
+     * @throws NothingToRedoException If no change has been undone since the last change was made
+     * @throws IOException            If an I/O error occurs when saving the list, in which case the
+     *                                 change can still be redone
+     */
+    public Change redo() throws NothingToRedoException, IOException {
+        Change change = redoableChanges.peek();
+        if (change == null) {
+            throw new NothingToRedoException();
+        }
+        change.redo();
+        redoableChanges.pop();
+        undoableChanges.push(change);
+        return change;
+    }
+
+    /**
+     * Forgets all changes, after the lists were reloaded and the changes no longer apply to them
+     */
+    public void clear() {
+        undoableChanges.clear();
+        redoableChanges.clear();
+    }
+}
@@ -0,0 +1,12 @@
+package finsight.history.exceptions;
+
+/**
+ * Exception thrown if redo command is used when no change has been undone since the last change
+ */
+public class NothingToRedoException extends Exception {
+    @Override
+    public String getMessage() {
+        return "There is nothing to redo.\n" +
+                "Only changes undone since the last add, delete or edit can be redone.";
+    }
+}
@@ -0,0 +1,12 @@
+package finsight.history.exceptions;
+
+/**
+ * Exception thrown if undo command is used when there is no change to undo
+ */
+public class NothingToUndoException extends Exception {
+    @Override
+    public String getMessage() {
+        return "There is nothing to undo.\n" +
+                "Only the latest changes made since FinSight was started can be undone.";
+    }
+}
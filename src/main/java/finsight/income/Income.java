@@ -1,6 +1,10 @@
 package finsight.income;
 
 import finsight.income.exceptions.AddIncomeCommandWrongFormatException;
+import finsight.money.Money;
+import finsight.summary.TransactionDate;
+
+import java.time.LocalDate;
 
 /**
  * Represents an Income made of a certain income amount earned
@@ -11,7 +15,9 @@ import finsight.income.exceptions.AddIncomeCommandWrongFormatException;
 public class Income {
     public static int numberOfIncomes = 0;
     protected String description;
-    protected float amountEarned;
+    protected long amountEarnedCents;
+    protected LocalDate date;
+    private String renderedText;
 
     /**
      * Constructor for income
@@ -23,12 +29,49 @@ public class Income {
         this.description = description;
 
         try{
-            this.amountEarned = Float.parseFloat(amountEarned);
+            this.amountEarnedCents = Money.parseCents(amountEarned);
         }catch(NumberFormatException e){
             throw new AddIncomeCommandWrongFormatException();
         }
     }
 
+    /**
+     * Constructor for a dated income
+     *
+     * @param description  String description of the income
+     * @param amountEarned String of amount earned
+     * @param date         Date the income was earned on, or {@code null} if not given
+     */
+    public Income(String description, String amountEarned, LocalDate date)
+            throws AddIncomeCommandWrongFormatException {
+        this(description, amountEarned);
+        this.date = date;
+    }
+
+    /**
+     * Constructor for income whose amount has already been parsed, such as one
+     * read from the data file or restored from a ledger snapshot
+     *
+     * @param description       String description of the income
+     * @param amountEarnedCents Amount earned in cents
+     */
+    public Income(String description, long amountEarnedCents) {
+        this(description, amountEarnedCents, null);
+    }
+
+    /**
+     * Constructor for a possibly dated income whose amount has already been parsed
+     *
+     * @param description       String description of the income
+     * @param amountEarnedCents Amount earned in cents
+     * @param date              Date the income was earned on, or {@code null} if it has none
+     */
+    public Income(String description, long amountEarnedCents, LocalDate date) {
+        this.description = description;
+        this.amountEarnedCents = amountEarnedCents;
+        this.date = date;
+    }
+
     /**
      * Returns description variable
      *
@@ -43,35 +86,53 @@ public class Income {
      */
     public void setDescription(String description) {
         this.description = description;
+        renderedText = null;
     }
 
     /**
-     * Returns amount earned variable
+     * Returns amount earned in cents
      *
-     * @return amountEarned
+     * @return amountEarnedCents
      */
-    public float getAmountEarned() {
-        return amountEarned;
+    public long getAmountEarnedCents() {
+        return amountEarnedCents;
     }
 
     /**
-     * Sets amountEarned
+     * Sets amount earned in cents
      */
-    public void setAmountEarned(float amountEarned) {
-        this.amountEarned = amountEarned;
+    public void setAmountEarnedCents(long amountEarnedCents) {
+        this.amountEarnedCents = amountEarnedCents;
+        renderedText = null;
     }
 
     /**
-     * Returns String output of description and amount earned
+     * Returns the date the income was earned on
+     *
+     * @return date of the income, or {@code null} if it has none
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Returns String output of description and amount earned, rendered once and reused until
+     * the income is edited
      *
      * @return String output of description and amount earned
      */
     public String toString() {
-        StringBuilder outputStringBuilder = new StringBuilder();
+        if (renderedText == null) {
+            StringBuilder outputStringBuilder = new StringBuilder();
 
-        outputStringBuilder.append("\nDescription: ").append(description);
-        outputStringBuilder.append("\nAmount: $").append(String.format("%.2f", amountEarned));
+            outputStringBuilder.append("\nDescription: ").append(description);
+            Money.appendTo(outputStringBuilder.append("\nAmount: $"), amountEarnedCents);
+            if (date != null) {
+                outputStringBuilder.append("\nDate: ").append(TransactionDate.format(date));
+            }
 
-        return outputStringBuilder.toString();
+            renderedText = outputStringBuilder.toString();
+        }
+        return renderedText;
     }
 }
@@ -7,7 +7,7 @@ public class AddIncomeCommandWrongFormatException extends Exception {
     @Override
     public String getMessage() {
         return "Add Income Command is in the wrong format. Please try again with the format:\n" +
-                "\tadd income d/<DESCRIPTION> a/<AMOUNT_EARNED>\n" +
-                "where <AMOUNT_EARNED> is only numbers";
+                "\tadd income d/<DESCRIPTION> a/<AMOUNT_EARNED> [t/<DATE>]\n" +
+                "where <AMOUNT_EARNED> is only numbers and the optional <DATE> is of format 'dd-MM-yyyy'";
     }
 }
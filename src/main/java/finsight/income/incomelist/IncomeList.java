@@ -2,12 +2,33 @@ package finsight.income.incomelist;
 
 import finsight.expense.Expense;
 import finsight.expense.expenselist.ExpenseList;
+import finsight.export.ExportColumn;
+import finsight.export.ExportLedger;
+import finsight.filter.Filter;
+import finsight.filter.FilterCompiler;
+import finsight.filter.FilterField;
+import finsight.filter.exceptions.ListFilterWrongFormatException;
+import finsight.history.Change;
+import finsight.history.History;
 import finsight.income.Income;
+import finsight.money.Money;
 import finsight.storage.IncomeDataManager;
+import finsight.search.AmountIndex;
+import finsight.search.DescriptionIndex;
+import finsight.storage.DataFileChange;
+import finsight.storage.LedgerLoader;
+import finsight.storage.QuarantineRepair;
+import finsight.summary.DailyTotalsIndex;
+import finsight.ui.ListingCache;
 import finsight.ui.Ui;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
 
 /**
  * Contains a ArrayList of Income class and manipulate it
@@ -17,16 +38,69 @@ import java.util.ArrayList;
  * @since 2025-10-13
  */
 public class IncomeList {
+    public static final String DATA_FILE = "./data/income.txt";
+    private static final FilterCompiler<Income> FILTER_COMPILER = new FilterCompiler<>("income", Map.of(
+            "amount", FilterField.amount(Income::getAmountEarnedCents),
+            "desc", FilterField.text(Income::getDescription),
+            "date", FilterField.date(Income::getDate)));
+    private static final List<ExportColumn<Income>> EXPORT_COLUMNS = List.of(
+            ExportColumn.text("description", Income::getDescription),
+            ExportColumn.amount("amount", Income::getAmountEarnedCents),
+            ExportColumn.text("date", income -> income.getDate() == null ? null : income.getDate().toString()));
+
     protected ArrayList<Income> incomes;
-    private final IncomeDataManager dataManager = new IncomeDataManager("./data/income.txt");
+    private final IncomeDataManager dataManager = new IncomeDataManager(DATA_FILE);
+    private final LedgerLoader<Income> loader;
+    private DailyTotalsIndex dailyTotals;
+    private DescriptionIndex<Income> descriptionIndex;
+    private AmountIndex<Income> amountIndex;
+    private History history;
+    private long version;
+    private final ListingCache listingCache = new ListingCache();
 
     public IncomeList() {
-        this.incomes = dataManager.tryLoad();
-        Income.numberOfIncomes = incomes.size();
+        this(false);
+    }
+
+    /**
+     * Constructs an IncomeList backed by the data file, which is read either immediately or,
+     * if loaded lazily, only when the incomes are first needed
+     *
+     * @param isLoadedLazily whether to defer reading the data file until first use
+     */
+    private IncomeList(boolean isLoadedLazily) {
+        this.loader = new LedgerLoader<>(dataManager, Ui::printErrorMessage,
+                loadedIncomes -> Income.numberOfIncomes = loadedIncomes.size());
+        if (!isLoadedLazily) {
+            ensureLoaded();
+        }
+    }
+
+    /**
+     * Returns an IncomeList whose data file is only read when the incomes are first needed
+     *
+     * @return IncomeList that loads lazily
+     */
+    public static IncomeList createLazily() {
+        return new IncomeList(true);
+    }
+
+    /**
+     * Starts reading the data file in the background so that the incomes are
+     * ready by the time they are first needed
+     *
+     * @param executor Executor to read the data file on
+     */
+    public void prefetch(Executor executor) {
+        if (loader != null) {
+            loader.prefetch(executor);
+        }
     }
 
     public IncomeList(ArrayList<Income> incomes) {
+        this.loader = null;
         this.incomes = incomes;
+        Income.numberOfIncomes = incomes.size();
     }
 
     /**
@@ -35,20 +109,34 @@ public class IncomeList {
      * @return ArrayList of income
      */
     public ArrayList<Income> getIncomes() {
+        ensureLoaded();
         return incomes;
     }
 
+    /**
+     * Returns the number of incomes
+     *
+     * @return number of incomes
+     */
+    public int getSize() {
+        ensureLoaded();
+        return incomes.size();
+    }
+
     /**
      * Adds new Income
      *
      * @param income Income class
      */
     public void addIncome(Income income) throws IOException {
-        incomes.add(income);
+        syncWithDataFile();
+        int index = incomes.size();
+        insertIncome(index, income);
         Ui.printAddIncomeOutput(income);
 
-        Income.numberOfIncomes++;
         dataManager.appendToFile(income);
+        recordChange(new Change("add income: " + income.getDescription(),
+                () -> removeIncomeAndSave(index), () -> insertIncomeAndSave(index, income)));
     }
 
     /**
@@ -57,11 +145,13 @@ public class IncomeList {
      * @param indexToDelete Index to delete
      */
     public void deleteIncome(int indexToDelete) throws IOException {
+        syncWithDataFile();
         Ui.printDeleteIncomeOutput(incomes, indexToDelete);
-        incomes.remove(indexToDelete);
+        Income deletedIncome = removeIncome(indexToDelete);
 
-        Income.numberOfIncomes--;
         dataManager.writeToFile(incomes);
+        recordChange(new Change("delete income: " + deletedIncome.getDescription(),
+                () -> insertIncomeAndSave(indexToDelete, deletedIncome), () -> removeIncomeAndSave(indexToDelete)));
     }
 
     /**
@@ -72,22 +162,115 @@ public class IncomeList {
      * @param amountEarned Amount earned
      */
     public void editIncome(String indexToEdit, String description, String amountEarned) throws IOException {
-        incomes.get(Integer.parseInt(indexToEdit) - 1).setDescription(description);
-        incomes.get(Integer.parseInt(indexToEdit) - 1).setAmountEarned(Float.parseFloat(amountEarned));
+        syncWithDataFile();
+        Income income = incomes.get(Integer.parseInt(indexToEdit) - 1);
+        String oldDescription = income.getDescription();
+        long oldAmountEarnedCents = income.getAmountEarnedCents();
+        long amountEarnedCents = Money.parseCents(amountEarned);
+        setIncomeFields(income, description, amountEarnedCents);
 
         Ui.printEditIncomeOutput(incomes, Integer.parseInt(indexToEdit) - 1);
         dataManager.writeToFile(incomes);
+        recordChange(new Change("edit income: " + description,
+                () -> setIncomeFieldsAndSave(income, oldDescription, oldAmountEarnedCents),
+                () -> setIncomeFieldsAndSave(income, description, amountEarnedCents)));
+    }
+
+    /**
+     * Starts watching the data file, so that incomes another program appends to it show up
+     * in the list before the next command that uses it
+     *
+     * @throws IOException If the data file cannot be watched
+     */
+    public void watchDataFile() throws IOException {
+        dataManager.watch();
+    }
+
+    /**
+     * Forces the changes to the data file that are not on the storage device yet, so that
+     * they survive a crash
+     *
+     * @throws IOException If the data file cannot be forced
+     */
+    public void forceDataFile() throws IOException {
+        dataManager.forceWrites();
+    }
+
+    /**
+     * Reads the data file if this IncomeList has not been used yet, then brings the list up to date
+     * with any change another instance of FinSight made to the data file, even one the watcher
+     * has not reported yet. Called before the incomes are changed, so that the change is made to
+     * the records as they are in the file.
+     */
+    public void syncWithDataFile() {
+        dataManager.checkForChanges();
+        ensureLoaded();
+    }
+
+    /**
+     * Returns how much of the data file the incomes in this list were read from or written to
+     *
+     * @return the number of bytes, or -1 if the data file has not been read or written yet
+     */
+    public long getSyncedDataFileBytes() {
+        return dataManager.getSyncedBytes();
+    }
+
+    /**
+     * Records that the incomes in this list were restored from a snapshot of the data file at the
+     * given size, so that anything appended to the file after it is read before the next change
+     *
+     * @param dataFileBytes the size of the data file recorded in the snapshot
+     * @throws IOException If the data file cannot be created or its attributes read
+     */
+    public void markRestored(long dataFileBytes) throws IOException {
+        dataManager.markRestored(dataFileBytes);
+    }
+
+    /**
+     * Loads the incomes in the quarantine file that can now be parsed, adding them to the end of
+     * the list and saving them to the data file. The rest stay quarantined.
+     *
+     * @return the incomes recovered and the number still quarantined
+     * @throws IOException If an I/O error occurs when reading or writing the data or quarantine file
+     */
+    public QuarantineRepair<Income> repairIncomes() throws IOException {
+        syncWithDataFile();
+        QuarantineRepair<Income> repair = dataManager.repairQuarantine(incomes);
+        for (Income income : repair.getRecords()) {
+            insertIncome(incomes.size(), income);
+        }
+        return repair;
+    }
+
+    /**
+     * Sets the log that additions, deletions and edits are recorded in, so that they can be undone
+     *
+     * @param history log of changes, or {@code null} to stop recording
+     */
+    public void setHistory(History history) {
+        this.history = history;
+    }
+
+    /**
+     * Returns the incomes with the columns they are exported with, for streaming to a file
+     *
+     * @return the income ledger to export
+     */
+    public ExportLedger<Income> toExportLedger() {
+        return new ExportLedger<>("income", EXPORT_COLUMNS, getIncomes());
     }
 
     /**
      * Lists all Incomes
      */
     public void listIncomes() {
+        ensureLoaded();
         if(incomes.isEmpty()) {
             Ui.printEmptyIncome();
             return;
         }
-        Ui.printAllIncomes(incomes);
+        Ui.printListing(listingCache.get(version, () -> Ui.renderAllIncomes(incomes)));
     }
 
     /**
@@ -96,21 +279,313 @@ public class IncomeList {
      *
      * Prints total amount of all incomes,
      * total amount of expenses and remaining income
+     *
+     * @param expenseList the expenses of this session, whose total is subtracted
      */
-    public void listIncomeOverview(){
-        float totalIncome = 0;
-        float totalExpense = 0;
+    public void listIncomeOverview(ExpenseList expenseList){
+        ensureLoaded();
+        long totalIncomeCents = 0;
+        long totalExpenseCents = 0;
 
         for (Income income : incomes) {
-            totalIncome += income.getAmountEarned();
+            totalIncomeCents += income.getAmountEarnedCents();
         }
 
-        ExpenseList expenseList = new ExpenseList();
-
         for (Expense expense : expenseList.getExpenses()){
-            totalExpense += expense.getExpenseAmount();
+            totalExpenseCents += expense.getExpenseAmountCents();
+        }
+
+        Ui.printIncomeOverview(totalIncomeCents, totalExpenseCents);
+    }
+
+    /**
+     * Prints the total of the incomes dated within the given range, broken down by month
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     */
+    public void listIncomeSummary(LocalDate from, LocalDate to) {
+        DailyTotalsIndex index = getDailyTotals();
+        Ui.printSummary("Income", from, to, index.getTotalCents(from, to), index.getMonthlyTotals(from, to),
+                index.getUndatedCount());
+    }
+
+    /**
+     * Returns the index of income amounts by date, building it on first use and
+     * keeping it up to date as incomes are added, deleted and edited afterwards
+     *
+     * @return index of income amounts by date
+     */
+    private DailyTotalsIndex getDailyTotals() {
+        ensureLoaded();
+        if (dailyTotals == null) {
+            dailyTotals = new DailyTotalsIndex();
+            for (Income income : incomes) {
+                dailyTotals.add(income.getDate(), income.getAmountEarnedCents());
+            }
         }
+        return dailyTotals;
+    }
 
-        Ui.printIncomeOverview(totalIncome,totalExpense);
+    /**
+     * Returns the incomes whose descriptions contain a word starting with every term of the query
+     *
+     * @param query search terms, separated by spaces
+     * @return matching incomes keyed by their index in the list, in list order
+     */
+    public Map<Integer, Income> find(String query) {
+        return getDescriptionIndex().findByIndex(query);
+    }
+
+    /**
+     * Returns the index of incomes by description words, building it on first use and
+     * keeping it up to date as incomes are changed afterwards
+     *
+     * @return index of incomes by description words
+     */
+    private DescriptionIndex<Income> getDescriptionIndex() {
+        ensureLoaded();
+        if (descriptionIndex == null) {
+            descriptionIndex = new DescriptionIndex<>(Income::getDescription);
+            for (Income record : incomes) {
+                descriptionIndex.add(record);
+            }
+        }
+        return descriptionIndex;
+    }
+
+    /**
+     * Returns the incomes with the largest amounts
+     *
+     * @param count number of incomes to return
+     * @return at most {@code count} incomes keyed by their index in the list, from the largest amount down
+     */
+    public Map<Integer, Income> findLargest(int count) {
+        return getAmountIndex().findLargest(count);
+    }
+
+    /**
+     * Returns the incomes with amounts within the given range
+     *
+     * @param minCents smallest amount in cents, inclusive
+     * @param maxCents largest amount in cents, inclusive
+     * @return matching incomes keyed by their index in the list, from the smallest amount up
+     */
+    public Map<Integer, Income> findInRange(long minCents, long maxCents) {
+        return getAmountIndex().findInRange(minCents, maxCents);
+    }
+
+    /**
+     * Returns the index of incomes by amount, building it on first use and
+     * keeping it up to date as incomes are changed afterwards
+     *
+     * @return index of incomes by amount
+     */
+    private AmountIndex<Income> getAmountIndex() {
+        ensureLoaded();
+        if (amountIndex == null) {
+            amountIndex = new AmountIndex<>(Income::getAmountEarnedCents);
+            for (Income record : incomes) {
+                amountIndex.add(record);
+            }
+        }
+        return amountIndex;
+    }
+
+    /**
+     * Returns the incomes that match a filter expression. If the expression bounds the amount and
+     * the index by amount has already been built, only the incomes within the bounds are tested;
+     * otherwise every income is, as building the index costs more than one scan.
+     *
+     * @param expression filter expression over amount, desc and date
+     * @return matching incomes keyed by their index in the list, in list order
+     * @throws ListFilterWrongFormatException If the expression cannot be parsed or uses a field wrongly
+     */
+    public Map<Integer, Income> filter(String expression) throws ListFilterWrongFormatException {
+        Filter<Income> filter = FILTER_COMPILER.compile(expression);
+        if (filter.hasAmountBounds() && amountIndex != null) {
+            return new TreeMap<>(amountIndex.findInRange(filter.getMinCents(), filter.getMaxCents(),
+                    filter::test));
+        }
+        return filter.select(getIncomes());
+    }
+
+    /**
+     * Inserts an income into the list and into the indexes built so far. The indexes by
+     * description and amount can only follow additions at the end of the list, so inserting
+     * before the end drops them, to be rebuilt when next used.
+     *
+     * @param index  index to insert the income at
+     * @param income the income to insert
+     */
+    private void insertIncome(int index, Income income) {
+        incomes.add(index, income);
+        version++;
+        Income.numberOfIncomes++;
+        if (dailyTotals != null) {
+            dailyTotals.add(income.getDate(), income.getAmountEarnedCents());
+        }
+        if (index < incomes.size() - 1) {
+            descriptionIndex = null;
+            amountIndex = null;
+            return;
+        }
+        if (descriptionIndex != null) {
+            descriptionIndex.add(income);
+        }
+        if (amountIndex != null) {
+            amountIndex.add(income);
+        }
+    }
+
+    /**
+     * Removes an income from the list and from the indexes built so far
+     *
+     * @param index index of the income to remove
+     * @return the income removed
+     */
+    private Income removeIncome(int index) {
+        Income removedIncome = incomes.remove(index);
+        version++;
+        Income.numberOfIncomes--;
+        if (dailyTotals != null) {
+            dailyTotals.remove(removedIncome.getDate(), removedIncome.getAmountEarnedCents());
+        }
+        if (descriptionIndex != null) {
+            descriptionIndex.remove(removedIncome);
+        }
+        if (amountIndex != null) {
+            amountIndex.remove(removedIncome);
+        }
+        return removedIncome;
+    }
+
+    /**
+     * Sets the description and amount of an income, keeping the indexes built so far up to date
+     *
+     * @param income            the income to edit
+     * @param description       new description
+     * @param amountEarnedCents new amount earned in cents
+     */
+    private void setIncomeFields(Income income, String description, long amountEarnedCents) {
+        version++;
+        if (dailyTotals != null) {
+            dailyTotals.remove(income.getDate(), income.getAmountEarnedCents());
+            dailyTotals.add(income.getDate(), amountEarnedCents);
+        }
+        income.setDescription(description);
+        income.setAmountEarnedCents(amountEarnedCents);
+        if (descriptionIndex != null) {
+            descriptionIndex.update(income);
+        }
+        if (amountIndex != null) {
+            amountIndex.update(income);
+        }
+    }
+
+    /**
+     * Inserts an income and saves it, appending it to the data file if it is now the last income
+     *
+     * @param index  index to insert the income at
+     * @param income the income to insert
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void insertIncomeAndSave(int index, Income income) throws IOException {
+        insertIncome(index, income);
+        try {
+            if (index == incomes.size() - 1) {
+                dataManager.appendToFile(income);
+            } else {
+                dataManager.writeToFile(incomes);
+            }
+        } catch (IOException e) {
+            removeIncome(index);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes an income and rewrites the data file
+     *
+     * @param index index of the income to remove
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void removeIncomeAndSave(int index) throws IOException {
+        Income removedIncome = removeIncome(index);
+        try {
+            dataManager.writeToFile(incomes);
+        } catch (IOException e) {
+            insertIncome(index, removedIncome);
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the description and amount of an income and rewrites the data file
+     *
+     * @param income            the income to edit
+     * @param description       new description
+     * @param amountEarnedCents new amount earned in cents
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void setIncomeFieldsAndSave(Income income, String description, long amountEarnedCents)
+            throws IOException {
+        String oldDescription = income.getDescription();
+        long oldAmountEarnedCents = income.getAmountEarnedCents();
+        setIncomeFields(income, description, amountEarnedCents);
+        try {
+            dataManager.writeToFile(incomes);
+        } catch (IOException e) {
+            setIncomeFields(income, oldDescription, oldAmountEarnedCents);
+            throw e;
+        }
+    }
+
+    private void recordChange(Change change) {
+        if (history != null) {
+            history.record(change);
+        }
+    }
+
+    /**
+     * Reads the data file if this IncomeList was loaded lazily and has not been used yet
+     */
+    private void ensureLoaded() {
+        if (incomes == null) {
+            incomes = loader.get();
+        }
+        applyExternalChange(dataManager.pollExternalChanges(Ui::printErrorMessage));
+    }
+
+    /**
+     * Brings the list up to date with a change another program made to the data file, adding
+     * the incomes appended to it or, if the file was replaced, reloading the list and
+     * clearing the undo log, whose changes no longer apply
+     *
+     * @param change the change to the data file, or {@code null} if there is none
+     */
+    private void applyExternalChange(DataFileChange<Income> change) {
+        if (change == null) {
+            return;
+        }
+        if (change.isReload()) {
+            incomes = new ArrayList<>(change.getRecords());
+            version++;
+            Income.numberOfIncomes = incomes.size();
+            dailyTotals = null;
+            descriptionIndex = null;
+            amountIndex = null;
+            if (history != null) {
+                history.clear();
+            }
+        } else {
+            for (Income income : change.getRecords()) {
+                insertIncome(incomes.size(), income);
+            }
+        }
+        Ui.printDataFileChange("income", change.isReload(), change.getRecords().size());
     }
 }
@@ -0,0 +1,157 @@
+package finsight.investment;
+
+import finsight.money.Money;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a savings goal: a target balance to reach after a number of years of monthly
+ * deposits at a return rate, solved for the monthly deposit it needs.
+ *
+ * <p>Under the model of {@link Investment#calculateYearlyBalances(double, double, int)}, the
+ * balance after {@code n} months of deposits {@code d} at a monthly rate {@code m} is
+ * {@code d * ((1 + m)^n - 1) / m}, or {@code d * n} when {@code m} is zero. Inverting this
+ * gives the deposit in closed form. As the model is evaluated month by month in floating
+ * point, the closed-form deposit is only used as a first guess. It is then corrected by
+ * bisection over whole cents against the monthly model itself, so that the deposit returned is
+ * the smallest one whose projected balance, rounded to cents, reaches the target. The guess is
+ * usually exact or one cent off, so this takes one or two projections.</p>
+ *
+ * <p>Solving for many investments at once solves each distinct return rate only once, as the
+ * deposit needed depends on nothing else.</p>
+ */
+public class ContributionGoal {
+    public static final int MAX_YEARS = 100;
+    private static final int MONTHS_IN_YEAR = 12;
+
+    private final long targetCents;
+    private final int years;
+    private final double returnRate;
+
+    /**
+     * Creates a goal
+     *
+     * @param targetCents balance to reach, in cents, above zero
+     * @param years       number of years of monthly deposits, from 1 to {@value #MAX_YEARS}
+     * @param returnRate  return rate per annum, in percent, not negative
+     */
+    public ContributionGoal(long targetCents, int years, double returnRate) {
+        assert targetCents > 0 : "target must be positive";
+        assert years >= 1 && years <= MAX_YEARS : "years must be within range";
+        assert returnRate >= 0 : "return rate must not be negative";
+
+        this.targetCents = targetCents;
+        this.years = years;
+        this.returnRate = returnRate;
+    }
+
+    /**
+     * Returns the monthly deposit needed to reach the target at the return rate of the goal
+     *
+     * @return the smallest monthly deposit, in cents, that reaches the target
+     */
+    public long solve() {
+        return solve(returnRate);
+    }
+
+    /**
+     * Returns the monthly deposit each investment would need to reach the target at its own
+     * return rate
+     *
+     * @param investments the investments to solve for
+     * @return the smallest monthly deposit, in cents, for each investment in list order
+     */
+    public long[] solveForEach(List<Investment> investments) {
+        Map<Double, Long> depositCentsByRate = new HashMap<>();
+        long[] depositCents = new long[investments.size()];
+        for (int i = 0; i < depositCents.length; i++) {
+            depositCents[i] = depositCentsByRate.computeIfAbsent(investments.get(i).getInvestmentReturnRate(),
+                    this::solve);
+        }
+        return depositCents;
+    }
+
+    public long getTargetCents() {
+        return targetCents;
+    }
+
+    public int getYears() {
+        return years;
+    }
+
+    public double getReturnRate() {
+        return returnRate;
+    }
+
+    /**
+     * Returns the smallest deposit that reaches the target at a rate, starting from the closed-form
+     * estimate and bracketing the answer between a deposit that falls short and one that reaches
+     * the target, in steps that double, before bisecting the bracket
+     *
+     * @param rate return rate per annum, in percent
+     * @return the smallest monthly deposit in cents
+     */
+    private long solve(double rate) {
+        long highCents = Math.max(1, estimateDepositCents(rate));
+        long lowCents;
+        long step = 1;
+        if (reachesTarget(highCents, rate)) {
+            lowCents = highCents - step;
+            while (lowCents > 0 && reachesTarget(lowCents, rate)) {
+                highCents = lowCents;
+                step *= 2;
+                lowCents = Math.max(0, highCents - step);
+            }
+        } else {
+            lowCents = highCents;
+            highCents = lowCents + step;
+            while (!reachesTarget(highCents, rate)) {
+                lowCents = highCents;
+                step *= 2;
+                highCents = lowCents + step;
+            }
+        }
+        while (highCents - lowCents > 1) {
+            long middleCents = lowCents + (highCents - lowCents) / 2;
+            if (reachesTarget(middleCents, rate)) {
+                highCents = middleCents;
+            } else {
+                lowCents = middleCents;
+            }
+        }
+        return highCents;
+    }
+
+    /**
+     * Returns the deposit that reaches the target at a rate by inverting the compounding model
+     * in closed form, rounded up to cents
+     *
+     * @param rate return rate per annum, in percent
+     * @return the estimated deposit in cents
+     */
+    private long estimateDepositCents(double rate) {
+        int months = years * MONTHS_IN_YEAR;
+        double monthlyRate = rate / 100.0 / MONTHS_IN_YEAR;
+        double growthFactor = monthlyRate == 0
+                ? months : Math.expm1(months * Math.log1p(monthlyRate)) / monthlyRate;
+        return (long) Math.ceil(targetCents / growthFactor);
+    }
+
+    /**
+     * Returns whether a deposit reaches the target at a rate, comparing the projected balance
+     * rounded to cents as {@code list investment} shows it
+     *
+     * @param depositCents monthly deposit in cents
+     * @param rate         return rate per annum, in percent
+     * @return true if the projected balance is at least the target
+     */
+    private boolean reachesTarget(long depositCents, double rate) {
+        double balance = Investment.calculateYearlyBalances(Money.toDollars(depositCents), rate, years)[years - 1];
+        if (balance >= Long.MAX_VALUE / Money.CENTS_PER_DOLLAR) {
+            return true;
+        }
+        return Money.fromDollars(balance) >= targetCents;
+    }
+}
@@ -1,7 +1,11 @@
 package finsight.investment;
 
+import finsight.expense.Expense;
 import finsight.investment.exceptions.AddInvestmentDateOutOfBoundsException;
 import finsight.investment.exceptions.AddInvestmentWrongNumberFormatException;
+import finsight.money.Money;
+
+import java.time.LocalDate;
 
 /**
  * Represents a single recurring investment.
@@ -14,15 +18,17 @@ import finsight.investment.exceptions.AddInvestmentWrongNumberFormatException;
  *
  */
 public class Investment {
+    public static final String DEPOSIT_PREFIX = "Investment deposit: ";
     public static int numberOfInvestments = 0;
     protected String description;
-    protected Double investmentAmount;
-    protected Double returnRate;
+    protected long investmentAmountCents;
+    protected double returnRate;
     protected int investmentDateOfMonth;
-    protected Double fiveYearDeposit;
-    protected Double tenYearDeposit;
-    protected Double fiveYearReturns;
-    protected Double tenYearReturns;
+    protected long fiveYearDepositCents;
+    protected long tenYearDepositCents;
+    protected long fiveYearReturnsCents;
+    protected long tenYearReturnsCents;
+    private String renderedText;
 
     /**
      * Constructs a new Investment object from string-based inputs.
@@ -44,51 +50,75 @@ public class Investment {
             throws AddInvestmentWrongNumberFormatException, AddInvestmentDateOutOfBoundsException {
         this.description = description;
         try {
-            double parsedInvestAmount = Double.parseDouble(investmentAmount);
+            long parsedInvestAmountCents = Money.parseCents(investmentAmount);
             double parsedReturnRate = Double.parseDouble(returnRate);
             int parsedInvestmentDateOfMonth = Integer.parseInt(investmentDateOfMonth);
-            if (parsedInvestAmount <= 0 || parsedReturnRate <= 0.0) {
+            if (parsedInvestAmountCents <= 0 || !(parsedReturnRate > 0.0)) {
                 throw new AddInvestmentWrongNumberFormatException();
             }
             if (parsedInvestmentDateOfMonth < 1 || parsedInvestmentDateOfMonth > 31) {
                 throw new AddInvestmentDateOutOfBoundsException();
             }
-            this.investmentAmount = parsedInvestAmount;
+            this.investmentAmountCents = parsedInvestAmountCents;
             this.returnRate = parsedReturnRate;
             this.investmentDateOfMonth = parsedInvestmentDateOfMonth;
-            this.fiveYearDeposit = this.investmentAmount * 60;
-            this.tenYearDeposit = this.investmentAmount * 120;
-            this.fiveYearReturns = calculateReturnProfits(5);
-            this.tenYearReturns = calculateReturnProfits(10);
-
-            assert this.investmentAmount != null : "investmentAmount is null";
-            assert this.returnRate != null : "returnRate is null";
-            assert this.fiveYearReturns != null : "fiveYearReturns is null";
-            assert this.tenYearReturns != null : "tenYearReturns is null";
+            calculateProjections();
 
-            assert this.investmentAmount > 0 : "Investment amount must be positive";
+            assert this.investmentAmountCents > 0 : "Investment amount must be positive";
             assert this.returnRate >= 0.0 : "Return rate cannot be negative";
             assert this.investmentDateOfMonth >= 1 && this.investmentDateOfMonth <= 31 : "Date is out of range";
 
-            assert this.tenYearReturns >= this.fiveYearReturns : "10-year returns should be >= 5-year returns";
-            assert this.fiveYearReturns >= this.fiveYearDeposit : "5-year returns should be >= 5-year deposit";
+            assert this.tenYearReturnsCents >= this.fiveYearReturnsCents
+                    : "10-year returns should be >= 5-year returns";
+            assert this.fiveYearReturnsCents >= this.fiveYearDepositCents
+                    : "5-year returns should be >= 5-year deposit";
 
         } catch (NumberFormatException e) {
             throw new AddInvestmentWrongNumberFormatException();
         }
     }
 
+    /**
+     * Constructs a new Investment object from values that have already been parsed and
+     * validated, such as those read from the data file or restored from a ledger snapshot.
+     *
+     * @param description           The name or description of the investment.
+     * @param investmentAmountCents The monthly deposit amount in cents. Must be positive.
+     * @param returnRate            The annual return rate in percent. Must be positive.
+     * @param investmentDateOfMonth The day of the month of the deposit, between 1 and 31.
+     */
+    public Investment(String description, long investmentAmountCents, double returnRate, int investmentDateOfMonth) {
+        assert investmentAmountCents > 0 : "Investment amount must be positive";
+        assert returnRate > 0.0 : "Return rate must be positive";
+        assert investmentDateOfMonth >= 1 && investmentDateOfMonth <= 31 : "Date is out of range";
+
+        this.description = description;
+        this.investmentAmountCents = investmentAmountCents;
+        this.returnRate = returnRate;
+        this.investmentDateOfMonth = investmentDateOfMonth;
+        calculateProjections();
+    }
+
+    /**
+     * Returns the details and projections of the investment, rendered once and reused as an
+     * investment does not change after it is made
+     *
+     * @return String output of the investment
+     */
     @Override
     public String toString() {
-        String output = "Description: " + description;
-        output += "\nAmount: $" + String.format("%.2f", investmentAmount);
-        output += "\nReturn Rate per Annum: " + String.format("%.2f", returnRate) + "%";
-        output += "\nRecurring Deposit Date of Month: " + investmentDateOfMonth;
-        output += "\nIn 5 years, you will have gone from: $" + String.format("%.2f", investmentAmount * 60);
-        output += " to: $" + String.format("%.2f", fiveYearReturns);
-        output += "\nIn 10 years, you will have gone from: $" + String.format("%.2f", investmentAmount * 120);
-        output += " to: $" + String.format("%.2f", tenYearReturns);
-        return output;
+        if (renderedText == null) {
+            String output = "Description: " + description;
+            output += "\nAmount: $" + Money.format(investmentAmountCents);
+            output += "\nReturn Rate per Annum: " + Money.formatTwoDecimals(returnRate) + "%";
+            output += "\nRecurring Deposit Date of Month: " + investmentDateOfMonth;
+            output += "\nIn 5 years, you will have gone from: $" + Money.format(fiveYearDepositCents);
+            output += " to: $" + Money.format(fiveYearReturnsCents);
+            output += "\nIn 10 years, you will have gone from: $" + Money.format(tenYearDepositCents);
+            output += " to: $" + Money.format(tenYearReturnsCents);
+            renderedText = output;
+        }
+        return renderedText;
     }
 
     /**
@@ -99,23 +129,61 @@ public class Investment {
      * @param totalYears The total number of years to calculate returns for.
      * @return The total projected balance (principal + interest) after the specified period.
      */
-    public Double calculateReturnProfits(int totalYears) {
+    public double calculateReturnProfits(int totalYears) {
         assert totalYears > 0 : "totalYears must be positive. Received: " + totalYears;
-        assert this.investmentAmount != null && this.investmentAmount > 0 :
-                "Investment amount not initialized";
-        assert this.returnRate != null && this.returnRate >= 0.0 : "Return rate not initialized";
+        assert this.investmentAmountCents > 0 : "Investment amount not initialized";
+        assert this.returnRate >= 0.0 : "Return rate not initialized";
 
-        int totalMonths = totalYears * 12;
-        double monthlyReturnRate = (returnRate / 100.0) / 12.0;
+        double[] yearlyBalances = calculateYearlyBalances(Money.toDollars(investmentAmountCents), returnRate,
+                totalYears);
+        return yearlyBalances[totalYears - 1];
+    }
 
+    /**
+     * Calculates the balance at the end of each year of monthly recurring deposits with
+     * monthly compounding interest, the projection behind {@link #calculateReturnProfits(int)}.
+     *
+     * @param monthlyDeposit The amount deposited at the end of every month, in dollars.
+     * @param returnRate     The return rate per annum, in percent.
+     * @param totalYears     The total number of years to calculate balances for.
+     * @return The balance at the end of each year, where index 0 is the end of the first year.
+     */
+    public static double[] calculateYearlyBalances(double monthlyDeposit, double returnRate, int totalYears) {
+        assert totalYears > 0 : "totalYears must be positive. Received: " + totalYears;
+
+        double monthlyReturnRate = (returnRate / 100.0) / 12.0;
+        double[] yearlyBalances = new double[totalYears];
         double totalBalance = 0.0;
 
-        for (int month = 0; month < totalMonths; month++) {
-            double interestThisMonth = totalBalance * monthlyReturnRate;
-            totalBalance += interestThisMonth;
-            totalBalance += investmentAmount;
+        for (int year = 0; year < totalYears; year++) {
+            for (int month = 0; month < 12; month++) {
+                double interestThisMonth = totalBalance * monthlyReturnRate;
+                totalBalance += interestThisMonth;
+                totalBalance += monthlyDeposit;
+            }
+            yearlyBalances[year] = totalBalance;
         }
-        return totalBalance;
+        return yearlyBalances;
+    }
+
+    /**
+     * Returns the expense of one monthly deposit into this investment
+     *
+     * @param date The date the deposit was due.
+     * @return The deposit as an expense of the monthly amount on that date.
+     */
+    public Expense toDeposit(LocalDate date) {
+        return new Expense(DEPOSIT_PREFIX + description, investmentAmountCents, date, true);
+    }
+
+    /**
+     * Calculates the total deposits and projected balances after 5 and 10 years, rounded to cents.
+     */
+    private void calculateProjections() {
+        this.fiveYearDepositCents = investmentAmountCents * 60;
+        this.tenYearDepositCents = investmentAmountCents * 120;
+        this.fiveYearReturnsCents = Money.fromDollars(calculateReturnProfits(5));
+        this.tenYearReturnsCents = Money.fromDollars(calculateReturnProfits(10));
     }
 
     public String getDescription() {
@@ -123,9 +191,9 @@ public class Investment {
         return description;
     }
 
-    public Double getInvestmentAmount() {
-        assert investmentAmount != null && investmentAmount > 0 : "Invariant failed: investmentAmount is invalid";
-        return investmentAmount;
+    public long getInvestmentAmountCents() {
+        assert investmentAmountCents > 0 : "Invariant failed: investmentAmount is invalid";
+        return investmentAmountCents;
     }
 
     public int getInvestmentDateOfMonth() {
@@ -133,18 +201,18 @@ public class Investment {
         return investmentDateOfMonth;
     }
 
-    public Double getInvestmentReturnRate() {
-        assert returnRate != null && returnRate > 0: "Invariant failed:return rate is invalid";
+    public double getInvestmentReturnRate() {
+        assert returnRate > 0: "Invariant failed:return rate is invalid";
         return returnRate;
     }
 
-    public Double getInvestmentFiveYearReturns() {
-        assert fiveYearReturns != null : "Invariant failed: 5-year return is null";
-        return fiveYearReturns;
+    public long getInvestmentFiveYearReturnsCents() {
+        assert fiveYearReturnsCents >= fiveYearDepositCents : "Invariant failed: 5-year return is invalid";
+        return fiveYearReturnsCents;
     }
 
-    public Double getInvestmentTenYearReturns() {
-        assert tenYearReturns != null : "Invariant failed: 5-year return is null";
-        return tenYearReturns;
+    public long getInvestmentTenYearReturnsCents() {
+        assert tenYearReturnsCents >= tenYearDepositCents : "Invariant failed: 10-year return is invalid";
+        return tenYearReturnsCents;
     }
 }
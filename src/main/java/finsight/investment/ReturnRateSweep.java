@@ -0,0 +1,101 @@
+package finsight.investment;
+
+import finsight.money.Money;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Represents a what-if grid of return rates and horizons over which a portfolio of
+ * investments is projected, as if every investment earned the same rate.
+ *
+ * <p>The projection of {@link Investment#calculateYearlyBalances(double, double, int)} is
+ * linear in the monthly deposit, so under a common rate the portfolio grows exactly like one
+ * investment whose deposit is the total of all monthly deposits. The portfolio is therefore
+ * summed once, and each rate then costs a single pass over the months of the longest horizon,
+ * which yields the balance for every shorter horizon on the way. Rates are independent of
+ * each other, so large grids are evaluated one rate per task on the common fork-join pool.</p>
+ */
+public class ReturnRateSweep {
+    public static final int MAX_RATES = 1_000;
+    public static final int MAX_YEARS = 100;
+    private static final int PARALLEL_THRESHOLD = 1_000;
+    private static final double RATE_PRECISION = 1e6;
+
+    private final double[] rates;
+    private final int years;
+
+    /**
+     * Creates a grid of the rates from {@code fromRate} to {@code toRate} in steps of
+     * {@code step}, and of the horizons from 1 to {@code years} years
+     *
+     * @param fromRate lowest return rate per annum, in percent
+     * @param toRate   highest return rate per annum, in percent, included if a whole number of
+     *                 steps above {@code fromRate}
+     * @param step     difference between consecutive rates, in percent
+     * @param years    longest horizon, from 1 to {@value #MAX_YEARS}
+     */
+    public ReturnRateSweep(double fromRate, double toRate, double step, int years) {
+        long rateCount = countRates(fromRate, toRate, step);
+        assert rateCount >= 1 && rateCount <= MAX_RATES : "rate count must be within range";
+        assert years >= 1 && years <= MAX_YEARS : "years must be within range";
+
+        this.rates = new double[(int) rateCount];
+        for (int i = 0; i < rateCount; i++) {
+            rates[i] = Math.round((fromRate + i * step) * RATE_PRECISION) / RATE_PRECISION;
+        }
+        this.years = years;
+    }
+
+    /**
+     * Returns the number of rates a grid from {@code fromRate} to {@code toRate} in steps of
+     * {@code step} holds, allowing for rounding in the step
+     *
+     * @param fromRate lowest return rate per annum, in percent
+     * @param toRate   highest return rate per annum, in percent, not below {@code fromRate}
+     * @param step     difference between consecutive rates, in percent, above zero
+     * @return the number of rates
+     */
+    public static long countRates(double fromRate, double toRate, double step) {
+        return (long) Math.floor((toRate - fromRate) / step + 1e-9) + 1;
+    }
+
+    /**
+     * Projects the total balance of a portfolio at every rate and horizon of the grid
+     *
+     * @param investments the investments in the portfolio
+     * @return the balance in cents, indexed by rate and then by horizon, where horizon 0 is 1 year
+     */
+    public long[][] evaluate(List<Investment> investments) {
+        long totalDepositCents = 0;
+        for (Investment investment : investments) {
+            totalDepositCents += investment.getInvestmentAmountCents();
+        }
+        double monthlyDeposit = Money.toDollars(totalDepositCents);
+
+        long[][] balanceCents = new long[rates.length][];
+        IntStream rateIndices = IntStream.range(0, rates.length);
+        if ((long) rates.length * years >= PARALLEL_THRESHOLD) {
+            rateIndices = rateIndices.parallel();
+        }
+        rateIndices.forEach(i -> balanceCents[i] = toCents(
+                Investment.calculateYearlyBalances(monthlyDeposit, rates[i], years)));
+        return balanceCents;
+    }
+
+    public double[] getRates() {
+        return rates.clone();
+    }
+
+    public int getYears() {
+        return years;
+    }
+
+    private static long[] toCents(double[] balances) {
+        long[] cents = new long[balances.length];
+        for (int i = 0; i < balances.length; i++) {
+            cents[i] = Money.fromDollars(balances[i]);
+        }
+        return cents;
+    }
+}
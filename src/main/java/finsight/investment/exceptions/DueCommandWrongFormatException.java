@@ -0,0 +1,13 @@
+package finsight.investment.exceptions;
+
+/**
+ * Exception thrown if a due command is not followed by today or this week
+ */
+public class DueCommandWrongFormatException extends Exception {
+    @Override
+    public String getMessage() {
+        return "Due Command is in the wrong format. Please try again with one of the formats:\n" +
+                "\tdue today\n" +
+                "\tdue this week";
+    }
+}
@@ -0,0 +1,16 @@
+package finsight.investment.exceptions;
+
+import finsight.investment.ContributionGoal;
+
+/**
+ * Exception thrown if a goal investment command has missing, out of order or out of range parameters
+ */
+public class GoalCommandWrongFormatException extends Exception {
+    @Override
+    public String getMessage() {
+        return "Goal Investment Command is in the wrong format. Please try again with the format:\n" +
+                "\tgoal investment t/<TARGET_AMOUNT> y/<YEARS> r/<RETURN_RATE_PER_ANNUM>\n" +
+                "where <TARGET_AMOUNT> is above 0, <YEARS> is a whole number from 1 to " +
+                ContributionGoal.MAX_YEARS + "\nand <RETURN_RATE_PER_ANNUM> is not negative";
+    }
+}
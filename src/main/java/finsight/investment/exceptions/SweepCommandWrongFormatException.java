@@ -0,0 +1,17 @@
+package finsight.investment.exceptions;
+
+import finsight.investment.ReturnRateSweep;
+
+/**
+ * Exception thrown if a sweep investment command has missing, out of order or out of range parameters
+ */
+public class SweepCommandWrongFormatException extends Exception {
+    @Override
+    public String getMessage() {
+        return "Sweep Investment Command is in the wrong format. Please try again with the format:\n" +
+                "\tsweep investment r/<FROM_RATE>-<TO_RATE> step/<RATE_STEP> y/<YEARS>\n" +
+                "where 0 <= <FROM_RATE> <= <TO_RATE>, <RATE_STEP> is above 0, the range holds at most " +
+                ReturnRateSweep.MAX_RATES + " rates\nand <YEARS> is a whole number from 1 to " +
+                ReturnRateSweep.MAX_YEARS;
+    }
+}
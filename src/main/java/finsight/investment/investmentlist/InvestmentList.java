@@ -1,11 +1,29 @@
 package finsight.investment.investmentlist;
 
+import finsight.export.ExportColumn;
+import finsight.export.ExportLedger;
+import finsight.filter.FilterCompiler;
+import finsight.filter.FilterField;
+import finsight.filter.exceptions.ListFilterWrongFormatException;
+import finsight.history.Change;
+import finsight.history.History;
 import finsight.investment.Investment;
+import finsight.money.Money;
 import finsight.storage.InvestDataManager;
+import finsight.search.DayOfMonthIndex;
+import finsight.search.DescriptionIndex;
+import finsight.storage.DataFileChange;
+import finsight.storage.LedgerLoader;
+import finsight.storage.QuarantineRepair;
+import finsight.ui.ListingCache;
 import finsight.ui.Ui;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Represents an ArrayList of objects of the Investment class
@@ -16,8 +34,26 @@ import java.util.ArrayList;
  * @since 15/Oct/2025
  */
 public class InvestmentList {
+    public static final String DATA_FILE = "./data/invest.txt";
+    private static final FilterCompiler<Investment> FILTER_COMPILER = new FilterCompiler<>("investment", Map.of(
+            "amount", FilterField.amount(Investment::getInvestmentAmountCents),
+            "desc", FilterField.text(Investment::getDescription),
+            "rate", FilterField.number(Investment::getInvestmentReturnRate),
+            "day", FilterField.number(Investment::getInvestmentDateOfMonth)));
+    private static final List<ExportColumn<Investment>> EXPORT_COLUMNS = List.of(
+            ExportColumn.text("description", Investment::getDescription),
+            ExportColumn.amount("amount", Investment::getInvestmentAmountCents),
+            ExportColumn.value("rate", investment -> Double.toString(investment.getInvestmentReturnRate())),
+            ExportColumn.value("day", investment -> Integer.toString(investment.getInvestmentDateOfMonth())));
+
     protected ArrayList<Investment> investmentList;
-    private final InvestDataManager dataManager = new InvestDataManager("./data/invest.txt");
+    private final InvestDataManager dataManager = new InvestDataManager(DATA_FILE);
+    private final LedgerLoader<Investment> loader;
+    private DescriptionIndex<Investment> descriptionIndex;
+    private DayOfMonthIndex<Investment> depositCalendar;
+    private History history;
+    private long version;
+    private final ListingCache listingCache = new ListingCache();
 
     /**
      * Constructs an InvestmentList Class from a pre-assembled ArrayList of Investment objects
@@ -25,29 +61,76 @@ public class InvestmentList {
      * @param investmentList ArrayList of Investment Objects
      */
     public InvestmentList(ArrayList<Investment> investmentList) {
+        this.loader = null;
         assert investmentList != null : "Constructor received a null list.";
         this.investmentList = investmentList;
+        Investment.numberOfInvestments = investmentList.size();
     }
 
     /**
      * Constructs an InvestmentList Class with an ArrayList of Investment objects from memory
      */
     public InvestmentList() {
-        this.investmentList = dataManager.tryLoad();
-        Investment.numberOfInvestments = investmentList.size();
+        this(false);
+    }
+
+    /**
+     * Constructs an InvestmentList backed by the data file, which is read either immediately or,
+     * if loaded lazily, only when the investments are first needed
+     *
+     * @param isLoadedLazily whether to defer reading the data file until first use
+     */
+    private InvestmentList(boolean isLoadedLazily) {
+        this.loader = new LedgerLoader<>(dataManager, Ui::printErrorMessage,
+                loadedInvestments -> Investment.numberOfInvestments = loadedInvestments.size());
+        if (!isLoadedLazily) {
+            ensureLoaded();
+        }
+    }
+
+    /**
+     * Returns an InvestmentList whose data file is only read when the investments are first needed
+     *
+     * @return InvestmentList that loads lazily
+     */
+    public static InvestmentList createLazily() {
+        return new InvestmentList(true);
+    }
+
+    /**
+     * Starts reading the data file in the background so that the investments are
+     * ready by the time they are first needed
+     *
+     * @param executor Executor to read the data file on
+     */
+    public void prefetch(Executor executor) {
+        if (loader != null) {
+            loader.prefetch(executor);
+        }
+    }
+
+    /**
+     * Returns the ArrayList of Investment objects in the InvestmentList Class
+     *
+     * @return ArrayList of Investment objects
+     */
+    public ArrayList<Investment> getInvestments() {
+        ensureLoaded();
+        return investmentList;
     }
 
     /**
      * Displays all the investments in the list by calling Ui class
      */
     public void listAllInvestments() {
+        ensureLoaded();
         if(investmentList.isEmpty()) {
             Ui.printEmptyInvestment();
             return;
         }
-        Ui.printAllInvestments(this.investmentList);
-        Ui.printInvestmentReturns(String.format("%.2f",getTotal5YearReturns()),
-                String.format("%.2f",getTotal10YearReturns()));
+        Ui.printListing(listingCache.get(version, () -> Ui.renderAllInvestments(investmentList)));
+        Ui.printInvestmentReturns(Money.format(getTotal5YearReturnsCents()),
+                Money.format(getTotal10YearReturnsCents()));
     }
 
     /**
@@ -56,11 +139,14 @@ public class InvestmentList {
      * @param investment the investment object to be added
      */
     public void addInvestment(Investment investment) throws IOException {
+        syncWithDataFile();
         assert investment != null : "Cannot add a null investment.";
-        investmentList.add(investment);
+        int index = investmentList.size();
+        insertInvestment(index, investment);
         Ui.printAddInvestmentOutput(this.investmentList);
-        Investment.numberOfInvestments++;
         dataManager.appendToFile(investment);
+        recordChange(new Change("add investment: " + investment.getDescription(),
+                () -> removeInvestmentAndSave(index), () -> insertInvestmentAndSave(index, investment)));
     }
 
     /**
@@ -69,11 +155,99 @@ public class InvestmentList {
      * @param indexToDelete the index of the investment object in the list to delete
      */
     public void deleteInvestment(int indexToDelete) throws IOException {
+        syncWithDataFile();
         assert indexToDelete >= 0 && indexToDelete < investmentList.size() : "Invalid index passed to delete.";
         Ui.printDeleteInvestmentOutput(this.investmentList, indexToDelete);
-        investmentList.remove(indexToDelete);
-        Investment.numberOfInvestments--;
+        Investment deletedInvestment = removeInvestment(indexToDelete);
         dataManager.writeToFile(investmentList);
+        recordChange(new Change("delete investment: " + deletedInvestment.getDescription(),
+                () -> insertInvestmentAndSave(indexToDelete, deletedInvestment),
+                () -> removeInvestmentAndSave(indexToDelete)));
+    }
+
+    /**
+     * Starts watching the data file, so that investments another program appends to it show up
+     * in the list before the next command that uses it
+     *
+     * @throws IOException If the data file cannot be watched
+     */
+    public void watchDataFile() throws IOException {
+        dataManager.watch();
+    }
+
+    /**
+     * Forces the changes to the data file that are not on the storage device yet, so that
+     * they survive a crash
+     *
+     * @throws IOException If the data file cannot be forced
+     */
+    public void forceDataFile() throws IOException {
+        dataManager.forceWrites();
+    }
+
+    /**
+     * Reads the data file if this InvestmentList has not been used yet, then brings the list up to date
+     * with any change another instance of FinSight made to the data file, even one the watcher
+     * has not reported yet. Called before the investments are changed, so that the change is made to
+     * the records as they are in the file.
+     */
+    public void syncWithDataFile() {
+        dataManager.checkForChanges();
+        ensureLoaded();
+    }
+
+    /**
+     * Returns how much of the data file the investments in this list were read from or written to
+     *
+     * @return the number of bytes, or -1 if the data file has not been read or written yet
+     */
+    public long getSyncedDataFileBytes() {
+        return dataManager.getSyncedBytes();
+    }
+
+    /**
+     * Records that the investments in this list were restored from a snapshot of the data file at the
+     * given size, so that anything appended to the file after it is read before the next change
+     *
+     * @param dataFileBytes the size of the data file recorded in the snapshot
+     * @throws IOException If the data file cannot be created or its attributes read
+     */
+    public void markRestored(long dataFileBytes) throws IOException {
+        dataManager.markRestored(dataFileBytes);
+    }
+
+    /**
+     * Loads the investments in the quarantine file that can now be parsed, adding them to the end of
+     * the list and saving them to the data file. The rest stay quarantined.
+     *
+     * @return the investments recovered and the number still quarantined
+     * @throws IOException If an I/O error occurs when reading or writing the data or quarantine file
+     */
+    public QuarantineRepair<Investment> repairInvestments() throws IOException {
+        syncWithDataFile();
+        QuarantineRepair<Investment> repair = dataManager.repairQuarantine(investmentList);
+        for (Investment investment : repair.getRecords()) {
+            insertInvestment(investmentList.size(), investment);
+        }
+        return repair;
+    }
+
+    /**
+     * Sets the log that changes to investments are recorded in, so that they can be undone
+     *
+     * @param history log of changes, or {@code null} to stop recording
+     */
+    public void setHistory(History history) {
+        this.history = history;
+    }
+
+    /**
+     * Returns the investments with the columns they are exported with, for streaming to a file
+     *
+     * @return the investment ledger to export
+     */
+    public ExportLedger<Investment> toExportLedger() {
+        return new ExportLedger<>("investment", EXPORT_COLUMNS, getInvestments());
     }
 
     /**
@@ -82,34 +256,239 @@ public class InvestmentList {
      * @return The total number of Investment objects in the InvestmentList Class
      */
     public int getSize() {
+        ensureLoaded();
         return investmentList.size();
     }
 
     /**
      * Returns the overall 5-year returns from all Investment objects in the InvestmentList Class
      *
-     * @return The overall 5-year returns from all Investment objects in the InvestmentList Class
+     * @return The overall 5-year returns in cents from all Investment objects in the InvestmentList Class
      */
-    public Double getTotal5YearReturns() {
-        Double total5YearReturns = 0.0;
+    public long getTotal5YearReturnsCents() {
+        ensureLoaded();
+        long total5YearReturnsCents = 0;
         for (Investment investment : investmentList) {
-            total5YearReturns += investment.getInvestmentFiveYearReturns();
+            total5YearReturnsCents += investment.getInvestmentFiveYearReturnsCents();
         }
-        return total5YearReturns;
+        return total5YearReturnsCents;
     }
 
     /**
      * Returns the overall 10-year returns from all Investment objects in the InvestmentList Class
      *
-     * @return The overall 10-year returns from all Investment objects in the InvestmentList Class
+     * @return The overall 10-year returns in cents from all Investment objects in the InvestmentList Class
      */
-    public Double getTotal10YearReturns() {
-        Double total10YearReturns = 0.0;
+    public long getTotal10YearReturnsCents() {
+        ensureLoaded();
+        long total10YearReturnsCents = 0;
         for (Investment investment : investmentList) {
-            total10YearReturns += investment.getInvestmentTenYearReturns();
+            total10YearReturnsCents += investment.getInvestmentTenYearReturnsCents();
         }
-        return total10YearReturns;
+        return total10YearReturnsCents;
     }
 
+    /**
+     * Returns the investments whose descriptions contain a word starting with every term of the query
+     *
+     * @param query search terms, separated by spaces
+     * @return matching investments keyed by their index in the list, in list order
+     */
+    public Map<Integer, Investment> find(String query) {
+        return getDescriptionIndex().findByIndex(query);
+    }
 
+    /**
+     * Returns the index of investments by description words, building it on first use and
+     * keeping it up to date as investments are changed afterwards
+     *
+     * @return index of investments by description words
+     */
+    private DescriptionIndex<Investment> getDescriptionIndex() {
+        ensureLoaded();
+        if (descriptionIndex == null) {
+            descriptionIndex = new DescriptionIndex<>(Investment::getDescription);
+            for (Investment record : investmentList) {
+                descriptionIndex.add(record);
+            }
+        }
+        return descriptionIndex;
+    }
+
+    /**
+     * Returns the investments with a deposit due on a date. A deposit due on a day the month
+     * does not have falls on the last day of the month.
+     *
+     * @param date the date
+     * @return investments due on the date keyed by their index in the list, in list order
+     */
+    public Map<Integer, Investment> findDueOn(LocalDate date) {
+        return getDepositCalendar().findDueOn(date);
+    }
+
+    /**
+     * Returns the investments with a deposit due on each date of a range
+     *
+     * @param from first date of the range, inclusive
+     * @param to   last date of the range, inclusive
+     * @return investments due on each date by index, in date order, leaving out dates with none
+     */
+    public Map<LocalDate, Map<Integer, Investment>> findDueBetween(LocalDate from, LocalDate to) {
+        return getDepositCalendar().findDueBetween(from, to);
+    }
+
+    /**
+     * Returns the index of investments by deposit day of month, building it on first use and
+     * keeping it up to date as investments are changed afterwards
+     *
+     * @return index of investments by deposit day of month
+     */
+    private DayOfMonthIndex<Investment> getDepositCalendar() {
+        ensureLoaded();
+        if (depositCalendar == null) {
+            depositCalendar = new DayOfMonthIndex<>(Investment::getInvestmentDateOfMonth);
+            for (Investment record : investmentList) {
+                depositCalendar.add(record);
+            }
+        }
+        return depositCalendar;
+    }
+
+    /**
+     * Returns the investments that match a filter expression
+     *
+     * @param expression filter expression over amount, desc, rate and day
+     * @return matching investments keyed by their index in the list, in list order
+     * @throws ListFilterWrongFormatException If the expression cannot be parsed or uses a field wrongly
+     */
+    public Map<Integer, Investment> filter(String expression) throws ListFilterWrongFormatException {
+        return FILTER_COMPILER.compile(expression).select(getInvestments());
+    }
+
+    /**
+     * Inserts an investment into the list and into the indexes built so far. The indexes can
+     * only follow additions at the end of the list, so inserting before the end drops them,
+     * to be rebuilt when next used.
+     *
+     * @param index      index to insert the investment at
+     * @param investment the investment to insert
+     */
+    private void insertInvestment(int index, Investment investment) {
+        investmentList.add(index, investment);
+        version++;
+        Investment.numberOfInvestments++;
+        if (index < investmentList.size() - 1) {
+            descriptionIndex = null;
+            depositCalendar = null;
+            return;
+        }
+        if (descriptionIndex != null) {
+            descriptionIndex.add(investment);
+        }
+        if (depositCalendar != null) {
+            depositCalendar.add(investment);
+        }
+    }
+
+    /**
+     * Removes an investment from the list and from the indexes built so far
+     *
+     * @param index index of the investment to remove
+     * @return the investment removed
+     */
+    private Investment removeInvestment(int index) {
+        Investment removedInvestment = investmentList.remove(index);
+        version++;
+        Investment.numberOfInvestments--;
+        if (descriptionIndex != null) {
+            descriptionIndex.remove(removedInvestment);
+        }
+        if (depositCalendar != null) {
+            depositCalendar.remove(removedInvestment);
+        }
+        return removedInvestment;
+    }
+
+    /**
+     * Inserts an investment and saves it, appending it to the data file if it is now the last investment
+     *
+     * @param index      index to insert the investment at
+     * @param investment the investment to insert
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void insertInvestmentAndSave(int index, Investment investment) throws IOException {
+        insertInvestment(index, investment);
+        try {
+            if (index == investmentList.size() - 1) {
+                dataManager.appendToFile(investment);
+            } else {
+                dataManager.writeToFile(investmentList);
+            }
+        } catch (IOException e) {
+            removeInvestment(index);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes an investment and rewrites the data file
+     *
+     * @param index index of the investment to remove
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void removeInvestmentAndSave(int index) throws IOException {
+        Investment removedInvestment = removeInvestment(index);
+        try {
+            dataManager.writeToFile(investmentList);
+        } catch (IOException e) {
+            insertInvestment(index, removedInvestment);
+            throw e;
+        }
+    }
+
+    private void recordChange(Change change) {
+        if (history != null) {
+            history.record(change);
+        }
+    }
+
+    /**
+     * Reads the data file if this InvestmentList was loaded lazily and has not been used yet
+     */
+    private void ensureLoaded() {
+        if (investmentList == null) {
+            investmentList = loader.get();
+        }
+        applyExternalChange(dataManager.pollExternalChanges(Ui::printErrorMessage));
+    }
+
+    /**
+     * Brings the list up to date with a change another program made to the data file, adding
+     * the investments appended to it or, if the file was replaced, reloading the list and
+     * clearing the undo log, whose changes no longer apply
+     *
+     * @param change the change to the data file, or {@code null} if there is none
+     */
+    private void applyExternalChange(DataFileChange<Investment> change) {
+        if (change == null) {
+            return;
+        }
+        if (change.isReload()) {
+            investmentList = new ArrayList<>(change.getRecords());
+            version++;
+            Investment.numberOfInvestments = investmentList.size();
+            descriptionIndex = null;
+            depositCalendar = null;
+            if (history != null) {
+                history.clear();
+            }
+        } else {
+            for (Investment investment : change.getRecords()) {
+                insertInvestment(investmentList.size(), investment);
+            }
+        }
+        Ui.printDataFileChange("investment", change.isReload(), change.getRecords().size());
+    }
 }
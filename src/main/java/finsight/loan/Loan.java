@@ -2,8 +2,11 @@ package finsight.loan;
 
 // @@author Emannuel-Tan
 
+import finsight.money.Money;
+
 import java.time.format.DateTimeFormatter;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 /**
  * Represents a Loan made of a description, a loan amount and a repayment date
@@ -16,9 +19,11 @@ public class Loan {
     protected static DateTimeFormatter inputDateFormat = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
     protected static DateTimeFormatter outputDateFormat = DateTimeFormatter.ofPattern("dd MMM yyyy, HH:mm");
     protected String description;
-    protected Double amountLoaned;
+    protected long amountLoanedCents;
     protected boolean isRepaid;
     protected LocalDateTime loanReturnDate;
+    private String renderedText;
+    private long renderedUntilMillis;
 
     /**
      * Constructor defaults to not repaid
@@ -30,32 +35,52 @@ public class Loan {
     public Loan(String description, String amountLoanedString, String loanReturnDateString) {
         this.description = description;
         isRepaid = false;
-        this.amountLoaned = Double.parseDouble(amountLoanedString);
+        this.amountLoanedCents = Money.parseCents(amountLoanedString);
         this.loanReturnDate = LocalDateTime.parse(loanReturnDateString, inputDateFormat);
     }
 
     /**
-     * Returns String output of current status and loan amount and return date
+     * Constructor for a loan whose fields have already been parsed, such as one
+     * restored from a ledger snapshot
+     *
+     * @param description    String description of the loan
+     * @param amountLoanedCents Amount loaned in cents
+     * @param loanReturnDate    Loan return date
+     * @param isRepaid          Whether the loan has been repaid
+     */
+    public Loan(String description, long amountLoanedCents, LocalDateTime loanReturnDate, boolean isRepaid) {
+        this.description = description;
+        this.isRepaid = isRepaid;
+        this.amountLoanedCents = amountLoanedCents;
+        this.loanReturnDate = loanReturnDate;
+    }
+
+    /**
+     * Returns String output of current status and loan amount and return date, rendered once
+     * and reused until the loan is set repaid or not repaid, or becomes overdue
      *
      * @return String output of current status and loan amount and return date
      */
     @Override
     public String toString() {
-        String outputString = "[";
-
-        if (isRepaid) {
-            outputString += "repaid]";
-        } else if (loanReturnDate.isBefore(LocalDateTime.now())) {
-            outputString += "OVERDUE]";
-        } else {
-            outputString += "outstanding]";
+        if (renderedText == null || System.currentTimeMillis() > renderedUntilMillis) {
+            renderedUntilMillis = getStatusChangeMillis();
+            renderedText = render();
         }
+        return renderedText;
+    }
 
-        outputString += "\nDescription: " + description;
-        outputString += "\nAmount: $" + String.format("%.2f", amountLoaned);
-        outputString += "\nRepayment Deadline: " + loanReturnDate.format(outputDateFormat).toUpperCase();
-
-        return outputString;
+    /**
+     * Returns when the status shown by {@link #toString()} next changes without the loan being
+     * changed, which is when an outstanding loan becomes overdue
+     *
+     * @return the time in epoch milliseconds, or {@link Long#MAX_VALUE} if the status is repaid or overdue
+     */
+    public long getStatusChangeMillis() {
+        if (isRepaid || loanReturnDate.isBefore(LocalDateTime.now())) {
+            return Long.MAX_VALUE;
+        }
+        return loanReturnDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     /**
@@ -72,6 +97,7 @@ public class Loan {
      */
     public void setRepaid() {
         isRepaid = true;
+        renderedText = null;
     }
 
     /**
@@ -79,14 +105,38 @@ public class Loan {
      */
     public void setNotRepaid() {
         isRepaid = false;
+        renderedText = null;
+    }
+
+    /**
+     * Builds the String output of current status and loan amount and return date
+     *
+     * @return String output of current status and loan amount and return date
+     */
+    private String render() {
+        String outputString = "[";
+
+        if (isRepaid) {
+            outputString += "repaid]";
+        } else if (loanReturnDate.isBefore(LocalDateTime.now())) {
+            outputString += "OVERDUE]";
+        } else {
+            outputString += "outstanding]";
+        }
+
+        outputString += "\nDescription: " + description;
+        outputString += "\nAmount: $" + Money.format(amountLoanedCents);
+        outputString += "\nRepayment Deadline: " + loanReturnDate.format(outputDateFormat).toUpperCase();
+
+        return outputString;
     }
 
     public String getDescription() {
         return description;
     }
 
-    public Double getAmountLoaned() {
-        return amountLoaned;
+    public long getAmountLoanedCents() {
+        return amountLoanedCents;
     }
 
     public LocalDateTime getLoanReturnDate() {
@@ -0,0 +1,198 @@
+package finsight.loan;
+
+import java.io.Closeable;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Raises an alert when an outstanding loan reaches its repayment deadline, using a daemon
+ * thread that sleeps until the next deadline.
+ *
+ * <p>Scheduled loans are kept in a queue ordered by deadline, together with a map from each
+ * loan, by identity, to its place in the queue. Scheduling, rescheduling or cancelling a loan
+ * therefore costs {@code O(log n)}. The thread waits until the earliest deadline and is only
+ * woken early when a change puts a different loan at the front of the queue, so it never
+ * polls. Only loans that are not repaid and whose deadline is still ahead are scheduled, and
+ * each deadline raises at most one alert.</p>
+ */
+public class LoanDueScheduler implements Closeable {
+    private static final Comparator<Deadline> DEADLINE_ORDER = Comparator.<Deadline>comparingLong(
+            deadline -> deadline.dueAtMillis).thenComparingLong(deadline -> deadline.sequence);
+
+    private final TreeSet<Deadline> queue = new TreeSet<>(DEADLINE_ORDER);
+    private final Map<Loan, Deadline> deadlines = new IdentityHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition frontChanged = lock.newCondition();
+    private final Consumer<Loan> onDue;
+    private long nextSequence = 0;
+    private boolean isClosed = false;
+
+    /**
+     * Starts a scheduler with no loans scheduled
+     *
+     * @param onDue called on the scheduler thread with each loan that reaches its deadline
+     *              while still scheduled
+     */
+    public LoanDueScheduler(Consumer<Loan> onDue) {
+        this.onDue = onDue;
+        Thread schedulerThread = new Thread(this::run, "loan-due-scheduler");
+        schedulerThread.setDaemon(true);
+        schedulerThread.start();
+    }
+
+    /**
+     * Schedules the alert for a loan, replacing any alert already scheduled for it. A loan
+     * that is repaid or already past its deadline is left unscheduled.
+     *
+     * @param loan the loan that was added or changed
+     */
+    public void schedule(Loan loan) {
+        lock.lock();
+        try {
+            Deadline first = queue.isEmpty() ? null : queue.first();
+            Deadline oldDeadline = deadlines.remove(loan);
+            if (oldDeadline != null) {
+                queue.remove(oldDeadline);
+            }
+            long dueAtMillis = toEpochMillis(loan);
+            if (!loan.isRepaid() && dueAtMillis > System.currentTimeMillis()) {
+                Deadline deadline = new Deadline(loan, dueAtMillis, nextSequence++);
+                deadlines.put(loan, deadline);
+                queue.add(deadline);
+            }
+            signalIfFrontChanged(first);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels the alert for a loan, if one is scheduled
+     *
+     * @param loan the loan that was removed
+     */
+    public void cancel(Loan loan) {
+        lock.lock();
+        try {
+            Deadline first = queue.isEmpty() ? null : queue.first();
+            Deadline deadline = deadlines.remove(loan);
+            if (deadline != null) {
+                queue.remove(deadline);
+            }
+            signalIfFrontChanged(first);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels every scheduled alert
+     */
+    public void cancelAll() {
+        lock.lock();
+        try {
+            deadlines.clear();
+            queue.clear();
+            frontChanged.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of loans with an alert scheduled
+     *
+     * @return the number of scheduled loans
+     */
+    public int getScheduledCount() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the scheduler thread. No further alerts are raised.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            isClosed = true;
+            frontChanged.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        lock.lock();
+        try {
+            while (!isClosed) {
+                if (queue.isEmpty()) {
+                    frontChanged.await();
+                    continue;
+                }
+                Deadline first = queue.first();
+                long delayMillis = first.dueAtMillis - System.currentTimeMillis();
+                if (delayMillis > 0) {
+                    frontChanged.await(delayMillis, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                queue.pollFirst();
+                deadlines.remove(first.loan);
+                lock.unlock();
+                try {
+                    onDue.accept(first.loan);
+                } finally {
+                    lock.lock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes the scheduler thread if a change put a different deadline at the front of the
+     * queue, so that it waits for the new earliest deadline
+     *
+     * @param oldFirst the deadline at the front of the queue before the change, or {@code null}
+     */
+    private void signalIfFrontChanged(Deadline oldFirst) {
+        Deadline newFirst = queue.isEmpty() ? null : queue.first();
+        if (newFirst != oldFirst) {
+            frontChanged.signal();
+        }
+    }
+
+    private static long toEpochMillis(Loan loan) {
+        return loan.getLoanReturnDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Represents the deadline of one scheduled loan, ordered by time and then by when it was scheduled
+     */
+    private static final class Deadline {
+        private final Loan loan;
+        private final long dueAtMillis;
+        private final long sequence;
+
+        private Deadline(Loan loan, long dueAtMillis, long sequence) {
+            this.loan = loan;
+            this.dueAtMillis = dueAtMillis;
+            this.sequence = sequence;
+        }
+    }
+}
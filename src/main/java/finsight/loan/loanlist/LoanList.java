@@ -4,9 +4,28 @@ package finsight.loan.loanlist;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
 
+import finsight.export.ExportColumn;
+import finsight.export.ExportLedger;
+import finsight.filter.Filter;
+import finsight.filter.FilterCompiler;
+import finsight.filter.FilterField;
+import finsight.filter.exceptions.ListFilterWrongFormatException;
+import finsight.history.Change;
+import finsight.history.History;
 import finsight.loan.Loan;
+import finsight.loan.LoanDueScheduler;
+import finsight.search.AmountIndex;
+import finsight.search.DescriptionIndex;
+import finsight.storage.DataFileChange;
+import finsight.storage.LedgerLoader;
+import finsight.storage.QuarantineRepair;
 import finsight.storage.LoanDataManager;
+import finsight.ui.ListingCache;
 import finsight.ui.Ui;
 
 /**
@@ -17,17 +36,71 @@ import finsight.ui.Ui;
  * @since 2025-09-21
  */
 public class LoanList {
+    public static final String DATA_FILE = "./data/loan.txt";
+    private static final FilterCompiler<Loan> FILTER_COMPILER = new FilterCompiler<>("loan", Map.of(
+            "amount", FilterField.amount(Loan::getAmountLoanedCents),
+            "desc", FilterField.text(Loan::getDescription),
+            "due", FilterField.date(loan -> loan.getLoanReturnDate().toLocalDate()),
+            "repaid", FilterField.flag(Loan::isRepaid)));
+    private static final List<ExportColumn<Loan>> EXPORT_COLUMNS = List.of(
+            ExportColumn.text("description", Loan::getDescription),
+            ExportColumn.amount("amount", Loan::getAmountLoanedCents),
+            ExportColumn.text("due", loan -> loan.getLoanReturnDate().toString()),
+            ExportColumn.value("repaid", loan -> Boolean.toString(loan.isRepaid())));
+
     protected ArrayList<Loan> loans;
-    private final LoanDataManager loanDataManager = new LoanDataManager("./data/loan.txt");
+    private final LoanDataManager loanDataManager = new LoanDataManager(DATA_FILE);
+    private final LedgerLoader<Loan> loader;
+    private DescriptionIndex<Loan> descriptionIndex;
+    private AmountIndex<Loan> amountIndex;
+    private History history;
+    private LoanDueScheduler dueScheduler;
+    private long version;
+    private final ListingCache listingCache = new ListingCache();
 
     public LoanList(ArrayList<Loan> loans) {
+        this.loader = null;
         this.loans = loans;
         Loan.numberOfLoans = loans.size();
     }
 
     public LoanList() {
-        this.loans = loanDataManager.tryLoad();
-        Loan.numberOfLoans = loans.size();
+        this(false);
+    }
+
+    /**
+     * Constructs a LoanList backed by the data file, which is read either immediately or,
+     * if loaded lazily, only when the loans are first needed
+     *
+     * @param isLoadedLazily whether to defer reading the data file until first use
+     */
+    private LoanList(boolean isLoadedLazily) {
+        this.loader = new LedgerLoader<>(loanDataManager, Ui::printErrorMessage,
+                loadedLoans -> Loan.numberOfLoans = loadedLoans.size());
+        if (!isLoadedLazily) {
+            ensureLoaded();
+        }
+    }
+
+    /**
+     * Returns a LoanList whose data file is only read when the loans are first needed
+     *
+     * @return LoanList that loads lazily
+     */
+    public static LoanList createLazily() {
+        return new LoanList(true);
+    }
+
+    /**
+     * Starts reading the data file in the background so that the loans are
+     * ready by the time they are first needed
+     *
+     * @param executor Executor to read the data file on
+     */
+    public void prefetch(Executor executor) {
+        if (loader != null) {
+            loader.prefetch(executor);
+        }
     }
 
     /**
@@ -36,18 +109,30 @@ public class LoanList {
      * @return ArrayList of loans
      */
     public ArrayList<Loan> getLoans() {
+        ensureLoaded();
         return loans;
     }
 
+    /**
+     * Returns the number of loans
+     *
+     * @return number of loans
+     */
+    public int getSize() {
+        ensureLoaded();
+        return loans.size();
+    }
+
     /**
      * Calls the Ui class to print all tasks
      */
     public void listLoans() {
+        ensureLoaded();
         if(loans.isEmpty()) {
             Ui.printEmptyLoans();
             return;
         }
-        Ui.printAllLoans(loans);
+        Ui.printListing(listingCache.get(version, () -> Ui.renderAllLoans(loans), this::getStatusChangeMillis));
     }
 
     /**
@@ -56,11 +141,14 @@ public class LoanList {
      * @param loan Loan to be added
      */
     public void addLoan(Loan loan) throws IOException {
-        loans.add(loan);
+        syncWithDataFile();
+        int index = loans.size();
+        insertLoan(index, loan);
         Ui.printAddLoanOutput(loan);
 
-        Loan.numberOfLoans++;
         loanDataManager.appendToFile(loan);
+        recordChange(new Change("add loan: " + loan.getDescription(),
+                () -> removeLoanAndSave(index), () -> insertLoanAndSave(index, loan)));
     }
 
     /**
@@ -69,11 +157,13 @@ public class LoanList {
      * @param indexToDelete Index of Loan to be deleted
      */
     public void deleteLoan(int indexToDelete) throws IOException {
+        syncWithDataFile();
         Ui.printDeleteLoanOutput(loans.get(indexToDelete));
-        loans.remove(indexToDelete);
+        Loan deletedLoan = removeLoan(indexToDelete);
 
-        Loan.numberOfLoans--;
         loanDataManager.writeToFile(loans);
+        recordChange(new Change("delete loan: " + deletedLoan.getDescription(),
+                () -> insertLoanAndSave(indexToDelete, deletedLoan), () -> removeLoanAndSave(indexToDelete)));
     }
 
     /**
@@ -82,13 +172,17 @@ public class LoanList {
      * @param commandParameters index and parameters of loan to be edited
      */
     public void editLoan(String[] commandParameters) throws IOException {
+        syncWithDataFile();
         int indexToEdit = Integer.parseInt(commandParameters[0]) - 1;
 
-        loans.remove(indexToEdit);
-        loans.add(indexToEdit, new Loan(commandParameters[1], commandParameters[2], commandParameters[3]));
+        Loan editedLoan = new Loan(commandParameters[1], commandParameters[2], commandParameters[3]);
+        Loan replacedLoan = replaceLoan(indexToEdit, editedLoan);
         Ui.printEditLoanOutput(loans.get(indexToEdit));
 
         loanDataManager.writeToFile(loans);
+        recordChange(new Change("edit loan: " + editedLoan.getDescription(),
+                () -> replaceLoanAndSave(indexToEdit, replacedLoan),
+                () -> replaceLoanAndSave(indexToEdit, editedLoan)));
     }
 
     /**
@@ -97,10 +191,17 @@ public class LoanList {
      * @param indexToSet Index of Loan to be set as repaid
      */
     public void setRepaid(int indexToSet) throws IOException {
-        loans.get(indexToSet).setRepaid();
+        syncWithDataFile();
+        Loan loan = loans.get(indexToSet);
+        boolean wasRepaid = loan.isRepaid();
+        loan.setRepaid();
+        version++;
+        updateDueAlert(loan);
         Ui.printLoanRepaid(loans.get(indexToSet));
 
         loanDataManager.writeToFile(loans);
+        recordChange(new Change("loan repaid: " + loan.getDescription(),
+                () -> setRepaidAndSave(loan, wasRepaid), () -> setRepaidAndSave(loan, true)));
     }
 
     /**
@@ -109,9 +210,436 @@ public class LoanList {
      * @param indexToSet Index of Loan to be set as not repaid
      */
     public void setNotRepaid(int indexToSet) throws IOException {
-        loans.get(indexToSet).setNotRepaid();
+        syncWithDataFile();
+        Loan loan = loans.get(indexToSet);
+        boolean wasRepaid = loan.isRepaid();
+        loan.setNotRepaid();
+        version++;
+        updateDueAlert(loan);
         Ui.printLoanNotRepaid(loans.get(indexToSet));
 
         loanDataManager.writeToFile(loans);
+        recordChange(new Change("loan not repaid: " + loan.getDescription(),
+                () -> setRepaidAndSave(loan, wasRepaid), () -> setRepaidAndSave(loan, false)));
+    }
+
+    /**
+     * Starts watching the data file, so that loans another program appends to it show up
+     * in the list before the next command that uses it
+     *
+     * @throws IOException If the data file cannot be watched
+     */
+    public void watchDataFile() throws IOException {
+        loanDataManager.watch();
+    }
+
+    /**
+     * Forces the changes to the data file that are not on the storage device yet, so that
+     * they survive a crash
+     *
+     * @throws IOException If the data file cannot be forced
+     */
+    public void forceDataFile() throws IOException {
+        loanDataManager.forceWrites();
+    }
+
+    /**
+     * Reads the data file if this LoanList has not been used yet, then brings the list up to date
+     * with any change another instance of FinSight made to the data file, even one the watcher
+     * has not reported yet. Called before the loans are changed, so that the change is made to
+     * the records as they are in the file.
+     */
+    public void syncWithDataFile() {
+        loanDataManager.checkForChanges();
+        ensureLoaded();
+    }
+
+    /**
+     * Returns how much of the data file the loans in this list were read from or written to
+     *
+     * @return the number of bytes, or -1 if the data file has not been read or written yet
+     */
+    public long getSyncedDataFileBytes() {
+        return loanDataManager.getSyncedBytes();
+    }
+
+    /**
+     * Records that the loans in this list were restored from a snapshot of the data file at the
+     * given size, so that anything appended to the file after it is read before the next change
+     *
+     * @param dataFileBytes the size of the data file recorded in the snapshot
+     * @throws IOException If the data file cannot be created or its attributes read
+     */
+    public void markRestored(long dataFileBytes) throws IOException {
+        loanDataManager.markRestored(dataFileBytes);
+    }
+
+    /**
+     * Loads the loans in the quarantine file that can now be parsed, adding them to the end of
+     * the list and saving them to the data file. The rest stay quarantined.
+     *
+     * @return the loans recovered and the number still quarantined
+     * @throws IOException If an I/O error occurs when reading or writing the data or quarantine file
+     */
+    public QuarantineRepair<Loan> repairLoans() throws IOException {
+        syncWithDataFile();
+        QuarantineRepair<Loan> repair = loanDataManager.repairQuarantine(loans);
+        for (Loan loan : repair.getRecords()) {
+            insertLoan(loans.size(), loan);
+        }
+        return repair;
+    }
+
+    /**
+     * Sets the log that changes to loans are recorded in, so that they can be undone
+     *
+     * @param history log of changes, or {@code null} to stop recording
+     */
+    public void setHistory(History history) {
+        this.history = history;
+    }
+
+    /**
+     * Sets the scheduler that raises an alert when a loan reaches its deadline, and schedules
+     * every outstanding loan on it. Loans added, changed or deleted afterwards are rescheduled.
+     * If the loans are still loading, they are scheduled by the thread loading them once it is
+     * done, so the data file is never read just to schedule them.
+     *
+     * @param dueScheduler scheduler of loan deadlines, or {@code null} to stop scheduling
+     */
+    public void setDueScheduler(LoanDueScheduler dueScheduler) {
+        this.dueScheduler = dueScheduler;
+        if (dueScheduler == null) {
+            return;
+        }
+        if (loans == null) {
+            loader.whenLoaded(loadedLoans -> loadedLoans.forEach(dueScheduler::schedule));
+            return;
+        }
+        for (Loan loan : loans) {
+            dueScheduler.schedule(loan);
+        }
+    }
+
+    /**
+     * Returns the loans with the columns they are exported with, for streaming to a file
+     *
+     * @return the loan ledger to export
+     */
+    public ExportLedger<Loan> toExportLedger() {
+        return new ExportLedger<>("loan", EXPORT_COLUMNS, getLoans());
+    }
+
+    /**
+     * Returns the loans whose descriptions contain a word starting with every term of the query
+     *
+     * @param query search terms, separated by spaces
+     * @return matching loans keyed by their index in the list, in list order
+     */
+    public Map<Integer, Loan> find(String query) {
+        return getDescriptionIndex().findByIndex(query);
+    }
+
+    /**
+     * Returns the index of loans by description words, building it on first use and
+     * keeping it up to date as loans are changed afterwards
+     *
+     * @return index of loans by description words
+     */
+    private DescriptionIndex<Loan> getDescriptionIndex() {
+        ensureLoaded();
+        if (descriptionIndex == null) {
+            descriptionIndex = new DescriptionIndex<>(Loan::getDescription);
+            for (Loan record : loans) {
+                descriptionIndex.add(record);
+            }
+        }
+        return descriptionIndex;
+    }
+
+    /**
+     * Returns the loans with the largest amounts
+     *
+     * @param count number of loans to return
+     * @return at most {@code count} loans keyed by their index in the list, from the largest amount down
+     */
+    public Map<Integer, Loan> findLargest(int count) {
+        return getAmountIndex().findLargest(count);
+    }
+
+    /**
+     * Returns the loans with amounts within the given range
+     *
+     * @param minCents smallest amount in cents, inclusive
+     * @param maxCents largest amount in cents, inclusive
+     * @return matching loans keyed by their index in the list, from the smallest amount up
+     */
+    public Map<Integer, Loan> findInRange(long minCents, long maxCents) {
+        return getAmountIndex().findInRange(minCents, maxCents);
+    }
+
+    /**
+     * Returns the index of loans by amount, building it on first use and
+     * keeping it up to date as loans are changed afterwards
+     *
+     * @return index of loans by amount
+     */
+    private AmountIndex<Loan> getAmountIndex() {
+        ensureLoaded();
+        if (amountIndex == null) {
+            amountIndex = new AmountIndex<>(Loan::getAmountLoanedCents);
+            for (Loan record : loans) {
+                amountIndex.add(record);
+            }
+        }
+        return amountIndex;
+    }
+
+    /**
+     * Returns the loans that match a filter expression. If the expression bounds the amount and
+     * the index by amount has already been built, only the loans within the bounds are tested;
+     * otherwise every loan is, as building the index costs more than one scan.
+     *
+     * @param expression filter expression over amount, desc, due and repaid
+     * @return matching loans keyed by their index in the list, in list order
+     * @throws ListFilterWrongFormatException If the expression cannot be parsed or uses a field wrongly
+     */
+    public Map<Integer, Loan> filter(String expression) throws ListFilterWrongFormatException {
+        Filter<Loan> filter = FILTER_COMPILER.compile(expression);
+        if (filter.hasAmountBounds() && amountIndex != null) {
+            return new TreeMap<>(amountIndex.findInRange(filter.getMinCents(), filter.getMaxCents(),
+                    filter::test));
+        }
+        return filter.select(getLoans());
+    }
+
+    /**
+     * Inserts a loan into the list and into the indexes built so far. The indexes by
+     * description and amount can only follow additions at the end of the list, so inserting
+     * before the end drops them, to be rebuilt when next used.
+     *
+     * @param index index to insert the loan at
+     * @param loan  the loan to insert
+     */
+    private void insertLoan(int index, Loan loan) {
+        loans.add(index, loan);
+        version++;
+        Loan.numberOfLoans++;
+        updateDueAlert(loan);
+        if (index < loans.size() - 1) {
+            descriptionIndex = null;
+            amountIndex = null;
+            return;
+        }
+        if (descriptionIndex != null) {
+            descriptionIndex.add(loan);
+        }
+        if (amountIndex != null) {
+            amountIndex.add(loan);
+        }
+    }
+
+    /**
+     * Removes a loan from the list and from the indexes built so far
+     *
+     * @param index index of the loan to remove
+     * @return the loan removed
+     */
+    private Loan removeLoan(int index) {
+        Loan removedLoan = loans.remove(index);
+        version++;
+        Loan.numberOfLoans--;
+        if (dueScheduler != null) {
+            dueScheduler.cancel(removedLoan);
+        }
+        if (descriptionIndex != null) {
+            descriptionIndex.remove(removedLoan);
+        }
+        if (amountIndex != null) {
+            amountIndex.remove(removedLoan);
+        }
+        return removedLoan;
+    }
+
+    /**
+     * Replaces the loan at an index, keeping the indexes built so far up to date
+     *
+     * @param index index of the loan to replace
+     * @param loan  the loan to put in its place
+     * @return the loan replaced
+     */
+    private Loan replaceLoan(int index, Loan loan) {
+        Loan replacedLoan = loans.set(index, loan);
+        version++;
+        if (dueScheduler != null) {
+            dueScheduler.cancel(replacedLoan);
+        }
+        updateDueAlert(loan);
+        if (descriptionIndex != null) {
+            descriptionIndex.replace(replacedLoan, loan);
+        }
+        if (amountIndex != null) {
+            amountIndex.replace(replacedLoan, loan);
+        }
+        return replacedLoan;
+    }
+
+    /**
+     * Inserts a loan and saves it, appending it to the data file if it is now the last loan
+     *
+     * @param index index to insert the loan at
+     * @param loan  the loan to insert
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void insertLoanAndSave(int index, Loan loan) throws IOException {
+        insertLoan(index, loan);
+        try {
+            if (index == loans.size() - 1) {
+                loanDataManager.appendToFile(loan);
+            } else {
+                loanDataManager.writeToFile(loans);
+            }
+        } catch (IOException e) {
+            removeLoan(index);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes a loan and rewrites the data file
+     *
+     * @param index index of the loan to remove
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void removeLoanAndSave(int index) throws IOException {
+        Loan removedLoan = removeLoan(index);
+        try {
+            loanDataManager.writeToFile(loans);
+        } catch (IOException e) {
+            insertLoan(index, removedLoan);
+            throw e;
+        }
+    }
+
+    /**
+     * Replaces the loan at an index and rewrites the data file
+     *
+     * @param index index of the loan to replace
+     * @param loan  the loan to put in its place
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void replaceLoanAndSave(int index, Loan loan) throws IOException {
+        Loan replacedLoan = replaceLoan(index, loan);
+        try {
+            loanDataManager.writeToFile(loans);
+        } catch (IOException e) {
+            replaceLoan(index, replacedLoan);
+            throw e;
+        }
+    }
+
+    /**
+     * Sets whether a loan is repaid and rewrites the data file
+     *
+     * @param loan     the loan to set
+     * @param isRepaid whether the loan is repaid
+     * @throws IOException If an I/O error occurs when writing to the data file, in which case the
+     *     list is left as it was
+     */
+    private void setRepaidAndSave(Loan loan, boolean isRepaid) throws IOException {
+        boolean wasRepaid = loan.isRepaid();
+        applyRepaid(loan, isRepaid);
+        try {
+            loanDataManager.writeToFile(loans);
+        } catch (IOException e) {
+            applyRepaid(loan, wasRepaid);
+            throw e;
+        }
+    }
+
+    private void applyRepaid(Loan loan, boolean isRepaid) {
+        if (isRepaid) {
+            loan.setRepaid();
+        } else {
+            loan.setNotRepaid();
+        }
+        version++;
+        updateDueAlert(loan);
+    }
+
+    /**
+     * Returns when the listing of the loans next changes with the time alone, which is when the
+     * first outstanding loan becomes overdue
+     *
+     * @return the time in epoch milliseconds, or {@link Long#MAX_VALUE} if no loan will become overdue
+     */
+    private long getStatusChangeMillis() {
+        long statusChangeMillis = Long.MAX_VALUE;
+        for (Loan loan : loans) {
+            statusChangeMillis = Math.min(statusChangeMillis, loan.getStatusChangeMillis());
+        }
+        return statusChangeMillis;
+    }
+
+    /**
+     * Reschedules the deadline alert of a loan that was added or changed, if loans are scheduled
+     *
+     * @param loan the loan added or changed
+     */
+    private void updateDueAlert(Loan loan) {
+        if (dueScheduler != null) {
+            dueScheduler.schedule(loan);
+        }
+    }
+
+    private void recordChange(Change change) {
+        if (history != null) {
+            history.record(change);
+        }
+    }
+
+    /**
+     * Reads the data file if this LoanList was loaded lazily and has not been used yet
+     */
+    private void ensureLoaded() {
+        if (loans == null) {
+            loans = loader.get();
+        }
+        applyExternalChange(loanDataManager.pollExternalChanges(Ui::printErrorMessage));
+    }
+
+    /**
+     * Brings the list up to date with a change another program made to the data file, adding
+     * the loans appended to it or, if the file was replaced, reloading the list and
+     * clearing the undo log, whose changes no longer apply
+     *
+     * @param change the change to the data file, or {@code null} if there is none
+     */
+    private void applyExternalChange(DataFileChange<Loan> change) {
+        if (change == null) {
+            return;
+        }
+        if (change.isReload()) {
+            loans = new ArrayList<>(change.getRecords());
+            version++;
+            Loan.numberOfLoans = loans.size();
+            descriptionIndex = null;
+            amountIndex = null;
+            if (history != null) {
+                history.clear();
+            }
+            if (dueScheduler != null) {
+                dueScheduler.cancelAll();
+                loans.forEach(dueScheduler::schedule);
+            }
+        } else {
+            for (Loan loan : change.getRecords()) {
+                insertLoan(loans.size(), loan);
+            }
+        }
+        Ui.printDataFileChange("loan", change.isReload(), change.getRecords().size());
     }
 }
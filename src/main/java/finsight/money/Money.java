@@ -0,0 +1,224 @@
+package finsight.money;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Provides conversions for money amounts held as a primitive {@code long} number of cents.
+ *
+ * <p>Every amount in FinSight is stored in cents, so adding amounts up is exact and never
+ * allocates. Text is only converted at the edges: {@link #parseCents(String)} when reading
+ * user input or a data file, and {@link #format(long)} when printing or saving.</p>
+ *
+ * <p>Amounts are never rounded when parsed. An amount worth a fraction of a cent, such as
+ * {@code 69.126}, is rejected rather than silently turned into {@code 69.13}, so a data file
+ * line holding one is quarantined instead of being rewritten with a different amount.
+ * Amounts written by earlier versions in {@link Double#toString(double)} or
+ * {@link Float#toString(float)} form, including scientific notation such as
+ * {@code 1.2345678E7}, load unchanged as long as they are a whole number of cents.</p>
+ *
+ * <p>Amounts are formatted by writing their digits straight into a {@link StringBuilder} or
+ * {@link Writer}, without parsing a format string or creating a {@link java.util.Formatter}.
+ * Computed amounts held as a {@code double} are rounded with plain arithmetic unless they lie
+ * so close to half a cent that floating point cannot tell which way {@code %.2f} rounds them,
+ * in which case the exact decimal rounding is used.</p>
+ */
+public final class Money {
+    public static final long CENTS_PER_DOLLAR = 100;
+
+    private static final int CENT_DIGITS = 2;
+    private static final int MAX_FAST_PATH_DIGITS = 16;
+    private static final int MAX_FORMATTED_LENGTH = 24;
+    private static final double MAX_FAST_PATH_CENTS = 1e15;
+    private static final int TIE_MARGIN_ULPS = 4;
+
+    private Money() {
+    }
+
+    /**
+     * Parses a decimal amount such as {@code 12}, {@code 12.5} or {@code 12.50} into cents
+     *
+     * @param amount the amount to parse
+     * @return the amount in cents
+     * @throws NumberFormatException if the amount is not a finite decimal number that fits in a {@code long},
+     *     or is worth a fraction of a cent
+     */
+    public static long parseCents(String amount) {
+        String trimmedAmount = amount.trim();
+        long cents = parsePlainCents(trimmedAmount);
+        if (cents >= 0) {
+            return cents;
+        }
+        BigDecimal exactAmount = new BigDecimal(trimmedAmount);
+        try {
+            exactAmount = exactAmount.setScale(CENT_DIGITS, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount has more than two decimal places: " + amount);
+        }
+        try {
+            return exactAmount.movePointRight(CENT_DIGITS).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + amount);
+        }
+    }
+
+    /**
+     * Returns whether an amount is a decimal number worth a fraction of a cent, such as
+     * {@code 69.126}, which {@link #parseCents(String)} rejects
+     *
+     * @param amount the amount to check
+     * @return true if the amount is a number with a non-zero digit past the second decimal place
+     */
+    public static boolean isFractionOfCent(String amount) {
+        try {
+            return new BigDecimal(amount.trim()).stripTrailingZeros().scale() > CENT_DIGITS;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Converts a computed amount in dollars into cents, rounding exactly as {@code %.2f} would
+     *
+     * @param amount the amount in dollars
+     * @return the amount in cents
+     */
+    public static long fromDollars(double amount) {
+        double scaledAmount = Math.abs(amount) * CENTS_PER_DOLLAR;
+        if (scaledAmount < MAX_FAST_PATH_CENTS) {
+            double fraction = scaledAmount - Math.floor(scaledAmount);
+            if (Math.abs(fraction - 0.5) > TIE_MARGIN_ULPS * Math.ulp(scaledAmount)) {
+                long cents = Math.round(scaledAmount);
+                return amount < 0 ? -cents : cents;
+            }
+        }
+        return new BigDecimal(Double.toString(amount)).setScale(CENT_DIGITS, RoundingMode.HALF_UP)
+                .movePointRight(CENT_DIGITS).longValueExact();
+    }
+
+    /**
+     * Converts an amount in cents into dollars, for calculations that are not exact anyway
+     *
+     * @param cents the amount in cents
+     * @return the amount in dollars
+     */
+    public static double toDollars(long cents) {
+        return cents / (double) CENTS_PER_DOLLAR;
+    }
+
+    /**
+     * Formats an amount in cents with exactly two decimal places, e.g. {@code 1250} as {@code 12.50}
+     *
+     * @param cents the amount in cents
+     * @return the formatted amount, identical to formatting the dollar value with {@code %.2f}
+     */
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(MAX_FORMATTED_LENGTH), cents).toString();
+    }
+
+    /**
+     * Appends an amount in cents with exactly two decimal places, as {@link #format(long)} does
+     *
+     * @param builder the builder to append to
+     * @param cents   the amount in cents
+     * @return the builder
+     */
+    public static StringBuilder appendTo(StringBuilder builder, long cents) {
+        if (cents < 0) {
+            builder.append('-');
+        }
+        long dollars = Math.abs(cents / CENTS_PER_DOLLAR);
+        int remainingCents = (int) Math.abs(cents % CENTS_PER_DOLLAR);
+        return builder.append(dollars).append('.')
+                .append((char) ('0' + remainingCents / 10)).append((char) ('0' + remainingCents % 10));
+    }
+
+    /**
+     * Writes an amount in cents with exactly two decimal places, as {@link #format(long)} does,
+     * in a single write
+     *
+     * @param writer the writer to write to
+     * @param cents  the amount in cents
+     * @throws IOException if an I/O error occurs while writing
+     */
+    public static void writeTo(Writer writer, long cents) throws IOException {
+        char[] digits = new char[MAX_FORMATTED_LENGTH];
+        int start = digits.length;
+        int remainingCents = (int) Math.abs(cents % CENTS_PER_DOLLAR);
+        digits[--start] = (char) ('0' + remainingCents % 10);
+        digits[--start] = (char) ('0' + remainingCents / 10);
+        digits[--start] = '.';
+        long dollars = Math.abs(cents / CENTS_PER_DOLLAR);
+        do {
+            digits[--start] = (char) ('0' + dollars % 10);
+            dollars /= 10;
+        } while (dollars > 0);
+        if (cents < 0) {
+            digits[--start] = '-';
+        }
+        writer.write(digits, start, digits.length - start);
+    }
+
+    /**
+     * Formats a computed value, such as a return rate, with exactly two decimal places
+     *
+     * @param value the value to format
+     * @return the formatted value, identical to formatting it with {@code %.2f}
+     */
+    public static String formatTwoDecimals(double value) {
+        if (!(Math.abs(value) * CENTS_PER_DOLLAR < MAX_FAST_PATH_CENTS)) {
+            return String.format("%.2f", value);
+        }
+        StringBuilder formattedValue = new StringBuilder(MAX_FORMATTED_LENGTH);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            formattedValue.append('-');
+        }
+        return appendTo(formattedValue, fromDollars(Math.abs(value))).toString();
+    }
+
+    /**
+     * Parses the common form of an amount, an optional {@code +} followed by digits and at
+     * most two decimal places, without allocating
+     *
+     * @param amount the trimmed amount to parse
+     * @return the amount in cents, or {@code -1} if the amount is not in the common form
+     */
+    private static long parsePlainCents(String amount) {
+        int length = amount.length();
+        int index = length > 0 && amount.charAt(0) == '+' ? 1 : 0;
+        int integerStart = index;
+        long dollars = 0;
+        while (index < length && isAsciiDigit(amount.charAt(index))) {
+            dollars = dollars * 10 + (amount.charAt(index) - '0');
+            index++;
+        }
+        int integerDigits = index - integerStart;
+        if (integerDigits > MAX_FAST_PATH_DIGITS) {
+            return -1;
+        }
+
+        long cents = 0;
+        int fractionDigits = 0;
+        if (index < length && amount.charAt(index) == '.') {
+            index++;
+            while (index < length && isAsciiDigit(amount.charAt(index)) && fractionDigits < CENT_DIGITS) {
+                cents = cents * 10 + (amount.charAt(index) - '0');
+                fractionDigits++;
+                index++;
+            }
+        }
+        if (index != length || integerDigits + fractionDigits == 0) {
+            return -1;
+        }
+        for (int i = fractionDigits; i < CENT_DIGITS; i++) {
+            cents *= 10;
+        }
+        return dollars * CENTS_PER_DOLLAR + cents;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,78 @@
+package finsight.parser;
+
+/**
+ * Represents the type of command entered by the user, identified by its leading keyword.
+ *
+ * <p>Constants are declared in matching order: when one keyword is a prefix of another
+ * (e.g. {@code list income} and {@code list income overview}), the longer keyword is
+ * declared first so that it is matched first.</p>
+ */
+public enum CommandType {
+    LIST_LOAN("list loan"),
+    TOP_LOAN("top loan"),
+    ADD_LOAN("add loan"),
+    DELETE_LOAN("delete loan"),
+    LOAN_REPAID("loan repaid"),
+    LOAN_NOT_REPAID("loan not repaid"),
+    EDIT_LOAN("edit loan"),
+    ADD_INCOME("add income"),
+    DELETE_INCOME("delete income"),
+    EDIT_INCOME("edit income"),
+    LIST_INCOME_OVERVIEW("list income overview"),
+    LIST_INCOME("list income"),
+    SUMMARY_INCOME("summary income"),
+    TOP_INCOME("top income"),
+    LIST_EXPENSE("list expense"),
+    ADD_EXPENSE("add expense"),
+    DELETE_EXPENSE("delete expense"),
+    SUMMARY_EXPENSE("summary expense"),
+    TOP_EXPENSE("top expense"),
+    LIST_INVESTMENT("list investment"),
+    ADD_INVESTMENT("add investment"),
+    DELETE_INVESTMENT("delete investment"),
+    SWEEP_INVESTMENT("sweep investment"),
+    GOAL_INVESTMENT("goal investment"),
+    DUE("due"),
+    FORECAST("forecast"),
+    EXPORT("export"),
+    FIND("find"),
+    UNDO("undo"),
+    REDO("redo"),
+    REPAIR("repair"),
+    HELP("help"),
+    STATS("stats"),
+    INVALID("invalid");
+
+    private static final CommandType[] MATCH_ORDER = values();
+
+    private final String keyword;
+
+    CommandType(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Returns the keyword that starts this command
+     *
+     * @return keyword of the command
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Returns the type of command the user input starts with
+     *
+     * @param userInput String input by the user
+     * @return the matching command type, or {@link #INVALID} if no keyword matches
+     */
+    public static CommandType fromUserInput(String userInput) {
+        String lowerCaseInput = userInput.toLowerCase();
+        for (CommandType commandType : MATCH_ORDER) {
+            if (commandType != INVALID && lowerCaseInput.startsWith(commandType.keyword)) {
+                return commandType;
+            }
+        }
+        return INVALID;
+    }
+}
@@ -5,7 +5,22 @@ import finsight.expense.exceptions.AddExpenseCommandWrongFormatException;
 import finsight.expense.exceptions.DeleteExpenseCommandIndexOutOfBoundsException;
 import finsight.expense.expenselist.ExpenseList;
 
+import finsight.export.ExportFormat;
+import finsight.export.ExportLedger;
+import finsight.export.LedgerExporter;
+import finsight.export.exceptions.ExportCommandWrongFormatException;
+
+import finsight.filter.exceptions.ListFilterWrongFormatException;
+import finsight.forecast.CashFlowForecast;
+import finsight.forecast.exceptions.ForecastCommandWrongFormatException;
+
+import finsight.history.History;
+import finsight.history.exceptions.NothingToRedoException;
+import finsight.history.exceptions.NothingToUndoException;
+
+import finsight.investment.ContributionGoal;
 import finsight.investment.Investment;
+import finsight.investment.ReturnRateSweep;
 import finsight.investment.exceptions.AddInvestmentDateOutOfBoundsException;
 import finsight.investment.exceptions.AddInvestmentSubcommandException;
 import finsight.investment.exceptions.AddInvestmentSubcommandOrderException;
@@ -13,6 +28,9 @@ import finsight.investment.exceptions.AddInvestmentWrongNumberFormatException;
 import finsight.investment.exceptions.DeleteInvestmentIndexOutOfBoundsException;
 import finsight.investment.exceptions.DeleteInvestmentMissingIndexException;
 import finsight.investment.exceptions.DeleteInvestmentWrongNumberFormatException;
+import finsight.investment.exceptions.DueCommandWrongFormatException;
+import finsight.investment.exceptions.GoalCommandWrongFormatException;
+import finsight.investment.exceptions.SweepCommandWrongFormatException;
 import finsight.investment.investmentlist.InvestmentList;
 
 import finsight.income.Income;
@@ -34,13 +52,29 @@ import finsight.loan.exceptions.LoanRepaidCommandIndexOutOfBoundsException;
 import finsight.loan.exceptions.LoanNotRepaidCommandIndexOutOfBoundsException;
 import finsight.loan.Loan;
 import finsight.loan.loanlist.LoanList;
-
+import finsight.money.Money;
+
+import finsight.stats.CommandEvent;
+import finsight.search.DescriptionIndex;
+import finsight.search.exceptions.AmountRangeWrongFormatException;
+import finsight.search.exceptions.FindCommandMissingTermsException;
+import finsight.search.exceptions.TopCommandWrongFormatException;
+import finsight.stats.PerformanceStats;
+import finsight.storage.QuarantineRepair;
+import finsight.summary.TransactionDate;
+import finsight.summary.exceptions.SummaryCommandWrongFormatException;
 import finsight.ui.Ui;
 
 import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Takes in the user input and interpret which command to run
@@ -53,26 +87,45 @@ import java.time.format.DateTimeParseException;
  * @since 2025-10-08
  */
 public class Parser {
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_ERROR = "error";
+    private static final String OUTCOME_FAILED = "failed";
+    private static final int DAYS_IN_WEEK = 7;
+
     protected ExpenseList expenseList;
     protected IncomeList incomeList;
     protected InvestmentList investmentList;
     protected LoanList loanList;
+    protected History history = new History(History.DEFAULT_CAPACITY);
 
     public Parser(ExpenseList expenseList, IncomeList incomeList, InvestmentList investmentList, LoanList loanList) {
         this.expenseList = expenseList;
         this.incomeList = incomeList;
         this.investmentList = investmentList;
         this.loanList = loanList;
+        expenseList.setHistory(history);
+        incomeList.setHistory(history);
+        investmentList.setHistory(history);
+        loanList.setHistory(history);
     }
 
     /**
-     * Try to run a command and handle any exceptions thrown
+     * Try to run a command and handle any exceptions thrown.
+     * The time taken is recorded in {@link PerformanceStats} and, while a flight
+     * recording is running, reported as a {@link CommandEvent}
      *
      * @param userInput String input by the user
      */
     public void tryCommand(String userInput) {
+        CommandType commandType = CommandType.fromUserInput(userInput);
+        CommandEvent event = new CommandEvent();
+        String outcome = OUTCOME_FAILED;
+        Exception exception = null;
+        long startTime = System.nanoTime();
+        event.begin();
         try {
-            handleCommand(userInput);
+            handleCommand(commandType, userInput);
+            outcome = OUTCOME_SUCCESS;
         } catch (AddExpenseCommandWrongFormatException | AddInvestmentDateOutOfBoundsException |
                  AddInvestmentSubcommandException | AddInvestmentSubcommandOrderException |
                  AddInvestmentWrongNumberFormatException | AddIncomeCommandWrongFormatException |
@@ -84,8 +137,28 @@ public class Parser {
                  EditIncomeCommandIndexOutOfBoundsException | EditLoanCommandIndexOutOfBoundsException |
                  EditLoanCommandInvalidAmountException | EditLoanCommandPastDateUsedException |
                  EditLoanCommandWrongFormatException | LoanRepaidCommandIndexOutOfBoundsException |
-                 LoanNotRepaidCommandIndexOutOfBoundsException | IOException e) {
+                 LoanNotRepaidCommandIndexOutOfBoundsException | SummaryCommandWrongFormatException |
+                 FindCommandMissingTermsException | TopCommandWrongFormatException |
+                 AmountRangeWrongFormatException | ListFilterWrongFormatException |
+                 NothingToUndoException | NothingToRedoException | ExportCommandWrongFormatException |
+                 DueCommandWrongFormatException | ForecastCommandWrongFormatException |
+                 SweepCommandWrongFormatException | GoalCommandWrongFormatException | IOException e) {
+            outcome = OUTCOME_ERROR;
+            exception = e;
             Ui.printErrorMessage(e.getMessage());
+        } catch (RuntimeException e) {
+            exception = e;
+            throw e;
+        } finally {
+            event.end();
+            PerformanceStats.recordCommand(commandType, System.nanoTime() - startTime);
+            if (event.shouldCommit()) {
+                event.command = commandType.getKeyword();
+                event.inputLength = userInput.length();
+                event.outcome = outcome;
+                event.exceptionClass = exception == null ? null : exception.getClass().getName();
+                event.commit();
+            }
         }
     }
 
@@ -138,6 +211,23 @@ public class Parser {
      *                                                       index missing or alphabets was used
      * @throws LoanNotRepaidCommandIndexOutOfBoundsException If loan not repaid command used with non-existing index or
      *                                                       index missing or alphabets was used
+     * @throws SummaryCommandWrongFormatException           If summary command has missing or invalid dates or
+     *                                                       a start date after its end date
+     * @throws FindCommandMissingTermsException              If find command is used without search terms
+     * @throws TopCommandWrongFormatException                If top command has a missing or non-positive count
+     * @throws AmountRangeWrongFormatException               If list command has invalid amounts or
+     *                                                       a minimum above its maximum
+     * @throws ListFilterWrongFormatException                If list command has an invalid filter expression
+     * @throws NothingToUndoException                        If undo command is used with no change left to undo
+     * @throws NothingToRedoException                        If redo command is used with no undone change to redo
+     * @throws ExportCommandWrongFormatException             If export command has an unknown ledger or format,
+     *                                                       a missing file or wrong sub command order
+     * @throws DueCommandWrongFormatException                If due command is not followed by today or this week
+     * @throws ForecastCommandWrongFormatException           If forecast command has a missing or invalid number of days
+     * @throws SweepCommandWrongFormatException              If sweep investment command has missing, out of order
+     *                                                       or invalid parameters
+     * @throws GoalCommandWrongFormatException               If goal investment command has missing, out of order
+     *                                                       or invalid parameters
      * @throws IOException                                   If an I/O errors occurs when reading from
      *                                                       or writing to file
      */
@@ -153,95 +243,350 @@ public class Parser {
             EditIncomeCommandIndexOutOfBoundsException, EditLoanCommandIndexOutOfBoundsException,
             EditLoanCommandInvalidAmountException, EditLoanCommandPastDateUsedException,
             EditLoanCommandWrongFormatException, LoanRepaidCommandIndexOutOfBoundsException,
-            LoanNotRepaidCommandIndexOutOfBoundsException, IOException {
+            LoanNotRepaidCommandIndexOutOfBoundsException, SummaryCommandWrongFormatException,
+            FindCommandMissingTermsException, TopCommandWrongFormatException,
+            AmountRangeWrongFormatException, ListFilterWrongFormatException,
+            NothingToUndoException, NothingToRedoException, ExportCommandWrongFormatException,
+            DueCommandWrongFormatException, ForecastCommandWrongFormatException, SweepCommandWrongFormatException,
+            GoalCommandWrongFormatException, IOException {
+
+        handleCommand(CommandType.fromUserInput(userInput), userInput);
+    }
+
+    /**
+     * Runs the command of the given type using the parameters in the user input
+     *
+     * @param commandType Type of the command, as identified from the user input
+     * @param userInput   String input by the user
+     * @see #handleCommand(String)
+     */
+    private void handleCommand(CommandType commandType, String userInput)
+            throws AddExpenseCommandWrongFormatException, AddInvestmentDateOutOfBoundsException,
+            AddInvestmentSubcommandException, AddInvestmentSubcommandOrderException,
+            AddInvestmentWrongNumberFormatException, AddIncomeCommandWrongFormatException,
+            AddLoanCommandInvalidAmountException, AddLoanCommandPastDateUsedException,
+            AddLoanCommandWrongFormatException, DeleteExpenseCommandIndexOutOfBoundsException,
+            DeleteIncomeCommandIndexOutOfBoundsException, DeleteInvestmentIndexOutOfBoundsException,
+            DeleteInvestmentMissingIndexException, DeleteInvestmentWrongNumberFormatException,
+            DeleteLoanCommandIndexOutOfBoundsException, EditIncomeCommandWrongFormatException,
+            EditIncomeCommandIndexOutOfBoundsException, EditLoanCommandIndexOutOfBoundsException,
+            EditLoanCommandInvalidAmountException, EditLoanCommandPastDateUsedException,
+            EditLoanCommandWrongFormatException, LoanRepaidCommandIndexOutOfBoundsException,
+            LoanNotRepaidCommandIndexOutOfBoundsException, SummaryCommandWrongFormatException,
+            FindCommandMissingTermsException, TopCommandWrongFormatException,
+            AmountRangeWrongFormatException, ListFilterWrongFormatException,
+            NothingToUndoException, NothingToRedoException, ExportCommandWrongFormatException,
+            DueCommandWrongFormatException, ForecastCommandWrongFormatException, SweepCommandWrongFormatException,
+            GoalCommandWrongFormatException, IOException {
+
+        switch (commandType) {
+        case LIST_LOAN:
+            if (hasFilter(userInput, CommandType.LIST_LOAN)) {
+                String expression = parseFilterCommand(userInput, CommandType.LIST_LOAN);
+                Ui.printFilteredRecords("Loan", expression, loanList.filter(expression));
+            } else if (hasAmountRange(userInput)) {
+                long[] amountRange = parseAmountRangeCommand(userInput, CommandType.LIST_LOAN, "loan");
+                Ui.printRecordsInAmountRange("Loan", amountRange[0], amountRange[1],
+                        loanList.findInRange(amountRange[0], amountRange[1]));
+            } else {
+                loanList.listLoans();
+            }
+            break;
 
-        if (userInput.toLowerCase().startsWith("list loan")) {
-            loanList.listLoans();
+        case TOP_LOAN: {
+            int count = parseTopCommand(userInput, CommandType.TOP_LOAN, "loan");
+            Ui.printLargestRecords("Loan", loanList.findLargest(count));
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("add loan")) {
+        case ADD_LOAN: {
             String[] commandParameters = parseAddLoanCommand(userInput);
             assert (!commandParameters[0].isEmpty() && !commandParameters[1].isEmpty()
                     && !commandParameters[2].isEmpty());
             loanList.addLoan(new Loan(commandParameters[0], commandParameters[1], commandParameters[2]));
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("delete loan")) {
+        case DELETE_LOAN: {
             int indexToDelete = parseDeleteLoanCommand(userInput);
             assert (indexToDelete >= 0 && indexToDelete < Loan.numberOfLoans);
             loanList.deleteLoan(indexToDelete);
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("loan repaid")) {
+        case LOAN_REPAID: {
             int indexToSetRepaid = parseLoanRepaidCommand(userInput);
             assert (indexToSetRepaid >= 0 && indexToSetRepaid < Loan.numberOfLoans);
             loanList.setRepaid(indexToSetRepaid);
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("loan not repaid")) {
+        case LOAN_NOT_REPAID: {
             int indexToSetNotRepaid = parseLoanNotRepaidCommand(userInput);
             assert (indexToSetNotRepaid >= 0 && indexToSetNotRepaid < Loan.numberOfLoans);
             loanList.setNotRepaid(indexToSetNotRepaid);
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("edit loan")) {
+        case EDIT_LOAN: {
             String[] commandParameters = parseEditLoanCommand(userInput);
             assert (!commandParameters[0].isEmpty() && !commandParameters[1].isEmpty()
                     && !commandParameters[2].isEmpty() && !commandParameters[3].isEmpty());
             loanList.editLoan(commandParameters);
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("add income")) {
+        case ADD_INCOME: {
             String[] commandParameters = parseAddIncomeCommand(userInput);
             assert (!commandParameters[0].isEmpty() && !commandParameters[1].isEmpty());
-            incomeList.addIncome(new Income(commandParameters[0], commandParameters[1]));
+            incomeList.addIncome(new Income(commandParameters[0], commandParameters[1],
+                    TransactionDate.parseOptional(commandParameters[2])));
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("delete income")) {
+        case DELETE_INCOME: {
             int indexToDelete = parseDeleteIncomeCommand(userInput);
             assert (indexToDelete >= 0 && indexToDelete < Income.numberOfIncomes);
             incomeList.deleteIncome(indexToDelete);
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("edit income")) {
+        case EDIT_INCOME: {
             String[] commandParameters = parseEditIncomeCommand(userInput);
             assert (!commandParameters[0].isEmpty() && !commandParameters[1].isEmpty()
                     && !commandParameters[2].isEmpty());
             incomeList.editIncome(commandParameters[0], commandParameters[1], commandParameters[2]);
+            break;
+        }
+
+        case LIST_INCOME_OVERVIEW:
+            incomeList.listIncomeOverview(expenseList);
+            break;
+
+        case LIST_INCOME:
+            if (hasFilter(userInput, CommandType.LIST_INCOME)) {
+                String expression = parseFilterCommand(userInput, CommandType.LIST_INCOME);
+                Ui.printFilteredRecords("Income", expression, incomeList.filter(expression));
+            } else if (hasAmountRange(userInput)) {
+                long[] amountRange = parseAmountRangeCommand(userInput, CommandType.LIST_INCOME, "income");
+                Ui.printRecordsInAmountRange("Income", amountRange[0], amountRange[1],
+                        incomeList.findInRange(amountRange[0], amountRange[1]));
+            } else {
+                incomeList.listIncomes();
+            }
+            break;
 
-        } else if (userInput.toLowerCase().startsWith("list income overview")) {
-            incomeList.listIncomeOverview();
+        case SUMMARY_INCOME: {
+            LocalDate[] dateRange = parseSummaryCommand(userInput, CommandType.SUMMARY_INCOME, "income");
+            incomeList.listIncomeSummary(dateRange[0], dateRange[1]);
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("list income")) {
-            incomeList.listIncomes();
+        case TOP_INCOME: {
+            int count = parseTopCommand(userInput, CommandType.TOP_INCOME, "income");
+            Ui.printLargestRecords("Income", incomeList.findLargest(count));
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("list expense")) {
-            expenseList.listExpenses();
+        case LIST_EXPENSE:
+            if (hasFilter(userInput, CommandType.LIST_EXPENSE)) {
+                String expression = parseFilterCommand(userInput, CommandType.LIST_EXPENSE);
+                Ui.printFilteredRecords("Expense", expression, expenseList.filter(expression));
+            } else if (hasAmountRange(userInput)) {
+                long[] amountRange = parseAmountRangeCommand(userInput, CommandType.LIST_EXPENSE, "expense");
+                Ui.printRecordsInAmountRange("Expense", amountRange[0], amountRange[1],
+                        expenseList.findInRange(amountRange[0], amountRange[1]));
+            } else {
+                expenseList.listExpenses();
+            }
+            break;
 
-        } else if (userInput.toLowerCase().startsWith("add expense")) {
+        case ADD_EXPENSE: {
             String[] commandParameters = parseAddExpenseCommand(userInput);
-            assert (!commandParameters[0].isEmpty() && !commandParameters[1].isEmpty()
-                    && !commandParameters[2].isEmpty());
-            expenseList.addExpense(new Expense(commandParameters[0], commandParameters[1]));
+            assert (!commandParameters[0].isEmpty() && !commandParameters[1].isEmpty());
+            expenseList.addExpense(new Expense(commandParameters[0], commandParameters[1],
+                    TransactionDate.parseOptional(commandParameters[2])));
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("delete expense")) {
+        case DELETE_EXPENSE: {
             int indexToDelete = parseDeleteExpenseCommand(userInput);
             assert (indexToDelete >= 0 && indexToDelete < Expense.numberOfExpenses);
             expenseList.deleteExpense(indexToDelete);
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("list investment")) {
-            investmentList.listAllInvestments();
+        case SUMMARY_EXPENSE: {
+            LocalDate[] dateRange = parseSummaryCommand(userInput, CommandType.SUMMARY_EXPENSE, "expense");
+            expenseList.listExpenseSummary(dateRange[0], dateRange[1]);
+            break;
+        }
+
+        case TOP_EXPENSE: {
+            int count = parseTopCommand(userInput, CommandType.TOP_EXPENSE, "expense");
+            Ui.printLargestRecords("Expense", expenseList.findLargest(count));
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("add investment")) {
+        case LIST_INVESTMENT:
+            if (hasFilter(userInput, CommandType.LIST_INVESTMENT)) {
+                String expression = parseFilterCommand(userInput, CommandType.LIST_INVESTMENT);
+                Ui.printFilteredRecords("Investment", expression, investmentList.filter(expression));
+            } else {
+                investmentList.listAllInvestments();
+            }
+            break;
+
+        case ADD_INVESTMENT: {
             String[] commandParameters = parseAddInvestmentCommand(userInput);
             investmentList.addInvestment(new Investment(commandParameters[0],
                     commandParameters[1], commandParameters[2], commandParameters[3]));
+            break;
+        }
 
-        } else if (userInput.toLowerCase().startsWith("delete investment")) {
+        case DELETE_INVESTMENT: {
             int indexToDelete = parseDeleteInvestmentCommand(userInput);
             assert indexToDelete >= 0 && indexToDelete < Investment.numberOfInvestments;
             investmentList.deleteInvestment(indexToDelete);
+            break;
+        }
+
+        case EXPORT: {
+            String[] commandParameters = parseExportCommand(userInput);
+            Ui.printExportOutput(LedgerExporter.export(Path.of(commandParameters[1]),
+                    ExportFormat.fromName(commandParameters[2]), getExportLedgers(commandParameters[0]),
+                    Path.of(ExpenseList.DATA_FILE).getParent()));
+            break;
+        }
+
+        case DUE: {
+            int days = parseDueCommand(userInput);
+            LocalDate today = LocalDate.now();
+            Ui.printDueDeposits(days == 1 ? "today" : "this week",
+                    investmentList.findDueBetween(today, today.plusDays(days - 1)));
+            break;
+        }
+
+        case SWEEP_INVESTMENT: {
+            ReturnRateSweep sweep = parseSweepInvestmentCommand(userInput);
+            List<Investment> investments = investmentList.getInvestments();
+            Ui.printReturnRateSweep(sweep, sweep.evaluate(investments), investments.size());
+            break;
+        }
+
+        case GOAL_INVESTMENT: {
+            ContributionGoal goal = parseGoalInvestmentCommand(userInput);
+            List<Investment> investments = investmentList.getInvestments();
+            Ui.printContributionGoal(goal, goal.solve(), investments, goal.solveForEach(investments));
+            break;
+        }
+
+        case FORECAST: {
+            int days = parseForecastCommand(userInput);
+            Ui.printForecast(CashFlowForecast.project(LocalDate.now(), days, incomeList.getIncomes(),
+                    expenseList.getExpenses(), investmentList.getInvestments(), loanList.getLoans()));
+            break;
+        }
 
-        } else if(userInput.toLowerCase().startsWith("help")) {
+        case FIND: {
+            String query = parseFindCommand(userInput);
+            Ui.printFindResults(query, loanList.find(query), expenseList.find(query), incomeList.find(query),
+                    investmentList.find(query));
+            break;
+        }
+
+        case UNDO:
+            syncWithDataFiles();
+            Ui.printUndoOutput(history.undo().getDescription());
+            break;
+
+        case REDO:
+            syncWithDataFiles();
+            Ui.printRedoOutput(history.redo().getDescription());
+            break;
+
+        case REPAIR: {
+            Map<String, QuarantineRepair<?>> repairs = new LinkedHashMap<>();
+            repairs.put("loan", loanList.repairLoans());
+            repairs.put("expense", expenseList.repairExpenses());
+            repairs.put("income", incomeList.repairIncomes());
+            repairs.put("investment", investmentList.repairInvestments());
+            Ui.printRepairOutput(repairs);
+            break;
+        }
+
+        case HELP:
             Ui.printPossibleCommands();
+            break;
 
-        } else {
+        case STATS:
+            Ui.printPerformanceStats();
+            break;
+
+        default:
             Ui.printInvalidCommandMessage();
         }
     }
 
+    /**
+     * Brings the four ledgers up to date with their data files before an undo or redo, which
+     * may change any of them. A data file that another instance of FinSight replaced is
+     * reloaded, which clears the undo log, so an undo never writes back records that are no
+     * longer in the file.
+     */
+    private void syncWithDataFiles() {
+        loanList.syncWithDataFile();
+        expenseList.syncWithDataFile();
+        incomeList.syncWithDataFile();
+        investmentList.syncWithDataFile();
+    }
+
+    /**
+     * Returns the ledgers named in an export command
+     *
+     * @param ledger Name of the ledger to export, or all
+     * @return The ledgers to export, in the order they are listed in help
+     */
+    private List<ExportLedger<?>> getExportLedgers(String ledger) {
+        switch (ledger) {
+        case "loan":
+            return List.of(loanList.toExportLedger());
+        case "expense":
+            return List.of(expenseList.toExportLedger());
+        case "income":
+            return List.of(incomeList.toExportLedger());
+        case "investment":
+            return List.of(investmentList.toExportLedger());
+        default:
+            return List.of(loanList.toExportLedger(), expenseList.toExportLedger(),
+                    incomeList.toExportLedger(), investmentList.toExportLedger());
+        }
+    }
+
+    /**
+     * Returns whether a list command filters the records with a where clause
+     *
+     * @param userInput   String input by user
+     * @param commandType Type of the list command
+     * @return true if the parameters of the command start with the word where
+     */
+    private static boolean hasFilter(String userInput, CommandType commandType) {
+        final int sizeOfWhere = "where".length();
+        String parameters = userInput.substring(commandType.getKeyword().length()).trim();
+        return parameters.toLowerCase().startsWith("where")
+                && (parameters.length() == sizeOfWhere || !Character.isLetterOrDigit(parameters.charAt(sizeOfWhere)));
+    }
+
+    /**
+     * Returns whether a list command filters the records by amount
+     *
+     * @param userInput String input by user
+     * @return true if the user input has a min/ or max/ sub command
+     */
+    private static boolean hasAmountRange(String userInput) {
+        return userInput.contains("min/") || userInput.contains("max/");
+    }
+
     /**
      * Returns the index to delete expense if index exists,
      * else throws exception
@@ -274,10 +619,352 @@ public class Parser {
     }
 
     /**
-     * Returns the parameters used for add expense command as a String Array of size 2
+     * Returns the search terms of the find command
+     *
+     * @param userInput String input by user
+     * @return The search terms
+     * @throws FindCommandMissingTermsException If there are no search terms
+     */
+    public String parseFindCommand(String userInput) throws FindCommandMissingTermsException {
+        final int sizeOfFind = "find".length();
+        String query = userInput.substring(sizeOfFind).trim();
+
+        if (DescriptionIndex.tokenize(query).isEmpty()) {
+            throw new FindCommandMissingTermsException();
+        }
+
+        return query;
+    }
+
+    /**
+     * Returns the number of days, starting today, that a due command covers
+     *
+     * @param userInput String input by user
+     * @return 1 for due today, or 7 for due this week
+     * @throws DueCommandWrongFormatException If the command is not followed by today or this week
+     */
+    public int parseDueCommand(String userInput) throws DueCommandWrongFormatException {
+        String period = userInput.substring(CommandType.DUE.getKeyword().length()).trim().toLowerCase();
+
+        if (period.equals("today")) {
+            return 1;
+        }
+        if (period.replaceAll("\\s+", " ").equals("this week")) {
+            return DAYS_IN_WEEK;
+        }
+        throw new DueCommandWrongFormatException();
+    }
+
+    /**
+     * Returns the grid of return rates and horizons of a sweep investment command
+     *
+     * @param userInput String input by user
+     * @return The grid to project the investments over
+     * @throws SweepCommandWrongFormatException If a parameter is missing, out of order, not a number or out of range
+     */
+    public ReturnRateSweep parseSweepInvestmentCommand(String userInput) throws SweepCommandWrongFormatException {
+        final int sizeOfRateSubcommand = "r/".length();
+        final int sizeOfStepSubcommand = "step/".length();
+        final int sizeOfYearsSubcommand = "y/".length();
+        String parameters = userInput.substring(CommandType.SWEEP_INVESTMENT.getKeyword().length());
+
+        int rateIndex = parameters.indexOf("r/");
+        int stepIndex = parameters.indexOf("step/");
+        int yearsIndex = parameters.indexOf("y/");
+        boolean hasValidSubcommandOrder = rateIndex >= 0 && rateIndex < stepIndex && stepIndex < yearsIndex;
+        if (!hasValidSubcommandOrder || !parameters.substring(0, rateIndex).isBlank()) {
+            throw new SweepCommandWrongFormatException();
+        }
+
+        String[] rateRange = parameters.substring(rateIndex + sizeOfRateSubcommand, stepIndex).split("-", -1);
+        if (rateRange.length != 2) {
+            throw new SweepCommandWrongFormatException();
+        }
+
+        double fromRate;
+        double toRate;
+        double step;
+        int years;
+        try {
+            fromRate = Double.parseDouble(rateRange[0].trim());
+            toRate = Double.parseDouble(rateRange[1].trim());
+            step = Double.parseDouble(parameters.substring(stepIndex + sizeOfStepSubcommand, yearsIndex).trim());
+            years = Integer.parseInt(parameters.substring(yearsIndex + sizeOfYearsSubcommand).trim());
+        } catch (NumberFormatException e) {
+            throw new SweepCommandWrongFormatException();
+        }
+
+        boolean hasValidRates = fromRate >= 0 && toRate >= fromRate && Double.isFinite(toRate) && step > 0
+                && Double.isFinite(step)
+                && ReturnRateSweep.countRates(fromRate, toRate, step) <= ReturnRateSweep.MAX_RATES;
+        boolean hasValidYears = years >= 1 && years <= ReturnRateSweep.MAX_YEARS;
+        if (!hasValidRates || !hasValidYears) {
+            throw new SweepCommandWrongFormatException();
+        }
+
+        return new ReturnRateSweep(fromRate, toRate, step, years);
+    }
+
+    /**
+     * Returns the target, years and return rate of a goal investment command
+     *
+     * @param userInput String input by user
+     * @return The goal to solve for
+     * @throws GoalCommandWrongFormatException If a parameter is missing, out of order, not a number or out of range
+     */
+    public ContributionGoal parseGoalInvestmentCommand(String userInput) throws GoalCommandWrongFormatException {
+        final int sizeOfSubcommand = 2;
+        String parameters = userInput.substring(CommandType.GOAL_INVESTMENT.getKeyword().length());
+
+        int targetIndex = parameters.indexOf("t/");
+        int yearsIndex = parameters.indexOf("y/");
+        int rateIndex = parameters.indexOf("r/");
+        boolean hasValidSubcommandOrder = targetIndex >= 0 && targetIndex < yearsIndex && yearsIndex < rateIndex;
+        if (!hasValidSubcommandOrder || !parameters.substring(0, targetIndex).isBlank()) {
+            throw new GoalCommandWrongFormatException();
+        }
+
+        long targetCents;
+        int years;
+        double returnRate;
+        try {
+            targetCents = Money.parseCents(parameters.substring(targetIndex + sizeOfSubcommand, yearsIndex).trim());
+            years = Integer.parseInt(parameters.substring(yearsIndex + sizeOfSubcommand, rateIndex).trim());
+            returnRate = Double.parseDouble(parameters.substring(rateIndex + sizeOfSubcommand).trim());
+        } catch (NumberFormatException e) {
+            throw new GoalCommandWrongFormatException();
+        }
+
+        boolean hasValidParameters = targetCents > 0 && years >= 1 && years <= ContributionGoal.MAX_YEARS
+                && returnRate >= 0 && Double.isFinite(returnRate);
+        if (!hasValidParameters) {
+            throw new GoalCommandWrongFormatException();
+        }
+
+        return new ContributionGoal(targetCents, years, returnRate);
+    }
+
+    /**
+     * Returns the number of days a forecast command projects
+     *
+     * @param userInput String input by user
+     * @return The number of days to project
+     * @throws ForecastCommandWrongFormatException If the number of days is missing, not a whole number
+     *                                             or out of range
+     */
+    public int parseForecastCommand(String userInput) throws ForecastCommandWrongFormatException {
+        final int sizeOfDaysSubcommand = "d/".length();
+        String parameters = userInput.substring(CommandType.FORECAST.getKeyword().length()).trim();
+
+        if (!parameters.startsWith("d/")) {
+            throw new ForecastCommandWrongFormatException();
+        }
+
+        int days;
+        try {
+            days = Integer.parseInt(parameters.substring(sizeOfDaysSubcommand).trim());
+        } catch (NumberFormatException e) {
+            throw new ForecastCommandWrongFormatException();
+        }
+
+        if (days < 1 || days > CashFlowForecast.MAX_DAYS) {
+            throw new ForecastCommandWrongFormatException();
+        }
+
+        return days;
+    }
+
+    /**
+     * Returns the parameters of the export command
+     * <pre>
+     * commandParameters[0]: Ledger to export, one of loan, expense, income, investment or all
+     * commandParameters[1]: File to export to
+     * commandParameters[2]: Format to export in, csv or json
+     * </pre>
+     *
+     * @param userInput String input by user
+     * @return The ledger, file and format to export
+     * @throws ExportCommandWrongFormatException If any empty fields or wrong sub command order
+     *                                           or unknown ledger or format or invalid file path
+     */
+    public String[] parseExportCommand(String userInput) throws ExportCommandWrongFormatException {
+        final int sizeOfFileSubcommand = "f/".length();
+        final int sizeOfFormatSubcommand = "fmt/".length();
+        String parameters = userInput.substring(CommandType.EXPORT.getKeyword().length());
+        int fileIndex = parameters.indexOf("f/");
+        int formatIndex = parameters.lastIndexOf("fmt/");
+
+        if (fileIndex < 0 || formatIndex < fileIndex) {
+            throw new ExportCommandWrongFormatException();
+        }
+
+        String ledger = parameters.substring(0, fileIndex).trim().toLowerCase();
+        String file = parameters.substring(fileIndex + sizeOfFileSubcommand, formatIndex).trim();
+        String format = parameters.substring(formatIndex + sizeOfFormatSubcommand).trim();
+
+        boolean isKnownLedger = ledger.equals("all") || ledger.equals("loan") || ledger.equals("expense")
+                || ledger.equals("income") || ledger.equals("investment");
+        if (!isKnownLedger || file.isEmpty() || ExportFormat.fromName(format) == null) {
+            throw new ExportCommandWrongFormatException();
+        }
+
+        try {
+            Path.of(file);
+        } catch (InvalidPathException e) {
+            throw new ExportCommandWrongFormatException();
+        }
+
+        return new String[]{ledger, file, format};
+    }
+
+    /**
+     * Returns the filter expression following the word where in a list command
+     *
+     * @param userInput   String input by user
+     * @param commandType Type of the list command
+     * @return The filter expression, which may be empty
+     */
+    public String parseFilterCommand(String userInput, CommandType commandType) {
+        final int sizeOfWhere = "where".length();
+        String parameters = userInput.substring(commandType.getKeyword().length()).trim();
+
+        assert parameters.toLowerCase().startsWith("where") : "filter command must contain where";
+        return parameters.substring(sizeOfWhere).trim();
+    }
+
+    /**
+     * Returns the number of records to show for a top command
+     *
+     * @param userInput   String input by user
+     * @param commandType Type of the top command
+     * @param recordType  Type of record ranked, used in the error message
+     * @return The number of records to show
+     * @throws TopCommandWrongFormatException If the count is missing, not a whole number or not positive
+     */
+    public int parseTopCommand(String userInput, CommandType commandType, String recordType)
+            throws TopCommandWrongFormatException {
+        final int sizeOfCountSubcommand = "k/".length();
+        String parameters = userInput.substring(commandType.getKeyword().length()).trim();
+
+        if (!parameters.startsWith("k/")) {
+            throw new TopCommandWrongFormatException(recordType);
+        }
+
+        int count;
+        try {
+            count = Integer.parseInt(parameters.substring(sizeOfCountSubcommand).trim());
+        } catch (NumberFormatException e) {
+            throw new TopCommandWrongFormatException(recordType);
+        }
+
+        if (count <= 0) {
+            throw new TopCommandWrongFormatException(recordType);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the smallest and largest amount, in cents, given to a list command filtered by amount
+     * <pre>
+     * amountRange[0]: Smallest amount, inclusive, or Long.MIN_VALUE if min/ is left out
+     * amountRange[1]: Largest amount, inclusive, or Long.MAX_VALUE if max/ is left out
+     * </pre>
+     *
+     * @param userInput   String input by user
+     * @param commandType Type of the list command
+     * @param recordType  Type of record listed, used in the error message
+     * @return The smallest and largest amount in cents
+     * @throws AmountRangeWrongFormatException If any empty fields or wrong sub command order
+     *                                         or invalid amounts or the smallest amount is above the largest
+     */
+    public long[] parseAmountRangeCommand(String userInput, CommandType commandType, String recordType)
+            throws AmountRangeWrongFormatException {
+        final int sizeOfMinSubcommand = "min/".length();
+        final int sizeOfMaxSubcommand = "max/".length();
+        String parameters = userInput.substring(commandType.getKeyword().length());
+        int minIndex = parameters.indexOf("min/");
+        int maxIndex = parameters.indexOf("max/");
+        int firstIndex = minIndex >= 0 ? minIndex : maxIndex;
+
+        boolean hasInvalidSubcommandOrder = minIndex >= 0 && maxIndex >= 0 && maxIndex < minIndex;
+
+        if (firstIndex < 0 || hasInvalidSubcommandOrder || !parameters.substring(0, firstIndex).isBlank()) {
+            throw new AmountRangeWrongFormatException(recordType);
+        }
+
+        long[] amountRange = {Long.MIN_VALUE, Long.MAX_VALUE};
+        try {
+            if (minIndex >= 0) {
+                int minEnd = maxIndex >= 0 ? maxIndex : parameters.length();
+                amountRange[0] = Money.parseCents(parameters.substring(minIndex + sizeOfMinSubcommand, minEnd));
+            }
+            if (maxIndex >= 0) {
+                amountRange[1] = Money.parseCents(parameters.substring(maxIndex + sizeOfMaxSubcommand));
+            }
+        } catch (NumberFormatException e) {
+            throw new AmountRangeWrongFormatException(recordType);
+        }
+
+        if (amountRange[0] > amountRange[1]) {
+            throw new AmountRangeWrongFormatException(recordType);
+        }
+
+        return amountRange;
+    }
+
+    /**
+     * Returns the first and last day of the date range given to a summary command
+     * <pre>
+     * dateRange[0]: First day of the range, inclusive
+     * dateRange[1]: Last day of the range, inclusive
+     * </pre>
+     *
+     * @param userInput   String input by user
+     * @param commandType Type of the summary command
+     * @param recordType  Type of record summarised, used in the error message
+     * @return The first and last day of the range
+     * @throws SummaryCommandWrongFormatException If any empty fields or wrong sub command or wrong sub command order
+     *                                            or invalid dates or the first day is after the last day
+     */
+    public LocalDate[] parseSummaryCommand(String userInput, CommandType commandType, String recordType)
+            throws SummaryCommandWrongFormatException {
+        final int sizeOfFromSubcommand = "from/".length();
+        final int sizeOfToSubcommand = "to/".length();
+
+        boolean hasInvalidSubcommand = !userInput.contains("from/") || !userInput.contains("to/");
+        boolean hasInvalidSubcommandOrder = userInput.lastIndexOf("to/") < userInput.indexOf("from/");
+
+        if (hasInvalidSubcommand || hasInvalidSubcommandOrder
+                || !userInput.substring(commandType.getKeyword().length(), userInput.indexOf("from/")).isBlank()) {
+            throw new SummaryCommandWrongFormatException(recordType);
+        }
+
+        String from = userInput.substring(userInput.indexOf("from/") + sizeOfFromSubcommand,
+                userInput.lastIndexOf("to/")).trim();
+        String to = userInput.substring(userInput.lastIndexOf("to/") + sizeOfToSubcommand).trim();
+
+        LocalDate[] dateRange = new LocalDate[2];
+        try {
+            dateRange[0] = LocalDate.parse(from, TransactionDate.FORMAT);
+            dateRange[1] = LocalDate.parse(to, TransactionDate.FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new SummaryCommandWrongFormatException(recordType);
+        }
+
+        if (dateRange[0].isAfter(dateRange[1])) {
+            throw new SummaryCommandWrongFormatException(recordType);
+        }
+
+        return dateRange;
+    }
+
+    /**
+     * Returns the parameters used for add expense command as a String Array of size 3
      * <pre>
      * commandParameters[0]: Description
      * commandParameters[1]: Expended amount
+     * commandParameters[2]: Date of the expense, or an empty String if not given
      * </pre>
      *
      * @param userInput String input by user
@@ -285,7 +972,7 @@ public class Parser {
      * @throws AddExpenseCommandWrongFormatException If any empty fields or wrong sub command or wrong sub command order
      */
     public String[] parseAddExpenseCommand(String userInput) throws AddExpenseCommandWrongFormatException {
-        final int numberOfAddExpenseCommandParameters = 2;
+        final int numberOfAddExpenseCommandParameters = 3;
         final int sizeOfSubcommand = 2;
         String[] commandParameters = new String[numberOfAddExpenseCommandParameters];
 
@@ -298,22 +985,32 @@ public class Parser {
 
         commandParameters[0] = userInput.substring(userInput.indexOf("d/") + sizeOfSubcommand,
                 userInput.lastIndexOf("a/")).trim();
-        commandParameters[1] = userInput.substring(userInput.lastIndexOf("a/") + sizeOfSubcommand).trim();
+        int dateIndex = userInput.lastIndexOf("t/");
+        boolean hasDate = dateIndex > userInput.lastIndexOf("a/");
+        commandParameters[1] = userInput.substring(userInput.lastIndexOf("a/") + sizeOfSubcommand,
+                hasDate ? dateIndex : userInput.length()).trim();
+        commandParameters[2] = hasDate ? userInput.substring(dateIndex + sizeOfSubcommand).trim() : "";
 
         boolean hasInvalidParameters = commandParameters[0].isEmpty() ||
-                commandParameters[1].isEmpty();
+                commandParameters[1].isEmpty() || (hasDate && commandParameters[2].isEmpty());
 
         if (hasInvalidParameters) {
             throw new AddExpenseCommandWrongFormatException();
         }
 
         try {
-            Double.parseDouble(commandParameters[1]);
+            TransactionDate.parseOptional(commandParameters[2]);
+        } catch (DateTimeParseException e) {
+            throw new AddExpenseCommandWrongFormatException();
+        }
+
+        try {
+            Money.parseCents(commandParameters[1]);
         } catch (NumberFormatException e) {
             throw new AddExpenseCommandWrongFormatException();
         }
 
-        boolean isNegativeNumber= Double.parseDouble(commandParameters[1]) <= 0;
+        boolean isNegativeNumber= Money.parseCents(commandParameters[1]) <= 0;
         if (isNegativeNumber) {
             throw new AddExpenseCommandWrongFormatException();
         }
@@ -330,7 +1027,7 @@ public class Parser {
      * @param description Description of the loan to add / to be edited into
      */
     public void checkIfLoanAlreadyInList(String description) {
-        for (int i = 0; i < Loan.numberOfLoans; i++) {
+        for (int i = 0; i < loanList.getSize(); i++) {
             if (loanList.getLoans().get(i).getDescription().equals(description)) {
                 Ui.printLoanAlreadyInListReminder(description);
                 break;
@@ -338,6 +1035,18 @@ public class Parser {
         }
     }
 
+    /**
+     * Parses a loan amount into cents, treating an amount worth a fraction of a cent, such as
+     * {@code 0.001}, as one below a cent rather than as a wrong format
+     *
+     * @param amount the loan amount input by user
+     * @return the amount in cents, or 0 if it is worth a fraction of a cent
+     * @throws NumberFormatException if the amount is not a number
+     */
+    private static long parseLoanCents(String amount) {
+        return Money.isFractionOfCent(amount) ? 0 : Money.parseCents(amount);
+    }
+
     /**
      * Returns the index to delete if index exists,
      * else throws exception
@@ -362,7 +1071,7 @@ public class Parser {
             throw new DeleteLoanCommandIndexOutOfBoundsException();
         }
 
-        if (indexToDelete < 0 || indexToDelete >= Loan.numberOfLoans) {
+        if (indexToDelete < 0 || indexToDelete >= loanList.getSize()) {
             throw new DeleteLoanCommandIndexOutOfBoundsException();
         }
 
@@ -420,9 +1129,9 @@ public class Parser {
         checkIfLoanAlreadyInList(commandParameters[0]);
         LocalDateTime currentTime = LocalDateTime.now();
         LocalDateTime loanReturnDate;
-        double amountLoaned;
+        long amountLoanedCents;
         try {
-            amountLoaned = Double.parseDouble(commandParameters[1]);
+            amountLoanedCents = parseLoanCents(commandParameters[1]);
             loanReturnDate = LocalDateTime.parse(commandParameters[2], inputDateFormat);
         } catch (DateTimeParseException | NumberFormatException e) {
             throw new AddLoanCommandWrongFormatException();
@@ -431,7 +1140,7 @@ public class Parser {
         if (loanReturnDate.isBefore(currentTime)) {
             throw new AddLoanCommandPastDateUsedException();
         }
-        if (amountLoaned < 0.01) {
+        if (amountLoanedCents < 1) {
             throw new AddLoanCommandInvalidAmountException();
         }
 
@@ -488,7 +1197,7 @@ public class Parser {
             throw new EditLoanCommandIndexOutOfBoundsException();
         }
 
-        if (indexToEdit < 0 || indexToEdit >= Loan.numberOfLoans) {
+        if (indexToEdit < 0 || indexToEdit >= loanList.getSize()) {
             throw new EditLoanCommandIndexOutOfBoundsException();
         }
 
@@ -509,9 +1218,9 @@ public class Parser {
         checkIfLoanAlreadyInList(commandParameters[1]);
         LocalDateTime currentTime = LocalDateTime.now();
         LocalDateTime loanReturnDate;
-        double amountLoaned;
+        long amountLoanedCents;
         try {
-            amountLoaned = Double.parseDouble(commandParameters[2]);
+            amountLoanedCents = parseLoanCents(commandParameters[2]);
             loanReturnDate = LocalDateTime.parse(commandParameters[3], inputDateFormat);
         } catch (DateTimeParseException | NumberFormatException e) {
             throw new EditLoanCommandWrongFormatException();
@@ -520,7 +1229,7 @@ public class Parser {
         if (loanReturnDate.isBefore(currentTime)) {
             throw new EditLoanCommandPastDateUsedException();
         }
-        if (amountLoaned < 0.01) {
+        if (amountLoanedCents < 1) {
             throw new EditLoanCommandInvalidAmountException();
         }
 
@@ -529,16 +1238,17 @@ public class Parser {
     //@@ author
 
     /**
-     * Returns the parameters used for add income command as a String Array of size 2
+     * Returns the parameters used for add income command as a String Array of size 3
      * commandParameters[0]: Description
      * commandParameters[1]: Amount Earned
+     * commandParameters[2]: Date of the income, or an empty String if not given
      *
      * @param userInput String input by user
      * @return The parameters used for add income command
      * @throws AddIncomeCommandWrongFormatException If any empty fields or wrong sub command or wrong sub command order
      */
     public String[] parseAddIncomeCommand(String userInput) throws AddIncomeCommandWrongFormatException {
-        final int numberOfAddIncomeCommandParameters = 2;
+        final int numberOfAddIncomeCommandParameters = 3;
         final int sizeOfSubcommand = 2;
         String[] commandParameters = new String[numberOfAddIncomeCommandParameters];
 
@@ -551,22 +1261,32 @@ public class Parser {
 
         commandParameters[0] = userInput.substring(userInput.indexOf("d/") + sizeOfSubcommand,
                 userInput.lastIndexOf("a/")).trim();
-        commandParameters[1] = userInput.substring(userInput.lastIndexOf("a/") + sizeOfSubcommand).trim();
+        int dateIndex = userInput.lastIndexOf("t/");
+        boolean hasDate = dateIndex > userInput.lastIndexOf("a/");
+        commandParameters[1] = userInput.substring(userInput.lastIndexOf("a/") + sizeOfSubcommand,
+                hasDate ? dateIndex : userInput.length()).trim();
+        commandParameters[2] = hasDate ? userInput.substring(dateIndex + sizeOfSubcommand).trim() : "";
 
         boolean hasInvalidParameters = commandParameters[0].isEmpty() ||
-                commandParameters[1].isEmpty();
+                commandParameters[1].isEmpty() || (hasDate && commandParameters[2].isEmpty());
 
         if (hasInvalidParameters) {
             throw new AddIncomeCommandWrongFormatException();
         }
 
         try {
-            Double.parseDouble(commandParameters[1]);
+            TransactionDate.parseOptional(commandParameters[2]);
+        } catch (DateTimeParseException e) {
+            throw new AddIncomeCommandWrongFormatException();
+        }
+
+        try {
+            Money.parseCents(commandParameters[1]);
         } catch (NumberFormatException e) {
             throw new AddIncomeCommandWrongFormatException();
         }
 
-        boolean isNegativeNumber= Double.parseDouble(commandParameters[1]) <= 0;
+        boolean isNegativeNumber= Money.parseCents(commandParameters[1]) <= 0;
         if (isNegativeNumber) {
             throw new AddIncomeCommandWrongFormatException();
         }
@@ -597,7 +1317,7 @@ public class Parser {
             throw new DeleteIncomeCommandIndexOutOfBoundsException();
         }
 
-        if (indexToDelete < 0 || indexToDelete >= Income.numberOfIncomes) {
+        if (indexToDelete < 0 || indexToDelete >= incomeList.getSize()) {
             throw new DeleteIncomeCommandIndexOutOfBoundsException();
         }
 
@@ -637,7 +1357,7 @@ public class Parser {
             throw new EditIncomeCommandIndexOutOfBoundsException();
         }
 
-        if (Float.parseFloat(indexToEdit) <= 0 || Float.parseFloat(indexToEdit) > Income.numberOfIncomes) {
+        if (Float.parseFloat(indexToEdit) <= 0 || Float.parseFloat(indexToEdit) > incomeList.getSize()) {
             throw new EditIncomeCommandIndexOutOfBoundsException();
         }
 
@@ -647,12 +1367,12 @@ public class Parser {
         commandParameters[2] = userInput.substring(userInput.lastIndexOf("a/") + sizeOfSubcommand).trim();
 
         try {
-            Double.parseDouble(commandParameters[2]);
+            Money.parseCents(commandParameters[2]);
         } catch (NumberFormatException e) {
             throw new EditIncomeCommandWrongFormatException();
         }
 
-        boolean isNegativeNumber= Double.parseDouble(commandParameters[2]) <= 0;
+        boolean isNegativeNumber= Money.parseCents(commandParameters[2]) <= 0;
         if (isNegativeNumber) {
             throw new EditIncomeCommandWrongFormatException();
         }
@@ -693,7 +1413,7 @@ public class Parser {
             throw new LoanRepaidCommandIndexOutOfBoundsException();
         }
 
-        if (indexToSetRepaid < 0 || indexToSetRepaid >= Loan.numberOfLoans) {
+        if (indexToSetRepaid < 0 || indexToSetRepaid >= loanList.getSize()) {
             throw new LoanRepaidCommandIndexOutOfBoundsException();
         }
 
@@ -724,7 +1444,7 @@ public class Parser {
             throw new LoanNotRepaidCommandIndexOutOfBoundsException();
         }
 
-        if (indexToSetNotRepaid < 0 || indexToSetNotRepaid >= Loan.numberOfLoans) {
+        if (indexToSetNotRepaid < 0 || indexToSetNotRepaid >= loanList.getSize()) {
             throw new LoanNotRepaidCommandIndexOutOfBoundsException();
         }
 
@@ -767,12 +1487,12 @@ public class Parser {
         }
 
         try {
-            Double.parseDouble(commandParameters[1]);
+            Money.parseCents(commandParameters[1]);
         } catch (NumberFormatException e) {
             throw new AddInvestmentWrongNumberFormatException();
         }
 
-        boolean isNegativeNumber= Double.parseDouble(commandParameters[1]) <= 0;
+        boolean isNegativeNumber= Money.parseCents(commandParameters[1]) <= 0;
         if (isNegativeNumber) {
             throw new AddInvestmentWrongNumberFormatException();
         }
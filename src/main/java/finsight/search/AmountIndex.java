@@ -0,0 +1,193 @@
+package finsight.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Indexes records by amount, so that the largest records and the records within an amount
+ * range can be found without sorting or scanning the whole list.
+ *
+ * <p>Records are kept in a sorted map from amount in cents to the records with that
+ * amount, held by identity. The {@code k} largest records are read off the high end of the
+ * map, and an amount range is a sub-map, so a query costs {@code O(log n)} to find its
+ * start plus {@code O(log n)} per record returned to number it with {@link ListPositions}.
+ * Records with equal amounts are returned in list order.</p>
+ *
+ * <p>The index is updated one record at a time as records are added, removed, replaced or
+ * edited.</p>
+ *
+ * @param <T> type of record indexed
+ */
+public class AmountIndex<T> {
+    private static final int INITIAL_RECORDS_PER_AMOUNT = 2;
+
+    private final TreeMap<Long, Set<T>> recordsByAmount = new TreeMap<>();
+    private final IdentityHashMap<T, Long> amounts = new IdentityHashMap<>();
+    private final ListPositions<T> positions = new ListPositions<>();
+    private final ToLongFunction<T> amountOf;
+
+    /**
+     * Creates an empty index
+     *
+     * @param amountOf function returning the amount of a record in cents
+     */
+    public AmountIndex(ToLongFunction<T> amountOf) {
+        this.amountOf = amountOf;
+    }
+
+    /**
+     * Adds a record that was just added to the end of its list
+     *
+     * @param record the record to add
+     */
+    public void add(T record) {
+        long cents = amountOf.applyAsLong(record);
+        amounts.put(record, cents);
+        positions.append(record);
+        addToAmount(record, cents);
+    }
+
+    /**
+     * Removes a record that was removed from its list
+     *
+     * @param record the record to remove
+     */
+    public void remove(T record) {
+        Long cents = amounts.remove(record);
+        if (cents == null) {
+            return;
+        }
+        positions.remove(record);
+        removeFromAmount(record, cents);
+    }
+
+    /**
+     * Replaces a record with another one that took its place in the list
+     *
+     * @param oldRecord the record that was replaced
+     * @param newRecord the record that replaced it
+     */
+    public void replace(T oldRecord, T newRecord) {
+        Long cents = amounts.remove(oldRecord);
+        if (cents == null) {
+            return;
+        }
+        removeFromAmount(oldRecord, cents);
+        positions.replace(oldRecord, newRecord);
+        long newCents = amountOf.applyAsLong(newRecord);
+        amounts.put(newRecord, newCents);
+        addToAmount(newRecord, newCents);
+    }
+
+    /**
+     * Re-indexes a record whose amount was edited in place
+     *
+     * @param record the edited record
+     */
+    public void update(T record) {
+        replace(record, record);
+    }
+
+    /**
+     * Returns the records with the largest amounts, keyed by their index in the list, from
+     * the largest amount down. Records with equal amounts are in list order.
+     *
+     * @param count the number of records to return
+     * @return at most {@code count} records by index
+     */
+    public Map<Integer, T> findLargest(int count) {
+        Map<Integer, T> largestByIndex = new LinkedHashMap<>();
+        for (Set<T> amountRecords : recordsByAmount.descendingMap().values()) {
+            if (largestByIndex.size() >= count) {
+                break;
+            }
+            putInListOrder(largestByIndex, amountRecords, record -> true, count - largestByIndex.size());
+        }
+        return largestByIndex;
+    }
+
+    /**
+     * Returns the records with amounts within the given range, keyed by their index in the
+     * list, from the smallest amount up. Records with equal amounts are in list order.
+     *
+     * @param minCents smallest amount in cents, inclusive
+     * @param maxCents largest amount in cents, inclusive
+     * @return the records in the range by index
+     */
+    public Map<Integer, T> findInRange(long minCents, long maxCents) {
+        return findInRange(minCents, maxCents, record -> true);
+    }
+
+    /**
+     * Returns the records with amounts within the given range that also satisfy a condition,
+     * keyed by their index in the list, from the smallest amount up. Only the records that
+     * satisfy the condition are numbered.
+     *
+     * @param minCents  smallest amount in cents, inclusive
+     * @param maxCents  largest amount in cents, inclusive
+     * @param condition condition the records must satisfy
+     * @return the matching records by index
+     */
+    public Map<Integer, T> findInRange(long minCents, long maxCents, Predicate<T> condition) {
+        Map<Integer, T> inRangeByIndex = new LinkedHashMap<>();
+        if (minCents > maxCents) {
+            return inRangeByIndex;
+        }
+        NavigableMap<Long, Set<T>> inRange = recordsByAmount.subMap(minCents, true, maxCents, true);
+        for (Set<T> amountRecords : inRange.values()) {
+            putInListOrder(inRangeByIndex, amountRecords, condition, amountRecords.size());
+        }
+        return inRangeByIndex;
+    }
+
+    /**
+     * Puts the first records of an amount that satisfy a condition, in list order, into the results by index
+     *
+     * @param results       the results to add to
+     * @param amountRecords the records that share one amount
+     * @param condition     condition the records must satisfy
+     * @param count         the most records to add
+     */
+    private void putInListOrder(Map<Integer, T> results, Collection<T> amountRecords, Predicate<T> condition,
+            int count) {
+        List<Map.Entry<Integer, T>> recordsByIndex = new ArrayList<>(amountRecords.size());
+        for (T record : amountRecords) {
+            if (condition.test(record)) {
+                recordsByIndex.add(Map.entry(positions.indexOf(record), record));
+            }
+        }
+        recordsByIndex.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<Integer, T> recordByIndex : recordsByIndex.subList(0, Math.min(count, recordsByIndex.size()))) {
+            results.put(recordByIndex.getKey(), recordByIndex.getValue());
+        }
+    }
+
+    private void addToAmount(T record, long cents) {
+        Set<T> amountRecords = recordsByAmount.get(cents);
+        if (amountRecords == null) {
+            amountRecords = Collections.newSetFromMap(new IdentityHashMap<>(INITIAL_RECORDS_PER_AMOUNT));
+            recordsByAmount.put(cents, amountRecords);
+        }
+        amountRecords.add(record);
+    }
+
+    private void removeFromAmount(T record, long cents) {
+        Set<T> amountRecords = recordsByAmount.get(cents);
+        if (amountRecords != null) {
+            amountRecords.remove(record);
+            if (amountRecords.isEmpty()) {
+                recordsByAmount.remove(cents);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package finsight.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Indexes records that recur monthly by their day of the month, so that the records due on
+ * any date can be found without scanning the whole list.
+ *
+ * <p>Records are kept in 31 buckets, one per day of the month, held by identity. The
+ * records due on a date are those in the bucket for its day, plus, on the last day of a
+ * short month, those in the buckets for the days the month does not have, so a record due
+ * on the 31st falls on the 30th of April and the 28th or 29th of February. Finding the
+ * records due on a date therefore reads at most four buckets however many records there
+ * are, plus {@code O(log n)} per record returned to number it with {@link ListPositions}.
+ * Records due on the same date are returned in list order.</p>
+ *
+ * <p>The index is updated one record at a time as records are added and removed.</p>
+ *
+ * @param <T> type of record indexed
+ */
+public class DayOfMonthIndex<T> {
+    private static final int DAYS_IN_LONGEST_MONTH = 31;
+
+    private final List<Set<T>> recordsByDay = new ArrayList<>(DAYS_IN_LONGEST_MONTH + 1);
+    private final ListPositions<T> positions = new ListPositions<>();
+    private final ToIntFunction<T> dayOf;
+
+    /**
+     * Creates an empty index
+     *
+     * @param dayOf function returning the day of the month a record is due, from 1 to 31
+     */
+    public DayOfMonthIndex(ToIntFunction<T> dayOf) {
+        this.dayOf = dayOf;
+        for (int day = 0; day <= DAYS_IN_LONGEST_MONTH; day++) {
+            recordsByDay.add(Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+    }
+
+    /**
+     * Adds a record that was just added to the end of its list
+     *
+     * @param record the record to add
+     */
+    public void add(T record) {
+        positions.append(record);
+        recordsByDay.get(dayOf.applyAsInt(record)).add(record);
+    }
+
+    /**
+     * Removes a record that was removed from its list
+     *
+     * @param record the record to remove
+     */
+    public void remove(T record) {
+        if (recordsByDay.get(dayOf.applyAsInt(record)).remove(record)) {
+            positions.remove(record);
+        }
+    }
+
+    /**
+     * Returns the records due on a date, keyed by their index in the list, in list order
+     *
+     * @param date the date
+     * @return the records due on the date by index
+     */
+    public Map<Integer, T> findDueOn(LocalDate date) {
+        int lastDay = date.getDayOfMonth() == date.lengthOfMonth() ? DAYS_IN_LONGEST_MONTH : date.getDayOfMonth();
+        List<Map.Entry<Integer, T>> recordsByIndex = new ArrayList<>();
+        for (int day = date.getDayOfMonth(); day <= lastDay; day++) {
+            for (T record : recordsByDay.get(day)) {
+                recordsByIndex.add(Map.entry(positions.indexOf(record), record));
+            }
+        }
+        recordsByIndex.sort(Map.Entry.comparingByKey());
+        Map<Integer, T> dueByIndex = new LinkedHashMap<>();
+        for (Map.Entry<Integer, T> recordByIndex : recordsByIndex) {
+            dueByIndex.put(recordByIndex.getKey(), recordByIndex.getValue());
+        }
+        return dueByIndex;
+    }
+
+    /**
+     * Returns the records due on each date of a range that has any, in date order
+     *
+     * @param from first date of the range, inclusive
+     * @param to   last date of the range, inclusive
+     * @return the records due on each date by index, leaving out dates with none
+     */
+    public Map<LocalDate, Map<Integer, T>> findDueBetween(LocalDate from, LocalDate to) {
+        Map<LocalDate, Map<Integer, T>> dueByDate = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Map<Integer, T> due = findDueOn(date);
+            if (!due.isEmpty()) {
+                dueByDate.put(date, due);
+            }
+        }
+        return dueByDate;
+    }
+}
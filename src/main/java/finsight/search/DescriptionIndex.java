@@ -0,0 +1,274 @@
+package finsight.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Indexes records by the words in their descriptions, so that records can be found by
+ * word or word prefix without scanning every description.
+ *
+ * <p>Each description is split into lower case tokens of letters and digits. The index
+ * maps every token to the records whose description contains it, and keeps the tokens in a
+ * sorted set so that all tokens starting with a prefix form one contiguous range. A record matches a query
+ * when every query term is a prefix of at least one of its tokens. Records are held by
+ * identity, so two records with the same description are still told apart.</p>
+ *
+ * <p>The index is updated one record at a time as records are added, removed, replaced or
+ * edited. It also keeps track of where each record is in its list with {@link ListPositions},
+ * so that matches can be numbered the way they are listed without scanning the list.</p>
+ *
+ * @param <T> type of record indexed
+ */
+public class DescriptionIndex<T> {
+    private static final char MAX_CHAR = Character.MAX_VALUE;
+    private static final int INITIAL_RECORDS_PER_TOKEN = 2;
+    private static final int MAX_TOKENS_TO_LOOK_UP = 8;
+
+    private final HashMap<String, Set<T>> recordsByToken = new HashMap<>();
+    private final TreeSet<String> sortedTokens = new TreeSet<>();
+    private final IdentityHashMap<T, String> descriptions = new IdentityHashMap<>();
+    private final ListPositions<T> positions = new ListPositions<>();
+    private final Function<T, String> descriptionOf;
+
+    /**
+     * Creates an empty index
+     *
+     * @param descriptionOf function returning the description of a record
+     */
+    public DescriptionIndex(Function<T, String> descriptionOf) {
+        this.descriptionOf = descriptionOf;
+    }
+
+    /**
+     * Splits text into lower case tokens of letters and digits
+     *
+     * @param text the text to split
+     * @return the tokens in the order they appear, possibly with duplicates
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int tokenStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isTokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isTokenChar && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!isTokenChar && tokenStart >= 0) {
+                tokens.add(text.substring(tokenStart, i).toLowerCase(Locale.ROOT));
+                tokenStart = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Adds a record that was just added to the end of its list
+     *
+     * @param record the record to add
+     */
+    public void add(T record) {
+        String description = descriptionOf.apply(record);
+        descriptions.put(record, description);
+        positions.append(record);
+        addTokens(record, description);
+    }
+
+    /**
+     * Removes a record that was removed from its list
+     *
+     * @param record the record to remove
+     */
+    public void remove(T record) {
+        String description = descriptions.remove(record);
+        if (description == null) {
+            return;
+        }
+        positions.remove(record);
+        removeTokens(record, description);
+    }
+
+    /**
+     * Replaces a record with another one that took its place in the list
+     *
+     * @param oldRecord the record that was replaced
+     * @param newRecord the record that replaced it
+     */
+    public void replace(T oldRecord, T newRecord) {
+        String description = descriptions.remove(oldRecord);
+        if (description == null) {
+            return;
+        }
+        removeTokens(oldRecord, description);
+        positions.replace(oldRecord, newRecord);
+        String newDescription = descriptionOf.apply(newRecord);
+        descriptions.put(newRecord, newDescription);
+        addTokens(newRecord, newDescription);
+    }
+
+    /**
+     * Re-indexes a record whose description was edited in place
+     *
+     * @param record the edited record
+     */
+    public void update(T record) {
+        replace(record, record);
+    }
+
+    /**
+     * Returns the records whose descriptions contain a token starting with every term of the query
+     *
+     * <p>Only the records under the term matching the fewest records are visited. Each of
+     * them is checked against the other terms, rarest first, by looking it up in the record
+     * sets of their tokens, or by reading its description if a term is a prefix of many
+     * tokens. This avoids intersecting the large record sets of common terms.</p>
+     *
+     * @param query the search terms, separated by spaces or punctuation
+     * @return the matching records, in no particular order
+     */
+    public Set<T> find(String query) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        Set<T> matches = newRecordSet();
+        if (terms.isEmpty()) {
+            return matches;
+        }
+        Map<String, Long> recordCounts = new HashMap<>();
+        for (String term : terms) {
+            recordCounts.put(term, countPrefix(term));
+        }
+        terms.sort(Comparator.comparing(recordCounts::get));
+
+        List<List<Set<T>>> otherTermTokens = new ArrayList<>();
+        for (String term : terms.subList(1, terms.size())) {
+            otherTermTokens.add(tokensWithPrefix(term));
+        }
+        for (Set<T> tokenRecords : tokensWithPrefix(terms.get(0))) {
+            for (T record : tokenRecords) {
+                if (!matches.contains(record) && hasEveryPrefix(record, terms, otherTermTokens)) {
+                    matches.add(record);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the records that match the query, keyed by their index in the list and in list order
+     *
+     * @param query the search terms, separated by spaces or punctuation
+     * @return the matching records by index
+     */
+    public Map<Integer, T> findByIndex(String query) {
+        TreeMap<Integer, T> matchesByIndex = new TreeMap<>();
+        for (T record : find(query)) {
+            matchesByIndex.put(positions.indexOf(record), record);
+        }
+        return matchesByIndex;
+    }
+
+    private void addTokens(T record, String description) {
+        for (String token : tokenize(description)) {
+            Set<T> records = recordsByToken.get(token);
+            if (records == null) {
+                records = newRecordSet();
+                recordsByToken.put(token, records);
+                sortedTokens.add(token);
+            }
+            records.add(record);
+        }
+    }
+
+    private void removeTokens(T record, String description) {
+        for (String token : tokenize(description)) {
+            Set<T> records = recordsByToken.get(token);
+            if (records != null) {
+                records.remove(record);
+                if (records.isEmpty()) {
+                    recordsByToken.remove(token);
+                    sortedTokens.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of records under the tokens starting with the given prefix,
+     * counting a record once per matching token
+     *
+     * @param prefix the lower case prefix
+     * @return the number of records counted
+     */
+    private long countPrefix(String prefix) {
+        long count = 0;
+        for (Set<T> tokenRecords : tokensWithPrefix(prefix)) {
+            count += tokenRecords.size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the record sets of all tokens starting with the given prefix
+     *
+     * @param prefix the lower case prefix
+     * @return the record set of each token with the prefix
+     */
+    private List<Set<T>> tokensWithPrefix(String prefix) {
+        List<Set<T>> tokenRecords = new ArrayList<>();
+        for (String token : sortedTokens.subSet(prefix, true, prefix + MAX_CHAR, false)) {
+            tokenRecords.add(recordsByToken.get(token));
+        }
+        return tokenRecords;
+    }
+
+    /**
+     * Returns whether the record has a token starting with each of the terms after the first
+     *
+     * @param record          the record to check
+     * @param terms           the lower case terms, the first of which the record is known to match
+     * @param otherTermTokens the tokens starting with each term after the first, with their records
+     * @return true if the record matches every term
+     */
+    private boolean hasEveryPrefix(T record, List<String> terms, List<List<Set<T>>> otherTermTokens) {
+        List<String> tokens = null;
+        for (int i = 0; i < otherTermTokens.size(); i++) {
+            List<Set<T>> termTokens = otherTermTokens.get(i);
+            boolean hasPrefix = false;
+            if (termTokens.size() <= MAX_TOKENS_TO_LOOK_UP) {
+                for (Set<T> tokenRecords : termTokens) {
+                    if (tokenRecords.contains(record)) {
+                        hasPrefix = true;
+                        break;
+                    }
+                }
+            } else {
+                if (tokens == null) {
+                    tokens = tokenize(descriptions.get(record));
+                }
+                String term = terms.get(i + 1);
+                for (String token : tokens) {
+                    if (token.startsWith(term)) {
+                        hasPrefix = true;
+                        break;
+                    }
+                }
+            }
+            if (!hasPrefix) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<T> newRecordSet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>(INITIAL_RECORDS_PER_TOKEN));
+    }
+}
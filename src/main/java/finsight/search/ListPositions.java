@@ -0,0 +1,107 @@
+package finsight.search;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of the index of each record in a list that only grows at the end, so that
+ * the index of any record can be found without scanning the list.
+ *
+ * <p>Every record gets an increasing sequence number when it is appended. A Fenwick tree
+ * over the sequence numbers of the records still in the list counts the records before
+ * any sequence number in {@code O(log n)}, which is the index of the record with that
+ * sequence number. A record that replaces another at the same index takes over its
+ * sequence number.</p>
+ *
+ * @param <T> type of record tracked
+ */
+class ListPositions<T> {
+    private static final int MIN_CAPACITY = 16;
+
+    private final IdentityHashMap<T, Integer> sequences = new IdentityHashMap<>();
+    private int[] presentCounts = new int[MIN_CAPACITY + 1];
+    private int nextSequence = 1;
+
+    /**
+     * Tracks a record that was just appended to the list
+     *
+     * @param record the appended record
+     */
+    void append(T record) {
+        if (nextSequence >= presentCounts.length) {
+            renumber();
+        }
+        sequences.put(record, nextSequence);
+        updatePresentCount(nextSequence, 1);
+        nextSequence++;
+    }
+
+    /**
+     * Stops tracking a record that was removed from the list
+     *
+     * @param record the removed record
+     */
+    void remove(T record) {
+        Integer sequence = sequences.remove(record);
+        if (sequence != null) {
+            updatePresentCount(sequence, -1);
+        }
+    }
+
+    /**
+     * Tracks a record that took the place of another record in the list
+     *
+     * @param oldRecord the record that was replaced
+     * @param newRecord the record that replaced it
+     */
+    void replace(T oldRecord, T newRecord) {
+        Integer sequence = sequences.remove(oldRecord);
+        if (sequence != null) {
+            sequences.put(newRecord, sequence);
+        }
+    }
+
+    /**
+     * Returns the index of a tracked record in the list
+     *
+     * @param record the record
+     * @return the index of the record
+     */
+    int indexOf(T record) {
+        int count = 0;
+        for (int i = sequences.get(record) - 1; i > 0; i -= i & -i) {
+            count += presentCounts[i];
+        }
+        return count;
+    }
+
+    private void updatePresentCount(int sequence, int delta) {
+        for (int i = sequence; i < presentCounts.length; i += i & -i) {
+            presentCounts[i] += delta;
+        }
+    }
+
+    /**
+     * Numbers the records in the list from 1 again, keeping their order, and resizes the
+     * Fenwick tree to twice their number. Runs when the sequence numbers run out, so the
+     * cost is spread over at least as many appends as there are records.
+     */
+    private void renumber() {
+        List<Map.Entry<T, Integer>> presentRecords = new ArrayList<>(sequences.entrySet());
+        presentRecords.sort(Map.Entry.comparingByValue());
+        presentCounts = new int[Math.max(MIN_CAPACITY, 2 * presentRecords.size()) + 1];
+        nextSequence = 1;
+        for (Map.Entry<T, Integer> presentRecord : presentRecords) {
+            presentCounts[nextSequence]++;
+            sequences.put(presentRecord.getKey(), nextSequence++);
+        }
+        for (int i = 1; i < presentCounts.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < presentCounts.length) {
+                presentCounts[parent] += presentCounts[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package finsight.search.exceptions;
+
+/**
+ * Exception thrown if a list command filtered by amount has empty sub commands, sub commands
+ * in the wrong order, invalid amounts or a minimum above its maximum
+ */
+public class AmountRangeWrongFormatException extends Exception {
+    private final String recordType;
+
+    /**
+     * Constructs the exception for the list command of the given type of record
+     *
+     * @param recordType Type of record listed, e.g. expense
+     */
+    public AmountRangeWrongFormatException(String recordType) {
+        this.recordType = recordType;
+    }
+
+    @Override
+    public String getMessage() {
+        return "List Command is in the wrong format. Please try again with the format:\n" +
+                "\tlist " + recordType + " min/<AMOUNT> max/<AMOUNT>\n" +
+                "where either sub command may be left out and min/ is not above max/";
+    }
+}
@@ -0,0 +1,13 @@
+package finsight.search.exceptions;
+
+/**
+ * Exception thrown if find command is used without any search terms
+ */
+public class FindCommandMissingTermsException extends Exception {
+    @Override
+    public String getMessage() {
+        return "Find Command is missing search terms. Please try again with the format:\n" +
+                "\tfind <TERMS>\n" +
+                "where <TERMS> are one or more words or starts of words in the description";
+    }
+}
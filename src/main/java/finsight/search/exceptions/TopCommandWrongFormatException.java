@@ -0,0 +1,24 @@
+package finsight.search.exceptions;
+
+/**
+ * Exception thrown if a top command has a missing, empty or non-positive count
+ */
+public class TopCommandWrongFormatException extends Exception {
+    private final String recordType;
+
+    /**
+     * Constructs the exception for the top command of the given type of record
+     *
+     * @param recordType Type of record ranked, e.g. expense
+     */
+    public TopCommandWrongFormatException(String recordType) {
+        this.recordType = recordType;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Top Command is in the wrong format. Please try again with the format:\n" +
+                "\ttop " + recordType + " k/<COUNT>\n" +
+                "where <COUNT> is a positive whole number";
+    }
+}
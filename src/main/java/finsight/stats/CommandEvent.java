@@ -0,0 +1,38 @@
+package finsight.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a Java Flight Recorder event emitted for every command run by the user.
+ *
+ * <p>The event is only committed while a recording with {@code finsight.Command} enabled
+ * is running. Otherwise {@link #shouldCommit()} returns {@code false} and the fields are
+ * never filled in, so an idle event costs close to nothing.</p>
+ */
+@Name("finsight.Command")
+@Label("Command")
+@Category("FinSight")
+@Description("Execution of a single user command")
+@StackTrace(false)
+public class CommandEvent extends Event {
+    @Label("Command")
+    @Description("Keyword of the command that was run")
+    public String command;
+
+    @Label("Input Length")
+    @Description("Number of characters in the user input")
+    public int inputLength;
+
+    @Label("Outcome")
+    @Description("success, error if the command was rejected, or failed if it threw unexpectedly")
+    public String outcome;
+
+    @Label("Exception Class")
+    @Description("Class of the exception thrown by the command, if any")
+    public String exceptionClass;
+}
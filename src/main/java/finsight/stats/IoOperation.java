@@ -0,0 +1,38 @@
+package finsight.stats;
+
+/**
+ * Represents the kinds of storage I/O performed by a {@link finsight.storage.DataManager}.
+ */
+public enum IoOperation {
+    LOAD("load", true),
+    TAIL_READ("tail read", true),
+    APPEND("append", false),
+    REWRITE("rewrite", false),
+    FORCE("force", false);
+
+    private final String label;
+    private final boolean isRead;
+
+    IoOperation(String label, boolean isRead) {
+        this.label = label;
+        this.isRead = isRead;
+    }
+
+    /**
+     * Returns the label shown for this operation by the {@code stats} command
+     *
+     * @return label of the operation
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns whether this operation reads from the data file rather than writing to it
+     *
+     * @return true if the bytes moved by this operation are bytes read
+     */
+    public boolean isRead() {
+        return isRead;
+    }
+}
@@ -0,0 +1,108 @@
+package finsight.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Represents a fixed-bucket latency histogram that records durations in nanoseconds.
+ *
+ * <p>Buckets are log-linear: every power-of-two range is split into
+ * {@value #SUB_BUCKET_COUNT} equal sub-buckets, so any recorded value is reported with a
+ * relative error of at most 12.5%. All buckets are allocated up front, which means
+ * {@link #record(long)} never allocates and is safe to call from multiple threads.</p>
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records a single duration. Negative durations are treated as zero.
+     *
+     * @param elapsedNanos the duration to record, in nanoseconds
+     */
+    public void record(long elapsedNanos) {
+        long value = Math.max(0, elapsedNanos);
+        bucketCounts.incrementAndGet(bucketIndexOf(value));
+        totalCount.incrementAndGet();
+        maxValue.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Returns the number of durations recorded so far.
+     *
+     * @return the total count of recorded durations
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Returns the largest duration recorded so far.
+     *
+     * @return the maximum duration in nanoseconds, or {@code 0} if nothing was recorded
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Returns the duration at or below which the given fraction of recorded durations fall.
+     * The result is the upper bound of the matching bucket, capped at {@link #getMax()}.
+     *
+     * @param percentile the fraction to look up, between {@code 0.0} and {@code 1.0}
+     * @return the duration in nanoseconds at the given percentile, or {@code 0} if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        assert percentile >= 0.0 && percentile <= 1.0 : "percentile must be between 0 and 1";
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += bucketCounts.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * Returns the bucket that holds the given non-negative value.
+     *
+     * @param value the value to locate
+     * @return the index of the bucket holding {@code value}
+     */
+    static int bucketIndexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the largest value that falls into the given bucket.
+     *
+     * @param index the index of the bucket
+     * @return the inclusive upper bound of the bucket
+     */
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
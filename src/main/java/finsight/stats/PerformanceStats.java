@@ -0,0 +1,124 @@
+package finsight.stats;
+
+import finsight.parser.CommandType;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the latency of every command and storage operation for the current session.
+ *
+ * <p>Command latencies are kept per {@link CommandType} and storage latencies per
+ * {@link IoOperation}, each in its own {@link LatencyHistogram}. Every histogram is
+ * created up front so recording a timing never allocates. The number of bytes read
+ * from and written to each data file is tracked alongside.</p>
+ */
+public final class PerformanceStats {
+    private static final EnumMap<CommandType, LatencyHistogram> COMMAND_LATENCIES = new EnumMap<>(CommandType.class);
+    private static final EnumMap<IoOperation, LatencyHistogram> IO_LATENCIES = new EnumMap<>(IoOperation.class);
+    private static final ConcurrentSkipListMap<String, FileTraffic> FILE_TRAFFIC = new ConcurrentSkipListMap<>();
+
+    static {
+        for (CommandType commandType : CommandType.values()) {
+            COMMAND_LATENCIES.put(commandType, new LatencyHistogram());
+        }
+        for (IoOperation operation : IoOperation.values()) {
+            IO_LATENCIES.put(operation, new LatencyHistogram());
+        }
+    }
+
+    private PerformanceStats() {
+    }
+
+    /**
+     * Records how long a command took to run
+     *
+     * @param commandType  Type of the command that was run
+     * @param elapsedNanos Time taken in nanoseconds
+     */
+    public static void recordCommand(CommandType commandType, long elapsedNanos) {
+        COMMAND_LATENCIES.get(commandType).record(elapsedNanos);
+    }
+
+    /**
+     * Records how long a storage operation took and how many bytes it moved
+     *
+     * @param dataFile     Data file the operation was performed on
+     * @param operation    Kind of storage operation
+     * @param elapsedNanos Time taken in nanoseconds
+     * @param bytes        Number of bytes read for a load or tail read, or written otherwise
+     */
+    public static void recordIo(Path dataFile, IoOperation operation, long elapsedNanos, long bytes) {
+        IO_LATENCIES.get(operation).record(elapsedNanos);
+
+        FileTraffic traffic = trafficOf(dataFile.toString());
+        if (operation.isRead()) {
+            traffic.bytesRead.addAndGet(bytes);
+        } else {
+            traffic.bytesWritten.addAndGet(bytes);
+        }
+    }
+
+    /**
+     * Returns the latency histogram of the given command type
+     *
+     * @param commandType Type of command
+     * @return latency histogram of the command type
+     */
+    public static LatencyHistogram getCommandLatency(CommandType commandType) {
+        return COMMAND_LATENCIES.get(commandType);
+    }
+
+    /**
+     * Returns the latency histogram of the given storage operation
+     *
+     * @param operation Kind of storage operation
+     * @return latency histogram of the storage operation
+     */
+    public static LatencyHistogram getIoLatency(IoOperation operation) {
+        return IO_LATENCIES.get(operation);
+    }
+
+    /**
+     * Returns the number of bytes read from each data file, ordered by file name
+     *
+     * @return map of data file name to bytes read
+     */
+    public static Map<String, Long> getBytesRead() {
+        Map<String, Long> bytesRead = new LinkedHashMap<>();
+        FILE_TRAFFIC.forEach((file, traffic) -> bytesRead.put(file, traffic.bytesRead.get()));
+        return bytesRead;
+    }
+
+    /**
+     * Returns the number of bytes written to each data file, ordered by file name
+     *
+     * @return map of data file name to bytes written
+     */
+    public static Map<String, Long> getBytesWritten() {
+        Map<String, Long> bytesWritten = new LinkedHashMap<>();
+        FILE_TRAFFIC.forEach((file, traffic) -> bytesWritten.put(file, traffic.bytesWritten.get()));
+        return bytesWritten;
+    }
+
+    private static FileTraffic trafficOf(String dataFile) {
+        FileTraffic traffic = FILE_TRAFFIC.get(dataFile);
+        if (traffic == null) {
+            FILE_TRAFFIC.putIfAbsent(dataFile, new FileTraffic());
+            traffic = FILE_TRAFFIC.get(dataFile);
+        }
+        return traffic;
+    }
+
+    /**
+     * Holds the running byte counts of a single data file.
+     */
+    private static final class FileTraffic {
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong bytesWritten = new AtomicLong();
+    }
+}
@@ -0,0 +1,40 @@
+package finsight.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a Java Flight Recorder event emitted for every load, append and rewrite
+ * of a data file by a {@link finsight.storage.DataManager}.
+ *
+ * <p>Like {@link CommandEvent}, the fields are only filled in when {@link #shouldCommit()}
+ * returns {@code true}, which keeps the event nearly free when no recording is running.</p>
+ */
+@Name("finsight.Storage")
+@Label("Storage I/O")
+@Category("FinSight")
+@Description("Load, append or rewrite of a data file")
+@StackTrace(false)
+public class StorageEvent extends Event {
+    @Label("Operation")
+    @Description("load, append or rewrite")
+    public String operation;
+
+    @Label("File")
+    @Description("Path of the data file")
+    public String file;
+
+    @Label("Records")
+    @Description("Number of records loaded or written")
+    public int records;
+
+    @Label("Bytes")
+    @Description("Number of bytes read for a load, or written otherwise")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+}
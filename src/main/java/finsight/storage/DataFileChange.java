@@ -0,0 +1,60 @@
+package finsight.storage;
+
+import java.util.List;
+
+/**
+ * Represents a change made to a data file by another program since FinSight last read or
+ * wrote it: either records appended to the end of the file, or a file that shrank or was
+ * replaced and has been reloaded in full.
+ *
+ * @param <T> the type of record in the data file
+ */
+public final class DataFileChange<T> {
+    private final List<T> records;
+    private final boolean isReload;
+
+    private DataFileChange(List<T> records, boolean isReload) {
+        this.records = records;
+        this.isReload = isReload;
+    }
+
+    /**
+     * Returns a change that appended records to the end of the data file
+     *
+     * @param appendedRecords the records appended, in file order
+     * @param <T>             the type of record
+     * @return the change
+     */
+    static <T> DataFileChange<T> appended(List<T> appendedRecords) {
+        return new DataFileChange<>(appendedRecords, false);
+    }
+
+    /**
+     * Returns a change that replaced the contents of the data file
+     *
+     * @param allRecords every record now in the data file, in file order
+     * @param <T>        the type of record
+     * @return the change
+     */
+    static <T> DataFileChange<T> reloaded(List<T> allRecords) {
+        return new DataFileChange<>(allRecords, true);
+    }
+
+    /**
+     * Returns whether the whole data file was reloaded, rather than only its new records read
+     *
+     * @return true if {@link #getRecords()} replaces the records in memory
+     */
+    public boolean isReload() {
+        return isReload;
+    }
+
+    /**
+     * Returns the appended records, or every record in the file if it was reloaded
+     *
+     * @return the records, in file order
+     */
+    public List<T> getRecords() {
+        return records;
+    }
+}
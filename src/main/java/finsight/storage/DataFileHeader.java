@@ -0,0 +1,140 @@
+package finsight.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Represents the header line at the start of a data file, holding the version of the record
+ * format, the number of fields in every record and the number of records in the file, e.g.
+ * {@code #FINSIGHT v1 fields=3 records=0000000042}.
+ *
+ * <p>A file whose header has the current version and the field count its data manager expects
+ * is known to hold only records written in the current format, so it can be parsed without
+ * allowing for older record shapes, into a list sized from the record count. Files written
+ * before the header existed have no header and are parsed as before.</p>
+ *
+ * <p>The record count always has {@value #RECORD_COUNT_DIGITS} digits, so that it can be
+ * updated in place after an append without moving the rest of the file. It is only ever used
+ * to size the list of records, never to limit how many are read, so a count left behind by
+ * another program appending to the file does no harm. The header has no field delimiters, so
+ * older versions of FinSight skip it as a malformed record.</p>
+ */
+final class DataFileHeader {
+    static final int CURRENT_VERSION = 1;
+    static final int MAX_LENGTH = 64;
+    private static final int RECORD_COUNT_DIGITS = 10;
+    private static final String PREFIX = "#FINSIGHT v";
+    private static final Pattern HEADER_PATTERN = Pattern.compile(
+            "#FINSIGHT v(\\d{1,9}) fields=(\\d{1,9}) records=(\\d{" + RECORD_COUNT_DIGITS + "})");
+
+    private final int version;
+    private final int fieldCount;
+    private final long recordCount;
+
+    private DataFileHeader(int version, int fieldCount, long recordCount) {
+        this.version = version;
+        this.fieldCount = fieldCount;
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * Returns the header of a file written in the current format
+     *
+     * @param fieldCount  number of fields in every record
+     * @param recordCount number of records in the file
+     * @return the header
+     */
+    static DataFileHeader current(int fieldCount, long recordCount) {
+        return new DataFileHeader(CURRENT_VERSION, fieldCount, recordCount);
+    }
+
+    /**
+     * Parses the first line of a data file as a header
+     *
+     * @param line the first line of the file, without its line break
+     * @return the header, or {@code null} if the line is not a header
+     */
+    static DataFileHeader parse(String line) {
+        if (!line.startsWith(PREFIX)) {
+            return null;
+        }
+        Matcher matcher = HEADER_PATTERN.matcher(line);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new DataFileHeader(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                Long.parseLong(matcher.group(3)));
+    }
+
+    /**
+     * Parses the start of a plain data file as a header
+     *
+     * @param bytes  the first bytes of the file
+     * @param length the number of bytes read
+     * @return the header, or {@code null} if the file does not start with one
+     */
+    static DataFileHeader parse(byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == '\n') {
+                int lineEnd = i > 0 && bytes[i - 1] == '\r' ? i - 1 : i;
+                return parse(new String(bytes, 0, lineEnd, StandardCharsets.US_ASCII));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the file holds only records written in the current format
+     *
+     * @param expectedFieldCount the number of fields the data manager writes in every record
+     * @return true if the version is current and the field count matches
+     */
+    boolean isCurrent(int expectedFieldCount) {
+        return version == CURRENT_VERSION && fieldCount == expectedFieldCount;
+    }
+
+    long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the offset of the record count from the start of the file
+     *
+     * @return the offset in bytes of the first digit of the record count
+     */
+    int getRecordCountOffset() {
+        return format().length() - RECORD_COUNT_DIGITS;
+    }
+
+    /**
+     * Returns a copy of this header with another record count
+     *
+     * @param newRecordCount the number of records now in the file
+     * @return the updated header
+     */
+    DataFileHeader withRecordCount(long newRecordCount) {
+        return new DataFileHeader(version, fieldCount, newRecordCount);
+    }
+
+    /**
+     * Returns the header line, without a line break
+     *
+     * @return the header line
+     */
+    String format() {
+        String digits = Long.toString(recordCount);
+        return PREFIX + version + " fields=" + fieldCount + " records="
+                + "0".repeat(Math.max(0, RECORD_COUNT_DIGITS - digits.length())) + digits;
+    }
+
+    /**
+     * Returns the record count as it appears in the header line
+     *
+     * @return the ASCII digits of the record count
+     */
+    byte[] formatRecordCount() {
+        String header = format();
+        return header.substring(header.length() - RECORD_COUNT_DIGITS).getBytes(StandardCharsets.US_ASCII);
+    }
+}
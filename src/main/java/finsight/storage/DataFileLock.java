@@ -0,0 +1,175 @@
+package finsight.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents the lock that instances of FinSight sharing a data directory take on a data file
+ * before reading or writing it, held as a {@link FileLock} on a sidecar file named after the
+ * data file with a {@value #SUFFIX} suffix.
+ *
+ * <p>The data file itself cannot carry the lock, since every rewrite replaces it with another
+ * file through an atomic move, while the lock file is never replaced. Two bytes of it are locked:</p>
+ * <ul>
+ *   <li>the contents byte, held shared while the data file is read or appended to, and
+ *       exclusively while it is rewritten, so that loads run side by side and a rewrite
+ *       waits for them to finish;</li>
+ *   <li>the append byte, held exclusively while records are appended, so that two appends
+ *       do not interleave their lines or their updates to the record count. Readers never
+ *       take it, so an append does not block them.</li>
+ * </ul>
+ *
+ * <p>Within one process, the file locks of a data file are taken through a single instance,
+ * one operation at a time, since the JVM does not allow a process to hold overlapping locks
+ * on the same file. A lock may be taken again by an operation already holding it, e.g. to
+ * read the lines appended by another program during a rewrite; an exclusive lock covers any
+ * shared lock taken inside it. The lock file is only open while a lock is held, so it never
+ * keeps the data directory from being moved or deleted.</p>
+ */
+final class DataFileLock {
+    static final String SUFFIX = ".lock";
+    private static final long CONTENTS_POSITION = 0;
+    private static final long APPEND_POSITION = 1;
+    private static final long LOCKED_SIZE = 1;
+    private static final Map<Path, DataFileLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final ReentrantLock processLock = new ReentrantLock();
+    private FileChannel channel;
+    private FileLock contentsLock;
+
+    private DataFileLock(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the lock on a data file, shared by every data manager of that file in this process
+     *
+     * @param dataFile path of the data file
+     * @return the lock on the data file
+     */
+    static DataFileLock of(Path dataFile) {
+        Path absoluteDataFile = dataFile.toAbsolutePath().normalize();
+        return LOCKS.computeIfAbsent(absoluteDataFile.resolveSibling(absoluteDataFile.getFileName() + SUFFIX),
+                DataFileLock::new);
+    }
+
+    /**
+     * Takes a shared lock for reading the data file, waiting for any rewrite to finish
+     *
+     * @return the lock held, released when closed
+     * @throws IOException if the lock file cannot be opened or locked
+     */
+    Closeable lockForRead() throws IOException {
+        return lockContents(true);
+    }
+
+    /**
+     * Takes an exclusive lock for rewriting the data file, waiting for every read and append
+     * to finish
+     *
+     * @return the lock held, released when closed
+     * @throws IOException if the lock file cannot be opened or locked
+     */
+    Closeable lockForRewrite() throws IOException {
+        return lockContents(false);
+    }
+
+    /**
+     * Takes a lock for appending to the data file, which waits for any rewrite or other append
+     * to finish but lets reads go on
+     *
+     * @return the lock held, released when closed
+     * @throws IOException if the lock file cannot be opened or locked
+     */
+    Closeable lockForAppend() throws IOException {
+        Closeable contents = lockContents(true);
+        FileLock appendLock;
+        try {
+            appendLock = channel.lock(APPEND_POSITION, LOCKED_SIZE, false);
+        } catch (IOException | RuntimeException e) {
+            contents.close();
+            throw e;
+        }
+        return () -> {
+            try {
+                appendLock.release();
+            } finally {
+                contents.close();
+            }
+        };
+    }
+
+    /**
+     * Returns whether another process is appending to the data file right now, in which case
+     * its last line may still be incomplete. Must be called while holding a lock for reading.
+     *
+     * @return true if the append byte is locked by another process, or through another channel
+     *     in this one
+     * @throws IOException if the lock file cannot be locked
+     */
+    boolean isAppendInProgress() throws IOException {
+        assert processLock.isHeldByCurrentThread() : "the data file must be locked for reading";
+        FileLock appendLock;
+        try {
+            appendLock = channel.tryLock(APPEND_POSITION, LOCKED_SIZE, true);
+        } catch (OverlappingFileLockException e) {
+            return true;
+        }
+        if (appendLock == null) {
+            return true;
+        }
+        appendLock.release();
+        return false;
+    }
+
+    /**
+     * Takes the lock on the contents byte, unless this thread already holds it
+     *
+     * @param isShared whether to take a shared lock rather than an exclusive one
+     * @return the lock held, released when closed
+     * @throws IOException if the lock file cannot be opened or locked
+     */
+    private Closeable lockContents(boolean isShared) throws IOException {
+        processLock.lock();
+        if (contentsLock != null) {
+            assert isShared || !contentsLock.isShared() : "a shared lock cannot be made exclusive";
+            return processLock::unlock;
+        }
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            contentsLock = channel.lock(CONTENTS_POSITION, LOCKED_SIZE, isShared);
+        } catch (IOException | RuntimeException e) {
+            unlockContents();
+            throw e;
+        }
+        return this::unlockContents;
+    }
+
+    /**
+     * Releases the lock on the contents byte by closing the lock file, then lets the next
+     * operation in this process take it
+     *
+     * @throws IOException if the lock file cannot be closed
+     */
+    private void unlockContents() throws IOException {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            channel = null;
+            contentsLock = null;
+            processLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package finsight.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches one data file for changes made by any program, using a {@link WatchService} on
+ * its directory and a daemon thread that waits for events.
+ *
+ * <p>The watcher only reports that the file may have changed. Working out what changed,
+ * and whether it was FinSight's own write, is left to {@link DataManager}, so no file is
+ * read on the watcher thread.</p>
+ */
+final class DataFileWatcher implements Closeable {
+    private final WatchService watchService;
+
+    /**
+     * Starts watching a file
+     *
+     * @param file     the file to watch; its directory must exist
+     * @param onChange called on the watcher thread whenever the file is created, modified or deleted
+     * @throws IOException if the directory cannot be watched
+     */
+    DataFileWatcher(Path file, Runnable onChange) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path fileName = file.getFileName();
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        Thread watcherThread = new Thread(() -> watch(fileName, onChange), "data-file-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void watch(Path fileName, Runnable onChange) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                        onChange.run();
+                    }
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watcher was closed, so stop watching
+        }
+    }
+
+    /**
+     * Stops watching the file
+     *
+     * @throws IOException if an I/O error occurs while closing the watch service
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -1,16 +1,33 @@
 package finsight.storage;
 
+import finsight.stats.IoOperation;
+import finsight.stats.PerformanceStats;
+import finsight.stats.StorageEvent;
 import finsight.ui.Ui;
 
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Represents an abstract data manager that handles reading and writing operations
@@ -40,8 +57,36 @@ public abstract class DataManager<T, X extends Exception> {
     protected static final int SPLIT_KEEP_EMPTY_FIELDS = -1;
 
     private static final String REPLACE_TARGET = "|";
+    private static final char FIELD_DELIMITER_CHAR = '|';
     private static final String ENCODED_PIPE = "%7C";
     private static final String ENCODED_PERCENT = "%25";
+    private static final String COMPRESSION_PROPERTY = "finsight.compress";
+    private static final int GZIP_MAGIC_FIRST_BYTE = 0x1f;
+    private static final int GZIP_MAGIC_SECOND_BYTE = 0x8b;
+    private static final int COMPRESSION_BUFFER_SIZE = 1 << 16;
+    private static final String DAMAGED_COPY_SUFFIX = ".corrupt";
+
+    private static final int MAX_TAIL_BYTES = 64 << 20;
+    private static final int LINE_COUNT_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_REPORTED_SKIPPED_LINES = 5;
+    private static final String MISSING_FIELDS_REASON = "missing fields";
+
+    private static ScheduledExecutorService forceScheduler;
+
+    private boolean isCompressed = Boolean.getBoolean(COMPRESSION_PROPERTY);
+    private Object syncedFileKey;
+    private long syncedBytes = -1;
+    private int syncedLines = -1;
+    private boolean isReloadRequired = false;
+    private volatile boolean hasExternalChanges = false;
+    private DataFileWatcher watcher;
+    private QuarantineFile quarantine;
+    private DataFileLock fileLock;
+    private boolean isCurrentFormat = false;
+    private Path damagedCopy;
+    private DurabilityPolicy durability = DurabilityPolicy.configured();
+    private boolean hasUnforcedWrites = false;
+    private boolean isForceScheduled = false;
 
     /**
      * Returns the path to the data file managed by the subclass.
@@ -61,6 +106,29 @@ public abstract class DataManager<T, X extends Exception> {
      */
     protected abstract T parseRecord(String line) throws X;
 
+    /**
+     * Returns the number of fields {@link #formatRecord(Object)} writes in every record,
+     * recorded in the header of the data file
+     *
+     * @return the number of fields per record
+     */
+    protected abstract int fieldCount();
+
+    /**
+     * Converts a line of a data file written in the current format into a record. Such a line
+     * was written by {@link #formatRecord(Object)} and, unless another program appended it, has
+     * exactly {@link #fieldCount()} fields, so implementations may skip the checks for older
+     * record shapes and fall back to {@link #parseRecord(String)} only when the field count
+     * differs. By default this is {@link #parseRecord(String)}.
+     *
+     * @param line the line read from the data file
+     * @return the parsed record of type {@code T}, or {@code null} if fields are missing
+     * @throws X if the line cannot be parsed correctly
+     */
+    protected T parseCurrentRecord(String line) throws X {
+        return parseRecord(line);
+    }
+
     /**
      * Converts a record object into its string representation for storage.
      *
@@ -77,43 +145,179 @@ public abstract class DataManager<T, X extends Exception> {
      * records into a list. It handles corrupted or malformed entries gracefully by:
      * <ul>
      *   <li>Skipping blank or empty lines,</li>
-     *   <li>Printing malformed records (e.g., missing fields), and</li>
-     *   <li>Printing corrupted records that throw exceptions during parsing.</li>
+     *   <li>Quarantining malformed records (e.g., missing fields), and</li>
+     *   <li>Quarantining corrupted records that throw exceptions during parsing.</li>
      * </ul>
      *
-     * <p>Each skipped line is reported via {@link finsight.ui.Ui#printErrorMessage(String)}
-     * with its line number and content to assist in identifying data issues. This ensures that
-     * the load process continues for valid records instead of terminating prematurely.</p>
+     * <p>The first few skipped lines are reported to {@code errorHandler} with their line
+     * numbers and content, followed by a summary, to assist in identifying data issues. This
+     * ensures that the load process continues for valid records instead of terminating
+     * prematurely. Once the skipped lines are in the quarantine file, the data file is
+     * rewritten without them.</p>
+     *
+     * <p>The file is read under a shared {@link DataFileLock}, so loads run side by side with each
+     * other and with appends; an incomplete last line left by an append still in progress is left
+     * for the next read. A file starting with the gzip magic bytes is inflated first, whatever
+     * {@link #setCompressed(boolean)} says. If its {@link DataFileHeader} is current, every line is
+     * parsed with {@link #parseCurrentRecord(String)} into a list sized from the record count.</p>
      *
+     * @param errorHandler receives the skipped lines reported and their summary
      * @return a list containing all successfully parsed records; possibly empty if none are valid
      * @throws IOException if an I/O error occurs while accessing the data file
      */
-    private ArrayList<T> load() throws IOException {
+    private ArrayList<T> load(Consumer<String> errorHandler) throws IOException {
+        StorageEvent event = new StorageEvent();
+        long startTime = System.nanoTime();
+        event.begin();
         ensureFileExist();
-        List<String> lines = Files.readAllLines(dataFilePath(), StandardCharsets.UTF_8);
-        ArrayList<T> records = new ArrayList<>(lines.size());
-        for (int i = 0; i < lines.size(); i++) {
+        Object fileKey;
+        long bytesRead;
+        List<String> lines;
+        Closeable lock = fileLock().lockForRead();
+        try {
+            fileKey = fileKeyOf(dataFilePath());
+            if (isCompressedFile(dataFilePath())) {
+                byte[] bytes = Files.readAllBytes(dataFilePath());
+                bytesRead = bytes.length;
+                lines = readCompressedLines(bytes, errorHandler);
+            } else {
+                byte[] bytes = Files.readAllBytes(dataFilePath());
+                bytesRead = bytes.length;
+                damagedCopy = null;
+                if (bytesRead > 0 && bytes[bytes.length - 1] != '\n' && fileLock().isAppendInProgress()) {
+                    while (bytesRead > 0 && bytes[(int) bytesRead - 1] != '\n') {
+                        bytesRead--;
+                    }
+                }
+                lines = splitLines(bytes, (int) bytesRead);
+            }
+        } finally {
+            lock.close();
+        }
+        DataFileHeader header = lines.isEmpty() ? null : DataFileHeader.parse(lines.get(0));
+        isCurrentFormat = header != null && header.isCurrent(fieldCount());
+        int firstRecordIndex = header == null ? 0 : 1;
+        int capacity = isCurrentFormat ? (int) Math.min(header.getRecordCount(), lines.size()) : lines.size();
+        SkippedLines skippedLines = new SkippedLines(quarantine(), errorHandler);
+        ArrayList<T> records = parseLines(lines, firstRecordIndex, 1, capacity, skippedLines);
+        markSynced(fileKey, bytesRead, lines.size());
+        recordIo(event, IoOperation.LOAD, startTime, records.size(), bytesRead);
+        boolean hasSkippedLines = skippedLines.finish(dataFilePath());
+        if (hasSkippedLines || damagedCopy != null) {
+            removeSkippedLines(records, errorHandler);
+        }
+        return records;
+    }
+
+    /**
+     * Rewrites the data file with only the records that were parsed, once the lines that were
+     * skipped are safely in the quarantine file and any damaged compressed data is in its copy
+     *
+     * @param records      every record parsed from the data file
+     * @param errorHandler receives a message if the data file cannot be rewritten
+     */
+    private void removeSkippedLines(List<T> records, Consumer<String> errorHandler) {
+        try {
+            writeToFile(records);
+        } catch (IOException e) {
+            errorHandler.accept("Could not remove the skipped records from " + dataFilePath() + ": "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses lines of the data file into records, skipping blank lines and quarantining the
+     * lines that cannot be parsed. Lines are parsed with {@link #parseCurrentRecord(String)}
+     * if the header of the file is current, or with {@link #parseRecord(String)} otherwise.
+     *
+     * @param lines           the lines to parse
+     * @param fromIndex       index of the first line to parse, past any header
+     * @param firstLineNumber line number of the first line in the data file, counting from 1
+     * @param capacity        expected number of records, used to size the list
+     * @param skippedLines    receives every line that cannot be parsed
+     * @return the records parsed, in file order
+     */
+    private ArrayList<T> parseLines(List<String> lines, int fromIndex, int firstLineNumber, int capacity,
+            SkippedLines skippedLines) {
+        ArrayList<T> records = new ArrayList<>(capacity);
+        for (int i = fromIndex; i < lines.size(); i++) {
             String line = lines.get(i);
 
             if (line == null || line.isEmpty()) {
                 continue;
             }
 
+            int lineNumber = firstLineNumber + i;
             try {
-                T record = parseRecord(line);
+                T record = isCurrentFormat ? parseCurrentRecord(line) : parseRecord(line);
                 if (record != null) {
                     records.add(record);
                 } else {
-                    Ui.printErrorMessage("Skipping malformed record (missing fields) at line " + (i + 1) + ": " + line);
+                    skippedLines.skip(lineNumber, line, MISSING_FIELDS_REASON,
+                            "Skipping malformed record (missing fields) at line " + lineNumber + ": " + line);
                 }
             } catch (Exception e) {
-                Ui.printErrorMessage("Skipping corrupted record at line " + (i + 1) + ": " + line
-                        + "\n" + e.getMessage());
+                skippedLines.skip(lineNumber, line, String.valueOf(e.getMessage()),
+                        "Skipping corrupted record at line " + lineNumber + ": " + line + "\n" + e.getMessage());
             }
         }
         return records;
     }
 
+    /**
+     * Reads the lines of a compressed data file, inflating it one gzip member at a time.
+     * If the file ends in a member that is cut short or damaged, for example by a crash during
+     * an append, the lines before it are kept and its bytes, with anything after them, are copied
+     * to a {@value #DAMAGED_COPY_SUFFIX} file next to the data file, once, since nothing past
+     * them could be read any more. The data file must then be rewritten before anything is
+     * appended to it. A member another program is still appending is left for the next read
+     * instead. Must be called while holding a lock for reading.
+     *
+     * @param bytes        the bytes of the data file
+     * @param errorHandler receives a message if the end of the file is unreadable
+     * @return the lines of the data file
+     * @throws IOException if the damaged end of the data file cannot be copied
+     */
+    private List<String> readCompressedLines(byte[] bytes, Consumer<String> errorHandler) throws IOException {
+        GzipMembers members = GzipMembers.inflate(bytes);
+        List<String> lines = members.getLines();
+        int readableLength = members.getReadableLength();
+        if (readableLength == bytes.length) {
+            damagedCopy = null;
+        } else if (fileLock().isAppendInProgress()) {
+            requireReload();
+        } else {
+            if (damagedCopy == null) {
+                damagedCopy = copyDamagedEnd(bytes, readableLength);
+            }
+            errorHandler.accept("Skipping unreadable compressed data after line " + lines.size() + " of "
+                    + dataFilePath() + ". Its last " + (bytes.length - readableLength) + " bytes are kept in "
+                    + damagedCopy);
+        }
+        return lines;
+    }
+
+    /**
+     * Copies the damaged end of a compressed data file to a {@value #DAMAGED_COPY_SUFFIX} file
+     * next to it, numbering the copy if an earlier one is still there
+     *
+     * @param bytes the bytes of the data file
+     * @param from  offset of the first damaged member
+     * @return path of the copy
+     * @throws IOException if the copy cannot be written
+     */
+    private Path copyDamagedEnd(byte[] bytes, int from) throws IOException {
+        String copyName = dataFilePath().getFileName() + DAMAGED_COPY_SUFFIX;
+        Path copy = dataFilePath().resolveSibling(copyName);
+        for (int copyNumber = 2; Files.exists(copy); copyNumber++) {
+            copy = dataFilePath().resolveSibling(copyName + "." + copyNumber);
+        }
+        try (OutputStream out = Files.newOutputStream(copy, StandardOpenOption.CREATE_NEW)) {
+            out.write(bytes, from, bytes.length - from);
+        }
+        return copy;
+    }
+
     /**
      * Safely loads all records from the data file, handling exceptions gracefully.
      * If an error occurs, it prints the error message to the {@link Ui} and
@@ -122,10 +326,23 @@ public abstract class DataManager<T, X extends Exception> {
      * @return a list of records, or an empty list if loading fails
      */
     public final ArrayList<T> tryLoad() {
+        return tryLoad(Ui::printErrorMessage);
+    }
+
+    /**
+     * Safely loads all records from the data file, passing every error message to the
+     * given handler instead of printing it. This lets callers that load several files
+     * at the same time collect the messages and report them in a fixed order.
+     *
+     * @param errorHandler receives a message for every skipped line or failed load
+     * @return a list of records, or an empty list if loading fails
+     */
+    public final synchronized ArrayList<T> tryLoad(Consumer<String> errorHandler) {
+        assert errorHandler != null : "errorHandler must not be null";
         try {
-            return load();
+            return load(errorHandler);
         } catch (Exception e) {
-            Ui.printErrorMessage(e.getMessage());
+            errorHandler.accept(e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -134,25 +351,84 @@ public abstract class DataManager<T, X extends Exception> {
      * Writes the entire list of records to the data file, overwriting existing content.
      * Uses a temporary file and atomic move to ensure data integrity.
      *
+     * <p>The rewrite holds an exclusive {@link DataFileLock}, starts the file with a current
+     * {@link DataFileHeader} and keeps any lines another program appended since the last read.
+     * Under {@code per-command} durability the temporary file and then the directory are forced,
+     * so the move itself survives a crash.</p>
+     *
      * @param records the list of records to be written
-     * @throws IOException if an I/O error occurs during writing
+     * @throws IOException if an I/O error occurs during writing, or another instance of FinSight
+     *     replaced the file since it was last read or written here
      */
-    public void writeToFile(List<T> records) throws IOException {
+    public synchronized void writeToFile(List<T> records) throws IOException {
         assert records != null : "records must not be null";
+        StorageEvent event = new StorageEvent();
+        long startTime = System.nanoTime();
+        event.begin();
         ensureFileExist();
+        long bytesWritten;
+        Closeable lock = fileLock().lockForRewrite();
+        try {
+            bytesWritten = rewrite(records);
+        } finally {
+            lock.close();
+        }
+        recordIo(event, IoOperation.REWRITE, startTime, records.size(), bytesWritten);
+    }
+
+    /**
+     * Rewrites the data file with the given records and any records another program appended
+     * to it since the last read, while holding the lock for rewriting. The rewrite is refused if
+     * the file was replaced or shortened since it was last read or written here, since the
+     * records in memory would then overwrite a change that has not been read yet.
+     *
+     * @param records the list of records to be written
+     * @return the number of bytes written
+     * @throws IOException if an I/O error occurs during writing
+     */
+    private long rewrite(List<T> records) throws IOException {
+        if (isReplacedSinceSync()) {
+            requireReload();
+            throw new IOException(dataFilePath() + " was just changed by another instance of FinSight, so this "
+                    + "change was not saved. The file will be read again; please try again.");
+        }
+        List<T> unseenRecords = readUnseenRecords();
 
         Path tmp = dataFilePath().resolveSibling(dataFilePath().getFileName() + ".temp");
         assert !tmp.equals(dataFilePath()) : "temp path must differ from target path";
 
-        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+        int recordCount = records.size() + unseenRecords.size();
+        try (BufferedWriter writer = openWriter(tmp, isCompressed)) {
+            writer.write(DataFileHeader.current(fieldCount(), recordCount).format());
+            writer.newLine();
             for (T record : records) {
                 assert record != null : "record must not be null";
                 writer.write(formatRecord(record));
                 writer.newLine();
             }
+            for (T record : unseenRecords) {
+                writer.write(formatRecord(record));
+                writer.newLine();
+            }
+        }
+        long bytesWritten = Files.size(tmp);
+        if (durability.isForcedPerWrite()) {
+            force(tmp);
         }
         Files.move(tmp, dataFilePath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         assert Files.exists(dataFilePath()) : "Target file should exist after move";
+        if (durability.isForcedPerWrite()) {
+            forceDirectory();
+        } else {
+            markUnforcedWrites();
+        }
+        markSynced(fileKeyOf(dataFilePath()), bytesWritten, recordCount + 1);
+        isCurrentFormat = true;
+        damagedCopy = null;
+        if (!unseenRecords.isEmpty()) {
+            requireReload();
+        }
+        return bytesWritten;
     }
 
     /**
@@ -164,12 +440,604 @@ public abstract class DataManager<T, X extends Exception> {
      */
     public void appendToFile(T record) throws IOException {
         assert record != null : "record must not be null";
+        appendAllToFile(List.of(record));
+    }
+
+    /**
+     * Appends records to the end of the data file in one write, so that adding many records
+     * at once costs one append rather than one per record.
+     * Ensures the file exists before writing.
+     *
+     * <p>The append holds a lock that only keeps out rewrites and other appends. A compressed
+     * file gains one gzip member, and a plain file has its header's record count updated in
+     * place. Under {@code per-command} durability the file is forced before returning.</p>
+     *
+     * @param records the records to be appended, in order
+     * @throws IOException if an I/O error occurs during appending
+     */
+    public synchronized void appendAllToFile(List<T> records) throws IOException {
+        StorageEvent event = new StorageEvent();
+        long startTime = System.nanoTime();
+        event.begin();
         ensureFileExist();
+        long sizeBefore;
+        long sizeAfter;
+        Closeable lock = fileLock().lockForAppend();
+        try {
+            sizeBefore = Files.size(dataFilePath());
+            sizeAfter = append(records, sizeBefore);
+        } finally {
+            lock.close();
+        }
+        recordIo(event, IoOperation.APPEND, startTime, records.size(), sizeAfter - sizeBefore);
+    }
 
-        try (BufferedWriter writer = Files.newBufferedWriter(dataFilePath(), StandardCharsets.UTF_8,
-                StandardOpenOption.APPEND)) {
-            writer.write(formatRecord(record));
-            writer.newLine();
+    /**
+     * Appends records to the end of the data file while holding the lock for appending
+     *
+     * @param records    the records to be appended, in order
+     * @param sizeBefore the size of the data file before the append
+     * @return the size of the data file after the append
+     * @throws IOException if an I/O error occurs during appending, or the data file ends in damaged
+     *     compressed data that has not been rewritten yet
+     */
+    private long append(List<T> records, long sizeBefore) throws IOException {
+        if (damagedCopy != null) {
+            throw new IOException(dataFilePath() + " ends in damaged compressed data, which would hide anything "
+                    + "added after it, so this change was not saved. Its readable records must be saved again "
+                    + "first; the damaged file is kept in " + damagedCopy + ".");
+        }
+        Object fileKey = fileKeyOf(dataFilePath());
+        boolean wasSynced = isSyncedWith(fileKey, sizeBefore);
+        boolean isAppendCompressed = sizeBefore == 0 ? isCompressed : isCompressedFile(dataFilePath());
+
+        int headerLines = sizeBefore == 0 ? 1 : 0;
+        try (BufferedWriter writer = openWriter(dataFilePath(), isAppendCompressed, StandardOpenOption.APPEND)) {
+            if (sizeBefore == 0) {
+                writer.write(DataFileHeader.current(fieldCount(), records.size()).format());
+                writer.newLine();
+            }
+            for (T record : records) {
+                assert record != null : "record must not be null";
+                writer.write(formatRecord(record));
+                writer.newLine();
+            }
+        }
+        if (sizeBefore == 0) {
+            isCurrentFormat = true;
+        } else if (!isAppendCompressed) {
+            addToRecordCount(records.size());
+        }
+        if (durability.isForcedPerWrite()) {
+            force(dataFilePath());
+        } else {
+            markUnforcedWrites();
+        }
+        long sizeAfter = Files.size(dataFilePath());
+        if (wasSynced) {
+            markSynced(fileKey, sizeAfter, syncedLines < 0 ? -1 : syncedLines + headerLines + records.size());
+        } else if (syncedBytes >= 0) {
+            requireReload();
+        }
+        return sizeAfter;
+    }
+
+    /**
+     * Forces the writes made to the data file since it was last forced to the storage device,
+     * together with its directory, so that a rewrite's move is kept too. Has no effect if
+     * every write has been forced already.
+     *
+     * @throws IOException if an I/O error occurs while forcing the data file
+     */
+    public synchronized void forceWrites() throws IOException {
+        if (!hasUnforcedWrites) {
+            return;
+        }
+        force(dataFilePath());
+        forceDirectory();
+        hasUnforcedWrites = false;
+    }
+
+    /**
+     * Sets when writes to the data file are forced to the storage device. Writes already made
+     * stay unforced until {@link #forceWrites()}.
+     *
+     * @param durability the durability policy
+     */
+    public void setDurability(DurabilityPolicy durability) {
+        this.durability = durability;
+    }
+
+    /**
+     * Notes that the data file has writes that are not forced yet, and under an interval policy
+     * makes sure they are forced once the interval has passed
+     */
+    private void markUnforcedWrites() {
+        hasUnforcedWrites = true;
+        if (durability.isForcedOnInterval() && !isForceScheduled) {
+            isForceScheduled = true;
+            forceScheduler().schedule(this::forceScheduledWrites, durability.getIntervalMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void forceScheduledWrites() {
+        isForceScheduled = false;
+        try {
+            forceWrites();
+        } catch (IOException e) {
+            Ui.printErrorMessage("Could not force the writes to " + dataFilePath() + " to disk: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Forces a file to the storage device, reporting the time taken as a {@link IoOperation#FORCE}
+     *
+     * @param file the file to force
+     * @throws IOException if an I/O error occurs while forcing the file
+     */
+    private void force(Path file) throws IOException {
+        StorageEvent event = new StorageEvent();
+        long startTime = System.nanoTime();
+        event.begin();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        }
+        recordIo(event, IoOperation.FORCE, startTime, 0, 0);
+    }
+
+    /**
+     * Forces the directory of the data file, so that a file moved into it survives a crash. Not
+     * every platform can open a directory this way, in which case nothing is forced.
+     */
+    private void forceDirectory() {
+        Path parent = dataFilePath().toAbsolutePath().getParent();
+        if (parent == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(parent, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened or forced on some platforms, such as Windows
+        }
+    }
+
+    private static synchronized ScheduledExecutorService forceScheduler() {
+        if (forceScheduler == null) {
+            forceScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread forceThread = new Thread(runnable, "data-file-force");
+                forceThread.setDaemon(true);
+                return forceThread;
+            });
+        }
+        return forceScheduler;
+    }
+
+    /**
+     * Adds to the record count in the header of a plain data file, overwriting its digits in
+     * place. Has no effect if the file has no header.
+     *
+     * @param appendedCount the number of records just appended
+     * @throws IOException if an I/O error occurs while reading or writing the data file
+     */
+    private void addToRecordCount(int appendedCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(dataFilePath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer start = ByteBuffer.allocate(DataFileHeader.MAX_LENGTH);
+            channel.read(start, 0);
+            DataFileHeader header = DataFileHeader.parse(start.array(), start.position());
+            if (header == null) {
+                return;
+            }
+            DataFileHeader updatedHeader = header.withRecordCount(header.getRecordCount() + appendedCount);
+            channel.write(ByteBuffer.wrap(updatedHeader.formatRecordCount()), updatedHeader.getRecordCountOffset());
+        }
+    }
+
+    /**
+     * Retries the records in the quarantine file, saving those that can now be parsed to the
+     * end of the data file and keeping the rest quarantined with the reason they still fail.
+     *
+     * <p>The data file is rewritten rather than appended to, so that a quarantined line still
+     * left in it by a partial read is not read again. The quarantine file is only rewritten
+     * once the recovered records are saved, so no record is lost if either write fails.</p>
+     *
+     * @param records every record currently in memory, to which the recovered records are added
+     * @return the records recovered and the number still quarantined
+     * @throws IOException if an I/O error occurs while reading or writing either file
+     */
+    public final synchronized QuarantineRepair<T> repairQuarantine(List<T> records) throws IOException {
+        List<QuarantineFile.Entry> entries = quarantine().read();
+        List<T> recoveredRecords = new ArrayList<>();
+        List<QuarantineFile.Entry> remainingEntries = new ArrayList<>();
+        for (QuarantineFile.Entry entry : entries) {
+            try {
+                T record = parseRecord(entry.getRecord());
+                if (record != null) {
+                    recoveredRecords.add(record);
+                } else {
+                    remainingEntries.add(new QuarantineFile.Entry(entry.getLineNumber(), MISSING_FIELDS_REASON,
+                            entry.getRecord()));
+                }
+            } catch (Exception e) {
+                remainingEntries.add(new QuarantineFile.Entry(entry.getLineNumber(), String.valueOf(e.getMessage()),
+                        entry.getRecord()));
+            }
+        }
+        if (!recoveredRecords.isEmpty()) {
+            List<T> allRecords = new ArrayList<>(records.size() + recoveredRecords.size());
+            allRecords.addAll(records);
+            allRecords.addAll(recoveredRecords);
+            writeToFile(allRecords);
+        }
+        if (!entries.isEmpty()) {
+            quarantine().rewrite(remainingEntries);
+        }
+        return new QuarantineRepair<>(recoveredRecords, remainingEntries.size(), quarantine().getPath());
+    }
+
+    /**
+     * Starts watching the data file for changes made by other programs, which
+     * {@link #pollExternalChanges(Consumer)} then reads. Has no effect if the file is already watched.
+     *
+     * <p>If the data file has not been read, written or restored yet, its current contents are
+     * taken to be in memory already.</p>
+     *
+     * @throws IOException if the data file cannot be created or its directory cannot be watched
+     */
+    public synchronized void watch() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        ensureFileExist();
+        if (syncedBytes < 0) {
+            markSynced(fileKeyOf(dataFilePath()), Files.size(dataFilePath()), -1);
+        }
+        watcher = new DataFileWatcher(dataFilePath(), this::markExternallyChanged);
+    }
+
+    /**
+     * Returns the number of bytes of the data file that the records in memory were read from or
+     * written to
+     *
+     * @return the number of bytes, or -1 if the data file has not been read or written yet
+     */
+    public final synchronized long getSyncedBytes() {
+        return syncedBytes;
+    }
+
+    /**
+     * Takes the first bytes of the data file to be in memory already, as they are when the
+     * records were restored from a snapshot of the file at that size. Anything appended past
+     * them is read by the next {@link #checkForChanges()} or watched change, whether or not the
+     * file is watched.
+     *
+     * @param bytes the size of the data file the records were restored from
+     * @throws IOException if the data file cannot be created or its attributes read
+     */
+    public final synchronized void markRestored(long bytes) throws IOException {
+        ensureFileExist();
+        markSynced(fileKeyOf(dataFilePath()), bytes, -1);
+    }
+
+    /**
+     * Flags the data file as changed if it is no longer the file, or no longer the size, it was
+     * when last read or written here, without waiting for the watcher to report it. Called
+     * before the records are changed, so that a change another instance of FinSight made a
+     * moment ago is read first. An unchanged file costs one look-up of its attributes.
+     */
+    public final synchronized void checkForChanges() {
+        if (syncedBytes < 0) {
+            return;
+        }
+        try {
+            if (!isSyncedWith(fileKeyOf(dataFilePath()), Files.size(dataFilePath()))) {
+                hasExternalChanges = true;
+            }
+        } catch (IOException e) {
+            hasExternalChanges = true;
+        }
+    }
+
+    /**
+     * Returns the change another program made to the data file since it was last read or written
+     * here, if the file has been flagged as changed. Only the complete lines appended past the
+     * part already read are parsed, unless the file shrank, was replaced or is compressed, in
+     * which case it is reloaded in full.
+     *
+     * @param errorHandler receives a message for every skipped line or failed read
+     * @return the change, or {@code null} if nothing has changed or no complete line was appended
+     */
+    public final synchronized DataFileChange<T> pollExternalChanges(Consumer<String> errorHandler) {
+        if (!hasExternalChanges || syncedBytes < 0) {
+            return null;
+        }
+        hasExternalChanges = false;
+        try {
+            ensureFileExist();
+            Object fileKey = fileKeyOf(dataFilePath());
+            long size = Files.size(dataFilePath());
+            boolean isReplaced = !Objects.equals(fileKey, syncedFileKey) || size < syncedBytes;
+            if (isReloadRequired || isReplaced) {
+                isReloadRequired = false;
+                return DataFileChange.reloaded(load(errorHandler));
+            }
+            if (size == syncedBytes) {
+                return null;
+            }
+            if (isCompressedFile(dataFilePath()) || size - syncedBytes > MAX_TAIL_BYTES) {
+                return DataFileChange.reloaded(load(errorHandler));
+            }
+            List<T> appendedRecords = readAppendedRecords(size, errorHandler);
+            return appendedRecords.isEmpty() ? null : DataFileChange.appended(appendedRecords);
+        } catch (IOException e) {
+            errorHandler.accept("Could not read changes to " + dataFilePath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Parses the complete lines appended to the data file past the part already read, leaving
+     * a last line that is still being written for the next read
+     *
+     * @param fileSize     the current size of the data file
+     * @param errorHandler receives a message for every skipped line
+     * @return the records appended, in file order
+     * @throws IOException if an I/O error occurs while reading the data file
+     */
+    private List<T> readAppendedRecords(long fileSize, Consumer<String> errorHandler) throws IOException {
+        StorageEvent event = new StorageEvent();
+        long startTime = System.nanoTime();
+        event.begin();
+        ByteBuffer tail = ByteBuffer.allocate((int) (fileSize - syncedBytes));
+        Closeable lock = fileLock().lockForRead();
+        try (FileChannel channel = FileChannel.open(dataFilePath(), StandardOpenOption.READ)) {
+            if (syncedLines < 0) {
+                syncedLines = countLines(syncedBytes);
+            }
+            long position = syncedBytes;
+            while (tail.hasRemaining()) {
+                int bytesRead = channel.read(tail, position);
+                if (bytesRead < 0) {
+                    break;
+                }
+                position += bytesRead;
+            }
+        } finally {
+            lock.close();
+        }
+        int completeLength = tail.position();
+        while (completeLength > 0 && tail.get(completeLength - 1) != '\n') {
+            completeLength--;
+        }
+        List<String> lines = splitLines(tail.array(), completeLength);
+        SkippedLines skippedLines = new SkippedLines(quarantine(), errorHandler);
+        List<T> records = parseLines(lines, 0, syncedLines + 1, lines.size(), skippedLines);
+        skippedLines.finish(dataFilePath());
+        syncedBytes += completeLength;
+        syncedLines += lines.size();
+        recordIo(event, IoOperation.TAIL_READ, startTime, records.size(), completeLength);
+        return records;
+    }
+
+    /**
+     * Returns the records another program appended to the data file since it was last read or
+     * written here, so that a rewrite can keep them
+     *
+     * @return the records appended, or an empty list if there are none or the file was replaced
+     * @throws IOException if an I/O error occurs while reading the data file
+     */
+    private List<T> readUnseenRecords() throws IOException {
+        if (syncedBytes < 0 || isCompressedFile(dataFilePath())) {
+            return List.of();
+        }
+        long size = Files.size(dataFilePath());
+        boolean hasAppendedBytes = Objects.equals(fileKeyOf(dataFilePath()), syncedFileKey) && size > syncedBytes;
+        if (!hasAppendedBytes || size - syncedBytes > MAX_TAIL_BYTES) {
+            return List.of();
+        }
+        return readAppendedRecords(size, Ui::printErrorMessage);
+    }
+
+    /**
+     * Counts the lines in the first bytes of the data file
+     *
+     * @param length the number of bytes to count lines in
+     * @return the number of line breaks in those bytes
+     * @throws IOException if an I/O error occurs while reading the data file
+     */
+    private int countLines(long length) throws IOException {
+        int lineCount = 0;
+        byte[] buffer = new byte[LINE_COUNT_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(dataFilePath())) {
+            long remaining = length;
+            while (remaining > 0) {
+                int bytesRead = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (bytesRead < 0) {
+                    break;
+                }
+                for (int i = 0; i < bytesRead; i++) {
+                    if (buffer[i] == '\n') {
+                        lineCount++;
+                    }
+                }
+                remaining -= bytesRead;
+            }
+        }
+        return lineCount;
+    }
+
+    private void markSynced(Object fileKey, long bytes, int lines) {
+        syncedFileKey = fileKey;
+        syncedBytes = bytes;
+        syncedLines = lines;
+    }
+
+    /**
+     * Returns whether the data file was replaced or shortened since it was last read or written here
+     *
+     * @return true if the file is no longer the one last read or written, or is smaller than it was
+     * @throws IOException if an I/O error occurs while reading the attributes of the data file
+     */
+    private boolean isReplacedSinceSync() throws IOException {
+        if (syncedBytes < 0) {
+            return false;
+        }
+        return !Objects.equals(fileKeyOf(dataFilePath()), syncedFileKey) || Files.size(dataFilePath()) < syncedBytes;
+    }
+
+    private boolean isSyncedWith(Object fileKey, long size) {
+        return syncedBytes == size && Objects.equals(fileKey, syncedFileKey);
+    }
+
+    /**
+     * Flags the data file as changed by another program, so that the next
+     * {@link #pollExternalChanges(Consumer)} reads it
+     */
+    void markExternallyChanged() {
+        hasExternalChanges = true;
+    }
+
+    /**
+     * Makes the next {@link #pollExternalChanges(Consumer)} reload the whole file, after a write
+     * found lines appended by another program that are not in memory yet
+     */
+    private void requireReload() {
+        isReloadRequired = true;
+        hasExternalChanges = true;
+    }
+
+    private DataFileLock fileLock() {
+        if (fileLock == null) {
+            fileLock = DataFileLock.of(dataFilePath());
+        }
+        return fileLock;
+    }
+
+    private QuarantineFile quarantine() {
+        if (quarantine == null) {
+            quarantine = new QuarantineFile(dataFilePath());
+        }
+        return quarantine;
+    }
+
+    private static Object fileKeyOf(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+    /**
+     * Splits a line into exactly the given number of fields in a single scan, without the
+     * pattern matching and resizing of {@link String#split(String, int)}
+     *
+     * @param line  the line to split
+     * @param count the number of fields expected
+     * @return the fields, or {@code null} if the line does not have exactly {@code count} fields
+     */
+    protected static String[] splitFields(String line, int count) {
+        String[] fields = new String[count];
+        int fieldStart = 0;
+        for (int i = 0; i < count - 1; i++) {
+            int fieldEnd = line.indexOf(FIELD_DELIMITER_CHAR, fieldStart);
+            if (fieldEnd < 0) {
+                return null;
+            }
+            fields[i] = line.substring(fieldStart, fieldEnd);
+            fieldStart = fieldEnd + 1;
+        }
+        if (line.indexOf(FIELD_DELIMITER_CHAR, fieldStart) >= 0) {
+            return null;
+        }
+        fields[count - 1] = line.substring(fieldStart);
+        return fields;
+    }
+
+    /**
+     * Splits bytes of UTF-8 text into lines, dropping the line breaks
+     *
+     * @param bytes  the text
+     * @param length the number of bytes to split
+     * @return the lines, including a last line without a line break if there is one
+     */
+    static List<String> splitLines(byte[] bytes, int length) {
+        List<String> lines = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == '\n') {
+                lines.add(decodeLine(bytes, lineStart, i));
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < length) {
+            lines.add(decodeLine(bytes, lineStart, length));
+        }
+        return lines;
+    }
+
+    private static String decodeLine(byte[] bytes, int start, int end) {
+        int lineEnd = end > start && bytes[end - 1] == '\r' ? end - 1 : end;
+        return new String(bytes, start, lineEnd - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sets whether the data file is compressed the next time it is rewritten, or appended to while empty.
+     * Reading never depends on this setting, so files in either form keep loading after it changes.
+     *
+     * @param isCompressed whether to compress the data file
+     */
+    public void setCompressed(boolean isCompressed) {
+        this.isCompressed = isCompressed;
+    }
+
+    /**
+     * Returns whether a file starts with the gzip magic bytes
+     *
+     * @param file the file to check
+     * @return true if the file is gzip-compressed
+     * @throws IOException if an I/O error occurs while reading the file
+     */
+    static boolean isCompressedFile(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return in.read() == GZIP_MAGIC_FIRST_BYTE && in.read() == GZIP_MAGIC_SECOND_BYTE;
+        }
+    }
+
+    /**
+     * Opens a writer to a file, compressing what is written if asked to
+     *
+     * @param file         the file to write to
+     * @param isCompressed whether to write a gzip member rather than plain text
+     * @param options      options for opening the file, or none to create or truncate it
+     * @return a buffered writer to the file
+     * @throws IOException if an I/O error occurs while opening the file
+     */
+    private static BufferedWriter openWriter(Path file, boolean isCompressed, OpenOption... options)
+            throws IOException {
+        if (!isCompressed) {
+            return Files.newBufferedWriter(file, StandardCharsets.UTF_8, options);
+        }
+        return new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file, options),
+                COMPRESSION_BUFFER_SIZE), StandardCharsets.UTF_8), COMPRESSION_BUFFER_SIZE);
+    }
+
+    /**
+     * Reports a completed storage operation to {@link PerformanceStats} and, while a
+     * flight recording is running, commits it as a {@link StorageEvent}.
+     *
+     * @param event the event that was begun when the operation started
+     * @param operation the kind of storage operation performed
+     * @param startTime the value of {@link System#nanoTime()} when the operation started
+     * @param recordCount the number of records loaded or written
+     * @param bytes the number of bytes read for a load, or written otherwise
+     */
+    private void recordIo(StorageEvent event, IoOperation operation, long startTime, int recordCount, long bytes) {
+        event.end();
+        PerformanceStats.recordIo(dataFilePath(), operation, System.nanoTime() - startTime, bytes);
+        if (event.shouldCommit()) {
+            event.operation = operation.getLabel();
+            event.file = dataFilePath().toString();
+            event.records = recordCount;
+            event.bytes = bytes;
+            event.commit();
         }
     }
 
@@ -239,4 +1107,71 @@ public abstract class DataManager<T, X extends Exception> {
     protected String unsanitize(String line) {
         return line.replace(ENCODED_PIPE, REPLACE_TARGET).replace(ENCODED_PERCENT, "%");
     }
+
+    /**
+     * Collects the lines skipped while reading the data file, writing each to the quarantine
+     * file and reporting only the first {@value #MAX_REPORTED_SKIPPED_LINES} of them, followed
+     * by a summary once the read is done
+     */
+    private static final class SkippedLines {
+        private final QuarantineFile quarantine;
+        private final Consumer<String> errorHandler;
+        private int count = 0;
+        private IOException quarantineError;
+
+        private SkippedLines(QuarantineFile quarantine, Consumer<String> errorHandler) {
+            this.quarantine = quarantine;
+            this.errorHandler = errorHandler;
+        }
+
+        /**
+         * Quarantines a line that cannot be parsed, and reports it if it is one of the first few
+         *
+         * @param lineNumber line number in the data file, counting from 1
+         * @param line       the line as read
+         * @param reason     why the line cannot be parsed, kept in the quarantine file
+         * @param message    message reporting the line
+         */
+        private void skip(int lineNumber, String line, String reason, String message) {
+            count++;
+            if (count <= MAX_REPORTED_SKIPPED_LINES) {
+                errorHandler.accept(message);
+            }
+            if (quarantineError != null) {
+                return;
+            }
+            try {
+                quarantine.add(lineNumber, reason, line);
+            } catch (IOException e) {
+                quarantineError = e;
+            }
+        }
+
+        /**
+         * Closes the quarantine file and reports how many lines were skipped and where they are kept
+         *
+         * @param dataFile path of the data file read
+         * @return true if lines were skipped and all of them are in the quarantine file
+         */
+        private boolean finish(Path dataFile) {
+            try {
+                quarantine.close();
+            } catch (IOException e) {
+                quarantineError = quarantineError == null ? e : quarantineError;
+            }
+            if (count == 0) {
+                return false;
+            }
+            String shown = count > MAX_REPORTED_SKIPPED_LINES ? ", the first " + MAX_REPORTED_SKIPPED_LINES
+                    + " shown above" : "";
+            if (quarantineError != null) {
+                errorHandler.accept("Skipped " + count + " record(s) in " + dataFile + shown
+                        + ". They could not be kept in " + quarantine.getPath() + ": " + quarantineError.getMessage());
+                return false;
+            }
+            errorHandler.accept("Skipped " + count + " record(s) in " + dataFile + shown + ". They are kept in "
+                    + quarantine.getPath() + "; fix them there and enter repair to load them.");
+            return true;
+        }
+    }
 }
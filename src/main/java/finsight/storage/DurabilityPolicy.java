@@ -0,0 +1,152 @@
+package finsight.storage;
+
+import finsight.ui.Ui;
+
+/**
+ * Represents when the writes to a data file are forced to the storage device, trading the
+ * cost of each write against how much can be lost if the computer crashes or loses power.
+ *
+ * <ul>
+ *   <li>{@code none}: writes are never forced, and the operating system writes them out in
+ *       its own time.</li>
+ *   <li>{@code on-close}: writes are forced once, when FinSight exits with {@code bye}.</li>
+ *   <li>{@code per-command}: every write is forced before the command that made it finishes.</li>
+ *   <li>{@code interval:<ms>}: writes are forced at most the given number of milliseconds
+ *       after they were made, and when FinSight exits.</li>
+ * </ul>
+ *
+ * <p>The policy is set with {@code -Dfinsight.durability=<POLICY>} and defaults to
+ * {@code on-close}. Whatever the policy, a rewrite still replaces the data file with an
+ * atomic move, so the file is never seen half written.</p>
+ */
+public final class DurabilityPolicy {
+    public static final DurabilityPolicy NONE = new DurabilityPolicy(Mode.NONE, 0);
+    public static final DurabilityPolicy ON_CLOSE = new DurabilityPolicy(Mode.ON_CLOSE, 0);
+    public static final DurabilityPolicy PER_COMMAND = new DurabilityPolicy(Mode.PER_COMMAND, 0);
+    static final String DURABILITY_PROPERTY = "finsight.durability";
+    private static final String INTERVAL_PREFIX = "interval:";
+    private static final DurabilityPolicy CONFIGURED = readSystemProperty();
+
+    private final Mode mode;
+    private final long intervalMillis;
+
+    private DurabilityPolicy(Mode mode, long intervalMillis) {
+        this.mode = mode;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Returns the policy that forces writes at most the given time after they were made
+     *
+     * @param intervalMillis the longest time a write may stay unforced, in milliseconds
+     * @return the policy
+     */
+    public static DurabilityPolicy interval(long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("The durability interval must be a positive number of milliseconds");
+        }
+        return new DurabilityPolicy(Mode.INTERVAL, intervalMillis);
+    }
+
+    /**
+     * Parses a policy written as {@code none}, {@code on-close}, {@code per-command} or
+     * {@code interval:<ms>}
+     *
+     * @param policy the policy, in any case
+     * @return the policy
+     * @throws IllegalArgumentException if the policy is not one of these
+     */
+    public static DurabilityPolicy parse(String policy) {
+        String trimmedPolicy = policy.trim().toLowerCase();
+        switch (trimmedPolicy) {
+        case "none":
+            return NONE;
+        case "on-close":
+            return ON_CLOSE;
+        case "per-command":
+            return PER_COMMAND;
+        default:
+            break;
+        }
+        if (trimmedPolicy.startsWith(INTERVAL_PREFIX)) {
+            try {
+                return interval(Long.parseLong(trimmedPolicy.substring(INTERVAL_PREFIX.length()).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The durability interval must be a whole number of milliseconds");
+            }
+        }
+        throw new IllegalArgumentException("Unknown durability policy: " + policy
+                + ". Use none, on-close, per-command or interval:<ms>");
+    }
+
+    /**
+     * Returns the policy set with {@code -Dfinsight.durability}, read once when first needed
+     *
+     * @return the configured policy, or {@link #ON_CLOSE} if none is set
+     */
+    public static DurabilityPolicy configured() {
+        return CONFIGURED;
+    }
+
+    /**
+     * Returns whether every write is forced as soon as it is made
+     *
+     * @return true for {@code per-command}
+     */
+    public boolean isForcedPerWrite() {
+        return mode == Mode.PER_COMMAND;
+    }
+
+    /**
+     * Returns whether writes left unforced are forced when FinSight exits
+     *
+     * @return true for {@code on-close} and {@code interval:<ms>}
+     */
+    public boolean isForcedOnClose() {
+        return mode == Mode.ON_CLOSE || mode == Mode.INTERVAL;
+    }
+
+    /**
+     * Returns whether writes are forced on a timer
+     *
+     * @return true for {@code interval:<ms>}
+     */
+    public boolean isForcedOnInterval() {
+        return mode == Mode.INTERVAL;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    @Override
+    public String toString() {
+        switch (mode) {
+        case NONE:
+            return "none";
+        case ON_CLOSE:
+            return "on-close";
+        case PER_COMMAND:
+            return "per-command";
+        default:
+            return INTERVAL_PREFIX + intervalMillis;
+        }
+    }
+
+    private static DurabilityPolicy readSystemProperty() {
+        String policy = System.getProperty(DURABILITY_PROPERTY);
+        if (policy == null) {
+            return ON_CLOSE;
+        }
+        try {
+            return parse(policy);
+        } catch (IllegalArgumentException e) {
+            Ui.printErrorMessage(e.getMessage() + ". Using on-close instead.");
+            return ON_CLOSE;
+        }
+    }
+
+    private enum Mode {
+        NONE, ON_CLOSE, PER_COMMAND, INTERVAL
+    }
+}
@@ -1,20 +1,29 @@
 package finsight.storage;
 
 import finsight.expense.Expense;
+import finsight.money.Money;
 import finsight.storage.exceptions.AmountPersistCorruptedException;
+import finsight.storage.exceptions.TransactionDatePersistCorruptedException;
+import finsight.summary.TransactionDate;
 
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 /**
  * Persists and retrieves {@link Expense} records from a text-based storage file.
  *
  * <p><strong>Record format (per line)</strong>:
- * <code>description|amount</code>
+ * <code>description|amount|date|deposit</code>
  * where:
  * <ul>
  *   <li><code>description</code> — textual description of the expense
  *       (sanitized using {@link DataManager#sanitize(String)} to avoid delimiter conflicts)</li>
- *   <li><code>amount</code> — original string value of the expense amount</li>
+ *   <li><code>amount</code> — expense amount with two decimal places</li>
+ *   <li><code>date</code> — date of the expense formatted as <code>dd-MM-yyyy</code>, or empty if it
+ *       has none; records written before dates were supported omit the field</li>
+ *   <li><code>deposit</code> — {@code "1"} if the expense is an investment deposit added by
+ *       FinSight, {@code "0"} otherwise; older records omit the field and are not deposits</li>
  * </ul>
  *
  * <p>This class provides file I/O for expenses while delegating validation and parsing
@@ -27,6 +36,7 @@ import java.nio.file.Path;
  */
 public class ExpenseDataManager extends DataManager<Expense, Exception> {
     private static final String EXPENSE = "expense";
+    private static final int FIELD_COUNT = 4;
     /**
      * Path to the underlying data file where expense records are stored.
      */
@@ -70,8 +80,34 @@ public class ExpenseDataManager extends DataManager<Expense, Exception> {
     @Override
     protected String formatRecord(Expense expense) {
         String description = sanitize(expense.getDescription());
-        String expenseAmount = expense.getExpenseAmount().toString();
-        return String.join("|", description, expenseAmount);
+        String expenseAmount = Money.format(expense.getExpenseAmountCents());
+        String date = expense.getDate() == null ? "" : TransactionDate.format(expense.getDate());
+        String deposit = expense.isDeposit() ? "1" : "0";
+        return String.join("|", description, expenseAmount, date, deposit);
+    }
+
+    /**
+     * Returns the number of fields in every expense record written.
+     *
+     * @return the field count, with an empty date field for an expense without a date
+     */
+    @Override
+    protected int fieldCount() {
+        return FIELD_COUNT;
+    }
+
+    /**
+     * Parses a line written in the current format, which always has a date and deposit field,
+     * falling back to {@link #parseRecord(String)} if it does not have exactly four fields.
+     *
+     * @param line the raw line read from the data file
+     * @return a parsed {@link Expense} instance, or {@code null} if malformed
+     * @throws AmountPersistCorruptedException if the amount field is not numeric or ≤ 0
+     */
+    @Override
+    protected Expense parseCurrentRecord(String line) throws AmountPersistCorruptedException {
+        String[] fields = splitFields(line, FIELD_COUNT);
+        return fields == null ? parseRecord(line) : parseExpense(fields);
     }
 
     /**
@@ -100,7 +136,7 @@ public class ExpenseDataManager extends DataManager<Expense, Exception> {
      * <p>Specifically:
      * <ul>
      *   <li>The first element ({@code parts[0]}) is unsanitized and treated as the expense description.</li>
-     *   <li>The second element ({@code parts[1]}) is parsed as a {@code double} amount.</li>
+     *   <li>The second element ({@code parts[1]}) is parsed as an amount in cents.</li>
      *   <li>If the amount is non-numeric or non-positive, an
      *       {@link finsight.storage.exceptions.AmountPersistCorruptedException}
      *       is thrown to indicate corrupted persisted data.</li>
@@ -114,10 +150,10 @@ public class ExpenseDataManager extends DataManager<Expense, Exception> {
     private Expense parseExpense(String[] parts) throws AmountPersistCorruptedException {
         String description = unsanitize(parts[0]);
         String expenseAmount = parts[1];
-        double amount;
+        long amount;
 
         try {
-            amount = Double.parseDouble(expenseAmount);
+            amount = Money.parseCents(expenseAmount);
         } catch (NumberFormatException e) {
             throw new AmountPersistCorruptedException(expenseAmount, EXPENSE);
         }
@@ -126,6 +162,25 @@ public class ExpenseDataManager extends DataManager<Expense, Exception> {
             throw new AmountPersistCorruptedException(expenseAmount, EXPENSE);
         }
 
-        return new Expense(description, expenseAmount);
+        boolean isDeposit = parts.length > 3 && parts[3].equals("1");
+        return new Expense(description, amount, parseDate(parts), isDeposit);
+    }
+
+    /**
+     * Parses the optional third field of a serialized expense record as its date.
+     *
+     * @param parts the tokenized fields of a serialized expense record
+     * @return the date of the expense, or {@code null} if the record has none
+     * @throws TransactionDatePersistCorruptedException if the date is not in {@code dd-MM-yyyy} format
+     */
+    private LocalDate parseDate(String[] parts) {
+        if (parts.length < 3 || parts[2].isEmpty()) {
+            return null;
+        }
+        try {
+            return TransactionDate.parseOptional(parts[2]);
+        } catch (DateTimeParseException e) {
+            throw new TransactionDatePersistCorruptedException(parts[2], EXPENSE);
+        }
     }
 }
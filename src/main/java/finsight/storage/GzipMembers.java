@@ -0,0 +1,181 @@
+package finsight.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Represents the contents of a compressed data file, inflated one gzip member at a time up to
+ * the first member that cannot be read in full.
+ *
+ * <p>{@link java.util.zip.GZIPInputStream} cannot be used for this, as it reports neither
+ * where a damaged member starts nor, if only a few bytes of one are left, that it is there at
+ * all. Each member here must have a valid header, a complete deflate stream and a trailer
+ * whose checksum and length match what was inflated, or it and everything after it are
+ * left unread.</p>
+ */
+final class GzipMembers {
+    private static final int MAGIC_FIRST_BYTE = 0x1f;
+    private static final int MAGIC_SECOND_BYTE = 0x8b;
+    private static final int DEFLATE_METHOD = 8;
+    private static final int HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+    private static final int FLAG_HEADER_CRC = 0x02;
+    private static final int FLAG_EXTRA = 0x04;
+    private static final int FLAG_NAME = 0x08;
+    private static final int FLAG_COMMENT = 0x10;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InflatedBytes inflated = new InflatedBytes();
+    private final int readableLength;
+
+    private GzipMembers(byte[] compressed) {
+        Inflater inflater = new Inflater(true);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int position = 0;
+        try {
+            while (position < compressed.length) {
+                int memberEnd = inflateMember(compressed, position, inflater, buffer);
+                if (memberEnd < 0) {
+                    break;
+                }
+                position = memberEnd;
+            }
+        } finally {
+            inflater.end();
+        }
+        readableLength = position;
+    }
+
+    /**
+     * Inflates the members of a compressed data file, stopping at the first damaged one
+     *
+     * @param compressed the bytes of the file
+     * @return the members read
+     */
+    static GzipMembers inflate(byte[] compressed) {
+        return new GzipMembers(compressed);
+    }
+
+    /**
+     * Returns the lines of the members that were read in full
+     *
+     * @return the lines inflated
+     */
+    List<String> getLines() {
+        return DataManager.splitLines(inflated.getBuffer(), inflated.size());
+    }
+
+    /**
+     * Returns how many bytes at the start of the file hold members that were read in full
+     *
+     * @return the offset of the first damaged member, or the length of the file if there is none
+     */
+    int getReadableLength() {
+        return readableLength;
+    }
+
+    /**
+     * Inflates the member starting at the given offset, keeping its bytes only if all of it
+     * can be read
+     *
+     * @return the offset just past the member, or {@code -1} if it is damaged or cut short
+     */
+    private int inflateMember(byte[] compressed, int start, Inflater inflater, byte[] buffer) {
+        int dataStart = skipHeader(compressed, start);
+        if (dataStart < 0) {
+            return -1;
+        }
+        int inflatedBefore = inflated.size();
+        CRC32 checksum = new CRC32();
+        inflater.reset();
+        inflater.setInput(compressed, dataStart, compressed.length - dataStart);
+        try {
+            while (!inflater.finished()) {
+                int inflatedLength = inflater.inflate(buffer);
+                if (inflatedLength == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    inflated.truncate(inflatedBefore);
+                    return -1;
+                }
+                checksum.update(buffer, 0, inflatedLength);
+                inflated.write(buffer, 0, inflatedLength);
+            }
+        } catch (DataFormatException e) {
+            inflated.truncate(inflatedBefore);
+            return -1;
+        }
+
+        int trailerStart = compressed.length - inflater.getRemaining();
+        boolean isTrailerValid = trailerStart + TRAILER_SIZE <= compressed.length
+                && readInt(compressed, trailerStart) == (int) checksum.getValue()
+                && readInt(compressed, trailerStart + Integer.BYTES) == (int) inflater.getBytesWritten();
+        if (!isTrailerValid) {
+            inflated.truncate(inflatedBefore);
+            return -1;
+        }
+        return trailerStart + TRAILER_SIZE;
+    }
+
+    /**
+     * Skips the header of a member, with any extra field, file name, comment and checksum
+     *
+     * @return the offset of the deflate stream, or {@code -1} if the header is not valid
+     */
+    private static int skipHeader(byte[] compressed, int start) {
+        if (compressed.length - start < HEADER_SIZE || (compressed[start] & 0xff) != MAGIC_FIRST_BYTE
+                || (compressed[start + 1] & 0xff) != MAGIC_SECOND_BYTE || compressed[start + 2] != DEFLATE_METHOD) {
+            return -1;
+        }
+        int flags = compressed[start + 3] & 0xff;
+        int position = start + HEADER_SIZE;
+        if ((flags & FLAG_EXTRA) != 0) {
+            if (position + 2 > compressed.length) {
+                return -1;
+            }
+            position += 2 + ((compressed[position] & 0xff) | (compressed[position + 1] & 0xff) << 8);
+        }
+        if ((flags & FLAG_NAME) != 0) {
+            position = skipZeroTerminated(compressed, position);
+        }
+        if ((flags & FLAG_COMMENT) != 0) {
+            position = skipZeroTerminated(compressed, position);
+        }
+        if ((flags & FLAG_HEADER_CRC) != 0) {
+            position += 2;
+        }
+        return position < 0 || position > compressed.length ? -1 : position;
+    }
+
+    private static int skipZeroTerminated(byte[] compressed, int start) {
+        if (start < 0) {
+            return -1;
+        }
+        for (int i = start; i < compressed.length; i++) {
+            if (compressed[i] == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int readInt(byte[] bytes, int start) {
+        return (bytes[start] & 0xff) | (bytes[start + 1] & 0xff) << 8 | (bytes[start + 2] & 0xff) << 16
+                | (bytes[start + 3] & 0xff) << 24;
+    }
+
+    /**
+     * Holds the inflated bytes, giving access to its buffer without a copy and dropping the
+     * bytes of a member that turns out to be damaged
+     */
+    private static final class InflatedBytes extends ByteArrayOutputStream {
+        byte[] getBuffer() {
+            return buf;
+        }
+
+        void truncate(int length) {
+            count = length;
+        }
+    }
+}
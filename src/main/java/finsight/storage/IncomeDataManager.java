@@ -1,21 +1,27 @@
 package finsight.storage;
 
 import finsight.income.Income;
-import finsight.income.exceptions.AddIncomeCommandWrongFormatException;
+import finsight.money.Money;
 import finsight.storage.exceptions.AmountPersistCorruptedException;
+import finsight.storage.exceptions.TransactionDatePersistCorruptedException;
+import finsight.summary.TransactionDate;
 
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 /**
  * Persists and retrieves {@link Income} records from a text-based storage file.
  *
  * <p><strong>Record format (per line)</strong>:
- * <code>description|amount</code>
+ * <code>description|amount|date</code>
  * where:
  * <ul>
  *   <li><code>description</code> — textual description of the income
  *       (sanitized using {@link DataManager#sanitize(String)} to prevent delimiter conflicts)</li>
- *   <li><code>amount</code> — numeric value of the income amount stored as a string</li>
+ *   <li><code>amount</code> — income amount with two decimal places</li>
+ *   <li><code>date</code> — date of the income formatted as <code>dd-MM-yyyy</code>, or empty if it
+ *       has none; records written before dates were supported omit the field</li>
  * </ul>
  *
  * <p>This class focuses solely on I/O management for income data while delegating
@@ -28,6 +34,7 @@ import java.nio.file.Path;
  */
 public class IncomeDataManager extends DataManager<Income, Exception> {
     private static final String INCOME = "income";
+    private static final int FIELD_COUNT = 3;
     /**
      * Path to the file storing income records.
      */
@@ -71,8 +78,33 @@ public class IncomeDataManager extends DataManager<Income, Exception> {
     @Override
     protected String formatRecord(Income income) {
         String description = sanitize(income.getDescription());
-        String incomeAmount = Float.toString(income.getAmountEarned());
-        return String.join("|", description, incomeAmount);
+        String incomeAmount = Money.format(income.getAmountEarnedCents());
+        String date = income.getDate() == null ? "" : TransactionDate.format(income.getDate());
+        return String.join("|", description, incomeAmount, date);
+    }
+
+    /**
+     * Returns the number of fields in every income record written.
+     *
+     * @return the field count, with an empty date field for an income without a date
+     */
+    @Override
+    protected int fieldCount() {
+        return FIELD_COUNT;
+    }
+
+    /**
+     * Parses a line written in the current format, which always has a date field, falling back
+     * to {@link #parseRecord(String)} if it does not have exactly three fields.
+     *
+     * @param line a single line read from the data file
+     * @return a parsed {@link Income} record, or {@code null} if the line is malformed
+     * @throws AmountPersistCorruptedException if the amount field is not numeric or ≤ 0
+     */
+    @Override
+    protected Income parseCurrentRecord(String line) throws AmountPersistCorruptedException {
+        String[] fields = splitFields(line, FIELD_COUNT);
+        return fields == null ? parseRecord(line) : parseIncome(fields);
     }
 
     /**
@@ -81,13 +113,10 @@ public class IncomeDataManager extends DataManager<Income, Exception> {
      *
      * @param line a single line read from the data file
      * @return a parsed {@link Income} record, or {@code null} if the line is malformed
-     * @throws AddIncomeCommandWrongFormatException if the content cannot be converted
-     *                                              into a valid {@link Income} object (e.g., invalid numeric format)
      * @throws AmountPersistCorruptedException if the amount field is not numeric or ≤ 0
      */
     @Override
-    protected Income parseRecord(String line)
-            throws AmountPersistCorruptedException, AddIncomeCommandWrongFormatException {
+    protected Income parseRecord(String line) throws AmountPersistCorruptedException {
         String[] parts = line.split(FIELD_DELIMITER, SPLIT_KEEP_EMPTY_FIELDS);
         if (parts.length < 2) {
             return null;
@@ -110,30 +139,24 @@ public class IncomeDataManager extends DataManager<Income, Exception> {
      *       and is decoded using {@link #unsanitize(String)} to restore original
      *       special characters.</li>
      *   <li>The second element ({@code parts[1]}) represents the income amount and
-     *       is parsed as a {@code float}.</li>
+     *       is parsed as an amount in cents.</li>
      *   <li>If the amount is non-numeric or non-positive, an
      *       {@link finsight.storage.exceptions.AmountPersistCorruptedException}
      *       is thrown to indicate corrupted persisted data.</li>
-     *   <li>If any field does not conform to expected input constraints, an
-     *       {@link finsight.income.exceptions.AddIncomeCommandWrongFormatException}
-     *       may be thrown during {@link Income} construction.</li>
      * </ul>
      *
      * @param parts the tokenized fields of a serialized income record,
      *              expected to contain the description and amount in that order
      * @return a valid {@link Income} object parsed from the provided fields
      * @throws AmountPersistCorruptedException if the amount is not numeric or ≤ 0
-     * @throws AddIncomeCommandWrongFormatException if the reconstructed record
-     *                                              fails domain-level validation
      */
-    private Income parseIncome(String[] parts)
-            throws AmountPersistCorruptedException, AddIncomeCommandWrongFormatException {
+    private Income parseIncome(String[] parts) throws AmountPersistCorruptedException {
         String description = unsanitize(parts[0]);
         String incomeAmount = parts[1];
-        float amount;
+        long amount;
 
         try {
-            amount = Float.parseFloat(incomeAmount);
+            amount = Money.parseCents(incomeAmount);
         } catch (NumberFormatException e) {
             throw new AmountPersistCorruptedException(incomeAmount, INCOME);
         }
@@ -142,6 +165,24 @@ public class IncomeDataManager extends DataManager<Income, Exception> {
             throw new AmountPersistCorruptedException(incomeAmount, INCOME);
         }
 
-        return new Income(description, incomeAmount);
+        return new Income(description, amount, parseDate(parts));
+    }
+
+    /**
+     * Parses the optional third field of a serialized income record as its date.
+     *
+     * @param parts the tokenized fields of a serialized income record
+     * @return the date of the income, or {@code null} if the record has none
+     * @throws TransactionDatePersistCorruptedException if the date is not in {@code dd-MM-yyyy} format
+     */
+    private LocalDate parseDate(String[] parts) {
+        if (parts.length < 3 || parts[2].isEmpty()) {
+            return null;
+        }
+        try {
+            return TransactionDate.parseOptional(parts[2]);
+        } catch (DateTimeParseException e) {
+            throw new TransactionDatePersistCorruptedException(parts[2], INCOME);
+        }
     }
 }
@@ -1,8 +1,7 @@
 package finsight.storage;
 
 import finsight.investment.Investment;
-import finsight.investment.exceptions.AddInvestmentDateOutOfBoundsException;
-import finsight.investment.exceptions.AddInvestmentWrongNumberFormatException;
+import finsight.money.Money;
 import finsight.storage.exceptions.AmountPersistCorruptedException;
 import finsight.storage.exceptions.DayOfInvestPersistCorruptedException;
 import finsight.storage.exceptions.ReturnRatePersistCorruptedException;
@@ -18,7 +17,7 @@ import java.nio.file.Path;
  * <ul>
  *   <li><code>description</code> — textual description of the investment
  *       (sanitized using {@link DataManager#sanitize(String)} to prevent delimiter conflicts)</li>
- *   <li><code>amount</code> — numeric value of the investment amount stored as a string</li>
+ *   <li><code>amount</code> — investment amount with two decimal places</li>
  *   <li><code>dayOfInvest</code> — integer representing the day of the month the investment occurs</li>
  * </ul>
  *
@@ -34,6 +33,7 @@ import java.nio.file.Path;
  */
 public class InvestDataManager extends DataManager<Investment, Exception> {
     private static final String INVESTMENT = "invest";
+    private static final int FIELD_COUNT = 4;
     /**
      * Path to the data file storing investment records.
      */
@@ -77,28 +77,53 @@ public class InvestDataManager extends DataManager<Investment, Exception> {
     @Override
     protected String formatRecord(Investment investment) {
         String description = sanitize(investment.getDescription());
-        String investAmount = investment.getInvestmentAmount().toString();
-        String rateOfReturn = investment.getInvestmentReturnRate().toString();
+        String investAmount = Money.format(investment.getInvestmentAmountCents());
+        String rateOfReturn = Double.toString(investment.getInvestmentReturnRate());
         String dayOfInvest = Integer.toString(investment.getInvestmentDateOfMonth());
         return String.join("|", description, investAmount, rateOfReturn, dayOfInvest);
     }
 
+    /**
+     * Returns the number of fields in every investment record written.
+     *
+     * @return the field count
+     */
+    @Override
+    protected int fieldCount() {
+        return FIELD_COUNT;
+    }
+
+    /**
+     * Parses a line written in the current format, falling back to {@link #parseRecord(String)}
+     * if it does not have exactly four fields.
+     *
+     * @param line the raw line read from the data file
+     * @return a parsed {@link Investment} instance, or {@code null} if malformed
+     * @throws AmountPersistCorruptedException      if amount field is not numeric or less than 0
+     * @throws DayOfInvestPersistCorruptedException if field is not within valid bounds (1-31)
+     * @throws ReturnRatePersistCorruptedException  if field is not numeric or less than 0
+     */
+    @Override
+    protected Investment parseCurrentRecord(String line)
+            throws AmountPersistCorruptedException, DayOfInvestPersistCorruptedException,
+            ReturnRatePersistCorruptedException {
+        String[] fields = splitFields(line, FIELD_COUNT);
+        return fields == null ? parseRecord(line) : parseInvestment(fields);
+    }
+
     /**
      * Parses a line from the data file into an {@link Investment} object.
      * Lines with missing fields are ignored by returning {@code null}.
      *
      * @param line the raw line read from the data file
      * @return a parsed {@link Investment} instance, or {@code null} if malformed
-     * @throws AddInvestmentWrongNumberFormatException if the amount field cannot be parsed as a valid number
-     * @throws AddInvestmentDateOutOfBoundsException   if the day of month is not within valid bounds (1–31)
-     * @throws AmountPersistCorruptedException         if amount field is not numeric or less than 0
-     * @throws DayOfInvestPersistCorruptedException    if field is not within valid bounds (1-31)
-     * @throws ReturnRatePersistCorruptedException     if field is not numeric or less than 0
+     * @throws AmountPersistCorruptedException      if amount field is not numeric or less than 0
+     * @throws DayOfInvestPersistCorruptedException if field is not within valid bounds (1-31)
+     * @throws ReturnRatePersistCorruptedException  if field is not numeric or less than 0
      */
     @Override
     protected Investment parseRecord(String line)
-            throws AddInvestmentWrongNumberFormatException, AddInvestmentDateOutOfBoundsException,
-            AmountPersistCorruptedException, DayOfInvestPersistCorruptedException,
+            throws AmountPersistCorruptedException, DayOfInvestPersistCorruptedException,
             ReturnRatePersistCorruptedException {
         String[] parts = line.split(FIELD_DELIMITER, SPLIT_KEEP_EMPTY_FIELDS);
         if (parts.length < 4) {
@@ -121,7 +146,7 @@ public class InvestDataManager extends DataManager<Investment, Exception> {
      *       and is restored using {@link #unsanitize(String)} to recover any encoded
      *       delimiters.</li>
      *   <li>The second element ({@code parts[1]}) represents the investment amount,
-     *       parsed as a {@code double} and validated to be positive.</li>
+     *       parsed as an amount in cents and validated to be positive.</li>
      *   <li>The third element ({@code parts[2]}) represents the rate of return,
      *       parsed as a {@code double} and validated to be positive.</li>
      *   <li>The fourth element ({@code parts[3]}) represents the day of investment,
@@ -133,28 +158,25 @@ public class InvestDataManager extends DataManager<Investment, Exception> {
      * @param parts the tokenized fields of a serialized investment record, expected to contain
      *              description, amount, rate of return, and day of investment in order
      * @return a valid {@link Investment} object constructed from the provided fields
-     * @throws AmountPersistCorruptedException         if the investment amount is not numeric or ≤ 0
-     * @throws ReturnRatePersistCorruptedException     if the rate of return is not numeric or ≤ 0
-     * @throws DayOfInvestPersistCorruptedException    if the day of investment is non-numeric or out of range
-     *                                                 (≤ 0 or > 31)
-     * @throws AddInvestmentWrongNumberFormatException if the reconstructed record violates format constraints
-     * @throws AddInvestmentDateOutOfBoundsException   if the reconstructed record specifies an invalid date bound
+     * @throws AmountPersistCorruptedException      if the investment amount is not numeric or ≤ 0
+     * @throws ReturnRatePersistCorruptedException  if the rate of return is not numeric or ≤ 0
+     * @throws DayOfInvestPersistCorruptedException if the day of investment is non-numeric or out of range
+     *                                              (≤ 0 or > 31)
      */
     private Investment parseInvestment(String[] parts)
             throws AmountPersistCorruptedException, DayOfInvestPersistCorruptedException,
-            AddInvestmentDateOutOfBoundsException, AddInvestmentWrongNumberFormatException,
             ReturnRatePersistCorruptedException {
         String description = unsanitize(parts[0]);
         String investAmount = parts[1];
         String rateOfReturn = parts[2];
         String dayOfInvest = parts[3];
 
-        double amount;
+        long amount;
         double rate;
         int day;
 
         try {
-            amount = Double.parseDouble(investAmount);
+            amount = Money.parseCents(investAmount);
         } catch (NumberFormatException e) {
             throw new AmountPersistCorruptedException(investAmount, INVESTMENT);
         }
@@ -179,6 +201,6 @@ public class InvestDataManager extends DataManager<Investment, Exception> {
             throw new DayOfInvestPersistCorruptedException(dayOfInvest);
         }
 
-        return new Investment(description, investAmount, rateOfReturn, dayOfInvest);
+        return new Investment(description, amount, rate, day);
     }
 }
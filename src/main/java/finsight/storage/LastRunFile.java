@@ -0,0 +1,75 @@
+package finsight.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Represents the file that holds the date FinSight was last run, used to catch up on the
+ * investment deposits that fell due while it was not running.
+ *
+ * <p>The file holds a single ISO date, e.g. {@code 2026-10-19}. A missing or unreadable file
+ * is treated as a first run, so nothing is caught up.</p>
+ *
+ * <p>Instances of FinSight sharing a data directory take {@link #lock()} before reading the
+ * date and keep it until the new date is written, so that only one of them catches up on the
+ * deposits due since a given run.</p>
+ */
+public class LastRunFile {
+    private final Path file;
+
+    /**
+     * Creates a handle on the last run file
+     *
+     * @param file path of the file
+     */
+    public LastRunFile(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Takes an exclusive lock on the last run file, held as a {@link DataFileLock} on a sidecar
+     * file, waiting for any other instance of FinSight catching up to finish
+     *
+     * @return the lock held, released when closed
+     * @throws IOException if the lock file or its directory cannot be created, or cannot be locked
+     */
+    public Closeable lock() throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return DataFileLock.of(file).lockForRewrite();
+    }
+
+    /**
+     * Returns the date FinSight was last run
+     *
+     * @return the date, or {@code null} if the file does not exist or does not hold a date
+     */
+    public LocalDate read() {
+        try {
+            return LocalDate.parse(Files.readString(file, StandardCharsets.UTF_8).trim());
+        } catch (IOException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Records the date FinSight was run, creating the file and its directory if needed
+     *
+     * @param date the date of the run
+     * @throws IOException if an I/O error occurs while writing the file
+     */
+    public void write(LocalDate date) throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, date.toString(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,136 @@
+package finsight.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Loads the records of a {@link DataManager} once, either on first use or ahead of time
+ * on a background thread.
+ *
+ * <p>The load itself runs as a {@link FutureTask}. {@link #get()} runs the task on the
+ * calling thread if nobody has started it yet, or waits for a {@link #prefetch(Executor)}
+ * that is already in progress. Load errors are collected while loading and handed to the
+ * error handler on the first call to {@link #get()}, together with the {@code onLoad}
+ * callback, so both always run on the thread that uses the records and never interleave
+ * with output from a background thread.</p>
+ *
+ * <p>Work that needs the records but may run on any thread, such as scheduling alerts, can be
+ * registered with {@link #whenLoaded(Consumer)} instead. It then runs on the loading thread as
+ * soon as the records are read, without the caller waiting for them.</p>
+ *
+ *
+ * @param <T> the type of record loaded
+ */
+public class LedgerLoader<T> {
+    private final List<String> loadErrors = new ArrayList<>();
+    private final FutureTask<ArrayList<T>> loadTask;
+    private final Consumer<String> errorHandler;
+    private final Consumer<ArrayList<T>> onLoad;
+    private final List<Consumer<List<T>>> loadedActions = new ArrayList<>();
+    private ArrayList<T> loadedRecords;
+    private boolean isDelivered = false;
+
+    /**
+     * Creates a loader for the records of the given data manager. Nothing is read until
+     * {@link #get()} or {@link #prefetch(Executor)} is called.
+     *
+     * @param dataManager the data manager to load records from
+     * @param errorHandler receives every load error on the first call to {@link #get()}
+     * @param onLoad called with the loaded records on the first call to {@link #get()}
+     */
+    public LedgerLoader(DataManager<T, ?> dataManager, Consumer<String> errorHandler, Consumer<ArrayList<T>> onLoad) {
+        assert dataManager != null : "dataManager must not be null";
+        this.loadTask = new FutureTask<>(() -> runLoadedActions(dataManager.tryLoad(loadErrors::add)));
+        this.errorHandler = errorHandler;
+        this.onLoad = onLoad;
+    }
+
+    /**
+     * Starts loading the records on the given executor without waiting for them.
+     * Has no effect if the records are already loading or loaded.
+     *
+     * @param executor the executor to load the records on
+     */
+    public void prefetch(Executor executor) {
+        executor.execute(loadTask);
+    }
+
+    /**
+     * Runs an action with the records as soon as they are loaded, on the thread that loads
+     * them and before {@link #get()} returns them to anyone, or right away on the calling
+     * thread if they are loaded already. The action must not change the records.
+     *
+     * @param action the action to run with the loaded records
+     */
+    public void whenLoaded(Consumer<List<T>> action) {
+        synchronized (loadedActions) {
+            if (loadedRecords == null) {
+                loadedActions.add(action);
+                return;
+            }
+        }
+        action.accept(loadedRecords);
+    }
+
+    /**
+     * Returns whether the records have finished loading.
+     *
+     * @return {@code true} if the records are available without waiting
+     */
+    public boolean isLoaded() {
+        return loadTask.isDone();
+    }
+
+    /**
+     * Returns the loaded records, loading them on the calling thread or waiting for a
+     * prefetch in progress if necessary.
+     *
+     * @return the loaded records; empty if loading failed
+     */
+    public synchronized ArrayList<T> get() {
+        loadTask.run();
+        ArrayList<T> records = awaitRecords();
+        if (!isDelivered) {
+            isDelivered = true;
+            loadErrors.forEach(errorHandler);
+            onLoad.accept(records);
+        }
+        return records;
+    }
+
+    private ArrayList<T> runLoadedActions(ArrayList<T> records) {
+        synchronized (loadedActions) {
+            loadedRecords = records;
+            for (Consumer<List<T>> action : loadedActions) {
+                action.accept(records);
+            }
+            loadedActions.clear();
+        }
+        return records;
+    }
+
+    private ArrayList<T> awaitRecords() {
+        boolean isInterrupted = false;
+        try {
+            while (true) {
+                try {
+                    return loadTask.get();
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+        } catch (ExecutionException | CancellationException e) {
+            loadErrors.add(e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
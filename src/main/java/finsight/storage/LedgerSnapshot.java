@@ -0,0 +1,414 @@
+package finsight.storage;
+
+import finsight.expense.Expense;
+import finsight.income.Income;
+import finsight.investment.Investment;
+import finsight.loan.Loan;
+import finsight.stats.IoOperation;
+import finsight.stats.PerformanceStats;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Represents a binary snapshot of the parsed expense, income, investment and loan ledgers,
+ * used to skip parsing the text data files when FinSight starts again.
+ *
+ * <p>The snapshot starts with a magic number, a format version and, for every source data
+ * file, the number of bytes of it the ledgers were read from, and its last modified time at
+ * the time the snapshot was written. The records follow
+ * column by column: the lengths of all descriptions, their UTF-8 bytes, then one array per
+ * numeric field, with amounts in cents and dates as epoch days, so that each column is read back with a single
+ * bulk read. A CRC32 checksum of everything before it ends the file.</p>
+ *
+ * <p>A snapshot is only used when its magic number, version and checksum are correct and
+ * every source data file still has the recorded size and modified time. Otherwise
+ * {@link #tryRead(Path, List)} returns {@code null} and the caller falls back to parsing
+ * the text data files, which always remain the source of truth. Records another program
+ * appended after the ledgers last read a file are therefore never hidden by a snapshot: the
+ * file is then longer than recorded, and the snapshot is rejected.</p>
+ */
+public class LedgerSnapshot {
+    private static final int MAGIC = 0x46534E50;
+    private static final int VERSION = 4;
+    private static final int CHECKSUM_BYTES = Long.BYTES;
+    private static final byte REPAID = 1;
+    private static final byte DEPOSIT = 1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final ArrayList<Expense> expenses;
+    private final ArrayList<Income> incomes;
+    private final ArrayList<Investment> investments;
+    private final ArrayList<Loan> loans;
+    private final long[] sourceSizes;
+
+    /**
+     * Creates a snapshot of the given ledgers. The lists are copied, so later changes to
+     * them do not affect the snapshot.
+     *
+     * @param expenses    expenses to include
+     * @param incomes     incomes to include
+     * @param investments investments to include
+     * @param loans       loans to include
+     */
+    public LedgerSnapshot(List<Expense> expenses, List<Income> incomes, List<Investment> investments,
+            List<Loan> loans) {
+        this(expenses, incomes, investments, loans, new long[0]);
+    }
+
+    private LedgerSnapshot(List<Expense> expenses, List<Income> incomes, List<Investment> investments,
+            List<Loan> loans, long[] sourceSizes) {
+        this.expenses = new ArrayList<>(expenses);
+        this.incomes = new ArrayList<>(incomes);
+        this.investments = new ArrayList<>(investments);
+        this.loans = new ArrayList<>(loans);
+        this.sourceSizes = sourceSizes;
+    }
+
+    /**
+     * Reads the snapshot at the given path if it is still valid for the given source data files.
+     *
+     * @param snapshotFile path of the snapshot
+     * @param sourceFiles  data files the snapshot was taken from, in the order they were written
+     * @return the snapshot, or {@code null} if it is missing, corrupted, of another version or stale
+     */
+    public static LedgerSnapshot tryRead(Path snapshotFile, List<Path> sourceFiles) {
+        long startTime = System.nanoTime();
+        try {
+            if (!Files.exists(snapshotFile)) {
+                return null;
+            }
+            byte[] bytes = Files.readAllBytes(snapshotFile);
+            LedgerSnapshot snapshot = decode(bytes, sourceFiles);
+            PerformanceStats.recordIo(snapshotFile, IoOperation.LOAD, System.nanoTime() - startTime, bytes.length);
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            // A damaged snapshot is never fatal: the text data files are parsed instead.
+            return null;
+        }
+    }
+
+    /**
+     * Writes this snapshot to the given path, recording how much of each source data file the
+     * ledgers hold and the current modified time of the file. Uses a temporary file and atomic
+     * move so that an interrupted write never leaves a partial snapshot behind.
+     *
+     * <p>The sizes recorded are the ones the ledgers were read from or written to, not the
+     * current sizes of the files, so that a snapshot taken after another program appended to a
+     * file is rejected rather than restored without the appended records.</p>
+     *
+     * @param snapshotFile path of the snapshot
+     * @param sourceFiles  data files the ledgers were loaded from
+     * @param sourceSizes  number of bytes of each data file the ledgers hold, or -1 if unknown
+     * @throws IOException if the snapshot or the source data files cannot be accessed
+     */
+    public void write(Path snapshotFile, List<Path> sourceFiles, long[] sourceSizes) throws IOException {
+        assert sourceSizes.length == sourceFiles.size() : "every source file needs a size";
+        long startTime = System.nanoTime();
+        Path parent = snapshotFile.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".temp");
+
+        CRC32 checksum = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Files.newOutputStream(tmp), checksum)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sourceFiles.size());
+            for (int i = 0; i < sourceFiles.size(); i++) {
+                out.writeLong(sourceSizes[i]);
+                out.writeLong(Files.getLastModifiedTime(sourceFiles.get(i)).toMillis());
+            }
+            writeExpenses(out);
+            writeIncomes(out);
+            writeInvestments(out);
+            writeLoans(out);
+            out.flush();
+            out.writeLong(checksum.getValue());
+        }
+        long bytesWritten = Files.size(tmp);
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        PerformanceStats.recordIo(snapshotFile, IoOperation.REWRITE, System.nanoTime() - startTime, bytesWritten);
+    }
+
+    /**
+     * Returns the expenses in this snapshot
+     *
+     * @return ArrayList of expenses
+     */
+    public ArrayList<Expense> getExpenses() {
+        return expenses;
+    }
+
+    /**
+     * Returns the incomes in this snapshot
+     *
+     * @return ArrayList of incomes
+     */
+    public ArrayList<Income> getIncomes() {
+        return incomes;
+    }
+
+    /**
+     * Returns the investments in this snapshot
+     *
+     * @return ArrayList of investments
+     */
+    public ArrayList<Investment> getInvestments() {
+        return investments;
+    }
+
+    /**
+     * Returns the loans in this snapshot
+     *
+     * @return ArrayList of loans
+     */
+    public ArrayList<Loan> getLoans() {
+        return loans;
+    }
+
+    /**
+     * Returns the number of bytes of a source data file the restored ledgers were read from
+     *
+     * @param index index of the data file in the list passed to {@link #tryRead(Path, List)}
+     * @return the size of the data file recorded in the snapshot
+     */
+    public long getSourceSize(int index) {
+        return sourceSizes[index];
+    }
+
+    private static LedgerSnapshot decode(byte[] bytes, List<Path> sourceFiles) throws IOException {
+        if (bytes.length < CHECKSUM_BYTES) {
+            return null;
+        }
+        int checksumOffset = bytes.length - CHECKSUM_BYTES;
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, checksumOffset);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getLong(checksumOffset) != checksum.getValue()) {
+            return null;
+        }
+        buffer.limit(checksumOffset);
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != sourceFiles.size()) {
+            return null;
+        }
+        long[] sourceSizes = new long[sourceFiles.size()];
+        for (int i = 0; i < sourceFiles.size(); i++) {
+            Path sourceFile = sourceFiles.get(i);
+            sourceSizes[i] = buffer.getLong();
+            long lastModified = buffer.getLong();
+            if (!Files.exists(sourceFile) || Files.size(sourceFile) != sourceSizes[i]
+                    || Files.getLastModifiedTime(sourceFile).toMillis() != lastModified) {
+                return null;
+            }
+        }
+
+        List<Expense> expenses = readExpenses(buffer);
+        List<Income> incomes = readIncomes(buffer);
+        List<Investment> investments = readInvestments(buffer);
+        List<Loan> loans = readLoans(buffer);
+        if (buffer.hasRemaining()) {
+            return null;
+        }
+        return new LedgerSnapshot(expenses, incomes, investments, loans, sourceSizes);
+    }
+
+    private void writeExpenses(DataOutputStream out) throws IOException {
+        out.writeInt(expenses.size());
+        List<String> descriptions = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            descriptions.add(expense.getDescription());
+        }
+        writeStrings(out, descriptions);
+        for (Expense expense : expenses) {
+            out.writeLong(expense.getExpenseAmountCents());
+        }
+        for (Expense expense : expenses) {
+            out.writeLong(toEpochDay(expense.getDate()));
+        }
+        for (Expense expense : expenses) {
+            out.writeByte(expense.isDeposit() ? DEPOSIT : 0);
+        }
+    }
+
+    private static List<Expense> readExpenses(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        String[] descriptions = readStrings(buffer, count);
+        long[] amounts = readLongs(buffer, count);
+        long[] dates = readLongs(buffer, count);
+        byte[] depositFlags = new byte[count];
+        buffer.get(depositFlags);
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expenses.add(new Expense(descriptions[i], amounts[i], fromEpochDay(dates[i]),
+                    depositFlags[i] == DEPOSIT));
+        }
+        return expenses;
+    }
+
+    private void writeIncomes(DataOutputStream out) throws IOException {
+        out.writeInt(incomes.size());
+        List<String> descriptions = new ArrayList<>(incomes.size());
+        for (Income income : incomes) {
+            descriptions.add(income.getDescription());
+        }
+        writeStrings(out, descriptions);
+        for (Income income : incomes) {
+            out.writeLong(income.getAmountEarnedCents());
+        }
+        for (Income income : incomes) {
+            out.writeLong(toEpochDay(income.getDate()));
+        }
+    }
+
+    private static List<Income> readIncomes(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        String[] descriptions = readStrings(buffer, count);
+        long[] amounts = readLongs(buffer, count);
+        long[] dates = readLongs(buffer, count);
+        List<Income> incomes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            incomes.add(new Income(descriptions[i], amounts[i], fromEpochDay(dates[i])));
+        }
+        return incomes;
+    }
+
+    private void writeInvestments(DataOutputStream out) throws IOException {
+        out.writeInt(investments.size());
+        List<String> descriptions = new ArrayList<>(investments.size());
+        for (Investment investment : investments) {
+            descriptions.add(investment.getDescription());
+        }
+        writeStrings(out, descriptions);
+        for (Investment investment : investments) {
+            out.writeLong(investment.getInvestmentAmountCents());
+        }
+        for (Investment investment : investments) {
+            out.writeDouble(investment.getInvestmentReturnRate());
+        }
+        for (Investment investment : investments) {
+            out.writeInt(investment.getInvestmentDateOfMonth());
+        }
+    }
+
+    private static List<Investment> readInvestments(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        String[] descriptions = readStrings(buffer, count);
+        long[] amounts = readLongs(buffer, count);
+        double[] returnRates = readDoubles(buffer, count);
+        int[] datesOfMonth = readInts(buffer, count);
+        List<Investment> investments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            investments.add(new Investment(descriptions[i], amounts[i], returnRates[i], datesOfMonth[i]));
+        }
+        return investments;
+    }
+
+    private void writeLoans(DataOutputStream out) throws IOException {
+        out.writeInt(loans.size());
+        List<String> descriptions = new ArrayList<>(loans.size());
+        for (Loan loan : loans) {
+            descriptions.add(loan.getDescription());
+        }
+        writeStrings(out, descriptions);
+        for (Loan loan : loans) {
+            out.writeLong(loan.getAmountLoanedCents());
+        }
+        for (Loan loan : loans) {
+            out.writeLong(loan.getLoanReturnDate().toEpochSecond(ZoneOffset.UTC));
+        }
+        for (Loan loan : loans) {
+            out.writeByte(loan.isRepaid() ? REPAID : 0);
+        }
+    }
+
+    private static List<Loan> readLoans(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        String[] descriptions = readStrings(buffer, count);
+        long[] amounts = readLongs(buffer, count);
+        long[] returnDates = readLongs(buffer, count);
+        byte[] repaidFlags = new byte[count];
+        buffer.get(repaidFlags);
+        List<Loan> loans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime returnDate = LocalDateTime.ofEpochSecond(returnDates[i], 0, ZoneOffset.UTC);
+            loans.add(new Loan(descriptions[i], amounts[i], returnDate, repaidFlags[i] == REPAID));
+        }
+        return loans;
+    }
+
+    private static long toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : date.toEpochDay();
+    }
+
+    private static LocalDate fromEpochDay(long epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        for (String string : strings) {
+            encoded.add(string.getBytes(StandardCharsets.UTF_8));
+        }
+        for (byte[] bytes : encoded) {
+            out.writeInt(bytes.length);
+        }
+        for (byte[] bytes : encoded) {
+            out.write(bytes);
+        }
+    }
+
+    private static String[] readStrings(ByteBuffer buffer, int count) {
+        int[] lengths = readInts(buffer, count);
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (lengths[i] < 0 || lengths[i] > buffer.remaining()) {
+                throw new IllegalStateException("String length out of range in snapshot");
+            }
+            strings[i] = new String(buffer.array(), buffer.position(), lengths[i], StandardCharsets.UTF_8);
+            skip(buffer, lengths[i]);
+        }
+        return strings;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        skip(buffer, count * Integer.BYTES);
+        return values;
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        skip(buffer, count * Long.BYTES);
+        return values;
+    }
+
+    private static double[] readDoubles(ByteBuffer buffer, int count) {
+        double[] values = new double[count];
+        buffer.asDoubleBuffer().get(values);
+        skip(buffer, count * Double.BYTES);
+        return values;
+    }
+
+    private static void skip(ByteBuffer buffer, int byteCount) {
+        buffer.position(buffer.position() + byteCount);
+    }
+}
@@ -1,6 +1,7 @@
 package finsight.storage;
 
 import finsight.loan.Loan;
+import finsight.money.Money;
 import finsight.storage.exceptions.AmountPersistCorruptedException;
 import finsight.storage.exceptions.DatePersistCorruptedException;
 import java.nio.file.Path;
@@ -18,7 +19,7 @@ import java.time.format.DateTimeParseException;
  *   <li><code>repaid</code> — {@code "1"} if repaid, {@code "0"} otherwise</li>
  *   <li><code>description</code> — loan description (delimiters sanitized by
  *       {@link DataManager#sanitize(String)})</li>
- *   <li><code>amount</code> — original string value supplied to {@link Loan}</li>
+ *   <li><code>amount</code> — loan amount with two decimal places</li>
  *   <li><code>returnBy</code> — due date/time formatted as {@link #FORMATTER}</li>
  * </ul>
  *
@@ -30,6 +31,7 @@ import java.time.format.DateTimeParseException;
  */
 public class LoanDataManager extends DataManager<Loan, Exception> {
     private static final String LOAN = "loan";
+    private static final int FIELD_COUNT = 4;
     /**
      * Date/time pattern used when formatting and parsing {@code returnBy}.
      */
@@ -81,11 +83,44 @@ public class LoanDataManager extends DataManager<Loan, Exception> {
     protected String formatRecord(Loan loan) {
         String repaid = loan.isRepaid() ? "1" : "0";
         String description = sanitize(loan.getDescription());
-        String loanAmount = loan.getAmountLoaned().toString();
+        String loanAmount = Money.format(loan.getAmountLoanedCents());
         String returnBy = loan.getLoanReturnDate().format(FORMATTER);
         return String.join("|", repaid, description, loanAmount, returnBy);
     }
 
+    /**
+     * Returns the number of fields in every loan record written.
+     *
+     * @return the field count
+     */
+    @Override
+    protected int fieldCount() {
+        return FIELD_COUNT;
+    }
+
+    /**
+     * Parses a line written in the current format, falling back to {@link #parseRecord(String)}
+     * if it does not have exactly four fields.
+     *
+     * @param line serialized line from the data file
+     * @return parsed {@link Loan}, or {@code null} if the line is malformed
+     * @throws AmountPersistCorruptedException if the amount is not numeric or ≤ 0
+     * @throws DatePersistCorruptedException if the due date cannot be parsed using the expected format
+     */
+    @Override
+    protected Loan parseCurrentRecord(String line)
+            throws AmountPersistCorruptedException, DatePersistCorruptedException {
+        String[] fields = splitFields(line, FIELD_COUNT);
+        if (fields == null) {
+            return parseRecord(line);
+        }
+        Loan loan = parseLoan(fields);
+        if (fields[0].equals("1")) {
+            loan.setRepaid();
+        }
+        return loan;
+    }
+
     /**
      * Parses a stored line into a {@link Loan}.
      *
@@ -124,7 +159,7 @@ public class LoanDataManager extends DataManager<Loan, Exception> {
      *   <li>The second element ({@code parts[1]}) represents the loan description
      *       and is decoded via {@link #unsanitize(String)} to restore original characters.</li>
      *   <li>The third element ({@code parts[2]}) represents the loan amount, which
-     *       is parsed as a {@code double} and validated to be positive.</li>
+     *       is parsed as an amount in cents and validated to be positive.</li>
      *   <li>The fourth element ({@code parts[3]}) represents the due date/time,
      *       which is parsed using {@link #FORMATTER} to ensure it matches the
      *       expected {@code dd-MM-yyyy HH:mm} format.</li>
@@ -143,10 +178,10 @@ public class LoanDataManager extends DataManager<Loan, Exception> {
         String description = unsanitize(parts[1]);
         String loanAmount = parts[2];
         String returnBy = parts[3];
-        double amount;
+        long amount;
 
         try {
-            amount = Double.parseDouble(loanAmount);
+            amount = Money.parseCents(loanAmount);
         } catch (NumberFormatException e) {
             throw new AmountPersistCorruptedException(loanAmount, LOAN);
         }
@@ -155,12 +190,13 @@ public class LoanDataManager extends DataManager<Loan, Exception> {
             throw new AmountPersistCorruptedException(loanAmount, LOAN);
         }
 
+        LocalDateTime returnDate;
         try {
-            LocalDateTime.parse(returnBy, FORMATTER);
+            returnDate = LocalDateTime.parse(returnBy, FORMATTER);
         } catch (DateTimeParseException e) {
             throw new DatePersistCorruptedException(returnBy);
         }
 
-        return new Loan(description, loanAmount, returnBy);
+        return new Loan(description, amount, returnDate, false);
     }
 }
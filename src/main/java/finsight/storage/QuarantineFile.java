@@ -0,0 +1,216 @@
+package finsight.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Represents the sidecar file that keeps the lines of a data file that could not be parsed,
+ * so that they can be fixed and loaded later instead of being lost.
+ *
+ * <p>The file sits next to the data file, named after it with a {@value #SUFFIX} suffix. After
+ * a header line starting with {@code #}, each line holds one quarantined record as
+ * {@code <LINE>|<REASON>|<RECORD>}: the line number it had in the data file, why it could not
+ * be parsed, and the record exactly as it was. The record comes last, so it may contain the
+ * field delimiter itself. A line without a line number and reason is read as a bare record.</p>
+ *
+ * <p>Lines are added through a writer that stays open until {@link #close()}, so quarantining
+ * many lines costs one buffered write rather than one file open each. A line already in the
+ * file with the same line number is not added again, so reading the same corrupted line twice
+ * quarantines it once, while identical corrupted lines at different line numbers are each kept.</p>
+ */
+final class QuarantineFile implements Closeable {
+    static final String SUFFIX = ".quarantine";
+    private static final String HEADER = "# LINE|REASON|RECORD - fix the records below, then enter repair to load them";
+    private static final String COMMENT_PREFIX = "#";
+    private static final String FIELD_DELIMITER = "|";
+    private static final Pattern ENTRY_PATTERN = Pattern.compile("(\\d{1,9})\\|([^|]*)\\|(.*)");
+
+    private final Path file;
+    private BufferedWriter writer;
+    private Set<String> quarantinedLines;
+
+    /**
+     * Creates a handle on the quarantine file of a data file
+     *
+     * @param dataFile path of the data file
+     */
+    QuarantineFile(Path dataFile) {
+        this.file = dataFile.resolveSibling(dataFile.getFileName() + SUFFIX);
+    }
+
+    Path getPath() {
+        return file;
+    }
+
+    /**
+     * Adds a line to the quarantine file, unless the same record from the same line number is
+     * already in it. The file is created on the first line added.
+     *
+     * @param lineNumber line number of the record in the data file, counting from 1
+     * @param reason     why the record could not be parsed
+     * @param record     the record as it was in the data file
+     * @return true if the line was added, false if the line was already quarantined
+     * @throws IOException if an I/O error occurs while reading or writing the quarantine file
+     */
+    boolean add(int lineNumber, String reason, String record) throws IOException {
+        if (writer == null) {
+            open();
+        }
+        if (!quarantinedLines.add(lineKey(lineNumber, record))) {
+            return false;
+        }
+        writeEntry(writer, new Entry(lineNumber, reason, record));
+        return true;
+    }
+
+    /**
+     * Returns the lines in the quarantine file
+     *
+     * @return the quarantined lines in file order, or an empty list if there is no quarantine file
+     * @throws IOException if an I/O error occurs while reading the quarantine file
+     */
+    List<Entry> read() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith(COMMENT_PREFIX)) {
+                    entries.add(parseEntry(line));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Replaces the contents of the quarantine file, using a temporary file and an atomic move.
+     * The quarantine file is deleted if no lines are left.
+     *
+     * @param entries the lines to keep, in order
+     * @throws IOException if an I/O error occurs while writing the quarantine file
+     */
+    void rewrite(List<Entry> entries) throws IOException {
+        close();
+        if (entries.isEmpty()) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".temp");
+        try (BufferedWriter tmpWriter = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            tmpWriter.write(HEADER);
+            tmpWriter.newLine();
+            for (Entry entry : entries) {
+                writeEntry(tmpWriter, entry);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Flushes and closes the writer opened by {@link #add(int, String, String)}, if any
+     *
+     * @throws IOException if an I/O error occurs while flushing the quarantine file
+     */
+    @Override
+    public void close() throws IOException {
+        quarantinedLines = null;
+        if (writer != null) {
+            BufferedWriter openWriter = writer;
+            writer = null;
+            openWriter.close();
+        }
+    }
+
+    /**
+     * Reads the records already quarantined and opens the quarantine file for appending,
+     * writing the header first if the file is new
+     *
+     * @throws IOException if an I/O error occurs while reading or opening the quarantine file
+     */
+    private void open() throws IOException {
+        quarantinedLines = new HashSet<>();
+        for (Entry entry : read()) {
+            quarantinedLines.add(lineKey(entry.getLineNumber(), entry.getRecord()));
+        }
+        boolean isNew = !Files.exists(file) || Files.size(file) == 0;
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        if (isNew) {
+            writer.write(HEADER);
+            writer.newLine();
+        }
+    }
+
+    private static String lineKey(int lineNumber, String record) {
+        return lineNumber + FIELD_DELIMITER + record;
+    }
+
+    private static void writeEntry(BufferedWriter writer, Entry entry) throws IOException {
+        writer.write(Integer.toString(entry.getLineNumber()));
+        writer.write(FIELD_DELIMITER);
+        writer.write(entry.getReason());
+        writer.write(FIELD_DELIMITER);
+        writer.write(entry.getRecord());
+        writer.newLine();
+    }
+
+    private static Entry parseEntry(String line) {
+        Matcher matcher = ENTRY_PATTERN.matcher(line);
+        if (!matcher.matches()) {
+            return new Entry(0, "", line);
+        }
+        return new Entry(Integer.parseInt(matcher.group(1)), matcher.group(2), matcher.group(3));
+    }
+
+    /**
+     * Represents one quarantined record, with the line number it had in the data file and
+     * why it could not be parsed
+     */
+    static final class Entry {
+        private final int lineNumber;
+        private final String reason;
+        private final String record;
+
+        /**
+         * Creates a quarantined record. Line breaks and field delimiters in the reason are
+         * replaced, so that the record stays on one line and can be read back.
+         *
+         * @param lineNumber line number of the record in the data file, or 0 if unknown
+         * @param reason     why the record could not be parsed
+         * @param record     the record as it was in the data file
+         */
+        Entry(int lineNumber, String reason, String record) {
+            this.lineNumber = lineNumber;
+            this.reason = String.valueOf(reason).replaceAll("\\R+", "; ").replace(FIELD_DELIMITER, "/").trim();
+            this.record = record;
+        }
+
+        int getLineNumber() {
+            return lineNumber;
+        }
+
+        String getReason() {
+            return reason;
+        }
+
+        String getRecord() {
+            return record;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package finsight.storage;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Represents the outcome of retrying the records in a quarantine file: the records that could
+ * now be parsed and were saved to the data file, and how many are still quarantined.
+ *
+ * @param <T> the type of record in the data file
+ */
+public final class QuarantineRepair<T> {
+    private final List<T> records;
+    private final int remainingCount;
+    private final Path quarantinePath;
+
+    QuarantineRepair(List<T> records, int remainingCount, Path quarantinePath) {
+        this.records = records;
+        this.remainingCount = remainingCount;
+        this.quarantinePath = quarantinePath;
+    }
+
+    /**
+     * Returns the records recovered from the quarantine file
+     *
+     * @return the records, in the order they were quarantined
+     */
+    public List<T> getRecords() {
+        return records;
+    }
+
+    /**
+     * Returns the number of records that still cannot be parsed and stay quarantined
+     *
+     * @return the number of records left in the quarantine file
+     */
+    public int getRemainingCount() {
+        return remainingCount;
+    }
+
+    public Path getQuarantinePath() {
+        return quarantinePath;
+    }
+
+    /**
+     * Returns whether there was nothing in the quarantine file to retry
+     *
+     * @return true if no record was recovered and none is left
+     */
+    public boolean isEmpty() {
+        return records.isEmpty() && remainingCount == 0;
+    }
+}
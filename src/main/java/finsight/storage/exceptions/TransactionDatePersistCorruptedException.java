@@ -0,0 +1,9 @@
+package finsight.storage.exceptions;
+
+public class TransactionDatePersistCorruptedException extends RuntimeException {
+    public TransactionDatePersistCorruptedException(String date, String type) {
+        super("This " + type + " record contains the corrupted date [" + date + "]. " +
+                "Date should be in <DD-MM-YYYY> format.\n" +
+                "Please rectify the data in " + type + ".txt file and restart the program.");
+    }
+}
@@ -0,0 +1,161 @@
+package finsight.summary;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Indexes the amounts of dated records by day, so that the total of any date range can be
+ * looked up without scanning every record.
+ *
+ * <p>Amounts are kept in a Fenwick tree over the days from {@code firstDay} onwards, so both
+ * adding or removing a record and looking up the total of a range take {@code O(log n)}
+ * time, {@code n} being the number of days the tree covers. A month-by-month breakdown
+ * takes one such lookup per month. The tree doubles in size whenever a record falls
+ * outside the days it covers. Records without a date are only counted, since they cannot
+ * fall in any range.</p>
+ */
+public class DailyTotalsIndex {
+    private static final int MIN_CAPACITY = 64;
+
+    private long[] centsTree = new long[1];
+    private long firstDay;
+    private int undatedCount = 0;
+
+    /**
+     * Adds the amount of a record to the bucket of its date
+     *
+     * @param date  date of the record, or {@code null} if it has none
+     * @param cents amount of the record in cents
+     */
+    public void add(LocalDate date, long cents) {
+        if (date == null) {
+            undatedCount++;
+            return;
+        }
+        updateCents(date.toEpochDay(), cents);
+    }
+
+    /**
+     * Removes the amount of a record from the bucket of its date
+     *
+     * @param date  date of the record, or {@code null} if it has none
+     * @param cents amount of the record in cents
+     */
+    public void remove(LocalDate date, long cents) {
+        if (date == null) {
+            undatedCount--;
+            return;
+        }
+        updateCents(date.toEpochDay(), -cents);
+    }
+
+    /**
+     * Returns the total amount of all records dated within the given range
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     * @return total amount in cents
+     */
+    public long getTotalCents(LocalDate from, LocalDate to) {
+        assert !from.isAfter(to) : "from must not be after to";
+        return sumBefore(to.toEpochDay() + 1) - sumBefore(from.toEpochDay());
+    }
+
+    /**
+     * Returns the total amount of the records dated within the given range, for every
+     * month that overlaps the range. The first and last months only include the days
+     * that fall within the range.
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     * @return total amount in cents of each month, in chronological order
+     */
+    public Map<YearMonth, Long> getMonthlyTotals(LocalDate from, LocalDate to) {
+        assert !from.isAfter(to) : "from must not be after to";
+        Map<YearMonth, Long> monthlyTotals = new LinkedHashMap<>();
+        YearMonth lastMonth = YearMonth.from(to);
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            LocalDate monthStart = month.atDay(1).isBefore(from) ? from : month.atDay(1);
+            LocalDate monthEnd = month.atEndOfMonth().isAfter(to) ? to : month.atEndOfMonth();
+            monthlyTotals.put(month, getTotalCents(monthStart, monthEnd));
+        }
+        return monthlyTotals;
+    }
+
+    /**
+     * Returns the number of records that have no date and are therefore left out of every range
+     *
+     * @return number of undated records
+     */
+    public int getUndatedCount() {
+        return undatedCount;
+    }
+
+    /**
+     * Adds an amount to the total of a day, first growing the tree if it does not cover that day
+     *
+     * @param epochDay the day, as a count of days since the epoch
+     * @param cents    amount to add in cents, negative to subtract
+     */
+    private void updateCents(long epochDay, long cents) {
+        if (epochDay < firstDay || epochDay - firstDay >= centsTree.length - 1) {
+            cover(epochDay);
+        }
+        for (int i = (int) (epochDay - firstDay) + 1; i < centsTree.length; i += i & -i) {
+            centsTree[i] += cents;
+        }
+    }
+
+    /**
+     * Returns the total amount of all records dated before the given day
+     *
+     * @param epochDay the day, as a count of days since the epoch
+     * @return total amount in cents of the days before it
+     */
+    private long sumBefore(long epochDay) {
+        long total = 0;
+        int end = (int) Math.min(Math.max(epochDay - firstDay, 0), centsTree.length - 1);
+        for (int i = end; i > 0; i -= i & -i) {
+            total += centsTree[i];
+        }
+        return total;
+    }
+
+    /**
+     * Resizes the tree so that it covers the given day as well as every day it covers now, at
+     * least doubling its size so that the cost is spread over the records that fill it. Keeps
+     * the end of the tree farther from the day fixed.
+     *
+     * @param epochDay the day to cover, as a count of days since the epoch
+     */
+    private void cover(long epochDay) {
+        int capacity = centsTree.length - 1;
+        if (capacity == 0) {
+            centsTree = new long[MIN_CAPACITY + 1];
+            firstDay = epochDay;
+            return;
+        }
+        long span = Math.max(epochDay, firstDay + capacity - 1) - Math.min(epochDay, firstDay) + 1;
+        int newCapacity = (int) Math.max(2L * capacity, span);
+        long newFirstDay = epochDay < firstDay ? firstDay + capacity - newCapacity : firstDay;
+
+        for (int i = capacity; i > 0; i--) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                centsTree[parent] -= centsTree[i];
+            }
+        }
+        long[] newTree = new long[newCapacity + 1];
+        System.arraycopy(centsTree, 1, newTree, (int) (firstDay - newFirstDay) + 1, capacity);
+        for (int i = 1; i <= newCapacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= newCapacity) {
+                newTree[parent] += newTree[i];
+            }
+        }
+        centsTree = newTree;
+        firstDay = newFirstDay;
+    }
+}
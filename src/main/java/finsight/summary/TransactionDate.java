@@ -0,0 +1,45 @@
+package finsight.summary;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+/**
+ * Parses and formats the optional date of an expense or income, in the same
+ * {@code dd-MM-yyyy} form that is used for the date part of loan return dates.
+ */
+public final class TransactionDate {
+    /**
+     * Format of a transaction date, both in user input and in the data files.
+     */
+    public static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("dd-MM-uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    private TransactionDate() {
+    }
+
+    /**
+     * Parses an optional transaction date
+     *
+     * @param date the date to parse, or an empty string if there is none
+     * @return the parsed date, or {@code null} if the given date is empty
+     * @throws DateTimeParseException if the date is not a valid {@code dd-MM-yyyy} date
+     */
+    public static LocalDate parseOptional(String date) {
+        if (date == null || date.isEmpty()) {
+            return null;
+        }
+        return LocalDate.parse(date, FORMAT);
+    }
+
+    /**
+     * Formats a transaction date
+     *
+     * @param date the date to format
+     * @return the date in {@code dd-MM-yyyy} form
+     */
+    public static String format(LocalDate date) {
+        return date.format(FORMAT);
+    }
+}
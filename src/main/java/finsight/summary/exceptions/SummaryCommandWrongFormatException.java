@@ -0,0 +1,25 @@
+package finsight.summary.exceptions;
+
+/**
+ * Exception thrown if a summary command has missing or empty sub commands, sub commands
+ * in the wrong order, invalid dates or a start date after its end date
+ */
+public class SummaryCommandWrongFormatException extends Exception {
+    private final String recordType;
+
+    /**
+     * Constructs the exception for the summary command of the given type of record
+     *
+     * @param recordType Type of record summarised, e.g. expense
+     */
+    public SummaryCommandWrongFormatException(String recordType) {
+        this.recordType = recordType;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Summary Command is in the wrong format. Please try again with the format:\n" +
+                "\tsummary " + recordType + " from/<DATE> to/<DATE>\n" +
+                "where both <DATE> are of format 'dd-MM-yyyy' and from/ is not after to/";
+    }
+}
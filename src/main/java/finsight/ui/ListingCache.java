@@ -0,0 +1,50 @@
+package finsight.ui;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Holds the rendered listing of a list of records, so that listing an unchanged list again
+ * only prints the text already rendered.
+ *
+ * <p>The list counts its changes in a version number, which it passes in with every request.
+ * The listing is rendered again when the version differs from the one it was rendered at, or
+ * when the time it was valid until has passed, for listings that change with the time alone,
+ * such as loans becoming overdue.</p>
+ */
+public class ListingCache {
+    private String listing;
+    private long listingVersion;
+    private long validUntilMillis;
+
+    /**
+     * Returns the listing of a list, rendering it only if the list has changed since it was
+     * last rendered
+     *
+     * @param version the number of changes made to the list so far
+     * @param render  renders the listing of the list as it is now
+     * @return the listing
+     */
+    public String get(long version, Supplier<String> render) {
+        return get(version, render, () -> Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the listing of a list, rendering it only if the list has changed since it was
+     * last rendered or the listing has expired
+     *
+     * @param version    the number of changes made to the list so far
+     * @param render     renders the listing of the list as it is now
+     * @param validUntil returns the time in epoch milliseconds until which a listing rendered
+     *                   now stays correct if the list does not change
+     * @return the listing
+     */
+    public String get(long version, Supplier<String> render, LongSupplier validUntil) {
+        if (listing == null || version != listingVersion || System.currentTimeMillis() > validUntilMillis) {
+            validUntilMillis = validUntil.getAsLong();
+            listing = render.get();
+            listingVersion = version;
+        }
+        return listing;
+    }
+}
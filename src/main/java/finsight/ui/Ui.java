@@ -1,12 +1,30 @@
 package finsight.ui;
 
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Scanner;
 
 import finsight.income.Income;
 import finsight.expense.Expense;
+import finsight.forecast.CashFlowForecast;
+import finsight.investment.ContributionGoal;
 import finsight.investment.Investment;
+import finsight.investment.ReturnRateSweep;
 import finsight.loan.Loan;
+import finsight.money.Money;
+import finsight.parser.CommandType;
+import finsight.stats.IoOperation;
+import finsight.stats.LatencyHistogram;
+import finsight.stats.PerformanceStats;
+import finsight.storage.QuarantineRepair;
+import finsight.summary.TransactionDate;
 
 /**
  * Outputs on the terminal and
@@ -21,6 +39,14 @@ public class Ui {
     // Create Constants
     protected static final int LENGTH_OF_SPACING = 80;
     protected static final String SPACING = "-".repeat(LENGTH_OF_SPACING) + "\n";
+    protected static final String LATENCY_ROW_FORMAT = "%-22s %8s %10s %10s %10s%n";
+    protected static final String TRAFFIC_ROW_FORMAT = "%-34s %14s %14s%n";
+    protected static final double NANOS_PER_MILLI = 1_000_000.0;
+    protected static final DateTimeFormatter SUMMARY_MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy",
+            Locale.ENGLISH);
+    protected static final int MAX_DAILY_FORECAST_DAYS = 31;
+    protected static final int SWEEP_YEARS_WIDTH = 6;
+    protected static final int MONTHS_IN_YEAR = 12;
     protected static Scanner input = new Scanner(System.in);
 
     /**
@@ -36,33 +62,54 @@ public class Ui {
     public static void printPossibleCommands() {
         System.out.print(SPACING);
         System.out.println("LOAN");
-        System.out.println("\t1. list loan");
-        System.out.println("\t2. add loan d/<DESCRIPTION> a/<AMOUNT_LOANED> r/<LOAN_RETURN_DATE_AND_TIME>");
+        System.out.println("\t1. list loan [min/<AMOUNT>] [max/<AMOUNT>]");
+        System.out.println("\t   or list loan where <CONDITION> on amount, desc, due or repaid");
+        System.out.println("\t2. top loan k/<COUNT>");
+        System.out.println("\t3. add loan d/<DESCRIPTION> a/<AMOUNT_LOANED> r/<LOAN_RETURN_DATE_AND_TIME>");
         System.out.println("\t   where <LOAN_RETURN_DATE_AND_TIME> is of format 'dd-MM-yyyy HH:mm' and");
         System.out.println("\t   <AMOUNT_LOANED> is an integer or float of at least 1 cent");
-        System.out.println("\t3. delete loan <INDEX>");
-        System.out.println("\t4. loan repaid <INDEX>");
-        System.out.println("\t5. loan not repaid <INDEX>");
-        System.out.println("\t6. edit loan <INDEX> d/<DESCRIPTION> a/<AMOUNT_LOANED> r/<LOAN_RETURN_DATE_AND_TIME>");
+        System.out.println("\t4. delete loan <INDEX>");
+        System.out.println("\t5. loan repaid <INDEX>");
+        System.out.println("\t6. loan not repaid <INDEX>");
+        System.out.println("\t7. edit loan <INDEX> d/<DESCRIPTION> a/<AMOUNT_LOANED> r/<LOAN_RETURN_DATE_AND_TIME>");
         System.out.println("\t   where <LOAN_RETURN_DATE_AND_TIME> is of format 'dd-MM-yyyy HH:mm' and");
         System.out.println("\t   <AMOUNT_LOANED> is an integer or float of at least 1 cent");
         System.out.println("EXPENSE");
-        System.out.println("\t7. list expense");
-        System.out.println("\t8. add expense d/<DESCRIPTION> a/<AMOUNT_SPENT>");
-        System.out.println("\t9. delete expense <INDEX>");
+        System.out.println("\t8. list expense [min/<AMOUNT>] [max/<AMOUNT>]");
+        System.out.println("\t   or list expense where <CONDITION> on amount, desc or date");
+        System.out.println("\t9. top expense k/<COUNT>");
+        System.out.println("\t10. add expense d/<DESCRIPTION> a/<AMOUNT_SPENT> [t/<DATE>]");
+        System.out.println("\t   where the optional <DATE> is of format 'dd-MM-yyyy'");
+        System.out.println("\t11. delete expense <INDEX>");
+        System.out.println("\t12. summary expense from/<DATE> to/<DATE>");
         System.out.println("INCOME");
-        System.out.println("\t10. list income");
-        System.out.println("\t11. add income d/<DESCRIPTION> a/<AMOUNT_EARNED>");
-        System.out.println("\t12. delete income <INDEX>");
-        System.out.println("\t13. edit income <INDEX> d/<DESCRIPTION> a/<AMOUNT_EARNED>");
-        System.out.println("\t14. list income overview");
+        System.out.println("\t13. list income [min/<AMOUNT>] [max/<AMOUNT>]");
+        System.out.println("\t   or list income where <CONDITION> on amount, desc or date");
+        System.out.println("\t14. top income k/<COUNT>");
+        System.out.println("\t15. add income d/<DESCRIPTION> a/<AMOUNT_EARNED> [t/<DATE>]");
+        System.out.println("\t   where the optional <DATE> is of format 'dd-MM-yyyy'");
+        System.out.println("\t16. delete income <INDEX>");
+        System.out.println("\t17. edit income <INDEX> d/<DESCRIPTION> a/<AMOUNT_EARNED>");
+        System.out.println("\t18. list income overview");
+        System.out.println("\t19. summary income from/<DATE> to/<DATE>");
         System.out.println("INVESTMENT");
-        System.out.println("\t15. list investment");
-        System.out.println("\t16. add investment d/<DESCRIPTION> a/<AMOUNT_INVESTED> " +
+        System.out.println("\t20. list investment");
+        System.out.println("\t   or list investment where <CONDITION> on amount, desc, rate or day");
+        System.out.println("\t21. add investment d/<DESCRIPTION> a/<AMOUNT_INVESTED> " +
                 "r/<RETURN_RATE_PER_ANNUM> m/<DEPOSIT_DATE_EACH_MONTH>");
-        System.out.println("\t17. delete investment <INDEX>");
-        System.out.println("18. help");
-        System.out.println("19. bye");
+        System.out.println("\t22. delete investment <INDEX>");
+        System.out.println("\t23. due <today|this week>");
+        System.out.println("\t24. sweep investment r/<FROM_RATE>-<TO_RATE> step/<RATE_STEP> y/<YEARS>");
+        System.out.println("\t25. goal investment t/<TARGET_AMOUNT> y/<YEARS> r/<RETURN_RATE_PER_ANNUM>");
+        System.out.println("26. forecast d/<DAYS>");
+        System.out.println("27. find <TERMS>");
+        System.out.println("28. export <loan|expense|income|investment|all> f/<FILE> fmt/<csv|json>");
+        System.out.println("29. undo");
+        System.out.println("30. redo");
+        System.out.println("31. repair");
+        System.out.println("32. stats");
+        System.out.println("33. help");
+        System.out.println("34. bye");
         System.out.print(SPACING);
     }
 
@@ -153,6 +200,17 @@ public class Ui {
         System.out.print(SPACING);
     }
 
+    /**
+     * Prints an alert that a loan has reached its repayment deadline. The alert is printed in one
+     * write, as it comes from the scheduler thread and may arrive while a command is printing.
+     *
+     * @param loan Loan that is now due
+     */
+    public static void printLoanDueAlert(Loan loan) {
+        System.out.print(SPACING + "Reminder: the loan \"" + loan.getDescription() + "\" of $"
+                + Money.format(loan.getAmountLoanedCents()) + " is now due and has not been repaid.\n" + SPACING);
+    }
+
     /**
      * Prints the details of the loan set as not repaid
      *
@@ -166,25 +224,26 @@ public class Ui {
     }
 
     /**
-     * Prints all Loans
+     * Returns the listing of all Loans, to be printed with {@link #printListing(String)}
      *
-     * @param loans ArrayList of Loans
+     * @param loans List of Loans
+     * @return the listing
      */
-    public static void printAllLoans(ArrayList<Loan> loans) {
-        System.out.print(SPACING);
-        Double totalLoaned = 0.0;
+    public static String renderAllLoans(List<Loan> loans) {
+        StringBuilder listing = new StringBuilder(SPACING);
+        long totalLoanedCents = 0;
         for (int i = 0; i < Loan.numberOfLoans; i++) {
-            System.out.println("Loan " + (i + 1) + ":");
-            System.out.println(loans.get(i).toString());
+            listing.append("Loan ").append(i + 1).append(":").append(System.lineSeparator());
+            listing.append(loans.get(i).toString()).append(System.lineSeparator());
 
             if (!loans.get(i).isRepaid()) {
-                totalLoaned += loans.get(i).getAmountLoaned();
+                totalLoanedCents += loans.get(i).getAmountLoanedCents();
             }
 
-            System.out.print(SPACING);
+            listing.append(SPACING);
         }
-        System.out.println("Total loaned: $" + String.format("%.2f", totalLoaned));
-        System.out.print(SPACING);
+        Money.appendTo(listing.append("Total loaned: $"), totalLoanedCents).append(System.lineSeparator());
+        return listing.append(SPACING).toString();
     }
 
     /**
@@ -199,17 +258,19 @@ public class Ui {
     // @@author
 
     /**
-     * Prints all items in income list
+     * Returns the listing of all items in income list, to be printed with {@link #printListing(String)}
      *
-     * @param incomes ArrayList of incomes
+     * @param incomes List of incomes
+     * @return the listing
      */
-    public static void printAllIncomes(ArrayList<Income> incomes) {
-        System.out.print(SPACING);
+    public static String renderAllIncomes(List<Income> incomes) {
+        StringBuilder listing = new StringBuilder(SPACING);
         for (int i = 0; i < incomes.size(); i++) {
-            System.out.println("Income " + (i + 1) + ":");
-            System.out.println(incomes.get(i).toString());
-            System.out.print(SPACING);
+            listing.append("Income ").append(i + 1).append(":").append(System.lineSeparator());
+            listing.append(incomes.get(i).toString()).append(System.lineSeparator());
+            listing.append(SPACING);
         }
+        return listing.toString();
     }
 
     /**
@@ -254,35 +315,62 @@ public class Ui {
      * Prints the total amount of all the incomes,
      * total amount of expenses and remaining income
      *
-     * @param totalIncome  Total amount of incomes
-     * @param totalExpense Total amount of expenses
+     * @param totalIncomeCents  Total amount of incomes in cents
+     * @param totalExpenseCents Total amount of expenses in cents
      */
-    public static void printIncomeOverview(float totalIncome, float totalExpense) {
+    public static void printIncomeOverview(long totalIncomeCents, long totalExpenseCents) {
         System.out.print(SPACING);
-        System.out.println("Total Income: $ " + String.format("%.2f", totalIncome));
-        System.out.println("Total Expense: $ " + String.format("%.2f", totalExpense));
-        System.out.println("Remaining Income: $ " + String.format("%.2f", totalIncome - totalExpense));
+        System.out.println("Total Income: $ " + Money.format(totalIncomeCents));
+        System.out.println("Total Expense: $ " + Money.format(totalExpenseCents));
+        System.out.println("Remaining Income: $ " + Money.format(totalIncomeCents - totalExpenseCents));
         System.out.print(SPACING);
     }
 
     /**
-     * Prints all expenses
+     * Prints the total of the records dated within a range, followed by the total of every month in it
      *
-     * @param expenses ArrayList of Expenses
+     * @param recordType    Type of the records summarised, e.g. Expense
+     * @param from          First day of the range
+     * @param to            Last day of the range
+     * @param totalCents    Total amount within the range in cents
+     * @param monthlyTotals Total amount in cents of every month in the range
+     * @param undatedCount  Number of records left out because they have no date
      */
-    public static void printAllExpenses(ArrayList<Expense> expenses) {
+    public static void printSummary(String recordType, LocalDate from, LocalDate to, long totalCents,
+            Map<YearMonth, Long> monthlyTotals, int undatedCount) {
+        System.out.print(SPACING);
+        System.out.println(recordType + " summary from " + TransactionDate.format(from) + " to "
+                + TransactionDate.format(to) + ":");
+        for (Map.Entry<YearMonth, Long> monthlyTotal : monthlyTotals.entrySet()) {
+            System.out.println("\t" + monthlyTotal.getKey().format(SUMMARY_MONTH_FORMAT) + ": $"
+                    + Money.format(monthlyTotal.getValue()));
+        }
+        System.out.println("Total: $" + Money.format(totalCents));
+        if (undatedCount > 0) {
+            System.out.println("(" + undatedCount + " " + recordType.toLowerCase()
+                    + " record(s) without a date are not included)");
+        }
         System.out.print(SPACING);
-        Double totalExpense = 0.0;
+    }
+
+    /**
+     * Returns the listing of all expenses, to be printed with {@link #printListing(String)}
+     *
+     * @param expenses List of Expenses
+     * @return the listing
+     */
+    public static String renderAllExpenses(List<Expense> expenses) {
+        StringBuilder listing = new StringBuilder(SPACING);
+        long totalExpenseCents = 0;
         for (int i = 0; i < expenses.size(); i++) {
-            System.out.println("Expense " + (i + 1) + ":");
-            System.out.println(expenses.get(i).toString());
-            System.out.print(SPACING);
+            listing.append("Expense ").append(i + 1).append(":").append(System.lineSeparator());
+            listing.append(expenses.get(i).toString()).append(System.lineSeparator());
+            listing.append(SPACING);
 
-            totalExpense += expenses.get(i).getExpenseAmount();
+            totalExpenseCents += expenses.get(i).getExpenseAmountCents();
         }
-        System.out.println("Total expenses: $" + String.format("%.2f", totalExpense));
-        System.out.print(SPACING);
-
+        Money.appendTo(listing.append("Total expenses: $"), totalExpenseCents).append(System.lineSeparator());
+        return listing.append(SPACING).toString();
     }
 
     /**
@@ -311,17 +399,28 @@ public class Ui {
     }
 
     /**
-     * Prints all investments
+     * Returns the listing of all investments, to be printed with {@link #printListing(String)}
      *
-     * @param investments ArrayList of investments
+     * @param investments List of investments
+     * @return the listing
      */
-    public static void printAllInvestments(ArrayList<Investment> investments) {
-        System.out.print(SPACING);
+    public static String renderAllInvestments(List<Investment> investments) {
+        StringBuilder listing = new StringBuilder(SPACING);
         for (int i = 0; i < investments.size(); i++) {
-            System.out.println("Investment " + (i + 1) + ":");
-            System.out.println(investments.get(i).toString());
-            System.out.print(SPACING);
+            listing.append("Investment ").append(i + 1).append(":").append(System.lineSeparator());
+            listing.append(investments.get(i).toString()).append(System.lineSeparator());
+            listing.append(SPACING);
         }
+        return listing.toString();
+    }
+
+    /**
+     * Prints a listing rendered by one of the render methods in a single write
+     *
+     * @param listing the listing to print
+     */
+    public static void printListing(String listing) {
+        System.out.print(listing);
     }
 
     /**
@@ -385,9 +484,412 @@ public class Ui {
         System.out.print(SPACING);
     }
 
+    /**
+     * Prints the loans, expenses, incomes and investments that match a search, each numbered
+     * by its index in its own list
+     *
+     * @param query       Search terms used
+     * @param loans       Matching loans by index
+     * @param expenses    Matching expenses by index
+     * @param incomes     Matching incomes by index
+     * @param investments Matching investments by index
+     */
+    public static void printFindResults(String query, Map<Integer, Loan> loans, Map<Integer, Expense> expenses,
+            Map<Integer, Income> incomes, Map<Integer, Investment> investments) {
+        int numberOfMatches = loans.size() + expenses.size() + incomes.size() + investments.size();
+        System.out.print(SPACING);
+        if (numberOfMatches == 0) {
+            System.out.println("No records match: " + query);
+            System.out.print(SPACING);
+            return;
+        }
+        System.out.println("Found " + numberOfMatches + " record(s) matching: " + query);
+        System.out.print(SPACING);
+        printMatches("Loan", loans);
+        printMatches("Expense", expenses);
+        printMatches("Income", incomes);
+        printMatches("Investment", investments);
+    }
+
+    /**
+     * Prints the files records were exported to
+     *
+     * @param recordsWrittenByFile Number of records written to each file
+     */
+    public static void printExportOutput(Map<Path, Integer> recordsWrittenByFile) {
+        System.out.print(SPACING);
+        for (Map.Entry<Path, Integer> recordsWritten : recordsWrittenByFile.entrySet()) {
+            System.out.println("Exported " + recordsWritten.getValue() + " record(s) to " + recordsWritten.getKey());
+        }
+        System.out.print(SPACING);
+    }
+
+    /**
+     * Prints the change that was undone
+     *
+     * @param description Description of the change undone
+     */
+    public static void printUndoOutput(String description) {
+        System.out.print(SPACING);
+        System.out.println("Undone: " + description);
+        System.out.print(SPACING);
+    }
+
+    /**
+     * Prints the change that was redone
+     *
+     * @param description Description of the change redone
+     */
+    public static void printRedoOutput(String description) {
+        System.out.print(SPACING);
+        System.out.println("Redone: " + description);
+        System.out.print(SPACING);
+    }
+
+    /**
+     * Prints the investments with a deposit due on each day of a period
+     *
+     * @param period    The period, e.g. today or this week
+     * @param dueByDate Investments due by index, for each date with any, in date order
+     */
+    public static void printDueDeposits(String period, Map<LocalDate, Map<Integer, Investment>> dueByDate) {
+        System.out.print(SPACING);
+        if (dueByDate.isEmpty()) {
+            System.out.println("No investment deposits are due " + period + ".");
+            System.out.print(SPACING);
+            return;
+        }
+        System.out.println("Investment deposits due " + period + ":");
+        System.out.print(SPACING);
+        for (Map.Entry<LocalDate, Map<Integer, Investment>> dueOnDate : dueByDate.entrySet()) {
+            System.out.println("On " + dueOnDate.getKey().format(TransactionDate.FORMAT) + ":");
+            printMatches("Investment", dueOnDate.getValue());
+        }
+    }
+
+    /**
+     * Prints the projected balance of the whole portfolio at each rate and horizon of a sweep, one
+     * row per horizon, splitting the rates into as many tables as needed to fit the line width
+     *
+     * @param sweep           The grid of rates and horizons
+     * @param balanceCents    The balance in cents by rate and then by horizon
+     * @param investmentCount The number of investments in the portfolio
+     */
+    public static void printReturnRateSweep(ReturnRateSweep sweep, long[][] balanceCents, int investmentCount) {
+        System.out.print(SPACING);
+        if (investmentCount == 0) {
+            System.out.println("There are no investments to sweep.");
+            System.out.print(SPACING);
+            return;
+        }
+
+        double[] rates = sweep.getRates();
+        int cellWidth = 0;
+        for (int i = 0; i < rates.length; i++) {
+            cellWidth = Math.max(cellWidth, formatRate(rates[i]).length());
+            cellWidth = Math.max(cellWidth, Money.format(balanceCents[i][sweep.getYears() - 1]).length());
+        }
+        int ratesPerTable = Math.max(1, (LENGTH_OF_SPACING - SWEEP_YEARS_WIDTH) / (cellWidth + 1));
+        String cellFormat = " %" + cellWidth + "s";
+
+        System.out.println("Projected balance ($) of " + investmentCount + " investment(s) if all earn the same "
+                + "return rate per annum:");
+        for (int first = 0; first < rates.length; first += ratesPerTable) {
+            int last = Math.min(rates.length, first + ratesPerTable);
+            StringBuilder table = new StringBuilder(String.format("%-" + SWEEP_YEARS_WIDTH + "s", "Years"));
+            for (int i = first; i < last; i++) {
+                table.append(String.format(cellFormat, formatRate(rates[i])));
+            }
+            table.append(System.lineSeparator());
+            for (int year = 1; year <= sweep.getYears(); year++) {
+                table.append(String.format("%-" + SWEEP_YEARS_WIDTH + "d", year));
+                for (int i = first; i < last; i++) {
+                    table.append(String.format(cellFormat, Money.format(balanceCents[i][year - 1])));
+                }
+                table.append(System.lineSeparator());
+            }
+            System.out.print(SPACING);
+            System.out.print(table);
+        }
+        System.out.print(SPACING);
+    }
+
+    /**
+     * Prints the monthly deposit needed to reach a goal, followed by the deposit each investment
+     * would need at its own return rate next to what it deposits now
+     *
+     * @param goal              The goal solved for
+     * @param depositCents      The monthly deposit in cents needed at the return rate of the goal
+     * @param investments       All investments, in list order
+     * @param depositCentsEach  The monthly deposit in cents each investment would need
+     */
+    public static void printContributionGoal(ContributionGoal goal, long depositCents, List<Investment> investments,
+            long[] depositCentsEach) {
+        String target = "$" + Money.format(goal.getTargetCents()) + " in " + goal.getYears() + " year(s)";
+        System.out.print(SPACING);
+        System.out.println("To reach " + target + " at " + formatRate(goal.getReturnRate())
+                + " per annum, deposit $" + Money.format(depositCents) + " every month.");
+        System.out.println("You will have deposited $"
+                + Money.format(depositCents * MONTHS_IN_YEAR * goal.getYears()) + " in total.");
+        System.out.print(SPACING);
+        if (investments.isEmpty()) {
+            return;
+        }
+
+        StringBuilder comparison = new StringBuilder("Monthly deposit each investment needs to reach " + target
+                + " at its own return rate:" + System.lineSeparator());
+        for (int i = 0; i < investments.size(); i++) {
+            Investment investment = investments.get(i);
+            long differenceCents = depositCentsEach[i] - investment.getInvestmentAmountCents();
+            comparison.append(i + 1).append(". ").append(investment.getDescription()).append(" at ")
+                    .append(formatRate(investment.getInvestmentReturnRate())).append(": needs $")
+                    .append(Money.format(depositCentsEach[i])).append(", deposits $")
+                    .append(Money.format(investment.getInvestmentAmountCents())).append(" (")
+                    .append(differenceCents < 0 ? "-$" : "+$").append(Money.format(Math.abs(differenceCents)))
+                    .append(")").append(System.lineSeparator());
+        }
+        System.out.print(comparison);
+        System.out.print(SPACING);
+    }
+
+    /**
+     * Prints a cash-flow forecast: the rates and bookings it is based on, the balance at the end
+     * of each day, or of each month for forecasts longer than {@value #MAX_DAILY_FORECAST_DAYS}
+     * days, and the lowest and closing balances
+     *
+     * @param forecast The forecast to print
+     */
+    public static void printForecast(CashFlowForecast forecast) {
+        int days = forecast.getDays();
+        System.out.print(SPACING);
+        System.out.println("Cash-flow forecast for the next " + days + " day(s):");
+        System.out.println("Opening balance (incomes less expenses): $" + Money.format(forecast.getBalanceCents(0)));
+        System.out.println("Average daily income: $" + Money.format(Math.round(forecast.getIncomeCentsPerDay()))
+                + ", average daily expense: $" + Money.format(Math.round(forecast.getExpenseCentsPerDay())));
+        System.out.println("Investment deposits: $" + Money.format(forecast.getDepositCents())
+                + ", loan repayments: $" + Money.format(forecast.getLoanRepaymentCents()));
+        System.out.print(SPACING);
+        boolean isDaily = days <= MAX_DAILY_FORECAST_DAYS;
+        for (int day = 1; day <= days; day++) {
+            LocalDate date = forecast.getDate(day);
+            boolean isLastOfPeriod = isDaily || day == days || date.getDayOfMonth() == date.lengthOfMonth();
+            if (isLastOfPeriod) {
+                String period = isDaily ? date.format(TransactionDate.FORMAT) : date.format(SUMMARY_MONTH_FORMAT);
+                System.out.printf("%-12s $%s%n", period, Money.format(forecast.getBalanceCents(day)));
+            }
+        }
+        System.out.print(SPACING);
+        int lowestDay = forecast.getLowestDay();
+        System.out.println("Lowest balance: $" + Money.format(forecast.getBalanceCents(lowestDay)) + " on "
+                + forecast.getDate(lowestDay).format(TransactionDate.FORMAT));
+        System.out.println("Closing balance: $" + Money.format(forecast.getBalanceCents(days)) + " on "
+                + forecast.getDate(days).format(TransactionDate.FORMAT));
+        System.out.print(SPACING);
+    }
+
+    /**
+     * Prints the investment deposits added as expenses for the days FinSight was not run
+     *
+     * @param lastRun  The date FinSight was last run
+     * @param deposits The deposits added, in date order
+     */
+    public static void printDepositCatchUp(LocalDate lastRun, List<Expense> deposits) {
+        System.out.print(SPACING);
+        System.out.println("Added " + deposits.size() + " investment deposit(s) due since you last used FinSight on "
+                + lastRun.format(TransactionDate.FORMAT) + ":");
+        for (Expense deposit : deposits) {
+            System.out.println("\t" + deposit.getDate().format(TransactionDate.FORMAT) + " "
+                    + deposit.getDescription() + " $" + Money.format(deposit.getExpenseAmountCents()));
+        }
+        System.out.print(SPACING);
+    }
+
+    /**
+     * Prints the records picked up from a data file that another program changed
+     *
+     * @param recordType  Type of record in the data file, e.g. expense
+     * @param isReload    Whether the whole file was reloaded rather than only the appended records read
+     * @param recordCount Number of records read
+     */
+    public static void printDataFileChange(String recordType, boolean isReload, int recordCount) {
+        System.out.print(SPACING);
+        if (isReload) {
+            System.out.println("The " + recordType + " data file was changed by another program. Reloaded "
+                    + recordCount + " " + recordType + "(s).");
+        } else {
+            System.out.println("Added " + recordCount + " " + recordType
+                    + "(s) appended to the data file by another program.");
+        }
+        System.out.print(SPACING);
+    }
+
+    /**
+     * Prints the records recovered from each quarantine file and how many are still quarantined
+     *
+     * @param repairsByRecordType Outcome of the repair for each type of record, e.g. expense, in order
+     */
+    public static void printRepairOutput(Map<String, QuarantineRepair<?>> repairsByRecordType) {
+        System.out.print(SPACING);
+        boolean hasQuarantinedRecords = false;
+        for (Map.Entry<String, QuarantineRepair<?>> repairByRecordType : repairsByRecordType.entrySet()) {
+            QuarantineRepair<?> repair = repairByRecordType.getValue();
+            if (repair.isEmpty()) {
+                continue;
+            }
+            hasQuarantinedRecords = true;
+            String recordType = repairByRecordType.getKey();
+            System.out.println("Recovered " + repair.getRecords().size() + " " + recordType + "(s).");
+            if (repair.getRemainingCount() > 0) {
+                System.out.println("\t" + repair.getRemainingCount() + " " + recordType
+                        + "(s) still cannot be read and are kept in " + repair.getQuarantinePath());
+            }
+        }
+        if (!hasQuarantinedRecords) {
+            System.out.println("There are no quarantined records to repair.");
+        }
+        System.out.print(SPACING);
+    }
+
+    /**
+     * Prints the records with the largest amounts, from the largest down
+     *
+     * @param recordType Type of the records, e.g. Expense
+     * @param records    Records with the largest amounts by index
+     */
+    public static void printLargestRecords(String recordType, Map<Integer, ?> records) {
+        System.out.print(SPACING);
+        if (records.isEmpty()) {
+            System.out.println("There are no " + recordType.toLowerCase() + " records to rank.");
+            System.out.print(SPACING);
+            return;
+        }
+        System.out.println("Top " + records.size() + " " + recordType.toLowerCase() + " record(s) by amount:");
+        System.out.print(SPACING);
+        printMatches(recordType, records);
+    }
+
+    /**
+     * Prints the records that match a filter expression
+     *
+     * @param recordType Type of the records, e.g. Expense
+     * @param expression The filter expression
+     * @param records    Matching records by index
+     */
+    public static void printFilteredRecords(String recordType, String expression, Map<Integer, ?> records) {
+        System.out.print(SPACING);
+        if (records.isEmpty()) {
+            System.out.println("There are no " + recordType.toLowerCase() + " records where " + expression + ".");
+            System.out.print(SPACING);
+            return;
+        }
+        System.out.println("Found " + records.size() + " " + recordType.toLowerCase() + " record(s) where "
+                + expression + ":");
+        System.out.print(SPACING);
+        printMatches(recordType, records);
+    }
+
+    /**
+     * Prints the records with amounts within a range, from the smallest amount up
+     *
+     * @param recordType Type of the records, e.g. Expense
+     * @param minCents   Smallest amount in cents, or {@code Long.MIN_VALUE} if there is no minimum
+     * @param maxCents   Largest amount in cents, or {@code Long.MAX_VALUE} if there is no maximum
+     * @param records    Records within the range by index
+     */
+    public static void printRecordsInAmountRange(String recordType, long minCents, long maxCents,
+            Map<Integer, ?> records) {
+        String range;
+        if (minCents == Long.MIN_VALUE) {
+            range = "of at most $" + Money.format(maxCents);
+        } else if (maxCents == Long.MAX_VALUE) {
+            range = "of at least $" + Money.format(minCents);
+        } else {
+            range = "from $" + Money.format(minCents) + " to $" + Money.format(maxCents);
+        }
+        System.out.print(SPACING);
+        if (records.isEmpty()) {
+            System.out.println("There are no " + recordType.toLowerCase() + " records " + range + ".");
+            System.out.print(SPACING);
+            return;
+        }
+        System.out.println("Found " + records.size() + " " + recordType.toLowerCase() + " record(s) " + range + ":");
+        System.out.print(SPACING);
+        printMatches(recordType, records);
+    }
+
+    /**
+     * Prints the count, p50, p99 and max latency of every command and storage operation
+     * run so far, followed by the number of bytes read and written per data file
+     */
+    public static void printPerformanceStats() {
+        System.out.print(SPACING);
+        System.out.println("Command latency (ms):");
+        System.out.printf(LATENCY_ROW_FORMAT, "Command", "Count", "p50", "p99", "Max");
+        for (CommandType commandType : CommandType.values()) {
+            printLatencyRow(commandType.getKeyword(), PerformanceStats.getCommandLatency(commandType));
+        }
+        System.out.print(SPACING);
+
+        System.out.println("Storage latency (ms):");
+        System.out.printf(LATENCY_ROW_FORMAT, "Operation", "Count", "p50", "p99", "Max");
+        for (IoOperation operation : IoOperation.values()) {
+            printLatencyRow(operation.getLabel(), PerformanceStats.getIoLatency(operation));
+        }
+        System.out.print(SPACING);
+
+        System.out.println("Storage traffic (bytes):");
+        System.out.printf(TRAFFIC_ROW_FORMAT, "File", "Read", "Written");
+        Map<String, Long> bytesWritten = PerformanceStats.getBytesWritten();
+        for (Map.Entry<String, Long> bytesRead : PerformanceStats.getBytesRead().entrySet()) {
+            System.out.printf(TRAFFIC_ROW_FORMAT, bytesRead.getKey(), bytesRead.getValue(),
+                    bytesWritten.get(bytesRead.getKey()));
+        }
+        System.out.print(SPACING);
+    }
+
+    /**
+     * Prints the matching records of one type, skipping types with no matches
+     *
+     * @param recordType Type of the records, e.g. Loan
+     * @param matches    Matching records by index
+     */
+    private static void printMatches(String recordType, Map<Integer, ?> matches) {
+        for (Map.Entry<Integer, ?> match : matches.entrySet()) {
+            System.out.println(recordType + " " + (match.getKey() + 1) + ":");
+            System.out.println(match.getValue().toString());
+            System.out.print(SPACING);
+        }
+    }
+
+    /**
+     * Prints a single row of latency figures, skipping rows with nothing recorded
+     *
+     * @param label     Name of the command or storage operation
+     * @param histogram Latencies recorded for the command or storage operation
+     */
+    private static void printLatencyRow(String label, LatencyHistogram histogram) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        System.out.printf(LATENCY_ROW_FORMAT, label, histogram.getCount(),
+                String.format("%.3f", histogram.getValueAtPercentile(0.50) / NANOS_PER_MILLI),
+                String.format("%.3f", histogram.getValueAtPercentile(0.99) / NANOS_PER_MILLI),
+                String.format("%.3f", histogram.getMax() / NANOS_PER_MILLI));
+    }
+
     public static void printInvalidCommandMessage() {
         System.out.print(SPACING);
         System.out.println("Invalid Command. Use `help` to show all available commands");
         System.out.print(SPACING);
     }
+
+    /**
+     * Formats a return rate in percent without trailing zeros, e.g. 5% or 2.25%
+     *
+     * @param rate Return rate per annum in percent
+     * @return The formatted rate
+     */
+    private static String formatRate(double rate) {
+        return BigDecimal.valueOf(rate).stripTrailingZeros().toPlainString() + "%";
+    }
 }
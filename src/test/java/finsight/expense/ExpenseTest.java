@@ -29,7 +29,7 @@ public class ExpenseTest {
         ArrayList<Expense> expenses = new ArrayList<>();
         expenses.add(new Expense("Drinks","50"));
 
-        assertEquals(50,expenses.get(0).getExpenseAmount());
+        assertEquals(5000,expenses.get(0).getExpenseAmountCents());
 
     }
 }
@@ -28,6 +28,18 @@ public class ExpenseListTest {
         assertTrue(expenseList.getExpenses().isEmpty());
     }
 
+    @Test
+    void createLazily_firstUse_setsNumberOfExpenses() throws IOException {
+        expenseList.addExpense(new Expense("Food", "10"));
+        Expense.numberOfExpenses = 0;
+
+        ExpenseList lazyExpenseList = ExpenseList.createLazily();
+
+        assertEquals(0, Expense.numberOfExpenses);
+        assertEquals(1, lazyExpenseList.getSize());
+        assertEquals(1, Expense.numberOfExpenses);
+    }
+
     @Test
     void addExpense_singleExpense_returnCorrectArraySize() throws AddExpenseCommandWrongFormatException, IOException {
         
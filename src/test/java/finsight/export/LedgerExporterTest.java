@@ -0,0 +1,130 @@
+package finsight.export;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import finsight.export.exceptions.ExportIntoDataDirectoryException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LedgerExporterTest {
+    private static final List<ExportColumn<String[]>> COLUMNS = List.of(
+            ExportColumn.text("description", row -> row[0]),
+            ExportColumn.value("amount", row -> row[1]));
+
+    @TempDir
+    Path tempDir;
+
+    private static ExportLedger<String[]> ledger(String name, String[]... rows) {
+        return new ExportLedger<>(name, COLUMNS, List.of(rows));
+    }
+
+    private Path dataDirectory() {
+        return tempDir.resolve("data");
+    }
+
+    @Test
+    void writeCsvText_quotesAndCommas_quotedWithQuotesDoubled() throws IOException {
+        StringWriter writer = new StringWriter();
+        LedgerExporter.writeCsvText(writer, "say \"hi\", bye");
+
+        assertEquals("\"say \"\"hi\"\", bye\"", writer.toString());
+    }
+
+    @Test
+    void writeJsonText_specialCharacters_escaped() throws IOException {
+        StringWriter writer = new StringWriter();
+        LedgerExporter.writeJsonText(writer, "a\"b\\c\nd\u0001");
+
+        assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", writer.toString());
+    }
+
+    @Test
+    void export_singleLedgerToCsv_writesHeaderAndRows() throws IOException {
+        Path file = tempDir.resolve("out.csv");
+        Map<Path, Integer> recordsWritten = LedgerExporter.export(file, ExportFormat.CSV,
+                List.of(ledger("expense", new String[]{"taxi", "15.00"}, new String[]{null, "2.50"})), dataDirectory());
+
+        assertEquals(Map.of(file, 2), recordsWritten);
+        assertEquals("description,amount\n\"taxi\",15.00\n,2.50\n",
+                Files.readString(file, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(tempDir.resolve("out.csv.temp")));
+    }
+
+    @Test
+    void export_severalLedgersToJson_writesObjectOfArrays() throws IOException {
+        Path file = tempDir.resolve("out.json");
+        LedgerExporter.export(file, ExportFormat.JSON,
+                List.of(ledger("loan", new String[]{"car", "100.00"}), ledger("income")), dataDirectory());
+
+        assertEquals("{\n\"loan\": [\n{\"description\":\"car\",\"amount\":100.00}\n],\n\"income\": [\n]\n}\n",
+                Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void export_severalLedgersToCsv_writesFilePerLedger() throws IOException {
+        Path file = tempDir.resolve("backup.csv");
+        LedgerExporter.export(file, ExportFormat.CSV,
+                List.of(ledger("loan", new String[]{"car", "100.00"}), ledger("income")), dataDirectory());
+
+        assertTrue(Files.exists(tempDir.resolve("backup-loan.csv")));
+        assertTrue(Files.exists(tempDir.resolve("backup-income.csv")));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void export_toDataFile_refusedAndDataFileKept() throws IOException {
+        Path dataFile = dataDirectory().resolve("expense.txt");
+        Files.createDirectories(dataDirectory());
+        Files.writeString(dataFile, "lunch|12.50\n", StandardCharsets.UTF_8);
+
+        assertThrows(ExportIntoDataDirectoryException.class, () -> LedgerExporter.export(
+                tempDir.resolve("exports/../data/./expense.txt"), ExportFormat.CSV, List.of(ledger("income")),
+                dataDirectory()));
+        assertThrows(ExportIntoDataDirectoryException.class, () -> LedgerExporter.export(
+                tempDir.resolve("data/new.csv"), ExportFormat.CSV, List.of(ledger("income")), dataDirectory()));
+        assertEquals("lunch|12.50\n", Files.readString(dataFile, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(dataDirectory().resolve("new.csv")));
+    }
+
+    @Test
+    void export_linkToDataFile_refused() throws IOException {
+        Path dataFile = dataDirectory().resolve("expense.txt");
+        Files.createDirectories(dataDirectory());
+        Files.writeString(dataFile, "lunch|12.50\n", StandardCharsets.UTF_8);
+        Path hardLink = Files.createLink(tempDir.resolve("backup.csv"), dataFile);
+        Path directoryLink = Files.createSymbolicLink(tempDir.resolve("exports"), dataDirectory());
+
+        assertThrows(ExportIntoDataDirectoryException.class, () -> LedgerExporter.export(hardLink,
+                ExportFormat.CSV, List.of(ledger("income")), dataDirectory()));
+        assertThrows(ExportIntoDataDirectoryException.class, () -> LedgerExporter.export(
+                directoryLink.resolve("expense.txt"), ExportFormat.CSV, List.of(ledger("income")), dataDirectory()));
+        assertEquals("lunch|12.50\n", Files.readString(dataFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void export_severalLedgersToCsvInDataDirectory_writesNoFile() throws IOException {
+        Files.createDirectories(dataDirectory());
+
+        assertThrows(ExportIntoDataDirectoryException.class, () -> LedgerExporter.export(
+                dataDirectory().resolve("backup.csv"), ExportFormat.CSV,
+                List.of(ledger("loan"), ledger("income")), dataDirectory()));
+        assertFalse(Files.exists(dataDirectory().resolve("backup-loan.csv")));
+        assertFalse(Files.exists(dataDirectory().resolve("backup-income.csv")));
+    }
+
+    @Test
+    void withLedgerName_noExtension_appendsName() {
+        assertEquals(tempDir.resolve("backup-loan"), LedgerExporter.withLedgerName(tempDir.resolve("backup"), "loan"));
+    }
+}
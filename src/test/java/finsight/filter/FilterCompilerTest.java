@@ -0,0 +1,134 @@
+package finsight.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import finsight.expense.Expense;
+import finsight.filter.exceptions.ListFilterWrongFormatException;
+import finsight.loan.Loan;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests how {@link FilterCompiler} turns filter expressions into {@link Filter}s.
+ *
+ * <p>The suite verifies:
+ * <ul>
+ *   <li>Amount, quoted text, date, flag and due date conditions on each kind of record.</li>
+ *   <li>{@code and} binding tighter than {@code or}, and brackets overriding both.</li>
+ *   <li>The amount bounds derived from an expression, and reuse of a compiled filter.</li>
+ *   <li>Rejection of malformed expressions.</li>
+ *   <li>The same matches from a parallel selection over a large list as from a sequential one.</li>
+ * </ul>
+ * </p>
+ *
+ * @see FilterCompiler
+ * @see Filter
+ */
+final class FilterCompilerTest {
+    private final FilterCompiler<Expense> expenseCompiler = new FilterCompiler<>("expense", Map.of(
+            "amount", FilterField.amount(Expense::getExpenseAmountCents),
+            "desc", FilterField.text(Expense::getDescription),
+            "date", FilterField.date(Expense::getDate)));
+    private final List<Expense> expenses = List.of(
+            new Expense("Grab food", 6000L, LocalDate.of(2026, 3, 1)),
+            new Expense("Food court", 800L),
+            new Expense("Rent", 120000L, LocalDate.of(2026, 2, 1)),
+            new Expense("Grab to work", 1500L, LocalDate.of(2026, 3, 2)));
+
+    @Test
+    void compile_amountAndQuotedText_matchesBoth() throws ListFilterWrongFormatException {
+        Map<Integer, Expense> matches = expenseCompiler.compile("amount>50 and desc~\"food\"").select(expenses);
+
+        assertEquals(List.of(0), List.copyOf(matches.keySet()));
+    }
+
+    @Test
+    void compile_andBindsTighterThanOr_respectsBrackets() throws ListFilterWrongFormatException {
+        assertEquals(List.of(0, 1, 3), select("desc~food or desc~grab and amount<20"));
+        assertEquals(List.of(1, 3), select("(desc~food or desc~grab) and amount<20"));
+        assertEquals(List.of(2), select("not (desc~food OR desc~grab)"));
+    }
+
+    @Test
+    void compile_dateComparison_skipsUndatedRecords() throws ListFilterWrongFormatException {
+        assertEquals(List.of(0, 3), select("date>=01-03-2026"));
+        assertEquals(List.of(0, 2, 3), select("date!=05-05-2020"));
+        assertEquals(List.of(3), select("desc=\"grab to work\""));
+    }
+
+    @Test
+    void compile_amountComparisons_deriveAmountBounds() throws ListFilterWrongFormatException {
+        Filter<Expense> range = expenseCompiler.compile("amount>=10 and amount<20 and desc~a");
+        assertEquals(1000L, range.getMinCents());
+        assertEquals(1999L, range.getMaxCents());
+
+        Filter<Expense> either = expenseCompiler.compile("amount=5 or amount=7.5");
+        assertEquals(500L, either.getMinCents());
+        assertEquals(750L, either.getMaxCents());
+
+        assertFalse(expenseCompiler.compile("amount>10 or desc~x").hasAmountBounds());
+        assertFalse(expenseCompiler.compile("not amount>10").hasAmountBounds());
+        assertFalse(expenseCompiler.compile("amount!=10").hasAmountBounds());
+    }
+
+    @Test
+    void compile_sameExpression_returnsCachedFilter() throws ListFilterWrongFormatException {
+        assertSame(expenseCompiler.compile("amount > 5"), expenseCompiler.compile(" amount > 5 "));
+    }
+
+    @Test
+    void compile_invalidExpressions_exceptionThrown() {
+        String[] invalidExpressions = {"", "price>5", "amount>", "amount>abc", "amount~5", "desc>food",
+            "(amount>5", "amount>5 desc~a", "desc~\"food", "date<31-02-2026", "amount ! 5", "desc"};
+        for (String expression : invalidExpressions) {
+            assertThrows(ListFilterWrongFormatException.class, () -> expenseCompiler.compile(expression));
+        }
+    }
+
+    @Test
+    void compile_flagAndDueDate_matchesLoans() throws ListFilterWrongFormatException {
+        FilterCompiler<Loan> loanCompiler = new FilterCompiler<>("loan", Map.of(
+                "repaid", FilterField.flag(Loan::isRepaid),
+                "due", FilterField.date(loan -> loan.getLoanReturnDate().toLocalDate())));
+        List<Loan> loans = List.of(
+                new Loan("a", 100L, LocalDateTime.of(2026, 1, 1, 12, 0), true),
+                new Loan("b", 100L, LocalDateTime.of(2027, 1, 1, 12, 0), false));
+
+        assertEquals(List.of(0), List.copyOf(loanCompiler.compile("repaid").select(loans).keySet()));
+        assertEquals(List.of(1), List.copyOf(loanCompiler.compile("repaid=false").select(loans).keySet()));
+        assertEquals(List.of(1), List.copyOf(loanCompiler.compile("not repaid and due<01-01-2028")
+                .select(loans).keySet()));
+    }
+
+    @Test
+    void select_largeList_matchesSequentialTest() throws ListFilterWrongFormatException {
+        List<Expense> manyExpenses = new ArrayList<>();
+        for (int i = 0; i < 25_000; i++) {
+            manyExpenses.add(new Expense(i % 3 == 0 ? "taxi" : "lunch", i));
+        }
+        Filter<Expense> filter = expenseCompiler.compile("desc~tax and amount<100");
+
+        Map<Integer, Expense> matches = filter.select(manyExpenses);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < manyExpenses.size(); i++) {
+            if (filter.test(manyExpenses.get(i))) {
+                expected.add(i);
+            }
+        }
+        assertEquals(expected, List.copyOf(matches.keySet()));
+        assertTrue(matches.size() > 3000);
+    }
+
+    private List<Integer> select(String expression) throws ListFilterWrongFormatException {
+        return List.copyOf(expenseCompiler.compile(expression).select(expenses).keySet());
+    }
+}
@@ -0,0 +1,84 @@
+package finsight.forecast;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import finsight.expense.Expense;
+import finsight.income.Income;
+import finsight.investment.Investment;
+import finsight.loan.Loan;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tests the daily balances projected by {@link CashFlowForecast}.
+ *
+ * <p>The suite verifies:
+ * <ul>
+ *   <li>Daily income and expense rates accumulated and rounded to cents.</li>
+ *   <li>A deposit due on a day a short month lacks, booked on its last day.</li>
+ *   <li>Outstanding loans repaid on their deadline, and overdue ones on the first day.</li>
+ *   <li>Rates taken from recent records, leaving out investment deposits.</li>
+ * </ul>
+ * </p>
+ *
+ * @see CashFlowForecast
+ */
+final class CashFlowForecastTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    @Test
+    void project_dailyRates_accumulatedAndRounded() {
+        CashFlowForecast forecast = CashFlowForecast.project(TODAY, 3, 1000, 33.4, 10.0, List.of(), List.of());
+
+        assertEquals(3, forecast.getDays());
+        assertEquals(1000, forecast.getBalanceCents(0));
+        assertEquals(1023, forecast.getBalanceCents(1));
+        assertEquals(1070, forecast.getBalanceCents(3));
+        assertEquals(LocalDate.of(2026, 10, 22), forecast.getDate(3));
+    }
+
+    @Test
+    void project_depositOnDayShortMonthLacks_bookedOnLastDayOfMonth() {
+        List<Investment> investments = List.of(new Investment("fund", 10000L, 5.0, 30),
+                new Investment("bond", 2500L, 5.0, 1));
+        CashFlowForecast forecast = CashFlowForecast.project(LocalDate.of(2026, 2, 20), 10, 0, 0, 0,
+                investments, List.of());
+
+        assertEquals(0, forecast.getBalanceCents(7));
+        assertEquals(-10000, forecast.getBalanceCents(8));
+        assertEquals(-12500, forecast.getBalanceCents(9));
+        assertEquals(12500, forecast.getDepositCents());
+    }
+
+    @Test
+    void project_loans_outstandingBookedOnDeadlineAndOverdueOnFirstDay() {
+        List<Loan> loans = List.of(new Loan("overdue", 5000L, LocalDateTime.of(2026, 10, 1, 12, 0), false),
+                new Loan("repaid", 7000L, LocalDateTime.of(2026, 10, 21, 12, 0), true),
+                new Loan("due", 300L, LocalDateTime.of(2026, 10, 22, 12, 0), false),
+                new Loan("later", 900L, LocalDateTime.of(2027, 10, 22, 12, 0), false));
+        CashFlowForecast forecast = CashFlowForecast.project(TODAY, 5, 0, 0, 0, List.of(), loans);
+
+        assertEquals(-5000, forecast.getBalanceCents(1));
+        assertEquals(-5000, forecast.getBalanceCents(2));
+        assertEquals(-5300, forecast.getBalanceCents(3));
+        assertEquals(5300, forecast.getLoanRepaymentCents());
+        assertEquals(3, forecast.getLowestDay());
+    }
+
+    @Test
+    void project_records_ratesFromRecentWindowWithoutDeposits() {
+        List<Income> incomes = List.of(new Income("salary", 9000L, LocalDate.of(2026, 10, 10)),
+                new Income("bonus", 50000L, LocalDate.of(2026, 1, 1)));
+        List<Expense> expenses = List.of(new Expense("food", 4500L, TODAY),
+                new Expense(Investment.DEPOSIT_PREFIX + "fund", 100000L, TODAY, true));
+        CashFlowForecast forecast = CashFlowForecast.project(TODAY, 2, incomes, expenses, List.of(), List.of());
+
+        assertEquals(-45500, forecast.getBalanceCents(0));
+        assertEquals(900.0, forecast.getIncomeCentsPerDay());
+        assertEquals(450.0, forecast.getExpenseCentsPerDay());
+        assertEquals(-44600, forecast.getBalanceCents(2));
+    }
+}
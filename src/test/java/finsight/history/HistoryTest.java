@@ -0,0 +1,114 @@
+package finsight.history;
+
+import finsight.history.exceptions.NothingToRedoException;
+import finsight.history.exceptions.NothingToUndoException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class HistoryTest {
+    private static Change appendChange(List<String> values, String value) {
+        values.add(value);
+        return new Change("add " + value, () -> values.remove(values.size() - 1), () -> values.add(value));
+    }
+
+    @Test
+    void undo_afterChanges_reversesLatestFirst() throws NothingToUndoException, IOException {
+        History history = new History(History.DEFAULT_CAPACITY);
+        List<String> values = new ArrayList<>();
+        history.record(appendChange(values, "a"));
+        history.record(appendChange(values, "b"));
+
+        assertEquals("add b", history.undo().getDescription());
+        assertEquals(List.of("a"), values);
+        assertEquals("add a", history.undo().getDescription());
+        assertEquals(List.of(), values);
+    }
+
+    @Test
+    void redo_afterUndo_appliesChangeAgain() throws NothingToUndoException, NothingToRedoException, IOException {
+        History history = new History(History.DEFAULT_CAPACITY);
+        List<String> values = new ArrayList<>();
+        history.record(appendChange(values, "a"));
+        history.undo();
+
+        assertEquals("add a", history.redo().getDescription());
+        assertEquals(List.of("a"), values);
+        assertThrows(NothingToRedoException.class, history::redo);
+    }
+
+    @Test
+    void record_afterUndo_clearsRedo() throws NothingToUndoException, IOException {
+        History history = new History(History.DEFAULT_CAPACITY);
+        List<String> values = new ArrayList<>();
+        history.record(appendChange(values, "a"));
+        history.undo();
+        history.record(appendChange(values, "b"));
+
+        assertThrows(NothingToRedoException.class, history::redo);
+    }
+
+    @Test
+    void record_overCapacity_dropsOldestChange() throws NothingToUndoException, IOException {
+        History history = new History(2);
+        List<String> values = new ArrayList<>();
+        history.record(appendChange(values, "a"));
+        history.record(appendChange(values, "b"));
+        history.record(appendChange(values, "c"));
+        history.undo();
+        history.undo();
+
+        assertEquals(List.of("a"), values);
+        assertThrows(NothingToUndoException.class, history::undo);
+    }
+
+    @Test
+    void undo_saveFails_changeCanBeUndoneAgain() throws NothingToUndoException, NothingToRedoException,
+            IOException {
+        History history = new History(History.DEFAULT_CAPACITY);
+        List<String> values = new ArrayList<>(List.of("a"));
+        boolean[] isSaveFailing = {true};
+        history.record(new Change("add a", () -> {
+            if (isSaveFailing[0]) {
+                throw new IOException("disk full");
+            }
+            values.remove("a");
+        }, () -> values.add("a")));
+
+        assertThrows(IOException.class, history::undo);
+        assertEquals(List.of("a"), values);
+        assertThrows(NothingToRedoException.class, history::redo);
+
+        isSaveFailing[0] = false;
+        assertEquals("add a", history.undo().getDescription());
+        assertEquals(List.of(), values);
+    }
+
+    @Test
+    void redo_saveFails_changeCanBeRedoneAgain() throws NothingToUndoException, NothingToRedoException,
+            IOException {
+        History history = new History(History.DEFAULT_CAPACITY);
+        List<String> values = new ArrayList<>();
+        boolean[] isSaveFailing = {true};
+        history.record(new Change("add a", () -> values.remove("a"), () -> {
+            if (isSaveFailing[0]) {
+                throw new IOException("disk full");
+            }
+            values.add("a");
+        }));
+        history.undo();
+
+        assertThrows(IOException.class, history::redo);
+        assertThrows(NothingToUndoException.class, history::undo);
+
+        isSaveFailing[0] = false;
+        assertEquals("add a", history.redo().getDescription());
+        assertEquals(List.of("a"), values);
+    }
+}
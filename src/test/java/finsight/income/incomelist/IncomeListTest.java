@@ -1,12 +1,16 @@
 package finsight.income.incomelist;
 
+import finsight.expense.Expense;
+import finsight.expense.expenselist.ExpenseList;
 import finsight.income.Income;
 import finsight.income.exceptions.AddIncomeCommandWrongFormatException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -64,6 +68,37 @@ public class IncomeListTest {
         incomeList.editIncome("1", "Hustle", "50");
 
         assertEquals("Hustle", incomeList.getIncomes().get(0).getDescription());
-        assertEquals(50, incomeList.getIncomes().get(0).getAmountEarned());
+        assertEquals(5000, incomeList.getIncomes().get(0).getAmountEarnedCents());
+    }
+
+    @Test
+    void editIncome_renderedIncome_renderedAgain() throws AddIncomeCommandWrongFormatException, IOException {
+        incomeList.addIncome(new Income("Salary", "1000"));
+        assertEquals("\nDescription: Salary\nAmount: $1000.00", incomeList.getIncomes().get(0).toString());
+
+        incomeList.editIncome("1", "Hustle", "50");
+        assertEquals("\nDescription: Hustle\nAmount: $50.00", incomeList.getIncomes().get(0).toString());
+    }
+
+    @Test
+    void listIncomeOverview_sharedExpenseList_subtractsItsExpenses() throws AddIncomeCommandWrongFormatException {
+        ArrayList<Income> incomes = new ArrayList<>();
+        incomes.add(new Income("Salary", "1000"));
+        ArrayList<Expense> expenses = new ArrayList<>();
+        expenses.add(new Expense("Rent", 40000));
+        expenses.add(new Expense("Food", 12550));
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+
+        try {
+            new IncomeList(incomes).listIncomeOverview(new ExpenseList(expenses));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String printed = outputStream.toString();
+        assertTrue(printed.contains("Total Expense: $ 525.50"));
+        assertTrue(printed.contains("Remaining Income: $ 474.50"));
     }
 }
@@ -0,0 +1,61 @@
+package finsight.investment;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import finsight.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Verifies the monthly deposits {@link ContributionGoal} solves for, with and without
+ * a return rate, alone and for several investments at once.
+ *
+ * @see ContributionGoal
+ */
+final class ContributionGoalTest {
+
+    @Test
+    void solve_positiveRates_smallestDepositReachingTarget() {
+        for (double rate : new double[]{0.01, 0.5, 5.0, 12.5, 40.0}) {
+            ContributionGoal goal = new ContributionGoal(100_000_00L, 30, rate);
+            long depositCents = goal.solve();
+
+            assertTrue(projectCents(depositCents, rate, 30) >= 100_000_00L);
+            assertTrue(projectCents(depositCents - 1, rate, 30) < 100_000_00L);
+        }
+    }
+
+    @Test
+    void solve_zeroRate_targetSpreadOverMonthsRoundedUp() {
+        assertEquals(8334, new ContributionGoal(100_000L, 1, 0).solve());
+        assertEquals(1, new ContributionGoal(1L, 100, 0).solve());
+    }
+
+    @Test
+    void solve_investmentProjection_noMoreThanItsDeposit() {
+        Investment investment = new Investment("fund", 12345L, 5.0, 1);
+        long depositCents = new ContributionGoal(investment.getInvestmentTenYearReturnsCents(), 10, 5.0).solve();
+
+        assertTrue(depositCents <= 12345L);
+        assertEquals(investment.getInvestmentTenYearReturnsCents(), projectCents(depositCents, 5.0, 10));
+    }
+
+    @Test
+    void solveForEach_investments_solvedAtOwnRates() {
+        List<Investment> investments = List.of(new Investment("a", 100L, 5.0, 1),
+                new Investment("b", 200L, 3.0, 2), new Investment("c", 300L, 5.0, 3));
+        ContributionGoal goal = new ContributionGoal(5_000_000L, 20, 1.0);
+        long atFivePercent = new ContributionGoal(5_000_000L, 20, 5.0).solve();
+        long atThreePercent = new ContributionGoal(5_000_000L, 20, 3.0).solve();
+
+        assertArrayEquals(new long[]{atFivePercent, atThreePercent, atFivePercent}, goal.solveForEach(investments));
+    }
+
+    private static long projectCents(long depositCents, double rate, int years) {
+        double[] yearlyBalances = Investment.calculateYearlyBalances(Money.toDollars(depositCents), rate, years);
+        return Money.fromDollars(yearlyBalances[years - 1]);
+    }
+}
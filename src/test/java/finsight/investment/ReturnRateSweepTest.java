@@ -0,0 +1,55 @@
+package finsight.investment;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import finsight.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the rates a {@link ReturnRateSweep} covers and that its balances agree with
+ * the projections of the investments swept.
+ *
+ * @see ReturnRateSweep
+ */
+final class ReturnRateSweepTest {
+
+    @Test
+    void constructor_stepNotDividingRange_ratesStopBelowTo() {
+        assertArrayEquals(new double[]{1.0, 1.3, 1.6, 1.9}, new ReturnRateSweep(1, 2, 0.3, 1).getRates());
+        assertArrayEquals(new double[]{0.1, 0.2, 0.3}, new ReturnRateSweep(0.1, 0.3, 0.1, 1).getRates());
+    }
+
+    @Test
+    void evaluate_singleInvestment_matchesItsProjections() {
+        Investment investment = new Investment("fund", 12345L, 5.0, 1);
+        long[][] balanceCents = new ReturnRateSweep(4, 6, 1, 10).evaluate(List.of(investment));
+
+        assertEquals(investment.getInvestmentFiveYearReturnsCents(), balanceCents[1][4]);
+        assertEquals(investment.getInvestmentTenYearReturnsCents(), balanceCents[1][9]);
+    }
+
+    @Test
+    void evaluate_largePortfolio_equalsSumOfInvestmentsAtEachRate() {
+        List<Investment> investments = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            investments.add(new Investment("investment " + i, 100L + i, 1.0 + i % 7, 1 + i % 31));
+        }
+        ReturnRateSweep sweep = new ReturnRateSweep(0.1, 10, 0.1, 40);
+        long[][] balanceCents = sweep.evaluate(investments);
+
+        assertEquals(100, balanceCents.length);
+        assertEquals(40, balanceCents[99].length);
+        for (int i : new int[]{0, 49, 99}) {
+            double expectedBalance = 0;
+            for (Investment investment : investments) {
+                expectedBalance += Investment.calculateYearlyBalances(
+                        Money.toDollars(investment.getInvestmentAmountCents()), sweep.getRates()[i], 40)[39];
+            }
+            assertEquals(Money.fromDollars(expectedBalance), balanceCents[i][39], 1);
+        }
+    }
+}
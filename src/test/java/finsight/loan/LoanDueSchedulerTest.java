@@ -0,0 +1,105 @@
+package finsight.loan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests when a {@link LoanDueScheduler} raises its alerts.
+ *
+ * <p>The suite verifies:
+ * <ul>
+ *   <li>One alert per loan once its deadline is reached.</li>
+ *   <li>Waking for an earlier deadline scheduled after a later one.</li>
+ *   <li>No alert for loans that are repaid, past their deadline or cancelled.</li>
+ * </ul>
+ * </p>
+ *
+ * @see LoanDueScheduler
+ */
+final class LoanDueSchedulerTest {
+    private static final long WAIT_MILLIS = 2000;
+
+    private BlockingQueue<Loan> dueLoans;
+    private LoanDueScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        dueLoans = new LinkedBlockingQueue<>();
+        scheduler = new LoanDueScheduler(dueLoans::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void schedule_deadlineReached_alertRaisedOnce() throws InterruptedException {
+        Loan loan = loanDueIn(100);
+        scheduler.schedule(loan);
+
+        assertSame(loan, dueLoans.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        assertEquals(0, scheduler.getScheduledCount());
+        assertNull(dueLoans.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void schedule_earlierLoanAfterLaterOne_wakesForEarlierDeadline() throws InterruptedException {
+        Loan laterLoan = loanDueIn(3_600_000);
+        Loan earlierLoan = loanDueIn(100);
+        scheduler.schedule(laterLoan);
+        scheduler.schedule(earlierLoan);
+
+        assertSame(earlierLoan, dueLoans.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void schedule_repaidOrPastLoan_notScheduled() {
+        Loan repaidLoan = loanDueIn(100);
+        repaidLoan.setRepaid();
+        scheduler.schedule(repaidLoan);
+        scheduler.schedule(loanDueIn(-60_000));
+
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void schedule_loanRepaidBeforeDeadline_alertCancelled() throws InterruptedException {
+        Loan loan = loanDueIn(150);
+        scheduler.schedule(loan);
+        loan.setRepaid();
+        scheduler.schedule(loan);
+
+        assertEquals(0, scheduler.getScheduledCount());
+        assertNull(dueLoans.poll(400, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void cancel_scheduledLoan_noAlertRaised() throws InterruptedException {
+        Loan loan = loanDueIn(150);
+        Loan otherLoan = loanDueIn(3_600_000);
+        scheduler.schedule(loan);
+        scheduler.schedule(otherLoan);
+        scheduler.cancel(loan);
+
+        assertEquals(1, scheduler.getScheduledCount());
+        assertNull(dueLoans.poll(400, TimeUnit.MILLISECONDS));
+        scheduler.cancelAll();
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    private static Loan loanDueIn(long millis) {
+        return new Loan("loan", 1000L, LocalDateTime.now().plusNanos(millis * 1_000_000), false);
+    }
+}
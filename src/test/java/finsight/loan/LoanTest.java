@@ -2,7 +2,9 @@ package finsight.loan;
 
 //@@author Emannuel-Tan
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,8 @@ import org.junit.jupiter.api.Test;
 import finsight.loan.exceptions.AddLoanCommandWrongFormatException;
 import finsight.ui.Ui;
 
+import java.time.LocalDateTime;
+
 public class LoanTest {
     @Test
     void isRepaid_afterConstructor_notRepaid() throws AddLoanCommandWrongFormatException {
@@ -35,4 +39,32 @@ public class LoanTest {
 
         assertFalse(loan.isRepaid());
     }
+
+    @Test
+    void toString_unchangedLoan_renderedOnce() {
+        Loan loan = new Loan("1", 100000L, LocalDateTime.now().plusDays(1), false);
+
+        assertSame(loan.toString(), loan.toString());
+    }
+
+    @Test
+    void toString_setRepaid_statusRenderedAgain() {
+        Loan loan = new Loan("1", 100000L, LocalDateTime.now().plusDays(1), false);
+        assertTrue(loan.toString().startsWith("[outstanding]"));
+
+        loan.setRepaid();
+        assertTrue(loan.toString().startsWith("[repaid]"));
+        loan.setNotRepaid();
+        assertTrue(loan.toString().startsWith("[outstanding]"));
+    }
+
+    @Test
+    void toString_deadlinePasses_renderedAsOverdue() throws InterruptedException {
+        Loan loan = new Loan("1", 100000L, LocalDateTime.now().plusNanos(200_000_000L), false);
+        assertTrue(loan.toString().startsWith("[outstanding]"));
+
+        Thread.sleep(300);
+        assertTrue(loan.toString().startsWith("[OVERDUE]"));
+        assertEquals(Long.MAX_VALUE, loan.getStatusChangeMillis());
+    }
 }
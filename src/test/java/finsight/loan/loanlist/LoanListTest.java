@@ -121,7 +121,7 @@ public class LoanListTest {
 
         loanList.editLoan(inputParameters);
         assertEquals(inputParameters[1], loanList.getLoans().get(0).getDescription());
-        assertEquals(Double.parseDouble(inputParameters[2]), loanList.getLoans().get(0).getAmountLoaned());
+        assertEquals(200000L, loanList.getLoans().get(0).getAmountLoanedCents());
         assertEquals(LocalDateTime.parse(inputParameters[3], dateFormat),
                 loanList.getLoans().get(0).getLoanReturnDate());
     }
@@ -0,0 +1,120 @@
+package finsight.money;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+
+/**
+ * Tests the {@link Money} parsing and formatting of amounts in cents.
+ *
+ * <p>The suite verifies:
+ * <ul>
+ *   <li>Parsing of plain amounts and of amounts saved as doubles by earlier versions.</li>
+ *   <li>Rejection of malformed amounts and of fractions of a cent.</li>
+ *   <li>Formatting, rounding and writing that match {@code String.format("%.2f")}.</li>
+ * </ul>
+ * </p>
+ *
+ * @see Money
+ */
+final class MoneyTest {
+
+    @Test
+    void parseCents_plainAmounts_returnsExactCents() {
+        assertEquals(1200L, Money.parseCents("12"));
+        assertEquals(1250L, Money.parseCents("12.5"));
+        assertEquals(1205L, Money.parseCents("12.05"));
+        assertEquals(50L, Money.parseCents(".5"));
+        assertEquals(1200L, Money.parseCents(" +12. "));
+    }
+
+    @Test
+    void parseCents_legacyDoubleAndFloatStrings_loadsDisplayedCents() {
+        assertEquals(1234567800L, Money.parseCents(Double.toString(12345678.0)));
+        assertEquals(10L, Money.parseCents(Float.toString(0.1f)));
+        assertEquals(100025L, Money.parseCents(Float.toString(1000.25f)));
+        assertEquals(6913L, Money.parseCents("69.1300"));
+        assertEquals(-150L, Money.parseCents("-1.5"));
+    }
+
+    @Test
+    void parseCents_invalidAmounts_throwsNumberFormatException() {
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("NaN"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("Infinity"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("12a"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents(""));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("1e30"));
+    }
+
+    @Test
+    void parseCents_fractionOfCent_throwsNumberFormatException() {
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("69.126"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("0.005"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("1.23456E2"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("0.30000000000000004"));
+    }
+
+    @Test
+    void isFractionOfCent_amounts_trueOnlyPastSecondDecimalPlace() {
+        assertTrue(Money.isFractionOfCent("0.001"));
+        assertTrue(Money.isFractionOfCent(" 1.23456E2 "));
+        assertFalse(Money.isFractionOfCent("12.500"));
+        assertFalse(Money.isFractionOfCent("1.2345E2"));
+        assertFalse(Money.isFractionOfCent("12a"));
+    }
+
+    @Test
+    void format_centAmounts_matchesPercentTwoF() {
+        long[] samples = {0L, 5L, 10L, 99L, 100L, 1250L, 123456789L, -5L, -1250L};
+        for (long cents : samples) {
+            assertEquals(String.format("%.2f", cents / 100.0), Money.format(cents));
+        }
+    }
+
+    @Test
+    void fromDollars_computedAmounts_roundsLikePercentTwoF() {
+        double[] samples = {1.005, 2.675, 0.125, 12345.6789, 1e-3};
+        for (double amount : samples) {
+            assertEquals(String.format("%.2f", amount), Money.format(Money.fromDollars(amount)));
+        }
+    }
+
+    @Test
+    void formatTwoDecimals_randomAndHalfCentValues_matchesPercentTwoF() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double halfCentValue = (random.nextInt(2_000_001) - 1_000_000) / 1000.0;
+            double value = random.nextDouble() * Math.pow(10, random.nextInt(14)) - 1;
+            assertEquals(String.format("%.2f", halfCentValue), Money.formatTwoDecimals(halfCentValue));
+            assertEquals(String.format("%.2f", value), Money.formatTwoDecimals(value));
+        }
+    }
+
+    @Test
+    void formatTwoDecimals_values_matchesPercentTwoF() {
+        double[] samples = {0.0, -0.0, -0.001, 5.0, 12.345, 0.125, 1e-9, 123456789.125, 1e20, -1e20,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (double value : samples) {
+            assertEquals(String.format("%.2f", value), Money.formatTwoDecimals(value));
+        }
+    }
+
+    @Test
+    void appendToAndWriteTo_centAmounts_matchesFormat() throws IOException {
+        long[] samples = {0L, 7L, -7L, 1250L, -1250L, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long cents : samples) {
+            StringWriter writer = new StringWriter();
+            Money.writeTo(writer, cents);
+
+            assertEquals(Money.format(cents), writer.toString());
+            assertEquals("$" + Money.format(cents), Money.appendTo(new StringBuilder("$"), cents).toString());
+        }
+    }
+}
@@ -5,6 +5,14 @@ import finsight.expense.exceptions.AddExpenseCommandWrongFormatException;
 import finsight.expense.exceptions.DeleteExpenseCommandIndexOutOfBoundsException;
 import finsight.expense.expenselist.ExpenseList;
 
+import finsight.export.exceptions.ExportCommandWrongFormatException;
+
+import finsight.filter.exceptions.ListFilterWrongFormatException;
+import finsight.forecast.exceptions.ForecastCommandWrongFormatException;
+
+import finsight.history.exceptions.NothingToRedoException;
+import finsight.history.exceptions.NothingToUndoException;
+
 import finsight.income.exceptions.AddIncomeCommandWrongFormatException;
 import finsight.income.exceptions.DeleteIncomeCommandIndexOutOfBoundsException;
 import finsight.income.exceptions.EditIncomeCommandIndexOutOfBoundsException;
@@ -14,7 +22,12 @@ import finsight.income.incomelist.IncomeList;
 
 import finsight.investment.exceptions.AddInvestmentSubcommandException;
 import finsight.investment.exceptions.AddInvestmentSubcommandOrderException;
+import finsight.investment.exceptions.DueCommandWrongFormatException;
+import finsight.investment.exceptions.GoalCommandWrongFormatException;
+import finsight.investment.exceptions.SweepCommandWrongFormatException;
+import finsight.investment.ContributionGoal;
 import finsight.investment.Investment;
+import finsight.investment.ReturnRateSweep;
 import finsight.investment.investmentlist.InvestmentList;
 
 import finsight.loan.Loan;
@@ -30,9 +43,16 @@ import finsight.loan.exceptions.LoanRepaidCommandIndexOutOfBoundsException;
 import finsight.loan.exceptions.LoanNotRepaidCommandIndexOutOfBoundsException;
 import finsight.loan.loanlist.LoanList;
 
+import finsight.search.exceptions.AmountRangeWrongFormatException;
+import finsight.search.exceptions.FindCommandMissingTermsException;
+import finsight.search.exceptions.TopCommandWrongFormatException;
+import finsight.summary.exceptions.SummaryCommandWrongFormatException;
+
 import java.io.IOException;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -51,8 +71,6 @@ public class ParserTest {
         incomeList = new IncomeList();
         investmentList = new InvestmentList();
         loanList = new LoanList();
-        parser = new Parser(expenseList, incomeList, investmentList, loanList);
-
         int loopCountExpense = Expense.numberOfExpenses;
         for (int i = 0; i < loopCountExpense; i++) {
             expenseList.deleteExpense(0);
@@ -69,6 +87,7 @@ public class ParserTest {
         for (int i = 0; i < loopCountLoan; i++) {
             loanList.deleteLoan(0);
         }
+        parser = new Parser(expenseList, incomeList, investmentList, loanList);
     }
 
     // @@author Emannuel-Tan
@@ -809,4 +828,282 @@ public class ParserTest {
                 () -> parser.parseDeleteExpenseCommand(inputTestString));
     }
 
+    @Test
+    void parseAddExpenseCommand_withDate_dateReturned() {
+        String inputTestString = "add expense d/ rent a/ 1000 t/ 01-03-2026";
+
+        String[] commandParameters = parser.parseAddExpenseCommand(inputTestString);
+        assertEquals("1000", commandParameters[1]);
+        assertEquals("01-03-2026", commandParameters[2]);
+    }
+
+    @Test
+    void parseAddExpenseCommand_invalidDate_exceptionThrown() {
+        String inputTestString = "add expense d/ rent a/ 1000 t/ 31-02-2026";
+
+        assertThrows(AddExpenseCommandWrongFormatException.class,
+                () -> parser.parseAddExpenseCommand(inputTestString));
+    }
+
+    @Test
+    void parseAddIncomeCommand_emptyDate_exceptionThrown() {
+        String inputTestString = "add income d/ Salary a/ 100 t/";
+
+        assertThrows(AddIncomeCommandWrongFormatException.class,
+                () -> parser.parseAddIncomeCommand(inputTestString));
+    }
+
+    @Test
+    void parseSummaryCommand_startAfterEnd_exceptionThrown() {
+        String inputTestString = "summary expense from/ 01-04-2026 to/ 01-03-2026";
+
+        assertThrows(SummaryCommandWrongFormatException.class,
+                () -> parser.parseSummaryCommand(inputTestString, CommandType.SUMMARY_EXPENSE, "expense"));
+    }
+
+    @Test
+    void parseSummaryCommand_missingTo_exceptionThrown() {
+        String inputTestString = "summary income from/ 01-04-2026";
+
+        assertThrows(SummaryCommandWrongFormatException.class,
+                () -> parser.parseSummaryCommand(inputTestString, CommandType.SUMMARY_INCOME, "income"));
+    }
+
+    @Test
+    void tryCommand_summaryExpense_noExceptionThrown() {
+        String inputTestString = "summary expense from/ 01-01-2026 to/ 31-12-2026";
+
+        assertDoesNotThrow(() -> parser.tryCommand(inputTestString));
+    }
+
+    @Test
+    void parseFindCommand_missingTerms_exceptionThrown() {
+        String inputTestString = "find  -- ";
+
+        assertThrows(FindCommandMissingTermsException.class,
+                () -> parser.parseFindCommand(inputTestString));
+    }
+
+    @Test
+    void tryCommand_find_noExceptionThrown() throws IOException {
+        expenseList.addExpense(new Expense("grab to work", "12"));
+        String inputTestString = "find grab";
+
+        assertDoesNotThrow(() -> parser.tryCommand(inputTestString));
+        assertEquals(1, expenseList.find("gr wo").size());
+        expenseList.deleteExpense(0);
+    }
+
+    @Test
+    void parseTopCommand_validCount_returnsCount() throws TopCommandWrongFormatException {
+        String inputTestString = "top expense k/ 10";
+
+        assertEquals(10, parser.parseTopCommand(inputTestString, CommandType.TOP_EXPENSE, "expense"));
+    }
+
+    @Test
+    void parseTopCommand_nonPositiveCount_exceptionThrown() {
+        String inputTestString = "top loan k/0";
+
+        assertThrows(TopCommandWrongFormatException.class,
+                () -> parser.parseTopCommand(inputTestString, CommandType.TOP_LOAN, "loan"));
+    }
+
+    @Test
+    void parseTopCommand_missingCount_exceptionThrown() {
+        String inputTestString = "top income 10";
+
+        assertThrows(TopCommandWrongFormatException.class,
+                () -> parser.parseTopCommand(inputTestString, CommandType.TOP_INCOME, "income"));
+    }
+
+    @Test
+    void parseAmountRangeCommand_bothBounds_returnsCents() throws AmountRangeWrongFormatException {
+        String inputTestString = "list expense min/ 5 max/ 12.50";
+
+        long[] amountRange = parser.parseAmountRangeCommand(inputTestString, CommandType.LIST_EXPENSE, "expense");
+        assertEquals(500L, amountRange[0]);
+        assertEquals(1250L, amountRange[1]);
+    }
+
+    @Test
+    void parseAmountRangeCommand_onlyMax_leavesMinimumOpen() throws AmountRangeWrongFormatException {
+        String inputTestString = "list income max/100";
+
+        long[] amountRange = parser.parseAmountRangeCommand(inputTestString, CommandType.LIST_INCOME, "income");
+        assertEquals(Long.MIN_VALUE, amountRange[0]);
+        assertEquals(10000L, amountRange[1]);
+    }
+
+    @Test
+    void parseAmountRangeCommand_minAboveMax_exceptionThrown() {
+        String inputTestString = "list loan min/ 20 max/ 10";
+
+        assertThrows(AmountRangeWrongFormatException.class,
+                () -> parser.parseAmountRangeCommand(inputTestString, CommandType.LIST_LOAN, "loan"));
+    }
+
+    @Test
+    void parseAmountRangeCommand_wrongSubcommandOrder_exceptionThrown() {
+        String inputTestString = "list expense max/ 20 min/ 10";
+
+        assertThrows(AmountRangeWrongFormatException.class,
+                () -> parser.parseAmountRangeCommand(inputTestString, CommandType.LIST_EXPENSE, "expense"));
+    }
+
+    @Test
+    void tryCommand_topAndRange_noExceptionThrown() throws IOException {
+        expenseList.addExpense(new Expense("taxi", 1500L));
+        expenseList.addExpense(new Expense("lunch", 800L));
+
+        assertDoesNotThrow(() -> parser.tryCommand("top expense k/1"));
+        assertDoesNotThrow(() -> parser.tryCommand("list expense min/10"));
+        assertEquals(1, expenseList.findLargest(1).size());
+        assertEquals(1, expenseList.findInRange(1000L, Long.MAX_VALUE).size());
+        expenseList.deleteExpense(expenseList.getSize() - 1);
+        expenseList.deleteExpense(expenseList.getSize() - 1);
+    }
+
+    @Test
+    void parseFilterCommand_whereClause_returnsExpression() {
+        String inputTestString = "list expense where amount>50 and desc~\"food\"";
+
+        assertEquals("amount>50 and desc~\"food\"",
+                parser.parseFilterCommand(inputTestString, CommandType.LIST_EXPENSE));
+    }
+
+    @Test
+    void tryCommand_listWhere_noExceptionThrown() throws IOException, ListFilterWrongFormatException {
+        expenseList.addExpense(new Expense("grab food", 6000L));
+        expenseList.addExpense(new Expense("food court", 800L));
+
+        assertDoesNotThrow(() -> parser.tryCommand("list expense where amount>50 and desc~\"food\""));
+        assertDoesNotThrow(() -> parser.tryCommand("list expense where amount>"));
+        assertEquals(1, expenseList.filter("amount>50 and desc~food").size());
+        assertEquals(2, expenseList.filter("desc~food").size());
+        expenseList.deleteExpense(expenseList.getSize() - 1);
+        expenseList.deleteExpense(expenseList.getSize() - 1);
+    }
+
+    @Test
+    void tryCommand_undoAndRedoAdd_restoresExpense() throws IOException {
+        parser.tryCommand("add expense d/taxi a/15");
+
+        parser.tryCommand("undo");
+        assertEquals(0, expenseList.getSize());
+        parser.tryCommand("redo");
+        assertEquals(1, expenseList.getSize());
+        assertEquals("taxi", expenseList.getExpenses().get(0).getDescription());
+        expenseList.deleteExpense(0);
+    }
+
+    @Test
+    void tryCommand_undoDelete_reinsertsAtIndex() throws IOException {
+        incomeList.addIncome(new Income("salary", 300000L));
+        incomeList.addIncome(new Income("bonus", 50000L));
+        parser.tryCommand("delete income 1");
+
+        parser.tryCommand("undo");
+        assertEquals(2, incomeList.getSize());
+        assertEquals("salary", incomeList.getIncomes().get(0).getDescription());
+        assertEquals(1, incomeList.find("salary").size());
+        incomeList.deleteIncome(1);
+        incomeList.deleteIncome(0);
+    }
+
+    @Test
+    void undo_nothingRecorded_exceptionThrown() {
+        assertThrows(NothingToUndoException.class, () -> parser.handleCommand("undo"));
+        assertThrows(NothingToRedoException.class, () -> parser.handleCommand("redo"));
+    }
+
+    @Test
+    void parseExportCommand_validInput_returnsParameters() throws ExportCommandWrongFormatException {
+        String inputTestString = "export ALL f/ exports/my file.json fmt/ Json";
+
+        assertArrayEquals(new String[]{"all", "exports/my file.json", "Json"},
+                parser.parseExportCommand(inputTestString));
+    }
+
+    @Test
+    void parseExportCommand_unknownFormat_exceptionThrown() {
+        String inputTestString = "export loan f/out.xml fmt/xml";
+
+        assertThrows(ExportCommandWrongFormatException.class, () -> parser.parseExportCommand(inputTestString));
+    }
+
+    @Test
+    void parseExportCommand_wrongSubcommandOrder_exceptionThrown() {
+        String inputTestString = "export expense fmt/csv f/out.csv";
+
+        assertThrows(ExportCommandWrongFormatException.class, () -> parser.parseExportCommand(inputTestString));
+    }
+
+    @Test
+    void parseDueCommand_todayAndThisWeek_returnsDays() throws DueCommandWrongFormatException {
+        assertEquals(1, parser.parseDueCommand("due today"));
+        assertEquals(7, parser.parseDueCommand("due  This   Week "));
+    }
+
+    @Test
+    void parseDueCommand_unknownPeriod_exceptionThrown() {
+        assertThrows(DueCommandWrongFormatException.class, () -> parser.parseDueCommand("due tomorrow"));
+        assertThrows(DueCommandWrongFormatException.class, () -> parser.parseDueCommand("due"));
+    }
+
+    @Test
+    void parseForecastCommand_validDays_returnsDays() throws ForecastCommandWrongFormatException {
+        assertEquals(30, parser.parseForecastCommand("forecast d/30"));
+        assertEquals(3650, parser.parseForecastCommand("forecast  d/ 3650 "));
+    }
+
+    @Test
+    void parseForecastCommand_missingOrInvalidDays_exceptionThrown() {
+        assertThrows(ForecastCommandWrongFormatException.class, () -> parser.parseForecastCommand("forecast"));
+        assertThrows(ForecastCommandWrongFormatException.class, () -> parser.parseForecastCommand("forecast d/0"));
+        assertThrows(ForecastCommandWrongFormatException.class, () -> parser.parseForecastCommand("forecast d/ten"));
+        assertThrows(ForecastCommandWrongFormatException.class,
+                () -> parser.parseForecastCommand("forecast d/36526"));
+    }
+
+    @Test
+    void parseSweepInvestmentCommand_validGrid_returnsRatesAndYears() throws SweepCommandWrongFormatException {
+        ReturnRateSweep sweep = parser.parseSweepInvestmentCommand("sweep investment r/1 - 3 step/0.5 y/40");
+
+        assertArrayEquals(new double[]{1.0, 1.5, 2.0, 2.5, 3.0}, sweep.getRates());
+        assertEquals(40, sweep.getYears());
+    }
+
+    @Test
+    void parseSweepInvestmentCommand_invalidGrid_exceptionThrown() {
+        String[] invalidInputs = {"sweep investment", "sweep investment r/1-3 y/5 step/1",
+                "sweep investment r/3 step/1 y/5", "sweep investment r/3-1 step/1 y/5",
+                "sweep investment r/1-3 step/0 y/5",
+                "sweep investment r/1-3 step/1 y/101", "sweep investment r/0-1000 step/0.5 y/5",
+                "sweep investment r/a-3 step/1 y/5"};
+        for (String invalidInput : invalidInputs) {
+            assertThrows(SweepCommandWrongFormatException.class,
+                    () -> parser.parseSweepInvestmentCommand(invalidInput));
+        }
+    }
+
+    @Test
+    void parseGoalInvestmentCommand_validGoal_returnsTargetYearsAndRate() throws GoalCommandWrongFormatException {
+        ContributionGoal goal = parser.parseGoalInvestmentCommand("goal investment t/100000.50 y/ 20 r/4.5");
+
+        assertEquals(10_000_050L, goal.getTargetCents());
+        assertEquals(20, goal.getYears());
+        assertEquals(4.5, goal.getReturnRate());
+    }
+
+    @Test
+    void parseGoalInvestmentCommand_invalidGoal_exceptionThrown() {
+        String[] invalidInputs = {"goal investment", "goal investment y/5 t/100 r/5", "goal investment t/0 y/5 r/5",
+                "goal investment t/100 y/0 r/5", "goal investment t/100 y/101 r/5", "goal investment t/100 y/5 r/-1",
+                "goal investment t/abc y/5 r/5"};
+        for (String invalidInput : invalidInputs) {
+            assertThrows(GoalCommandWrongFormatException.class,
+                    () -> parser.parseGoalInvestmentCommand(invalidInput));
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package finsight.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import finsight.income.Income;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the records {@link AmountIndex} returns by amount, numbered by their index in the list.
+ *
+ * <p>The suite verifies:
+ * <ul>
+ *   <li>The largest records first, with equal amounts in list order.</li>
+ *   <li>Inclusive amount ranges, smallest first.</li>
+ *   <li>Indexes and amounts kept current as records are removed, replaced and edited.</li>
+ * </ul>
+ * </p>
+ *
+ * @see AmountIndex
+ */
+final class AmountIndexTest {
+    @Test
+    void findLargest_fewerThanAll_returnsLargestFirstWithTiesInListOrder() {
+        AmountIndex<Income> index = new AmountIndex<>(Income::getAmountEarnedCents);
+        for (long cents : new long[] {500L, 1200L, 500L, 9900L, 50L}) {
+            index.add(new Income("income", cents));
+        }
+
+        assertEquals(List.of(3, 1, 0), List.copyOf(index.findLargest(3).keySet()));
+        assertEquals(List.of(3, 1, 0, 2, 4), List.copyOf(index.findLargest(10).keySet()));
+    }
+
+    @Test
+    void findInRange_inclusiveBounds_returnsSmallestFirst() {
+        AmountIndex<Income> index = new AmountIndex<>(Income::getAmountEarnedCents);
+        for (long cents : new long[] {500L, 1200L, 500L, 9900L, 50L}) {
+            index.add(new Income("income", cents));
+        }
+
+        assertEquals(List.of(0, 2, 1), List.copyOf(index.findInRange(500L, 1200L).keySet()));
+        assertEquals(List.of(4), List.copyOf(index.findInRange(Long.MIN_VALUE, 499L).keySet()));
+        assertTrue(index.findInRange(1201L, 9899L).isEmpty());
+        assertTrue(index.findInRange(1200L, 500L).isEmpty());
+    }
+
+    @Test
+    void findLargest_afterRemoveReplaceAndUpdate_reportsCurrentIndicesAndAmounts() {
+        Income lunch = new Income("lunch", 500L);
+        Income edited = new Income("edited", 50L);
+        Income removed = new Income("removed", 9900L);
+        Income replacement = new Income("replacement", 700L);
+        AmountIndex<Income> index = new AmountIndex<>(Income::getAmountEarnedCents);
+        index.add(lunch);
+        index.add(new Income("salary", 1200L));
+        index.add(new Income("refund", 500L));
+        index.add(removed);
+        index.add(edited);
+
+        index.remove(removed);
+        index.replace(lunch, replacement);
+        edited.setAmountEarnedCents(2000L);
+        index.update(edited);
+
+        assertEquals(List.of(3, 1, 0, 2), List.copyOf(index.findLargest(4).keySet()));
+    }
+
+    @Test
+    void findLargest_manyAdditionsAndRemovals_matchesFullSort() {
+        List<Income> incomes = new ArrayList<>();
+        AmountIndex<Income> index = new AmountIndex<>(Income::getAmountEarnedCents);
+        for (int i = 0; i < 200; i++) {
+            Income income = new Income("income", (i * 37L) % 101);
+            incomes.add(income);
+            index.add(income);
+            if (i % 4 == 0) {
+                index.remove(incomes.remove(incomes.size() / 2));
+            }
+        }
+        List<Income> sorted = new ArrayList<>(incomes);
+        sorted.sort(Comparator.comparingLong(Income::getAmountEarnedCents).reversed());
+
+        Map<Integer, Income> largest = index.findLargest(20);
+        List<Income> largestRecords = List.copyOf(largest.values());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(sorted.get(i).getAmountEarnedCents(), largestRecords.get(i).getAmountEarnedCents());
+        }
+        for (Map.Entry<Integer, Income> record : largest.entrySet()) {
+            assertTrue(incomes.get(record.getKey()) == record.getValue());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package finsight.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import finsight.investment.Investment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the records {@link DayOfMonthIndex} finds due on a date or within a range of dates,
+ * including days a short month does not have.
+ *
+ * @see DayOfMonthIndex
+ */
+final class DayOfMonthIndexTest {
+    @Test
+    void findDueOn_dayWithRecords_returnsThemInListOrder() {
+        DayOfMonthIndex<Investment> index = new DayOfMonthIndex<>(Investment::getInvestmentDateOfMonth);
+        for (int day : new int[] {15, 31, 15}) {
+            index.add(new Investment("fund", 10000L, 5.0, day));
+        }
+
+        assertEquals(List.of(0, 2), List.copyOf(index.findDueOn(LocalDate.of(2026, 10, 15)).keySet()));
+        assertTrue(index.findDueOn(LocalDate.of(2026, 10, 16)).isEmpty());
+    }
+
+    @Test
+    void findDueOn_lastDayOfShortMonth_includesLaterDays() {
+        DayOfMonthIndex<Investment> index = new DayOfMonthIndex<>(Investment::getInvestmentDateOfMonth);
+        for (int day : new int[] {15, 31, 15, 29, 1}) {
+            index.add(new Investment("fund", 10000L, 5.0, day));
+        }
+
+        assertEquals(List.of(1), List.copyOf(index.findDueOn(LocalDate.of(2026, 4, 30)).keySet()));
+        assertEquals(List.of(1, 3), List.copyOf(index.findDueOn(LocalDate.of(2026, 2, 28)).keySet()));
+        assertEquals(List.of(1, 3), List.copyOf(index.findDueOn(LocalDate.of(2028, 2, 29)).keySet()));
+        assertTrue(index.findDueOn(LocalDate.of(2028, 2, 28)).isEmpty());
+    }
+
+    @Test
+    void findDueBetween_range_returnsDatesWithRecordsInOrder() {
+        DayOfMonthIndex<Investment> index = new DayOfMonthIndex<>(Investment::getInvestmentDateOfMonth);
+        for (int day : new int[] {15, 31, 15, 29, 1}) {
+            index.add(new Investment("fund", 10000L, 5.0, day));
+        }
+
+        Map<LocalDate, Map<Integer, Investment>> due = index.findDueBetween(LocalDate.of(2026, 10, 29),
+                LocalDate.of(2026, 11, 2));
+
+        assertEquals(List.of(LocalDate.of(2026, 10, 29), LocalDate.of(2026, 10, 31), LocalDate.of(2026, 11, 1)),
+                List.copyOf(due.keySet()));
+        assertEquals(List.of(4), List.copyOf(due.get(LocalDate.of(2026, 11, 1)).keySet()));
+    }
+
+    @Test
+    void remove_removedRecord_notDueAndLaterIndexesShift() {
+        Investment removed = new Investment("bond", 10000L, 5.0, 15);
+        DayOfMonthIndex<Investment> index = new DayOfMonthIndex<>(Investment::getInvestmentDateOfMonth);
+        index.add(removed);
+        index.add(new Investment("fund", 10000L, 5.0, 31));
+        index.add(new Investment("etf", 10000L, 5.0, 15));
+
+        index.remove(removed);
+
+        assertEquals(List.of(1), List.copyOf(index.findDueOn(LocalDate.of(2026, 10, 15)).keySet()));
+    }
+}
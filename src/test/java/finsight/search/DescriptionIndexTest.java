@@ -0,0 +1,91 @@
+package finsight.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import finsight.expense.Expense;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the word prefix search of {@link DescriptionIndex}.
+ *
+ * <p>The suite verifies:
+ * <ul>
+ *   <li>Splitting descriptions into lower-case words.</li>
+ *   <li>Matching records with a word starting with every search term.</li>
+ *   <li>Numbering matches by their current index in the list after removals and replacements.</li>
+ * </ul>
+ * </p>
+ *
+ * @see DescriptionIndex
+ */
+final class DescriptionIndexTest {
+    @Test
+    void tokenize_mixedCaseAndPunctuation_returnsLowerCaseWords() {
+        assertEquals(List.of("grab", "food", "2", "日本"), DescriptionIndex.tokenize(" Grab-FOOD #2 日本!"));
+    }
+
+    @Test
+    void findByIndex_prefixTerm_matchesAllWordsWithPrefix() {
+        DescriptionIndex<Expense> index = new DescriptionIndex<>(Expense::getDescription);
+        for (String description : List.of("Grab to work", "Rent (March)", "grab-food lunch", "Renovation")) {
+            index.add(new Expense(description, 100L));
+        }
+
+        assertEquals(List.of(1, 3), List.copyOf(index.findByIndex("ren").keySet()));
+    }
+
+    @Test
+    void findByIndex_severalTerms_matchesOnlyRecordsWithEveryTerm() {
+        DescriptionIndex<Expense> index = new DescriptionIndex<>(Expense::getDescription);
+        for (String description : List.of("Grab to work", "Rent (March)", "grab-food lunch", "Renovation")) {
+            index.add(new Expense(description, 100L));
+        }
+
+        assertEquals(List.of(2), List.copyOf(index.findByIndex("GRAB fo").keySet()));
+        assertTrue(index.findByIndex("grab rent").isEmpty());
+        assertTrue(index.findByIndex("!!").isEmpty());
+    }
+
+    @Test
+    void findByIndex_afterRemoveAndReplace_reportsCurrentIndices() {
+        Expense removed = new Expense("Grab to work", 100L);
+        Expense replaced = new Expense("Rent (March)", 100L);
+        Expense replacement = new Expense("Grab home", 100L);
+        DescriptionIndex<Expense> index = new DescriptionIndex<>(Expense::getDescription);
+        index.add(removed);
+        index.add(replaced);
+        index.add(new Expense("grab-food lunch", 100L));
+        index.add(new Expense("Renovation", 100L));
+
+        index.remove(removed);
+        index.replace(replaced, replacement);
+
+        assertEquals(List.of(0, 1), List.copyOf(index.findByIndex("grab").keySet()));
+        assertEquals(List.of(2), List.copyOf(index.findByIndex("ren").keySet()));
+    }
+
+    @Test
+    void findByIndex_manyAdditionsAndRemovals_keepsListOrder() {
+        List<Expense> expenses = new ArrayList<>();
+        DescriptionIndex<Expense> index = new DescriptionIndex<>(Expense::getDescription);
+        for (int i = 0; i < 100; i++) {
+            Expense expense = new Expense("taxi " + i, 100L);
+            expenses.add(expense);
+            index.add(expense);
+            if (i % 3 == 0 && expenses.size() > 1) {
+                index.remove(expenses.remove(expenses.size() - 2));
+            }
+        }
+
+        Map<Integer, Expense> matches = index.findByIndex("taxi");
+        for (Map.Entry<Integer, Expense> match : matches.entrySet()) {
+            assertTrue(expenses.get(match.getKey()) == match.getValue());
+        }
+        assertEquals(expenses.size(), matches.size());
+    }
+}
@@ -0,0 +1,65 @@
+package finsight.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void getValueAtPercentile_emptyHistogram_returnZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(0.99));
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void getValueAtPercentile_smallValues_returnExactValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 4; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(4, histogram.getCount());
+        assertEquals(2, histogram.getValueAtPercentile(0.50));
+        assertEquals(4, histogram.getValueAtPercentile(0.99));
+        assertEquals(4, histogram.getMax());
+    }
+
+    @Test
+    void getValueAtPercentile_largeValues_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        long median = histogram.getValueAtPercentile(0.50);
+        long tail = histogram.getValueAtPercentile(0.99);
+        assertTrue(median >= 500_000 && median <= 500_000 * 1.125, "p50 was " + median);
+        assertTrue(tail >= 990_000 && tail <= 1_000_000, "p99 was " + tail);
+        assertEquals(1_000_000, histogram.getMax());
+    }
+
+    @Test
+    void record_negativeValue_recordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(1.0));
+    }
+
+    @Test
+    void upperBoundOf_everyBucket_containsItsValues() {
+        for (long value : new long[] {0, 7, 8, 15, 16, 1023, 1024, 123_456_789L, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndexOf(value);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= value, "bucket too small for " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(index - 1) < value, "bucket too large for " + value);
+            }
+        }
+    }
+}
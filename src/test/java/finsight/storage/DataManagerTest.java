@@ -1,9 +1,16 @@
 package finsight.storage;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import finsight.expense.Expense;
+import finsight.stats.IoOperation;
+import finsight.stats.PerformanceStats;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -11,10 +18,19 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.Closeable;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Unit tests for the {@link DataManager} abstract class using the
@@ -85,7 +101,7 @@ final class DataManagerTest {
         testDataManager.appendToFile(new TestRecord("third|pipe"));
 
         var records = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
-        assertEquals(List.of("first", "second", "third%7Cpipe"), records);
+        assertEquals(List.of("#FINSIGHT v1 fields=1 records=0000000003", "first", "second", "third%7Cpipe"), records);
     }
 
     /**
@@ -153,6 +169,34 @@ final class DataManagerTest {
         }
     }
 
+    /**
+     * Verifies that {@link DataManager#tryLoad(java.util.function.Consumer)} passes
+     * load errors to the given handler in line order instead of printing them.
+     *
+     * @throws IOException if an I/O error occurs while writing the temporary data file
+     */
+    @Test
+    void tryLoad_withErrorHandler_collectsErrorsWithoutPrinting() throws IOException {
+        Files.writeString(dataFile, "Null\nok|ok\n___PARSE_ERROR___|error\n", StandardCharsets.UTF_8);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+
+        try {
+            List<String> loadErrors = new ArrayList<>();
+            var records = testDataManager.tryLoad(loadErrors::add);
+
+            assertEquals(1, records.size());
+            assertEquals(3, loadErrors.size());
+            assertTrue(loadErrors.get(0).startsWith("Skipping malformed record (missing fields) at line 1"));
+            assertTrue(loadErrors.get(1).startsWith("Skipping corrupted record at line 3"));
+            assertTrue(loadErrors.get(2).startsWith("Skipped 2 record(s) in " + dataFile));
+            assertEquals("", outputStream.toString());
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
     /**
      * Verifies that {@link DataManager#tryLoad()} loads only valid records
      * when encountering partially corrupted data files.
@@ -187,6 +231,637 @@ final class DataManagerTest {
 
         nestedTestDataManager.writeToFile(List.of(new TestRecord("x")));
         assertTrue(Files.exists(nestedPath));
-        assertEquals(List.of("x"), Files.readAllLines(nestedPath, StandardCharsets.UTF_8));
+        assertEquals(List.of("#FINSIGHT v1 fields=1 records=0000000001", "x"),
+                Files.readAllLines(nestedPath, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifies that a data file written with compression on is gzip-compressed
+     * and holds the formatted records.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void writeToFile_compressed_writesGzip() throws IOException {
+        testDataManager.setCompressed(true);
+        testDataManager.writeToFile(List.of(new TestRecord("a"), new TestRecord("b|c")));
+
+        assertTrue(DataManager.isCompressedFile(dataFile));
+        assertEquals(List.of("#FINSIGHT v1 fields=1 records=0000000002", "a", "b%7Cc"), readCompressedLines(dataFile));
+    }
+
+    /**
+     * Ensures that appending to a compressed data file keeps it compressed even when
+     * compression is off, adding the record after the earlier ones.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void appendToFile_compressedFile_staysCompressed() throws IOException {
+        testDataManager.setCompressed(true);
+        testDataManager.writeToFile(List.of(new TestRecord("a")));
+
+        new TestDataManager(dataFile).appendToFile(new TestRecord("b"));
+
+        assertTrue(DataManager.isCompressedFile(dataFile));
+        assertEquals(List.of("#FINSIGHT v1 fields=1 records=0000000001", "a", "b"), readCompressedLines(dataFile));
+    }
+
+    /**
+     * Verifies that a compressed data file is detected and inflated when loaded,
+     * whether compression is on or not.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_compressedFile_inflatesRecords() throws IOException {
+        Files.write(dataFile, compress("ok|1\nok|2\n"));
+
+        var records = testDataManager.tryLoad();
+        assertEquals(2, records.size());
+        assertEquals("ok|2", records.get(1).testValue);
+    }
+
+    /**
+     * Ensures that turning compression on does not stop a plain data file from loading,
+     * and that it stays plain until it is rewritten.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_plainFileWithCompressionOn_readsPlainText() throws IOException {
+        Files.writeString(dataFile, "ok|1\n", StandardCharsets.UTF_8);
+        testDataManager.setCompressed(true);
+
+        assertEquals(1, testDataManager.tryLoad().size());
+        testDataManager.appendToFile(new TestRecord("b"));
+        assertFalse(DataManager.isCompressedFile(dataFile));
+        assertEquals(List.of("ok|1", "b"), Files.readAllLines(dataFile, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifies that a compressed data file cut short at the end, as by a crash while
+     * appending, still loads the records before the damaged part and reports it.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_truncatedCompressedFile_keepsEarlierRecords() throws IOException {
+        byte[] lastMember = compress("ok|3\n");
+        Files.write(dataFile, compress("ok|1\nok|2\n"));
+        Files.write(dataFile, Arrays.copyOf(lastMember, lastMember.length - 4), StandardOpenOption.APPEND);
+
+        List<String> loadErrors = new ArrayList<>();
+        var records = testDataManager.tryLoad(loadErrors::add);
+
+        assertTrue(records.size() >= 2);
+        assertEquals("ok|2", records.get(1).testValue);
+        assertEquals(1, loadErrors.size());
+        assertTrue(loadErrors.get(0).startsWith("Skipping unreadable compressed data after line"));
+    }
+
+    /**
+     * Verifies that the damaged last member of a compressed data file is copied byte for byte
+     * and the file saved again without it, so that a record appended afterwards is read on the next load.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_truncatedCompressedFile_copiedAndRewrittenSoAppendsLoad() throws IOException {
+        ExpenseDataManager writer = new ExpenseDataManager(dataFile.toString());
+        writer.setCompressed(true);
+        writer.writeToFile(List.of(new Expense("lunch", 1250), new Expense("dinner", 2000)));
+        byte[] lastMember = compress("taxi|5.00|\n");
+        byte[] damagedMember = Arrays.copyOf(lastMember, lastMember.length / 2);
+        Files.write(dataFile, damagedMember, StandardOpenOption.APPEND);
+
+        List<String> loadErrors = new ArrayList<>();
+        ExpenseDataManager expenseDataManager = new ExpenseDataManager(dataFile.toString());
+        assertEquals(2, expenseDataManager.tryLoad(loadErrors::add).size());
+        expenseDataManager.appendToFile(new Expense("snack", 300));
+        List<Expense> reloaded = new ExpenseDataManager(dataFile.toString()).tryLoad(loadErrors::add);
+
+        assertEquals(1, loadErrors.size());
+        assertEquals(List.of("lunch", "dinner", "snack"), reloaded.stream().map(Expense::getDescription).toList());
+        assertArrayEquals(damagedMember, Files.readAllBytes(tempDir.resolve("TestFile.txt.corrupt")));
+    }
+
+    /**
+     * Ensures that nothing is appended after a damaged compressed member until the data file
+     * has been rewritten, since the appended records could never be read back.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void appendToFile_damagedCompressedFileNotRewritten_throwsUntilRewritten() throws IOException {
+        testDataManager.setCompressed(true);
+        byte[] lastMember = compress("ok|3\n");
+        Files.write(dataFile, compress("ok|1\nok|2\n"));
+        Files.write(dataFile, Arrays.copyOf(lastMember, lastMember.length / 2), StandardOpenOption.APPEND);
+        Path blockedTemp = Files.createDirectory(tempDir.resolve("TestFile.txt.temp"));
+        List<String> loadErrors = new ArrayList<>();
+        List<TestRecord> records = testDataManager.tryLoad(loadErrors::add);
+        long damagedSize = Files.size(dataFile);
+
+        assertEquals(2, loadErrors.size());
+        assertThrows(IOException.class, () -> testDataManager.appendToFile(new TestRecord("ok|4")));
+        assertEquals(damagedSize, Files.size(dataFile));
+
+        Files.delete(blockedTemp);
+        testDataManager.writeToFile(records);
+        testDataManager.appendToFile(new TestRecord("ok|4"));
+
+        assertEquals(4, readCompressedLines(dataFile).size());
+    }
+
+    /**
+     * Verifies that records another program appends to a loaded data file are read from the
+     * end of the file alone, numbered from the line after the last one read, and that a last
+     * line still being written is left for the next read.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void pollExternalChanges_appendedLines_readsOnlyNewRecords() throws IOException {
+        Files.writeString(dataFile, "ok|1\nok|2\n", StandardCharsets.UTF_8);
+        testDataManager.tryLoad();
+        Files.writeString(dataFile, "___PARSE_ERROR___|3\nok|4\nok|", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+        testDataManager.markExternallyChanged();
+
+        List<String> errors = new ArrayList<>();
+        DataFileChange<TestRecord> change = testDataManager.pollExternalChanges(errors::add);
+
+        assertNotNull(change);
+        assertFalse(change.isReload());
+        assertEquals(1, change.getRecords().size());
+        assertEquals("ok|4", change.getRecords().get(0).testValue);
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).startsWith("Skipping corrupted record at line 3"));
+        assertTrue(errors.get(1).startsWith("Skipped 1 record(s) in " + dataFile));
+
+        Files.writeString(dataFile, "5\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        testDataManager.markExternallyChanged();
+        change = testDataManager.pollExternalChanges(errors::add);
+
+        assertNotNull(change);
+        assertEquals("ok|5", change.getRecords().get(0).testValue);
+    }
+
+    /**
+     * Verifies that a data file that shrank since it was loaded is reloaded in full.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void pollExternalChanges_shrunkFile_reloads() throws IOException {
+        Files.writeString(dataFile, "ok|1\nok|2\n", StandardCharsets.UTF_8);
+        testDataManager.tryLoad();
+        Files.writeString(dataFile, "ok|3\n", StandardCharsets.UTF_8);
+        testDataManager.markExternallyChanged();
+
+        DataFileChange<TestRecord> change = testDataManager.pollExternalChanges(message -> { });
+
+        assertNotNull(change);
+        assertTrue(change.isReload());
+        assertEquals(1, change.getRecords().size());
+        assertEquals("ok|3", change.getRecords().get(0).testValue);
+    }
+
+    /**
+     * Verifies that records appended by the data manager itself are not read back as changes.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void pollExternalChanges_ownAppend_returnsNull() throws IOException {
+        Files.writeString(dataFile, "ok|1\n", StandardCharsets.UTF_8);
+        testDataManager.tryLoad();
+        testDataManager.appendToFile(new TestRecord("ok|2"));
+        testDataManager.markExternallyChanged();
+
+        assertNull(testDataManager.pollExternalChanges(message -> { }));
+    }
+
+    /**
+     * Verifies that rewriting the data file keeps the lines another program appended since it
+     * was loaded, and that the file is then reloaded so that they appear in memory.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void writeToFile_unseenAppendedLines_keepsThemAndReloads() throws IOException {
+        Files.writeString(dataFile, "ok|1\n", StandardCharsets.UTF_8);
+        testDataManager.tryLoad();
+        Files.writeString(dataFile, "ok|2\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        testDataManager.writeToFile(List.of(new TestRecord("first")));
+        List<String> lines = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
+        DataFileChange<TestRecord> change = testDataManager.pollExternalChanges(message -> { });
+
+        assertEquals(3, lines.size());
+        assertEquals("#FINSIGHT v1 fields=1 records=0000000002", lines.get(0));
+        assertEquals("first", lines.get(1));
+        assertTrue(lines.get(2).startsWith("ok"));
+        assertNotNull(change);
+        assertTrue(change.isReload());
+    }
+
+    /**
+     * Verifies that a load reports only the first few skipped lines and a summary, moves every
+     * skipped line to the quarantine file with its line number and reason, and rewrites the
+     * data file without them.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_manyCorruptedLines_capsReportAndQuarantinesAll() throws IOException {
+        StringBuilder data = new StringBuilder("ok|1\n");
+        for (int i = 0; i < 20; i++) {
+            data.append("___PARSE_ERROR___|").append(i).append('\n');
+        }
+        Files.writeString(dataFile, data.toString(), StandardCharsets.UTF_8);
+
+        List<String> loadErrors = new ArrayList<>();
+        var records = testDataManager.tryLoad(loadErrors::add);
+        List<String> quarantined = Files.readAllLines(tempDir.resolve("TestFile.txt.quarantine"));
+
+        assertEquals(1, records.size());
+        assertEquals(6, loadErrors.size());
+        assertTrue(loadErrors.get(5).startsWith("Skipped 20 record(s) in " + dataFile + ", the first 5 shown"));
+        assertEquals(21, quarantined.size());
+        assertEquals("2|Forced Parse error|___PARSE_ERROR___|0", quarantined.get(1));
+        assertEquals("21|Forced Parse error|___PARSE_ERROR___|19", quarantined.get(20));
+        assertEquals(List.of("#FINSIGHT v1 fields=1 records=0000000001", "ok%7C1"),
+                Files.readAllLines(dataFile, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifies that a corrupted line read once from the end of the file and then again by a full
+     * load is quarantined only once.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_lineAlreadyQuarantined_isNotQuarantinedAgain() throws IOException {
+        Files.writeString(dataFile, "ok|1\n", StandardCharsets.UTF_8);
+        testDataManager.tryLoad();
+        Files.writeString(dataFile, "___PARSE_ERROR___|2\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        testDataManager.markExternallyChanged();
+        testDataManager.pollExternalChanges(message -> { });
+
+        testDataManager.tryLoad(message -> { });
+
+        assertEquals(2, Files.readAllLines(tempDir.resolve("TestFile.txt.quarantine")).size());
+    }
+
+    /**
+     * Verifies that identical corrupted lines are each quarantined, so that none is lost when
+     * the data file is rewritten without them, and all of them are recovered by a repair.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_identicalCorruptedLines_quarantinesEach() throws IOException {
+        Files.writeString(dataFile, "ok|1\nNull\nNull\n", StandardCharsets.UTF_8);
+
+        var records = testDataManager.tryLoad(message -> { });
+
+        assertEquals(1, records.size());
+        Path quarantineFile = tempDir.resolve("TestFile.txt.quarantine");
+        assertEquals(List.of("2|missing fields|Null", "3|missing fields|Null"),
+                Files.readAllLines(quarantineFile, StandardCharsets.UTF_8).subList(1, 3));
+
+        Files.writeString(quarantineFile, "2||Null|fixed\n3||Null|fixed\n", StandardCharsets.UTF_8);
+        assertEquals(2, testDataManager.repairQuarantine(records).getRecords().size());
+    }
+
+    /**
+     * Verifies that a repair saves the quarantined records that can now be parsed after the
+     * records in memory, and keeps the rest quarantined.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void repairQuarantine_oneLineFixed_recoversItAndKeepsTheRest() throws IOException {
+        Files.writeString(dataFile, "ok|1\n___PARSE_ERROR___|2\nNull\n", StandardCharsets.UTF_8);
+        var records = testDataManager.tryLoad(message -> { });
+        Path quarantineFile = tempDir.resolve("TestFile.txt.quarantine");
+        Files.writeString(quarantineFile, Files.readString(quarantineFile).replace("___PARSE_ERROR___|2", "fixed|2"));
+
+        QuarantineRepair<TestRecord> repair = testDataManager.repairQuarantine(records);
+        List<String> quarantined = Files.readAllLines(quarantineFile);
+
+        assertEquals(1, repair.getRecords().size());
+        assertEquals("fixed|2", repair.getRecords().get(0).testValue);
+        assertEquals(1, repair.getRemainingCount());
+        assertEquals(List.of("#FINSIGHT v1 fields=1 records=0000000002", "ok%7C1", "fixed%7C2"),
+                Files.readAllLines(dataFile, StandardCharsets.UTF_8));
+        assertEquals(2, quarantined.size());
+        assertEquals("3|missing fields|Null", quarantined.get(1));
+    }
+
+    /**
+     * Verifies that a repair with no quarantine file changes nothing.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void repairQuarantine_noQuarantineFile_returnsEmptyRepair() throws IOException {
+        Files.writeString(dataFile, "ok|1\n", StandardCharsets.UTF_8);
+        var records = testDataManager.tryLoad();
+
+        QuarantineRepair<TestRecord> repair = testDataManager.repairQuarantine(records);
+
+        assertTrue(repair.isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("TestFile.txt.quarantine")));
+    }
+
+    /**
+     * Verifies that a data file without a header is parsed with the tolerant parser and gains
+     * a header, with the record count, the next time it is rewritten.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_legacyFileWithoutHeader_gainsHeaderOnRewrite() throws IOException {
+        Files.writeString(dataFile, "ok|1\nok|2\n", StandardCharsets.UTF_8);
+
+        var records = testDataManager.tryLoad();
+        assertEquals(2, records.size());
+        assertEquals("ok|1", Files.readAllLines(dataFile, StandardCharsets.UTF_8).get(0));
+
+        testDataManager.writeToFile(records);
+        List<String> lines = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
+
+        assertEquals(List.of("#FINSIGHT v1 fields=1 records=0000000002", "ok%7C1", "ok%7C2"), lines);
+    }
+
+    /**
+     * Verifies that appending to a plain data file with a header updates its record count in place.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void appendToFile_fileWithHeader_updatesRecordCount() throws IOException {
+        testDataManager.writeToFile(List.of(new TestRecord("a")));
+        testDataManager.appendAllToFile(List.of(new TestRecord("b"), new TestRecord("c")));
+
+        assertEquals(List.of("#FINSIGHT v1 fields=1 records=0000000003", "a", "b", "c"),
+                Files.readAllLines(dataFile, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifies that the records after a current header are parsed, and that line numbers in
+     * load errors count the header.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_currentHeader_parsesRecordsAfterIt() throws IOException {
+        Files.writeString(dataFile, "#FINSIGHT v1 fields=1 records=0000000002\nok|1\n___PARSE_ERROR___|2\n",
+                StandardCharsets.UTF_8);
+
+        List<String> loadErrors = new ArrayList<>();
+        var records = testDataManager.tryLoad(loadErrors::add);
+
+        assertEquals(1, records.size());
+        assertEquals("ok|1", records.get(0).testValue);
+        assertTrue(loadErrors.get(0).startsWith("Skipping corrupted record at line 3"));
+    }
+
+    /**
+     * Verifies that a header from a newer format version is skipped rather than quarantined,
+     * and that the records after it are parsed with the tolerant parser.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_newerHeaderVersion_skipsHeaderAndParsesRecords() throws IOException {
+        Files.writeString(dataFile, "#FINSIGHT v9 fields=7 records=0000000001\nok|1\n", StandardCharsets.UTF_8);
+
+        List<String> loadErrors = new ArrayList<>();
+        var records = testDataManager.tryLoad(loadErrors::add);
+
+        assertEquals(1, records.size());
+        assertTrue(loadErrors.isEmpty());
+    }
+
+    /**
+     * Verifies that each durability policy is parsed regardless of case and surrounding spaces.
+     */
+    @Test
+    void parse_durabilityPolicies_roundTripThroughToString() {
+        assertEquals(DurabilityPolicy.NONE, DurabilityPolicy.parse("none"));
+        assertEquals(DurabilityPolicy.ON_CLOSE, DurabilityPolicy.parse(" On-Close "));
+        assertEquals(DurabilityPolicy.PER_COMMAND, DurabilityPolicy.parse("per-command"));
+        assertEquals("interval:250", DurabilityPolicy.parse("interval:250").toString());
+    }
+
+    /**
+     * Verifies that unknown policies and intervals that are not positive whole numbers are rejected.
+     */
+    @Test
+    void parse_invalidDurabilityPolicy_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> DurabilityPolicy.parse("always"));
+        assertThrows(IllegalArgumentException.class, () -> DurabilityPolicy.parse("interval:soon"));
+        assertThrows(IllegalArgumentException.class, () -> DurabilityPolicy.parse("interval:0"));
+    }
+
+    /**
+     * Verifies that under {@code per-command} every rewrite and append is forced before it returns,
+     * leaving nothing for {@link DataManager#forceWrites()} to do.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void writeToFile_perCommandDurability_forcesEveryWrite() throws IOException {
+        testDataManager.setDurability(DurabilityPolicy.PER_COMMAND);
+        long forcesBefore = forceCount();
+
+        testDataManager.writeToFile(List.of(new TestRecord("first")));
+        testDataManager.appendToFile(new TestRecord("second"));
+
+        assertEquals(forcesBefore + 2, forceCount());
+        testDataManager.forceWrites();
+        assertEquals(forcesBefore + 2, forceCount());
+    }
+
+    /**
+     * Verifies that under {@code on-close} writes are left unforced until
+     * {@link DataManager#forceWrites()}, which forces them all at once.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void forceWrites_onCloseDurability_forcesPendingWritesOnce() throws IOException {
+        testDataManager.setDurability(DurabilityPolicy.ON_CLOSE);
+        long forcesBefore = forceCount();
+
+        testDataManager.writeToFile(List.of(new TestRecord("first")));
+        testDataManager.appendToFile(new TestRecord("second"));
+        assertEquals(forcesBefore, forceCount());
+
+        testDataManager.forceWrites();
+        testDataManager.forceWrites();
+        assertEquals(forcesBefore + 1, forceCount());
+    }
+
+    /**
+     * Verifies that under {@code interval:<ms>} writes are forced by the background thread once
+     * the interval has passed, with one force covering both writes.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     * @throws InterruptedException if interrupted while waiting for the force
+     */
+    @Test
+    void appendToFile_intervalDurability_forcedInBackground() throws IOException, InterruptedException {
+        testDataManager.setDurability(DurabilityPolicy.interval(10));
+        long forcesBefore = forceCount();
+
+        testDataManager.writeToFile(List.of(new TestRecord("first")));
+        testDataManager.appendToFile(new TestRecord("second"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (forceCount() == forcesBefore && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(forcesBefore + 1, forceCount());
+    }
+
+    /**
+     * Verifies that a file replaced by another instance's rewrite is picked up by
+     * {@link DataManager#checkForChanges()} without the watcher, and read again in full.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void checkForChanges_fileRewrittenByAnotherInstance_reloads() throws IOException {
+        Files.writeString(dataFile, "ok|1\n", StandardCharsets.UTF_8);
+        testDataManager.tryLoad();
+        Path replacement = tempDir.resolve("replacement.txt");
+        Files.writeString(replacement, "ok|2\nok|3\n", StandardCharsets.UTF_8);
+        Files.move(replacement, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        testDataManager.checkForChanges();
+        DataFileChange<TestRecord> change = testDataManager.pollExternalChanges(message -> { });
+
+        assertNotNull(change);
+        assertTrue(change.isReload());
+        assertEquals(2, change.getRecords().size());
+    }
+
+    /**
+     * Verifies that {@link DataManager#checkForChanges()} does not flag a file that only this
+     * data manager has written to.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void checkForChanges_unchangedFile_nothingToPoll() throws IOException {
+        testDataManager.tryLoad();
+        testDataManager.appendToFile(new TestRecord("ok|1"));
+
+        testDataManager.checkForChanges();
+
+        assertNull(testDataManager.pollExternalChanges(message -> { }));
+    }
+
+    /**
+     * Verifies that a load made while another process holds the append lock leaves the
+     * incomplete last line for the next read instead of quarantining it.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void tryLoad_appendInProgress_leavesIncompleteLastLine() throws IOException {
+        Files.writeString(dataFile, "ok|1\nok|", StandardCharsets.UTF_8);
+        List<String> errors = new ArrayList<>();
+        try (FileChannel lockChannel = FileChannel.open(tempDir.resolve("TestFile.txt" + DataFileLock.SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock appendLock = lockChannel.lock(1, 1, false);
+            try {
+                assertEquals(1, testDataManager.tryLoad(errors::add).size());
+            } finally {
+                appendLock.release();
+            }
+        }
+        assertTrue(errors.isEmpty());
+
+        Files.writeString(dataFile, "2\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        testDataManager.markExternallyChanged();
+        DataFileChange<TestRecord> change = testDataManager.pollExternalChanges(errors::add);
+
+        assertNotNull(change);
+        assertEquals("ok|2", change.getRecords().get(0).testValue);
+    }
+
+    /**
+     * Verifies that a rewrite waits until a read holding the lock on the data file is done.
+     *
+     * @throws Exception if the rewrite fails or the wait is interrupted
+     */
+    @Test
+    void writeToFile_readLockHeld_waitsForRelease() throws Exception {
+        testDataManager.tryLoad();
+        Thread writer = new Thread(() -> {
+            try {
+                new TestDataManager(dataFile).writeToFile(List.of(new TestRecord("ok|1")));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Closeable readLock = DataFileLock.of(dataFile).lockForRead();
+        try {
+            writer.start();
+            writer.join(200);
+            assertTrue(writer.isAlive());
+            assertEquals(0, Files.size(dataFile));
+        } finally {
+            readLock.close();
+        }
+        writer.join(5000);
+
+        assertFalse(writer.isAlive());
+        assertEquals(2, Files.readAllLines(dataFile, StandardCharsets.UTF_8).size());
+    }
+
+    /**
+     * Verifies that records appended after the size a data manager was restored at are read by
+     * {@link DataManager#checkForChanges()}, even though the file is not watched.
+     *
+     * @throws IOException if any I/O error occurs during file operations
+     */
+    @Test
+    void markRestored_recordsAppendedSince_readOnCheck() throws IOException {
+        Files.writeString(dataFile, "ok|1\n", StandardCharsets.UTF_8);
+        testDataManager.markRestored(Files.size(dataFile));
+        Files.writeString(dataFile, "ok|2\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        testDataManager.checkForChanges();
+        DataFileChange<TestRecord> change = testDataManager.pollExternalChanges(message -> { });
+
+        assertNotNull(change);
+        assertFalse(change.isReload());
+        assertEquals("ok|2", change.getRecords().get(0).testValue);
+        assertEquals(Files.size(dataFile), testDataManager.getSyncedBytes());
+    }
+
+    private static long forceCount() {
+        return PerformanceStats.getIoLatency(IoOperation.FORCE).getCount();
+    }
+
+    private static byte[] compress(String text) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static List<String> readCompressedLines(Path file) throws IOException {
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(gzipInputStream.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
     }
 }
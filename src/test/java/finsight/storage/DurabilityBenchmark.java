@@ -0,0 +1,109 @@
+package finsight.storage;
+
+import finsight.expense.Expense;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Measures how fast an {@link ExpenseDataManager} appends and rewrites under each
+ * {@link DurabilityPolicy}, for the table in section 2.21 of the developer guide.
+ *
+ * <p>Not a test, so it is left out of {@code gradlew test}. Run it after building the tests with:</p>
+ * <pre>
+ * java -cp build/classes/java/main:build/classes/java/test finsight.storage.DurabilityBenchmark
+ * </pre>
+ *
+ * <p>Each policy gets a fresh data file in a temporary directory holding {@value #RECORD_COUNT}
+ * expenses, which then takes {@value #APPEND_COUNT} appends of one expense and
+ * {@value #REWRITE_COUNT} rewrites of all of them, followed by the force made at {@code bye}.
+ * Every policy is measured {@value #ROUNDS} times, the first round warming up the JVM.</p>
+ */
+public class DurabilityBenchmark {
+    private static final String[] POLICIES = {"none", "on-close", "interval:1000", "per-command"};
+    private static final int RECORD_COUNT = 1000;
+    private static final int APPEND_COUNT = 2000;
+    private static final int REWRITE_COUNT = 200;
+    private static final int ROUNDS = 2;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * Runs the benchmark and prints the rates measured for each policy
+     *
+     * @param args unused
+     * @throws IOException if a data file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            expenses.add(new Expense("item " + i, 1225, LocalDate.of(2026, 10, 1)));
+        }
+        Path directory = Files.createTempDirectory("finsight-durability");
+        try {
+            for (int round = 1; round <= ROUNDS; round++) {
+                System.out.println("Round " + round);
+                for (String policy : POLICIES) {
+                    measure(directory.resolve("expense-" + policy.replace(':', '-') + ".txt"),
+                            DurabilityPolicy.parse(policy), expenses);
+                }
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Measures the appends, rewrites and final force of one policy on a fresh data file
+     *
+     * @param file     the data file, deleted first if it exists
+     * @param policy   the durability policy to measure
+     * @param expenses the expenses the data file holds
+     * @throws IOException if the data file cannot be written
+     */
+    private static void measure(Path file, DurabilityPolicy policy, List<Expense> expenses) throws IOException {
+        Files.deleteIfExists(file);
+        ExpenseDataManager dataManager = new ExpenseDataManager(file.toString());
+        dataManager.setDurability(policy);
+        dataManager.tryLoad();
+        dataManager.writeToFile(expenses);
+        Expense appended = expenses.get(0);
+
+        long appendStart = System.nanoTime();
+        for (int i = 0; i < APPEND_COUNT; i++) {
+            dataManager.appendToFile(appended);
+        }
+        long rewriteStart = System.nanoTime();
+        for (int i = 0; i < REWRITE_COUNT; i++) {
+            dataManager.writeToFile(expenses);
+        }
+        long forceStart = System.nanoTime();
+        dataManager.forceWrites();
+        long end = System.nanoTime();
+
+        System.out.printf("  %-14s appends/s %8.0f  rewrites/s %6.0f  final force %.1f ms%n", policy,
+                APPEND_COUNT * NANOS_PER_SECOND / (rewriteStart - appendStart),
+                REWRITE_COUNT * NANOS_PER_SECOND / (forceStart - rewriteStart),
+                (end - forceStart) / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Deletes a directory and everything in it
+     *
+     * @param directory the directory to delete
+     * @throws IOException if a file cannot be deleted
+     */
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package finsight.storage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import finsight.expense.Expense;
 import finsight.storage.exceptions.AmountPersistCorruptedException;
+import finsight.storage.exceptions.TransactionDatePersistCorruptedException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -15,6 +18,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -64,7 +68,7 @@ final class ExpenseDataManagerTest {
         Expense expense = new Expense("Poop|Food%", "1234.69");
 
         String record = dataManager.formatRecord(expense);
-        assertEquals("Poop%7CFood%25|1234.69", record);
+        assertEquals("Poop%7CFood%25|1234.69||0", record);
     }
 
     /**
@@ -78,7 +82,51 @@ final class ExpenseDataManagerTest {
 
         assertNotNull(expense);
         assertEquals("Poop|Food%", expense.getDescription());
-        assertEquals("1234.69", expense.getExpenseAmount().toString());
+        assertEquals(123469L, expense.getExpenseAmountCents());
+    }
+
+    @Test
+    void formatRecord_datedExpense_appendsDate() throws AmountPersistCorruptedException {
+        Expense expense = new Expense("Rent", 100000L, LocalDate.of(2026, 3, 1));
+
+        String record = dataManager.formatRecord(expense);
+        assertEquals("Rent|1000.00|01-03-2026|0", record);
+        assertEquals(LocalDate.of(2026, 3, 1), dataManager.parseRecord(record).getDate());
+    }
+
+    @Test
+    void parseRecord_legacyLineWithoutDate_hasNoDate() throws AmountPersistCorruptedException {
+        assertNull(dataManager.parseRecord("Rent|1000").getDate());
+    }
+
+    @Test
+    void parseCurrentRecord_emptyDateField_hasNoDate() throws AmountPersistCorruptedException {
+        Expense expense = dataManager.parseCurrentRecord("Rent|1000.00||0");
+        assertEquals(100000L, expense.getExpenseAmountCents());
+        assertNull(expense.getDate());
+    }
+
+    @Test
+    void formatRecord_deposit_keepsDepositFlag() throws AmountPersistCorruptedException {
+        Expense deposit = new Expense("Investment deposit: fund", 5000L, LocalDate.of(2026, 3, 1), true);
+
+        String record = dataManager.formatRecord(deposit);
+        assertEquals("Investment deposit: fund|50.00|01-03-2026|1", record);
+        assertTrue(dataManager.parseCurrentRecord(record).isDeposit());
+        assertFalse(dataManager.parseCurrentRecord("Investment deposit: fund|50.00|01-03-2026|0").isDeposit());
+        assertFalse(dataManager.parseRecord("Investment deposit: fund|50.00|01-03-2026").isDeposit());
+    }
+
+    @Test
+    void parseCurrentRecord_legacyLineWithoutDate_fallsBackToParseRecord() throws AmountPersistCorruptedException {
+        assertEquals(100000L, dataManager.parseCurrentRecord("Rent|1000").getExpenseAmountCents());
+        assertNull(dataManager.parseCurrentRecord("Rent"));
+    }
+
+    @Test
+    void parseExpense_throwsException_onInvalidDate() {
+        String record = "Rent|1000|31-02-2026";
+        assertThrows(TransactionDatePersistCorruptedException.class, () -> dataManager.parseRecord(record));
     }
 
     @Test
@@ -93,6 +141,12 @@ final class ExpenseDataManagerTest {
         assertThrows(AmountPersistCorruptedException.class, () -> dataManager.parseRecord(record));
     }
 
+    @Test
+    void parseExpense_throwsException_onFractionOfCentAmount() {
+        String record = "Expense|69.126";
+        assertThrows(AmountPersistCorruptedException.class, () -> dataManager.parseRecord(record));
+    }
+
     /**
      * Verifies that {@link ExpenseDataManager#parseRecord(String)} returns
      * {@code null} for invalid lines that do not contain the required field
@@ -123,8 +177,9 @@ final class ExpenseDataManagerTest {
 
         var records = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
         assertEquals(List.of(
-                "Eat%7CPoop|10.0",
-                "Poop Poop|20.0"
+                "#FINSIGHT v1 fields=4 records=0000000002",
+                "Eat%7CPoop|10.00||0",
+                "Poop Poop|20.00||0"
         ), records);
 
         ArrayList<Expense> expenses = dataManager.tryLoad();
@@ -132,10 +187,10 @@ final class ExpenseDataManagerTest {
 
         Expense expenseOne = expenses.get(0);
         assertEquals("Eat|Poop", expenseOne.getDescription());
-        assertEquals("10.0", expenseOne.getExpenseAmount().toString());
+        assertEquals(1000L, expenseOne.getExpenseAmountCents());
 
         Expense expenseTwo = expenses.get(1);
         assertEquals("Poop Poop", expenseTwo.getDescription());
-        assertEquals("20.0", expenseTwo.getExpenseAmount().toString());
+        assertEquals(2000L, expenseTwo.getExpenseAmountCents());
     }
 }
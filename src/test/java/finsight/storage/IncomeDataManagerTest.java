@@ -72,7 +72,7 @@ final class IncomeDataManagerTest {
         Income income = new Income("Pipe|Gig%7C", "1234.69");
 
         String record = dataManager.formatRecord(income);
-        assertEquals("Pipe%7CGig%257C|1234.69", record);
+        assertEquals("Pipe%7CGig%257C|1234.69|", record);
     }
 
     /**
@@ -90,7 +90,7 @@ final class IncomeDataManagerTest {
 
         assertNotNull(income);
         assertEquals("Food|Tip%7C", income.getDescription());
-        assertEquals(12.5f, income.getAmountEarned(), 1e-6f);
+        assertEquals(1250L, income.getAmountEarnedCents());
     }
 
     /**
@@ -147,8 +147,9 @@ final class IncomeDataManagerTest {
         // Verify on-disk lines (UTF-8, sanitized)
         var lines = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
         assertEquals(List.of(
-                "A%7CB|10.0",
-                "Monthly Salary|20.0"
+                "#FINSIGHT v1 fields=3 records=0000000002",
+                "A%7CB|10.00|",
+                "Monthly Salary|20.00|"
         ), lines);
 
         // Load back
@@ -157,10 +158,10 @@ final class IncomeDataManagerTest {
 
         Income first = incomes.get(0);
         assertEquals("A|B", first.getDescription());
-        assertEquals(10.0f, first.getAmountEarned(), 1e-6f);
+        assertEquals(1000L, first.getAmountEarnedCents());
 
         Income second = incomes.get(1);
         assertEquals("Monthly Salary", second.getDescription());
-        assertEquals(20.0f, second.getAmountEarned(), 1e-6f);
+        assertEquals(2000L, second.getAmountEarnedCents());
     }
 }
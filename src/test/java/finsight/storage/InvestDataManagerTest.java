@@ -72,7 +72,7 @@ final class InvestDataManagerTest {
         Investment investment = new Investment("Stock|Fund", "1000.50","1.00", "15");
 
         String record = dataManager.formatRecord(investment);
-        assertEquals("Stock%7CFund|1000.5|1.0|15", record);
+        assertEquals("Stock%7CFund|1000.50|1.0|15", record);
     }
 
     /**
@@ -91,7 +91,7 @@ final class InvestDataManagerTest {
 
         assertNotNull(investment);
         assertEquals("Crypto|Fund", investment.getDescription());
-        assertEquals(2000.75, investment.getInvestmentAmount());
+        assertEquals(200075L, investment.getInvestmentAmountCents());
         assertEquals(10, investment.getInvestmentDateOfMonth());
     }
 
@@ -151,7 +151,8 @@ final class InvestDataManagerTest {
 
         var lines = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
         assertEquals(List.of(
-                "ETF%7CMonthly|500.0|1.0|5",
+                "#FINSIGHT v1 fields=4 records=0000000002",
+                "ETF%7CMonthly|500.00|1.0|5",
                 "Bonds|1500.25|1.0|20"
         ), lines);
 
@@ -160,12 +161,12 @@ final class InvestDataManagerTest {
 
         Investment first = loaded.get(0);
         assertEquals("ETF|Monthly", first.getDescription());
-        assertEquals(500.0, first.getInvestmentAmount());
+        assertEquals(50000L, first.getInvestmentAmountCents());
         assertEquals(5, first.getInvestmentDateOfMonth());
 
         Investment second = loaded.get(1);
         assertEquals("Bonds", second.getDescription());
-        assertEquals(1500.25, second.getInvestmentAmount());
+        assertEquals(150025L, second.getInvestmentAmountCents());
         assertEquals(20, second.getInvestmentDateOfMonth());
     }
 
@@ -0,0 +1,119 @@
+package finsight.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the deferred loading of a ledger by {@link LedgerLoader}, using the
+ * {@link TestDataManager} concrete subclass.
+ *
+ * <p>The suite verifies that the data file is not read before it is needed, and that load
+ * errors and the load callback are delivered once, on the thread calling {@code get},
+ * whether or not the records were prefetched.</p>
+ *
+ * @see LedgerLoader
+ */
+final class LedgerLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path dataFile;
+    private List<String> loadErrors;
+    private List<Integer> loadedSizes;
+    private LedgerLoader<TestRecord> loader;
+
+    @BeforeEach
+    void setUp() {
+        dataFile = tempDir.resolve("TestFile.txt");
+        loadErrors = new ArrayList<>();
+        loadedSizes = new ArrayList<>();
+        loader = new LedgerLoader<>(new TestDataManager(dataFile), loadErrors::add,
+                records -> loadedSizes.add(records.size()));
+    }
+
+    /**
+     * Verifies that creating a loader does not touch the data file.
+     */
+    @Test
+    void constructor_beforeGet_doesNotReadFile() {
+        assertFalse(loader.isLoaded());
+        assertFalse(Files.exists(dataFile));
+    }
+
+    /**
+     * Verifies that the first {@link LedgerLoader#get()} loads the records and
+     * delivers errors and the load callback exactly once.
+     *
+     * @throws IOException if the test file cannot be written
+     */
+    @Test
+    void get_calledTwice_deliversErrorsAndCallbackOnce() throws IOException {
+        Files.writeString(dataFile, "a|a\n___PARSE_ERROR___|x\nb|b\n", StandardCharsets.UTF_8);
+
+        ArrayList<TestRecord> first = loader.get();
+        ArrayList<TestRecord> second = loader.get();
+
+        assertSame(first, second);
+        assertEquals(2, first.size());
+        assertEquals(2, loadErrors.size());
+        assertEquals(List.of(2), loadedSizes);
+    }
+
+    /**
+     * Verifies that a prefetched load is reused by {@link LedgerLoader#get()},
+     * and that its errors are only delivered once the records are requested.
+     *
+     * @throws IOException if the test file cannot be written
+     */
+    @Test
+    void prefetch_thenGet_deliversErrorsOnlyOnGet() throws IOException {
+        Files.writeString(dataFile, "a|a\n___PARSE_ERROR___|x\n", StandardCharsets.UTF_8);
+
+        loader.prefetch(Runnable::run);
+
+        assertTrue(loader.isLoaded());
+        assertTrue(loadErrors.isEmpty());
+        assertTrue(loadedSizes.isEmpty());
+
+        assertEquals(1, loader.get().size());
+        assertEquals(2, loadErrors.size());
+        assertEquals(List.of(1), loadedSizes);
+    }
+
+    /**
+     * Verifies that an action registered before loading runs on the loading thread, before
+     * the records are handed out, and that one registered afterwards runs straight away.
+     *
+     * @throws IOException if the test file cannot be written
+     */
+    @Test
+    void whenLoaded_registeredBeforeAndAfterPrefetch_runsWithLoadedRecords() throws IOException {
+        Files.writeString(dataFile, "a|a\nb|b\n", StandardCharsets.UTF_8);
+        List<Integer> seenSizes = new ArrayList<>();
+
+        loader.whenLoaded(records -> seenSizes.add(records.size()));
+        assertTrue(seenSizes.isEmpty());
+
+        loader.prefetch(Runnable::run);
+        assertEquals(List.of(2), seenSizes);
+        assertTrue(loadedSizes.isEmpty());
+
+        loader.whenLoaded(records -> seenSizes.add(records.size()));
+        assertEquals(List.of(2, 2), seenSizes);
+        assertEquals(2, loader.get().size());
+    }
+}
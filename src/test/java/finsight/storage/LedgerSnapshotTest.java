@@ -0,0 +1,135 @@
+package finsight.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import finsight.expense.Expense;
+import finsight.income.Income;
+import finsight.investment.Investment;
+import finsight.loan.Loan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tests writing and reading back a {@link LedgerSnapshot}.
+ *
+ * <p>The suite verifies:
+ * <ul>
+ *   <li>Round trip of every ledger and of the recorded source file sizes.</li>
+ *   <li>Rejection of a snapshot whose source files changed or grew since it was written.</li>
+ *   <li>Rejection of a corrupted or missing snapshot.</li>
+ * </ul>
+ * </p>
+ *
+ * @see LedgerSnapshot
+ */
+final class LedgerSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshotFile;
+    private List<Path> sourceFiles;
+    private LedgerSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        snapshotFile = tempDir.resolve("snapshot.bin");
+        sourceFiles = List.of(tempDir.resolve("expense.txt"), tempDir.resolve("loan.txt"));
+        for (Path sourceFile : sourceFiles) {
+            Files.writeString(sourceFile, "data\n", StandardCharsets.UTF_8);
+        }
+
+        LocalDateTime returnDate = LocalDateTime.of(2030, 12, 12, 19, 0);
+        snapshot = new LedgerSnapshot(
+                List.of(new Expense("Food|Drinks", 1250L), new Expense("日本", 10L, LocalDate.of(2026, 3, 1))),
+                List.of(new Income("Salary", 100025L, LocalDate.of(1969, 12, 31))),
+                List.of(new Investment("ETF", 10000L, 5.0, 15)),
+                List.of(new Loan("Car", 500000L, returnDate, true), new Loan("Bike", 2000L, returnDate, false)));
+    }
+
+    @Test
+    void tryRead_afterWrite_restoresAllLedgers() throws IOException {
+        snapshot.write(snapshotFile, sourceFiles, currentSizes());
+
+        LedgerSnapshot restored = LedgerSnapshot.tryRead(snapshotFile, sourceFiles);
+
+        assertNotNull(restored);
+        assertEquals(2, restored.getExpenses().size());
+        assertEquals("Food|Drinks", restored.getExpenses().get(0).getDescription());
+        assertEquals("日本", restored.getExpenses().get(1).getDescription());
+        assertEquals(10L, restored.getExpenses().get(1).getExpenseAmountCents());
+        assertNull(restored.getExpenses().get(0).getDate());
+        assertEquals(LocalDate.of(2026, 3, 1), restored.getExpenses().get(1).getDate());
+        assertEquals(100025L, restored.getIncomes().get(0).getAmountEarnedCents());
+        assertEquals(LocalDate.of(1969, 12, 31), restored.getIncomes().get(0).getDate());
+        assertEquals(15, restored.getInvestments().get(0).getInvestmentDateOfMonth());
+        assertEquals(snapshot.getInvestments().get(0).getInvestmentTenYearReturnsCents(),
+                restored.getInvestments().get(0).getInvestmentTenYearReturnsCents());
+        assertEquals(snapshot.getLoans().get(0).toString(), restored.getLoans().get(0).toString());
+        assertEquals(snapshot.getLoans().get(1).toString(), restored.getLoans().get(1).toString());
+    }
+
+    @Test
+    void tryRead_sourceFileChanged_returnsNull() throws IOException {
+        snapshot.write(snapshotFile, sourceFiles, currentSizes());
+        Files.writeString(sourceFiles.get(1), "more data\n", StandardCharsets.UTF_8);
+
+        assertNull(LedgerSnapshot.tryRead(snapshotFile, sourceFiles));
+    }
+
+    @Test
+    void tryRead_recordsAppendedBeforeSnapshot_returnsNull() throws IOException {
+        long[] syncedSizes = currentSizes();
+        Files.writeString(sourceFiles.get(0), "appended\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        snapshot.write(snapshotFile, sourceFiles, syncedSizes);
+
+        assertNull(LedgerSnapshot.tryRead(snapshotFile, sourceFiles));
+    }
+
+    @Test
+    void tryRead_afterWrite_returnsRecordedSizes() throws IOException {
+        snapshot.write(snapshotFile, sourceFiles, currentSizes());
+
+        LedgerSnapshot restored = LedgerSnapshot.tryRead(snapshotFile, sourceFiles);
+
+        assertNotNull(restored);
+        assertEquals(Files.size(sourceFiles.get(1)), restored.getSourceSize(1));
+    }
+
+    @Test
+    void tryRead_corruptedSnapshot_returnsNull() throws IOException {
+        snapshot.write(snapshotFile, sourceFiles, currentSizes());
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(snapshotFile, bytes);
+
+        assertNull(LedgerSnapshot.tryRead(snapshotFile, sourceFiles));
+    }
+
+    @Test
+    void tryRead_missingSnapshot_returnsNull() {
+        assertNull(LedgerSnapshot.tryRead(snapshotFile, sourceFiles));
+        assertTrue(Files.notExists(snapshotFile));
+    }
+
+    private long[] currentSizes() throws IOException {
+        long[] sizes = new long[sourceFiles.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = Files.size(sourceFiles.get(i));
+        }
+        return sizes;
+    }
+}
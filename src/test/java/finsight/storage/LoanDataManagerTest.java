@@ -93,13 +93,13 @@ final class LoanDataManagerTest {
     @Test
     void parseRecord_parseWellFormedLine_andSetsRepaidStatus()
             throws AmountPersistCorruptedException, DatePersistCorruptedException {
-        String record = "1|Eat%7CPoop|69.126|10-10-2025 23:59";
+        String record = "1|Eat%7CPoop|69.13|10-10-2025 23:59";
         Loan loan = dataManager.parseRecord(record);
 
         assertNotNull(loan);
         assertTrue(loan.isRepaid(), "Repaid flag '1' should set loan as repaid");
         assertEquals("Eat|Poop", loan.getDescription());
-        assertEquals("69.126", loan.getAmountLoaned().toString());
+        assertEquals(6913L, loan.getAmountLoanedCents());
         assertEquals("10-10-2025 23:59", loan.getLoanReturnDate().format(FORMATTER));
     }
 
@@ -116,7 +116,7 @@ final class LoanDataManagerTest {
         assertNotNull(loan);
         assertFalse(loan.isRepaid());
         assertEquals("Buy Poop", loan.getDescription());
-        assertEquals("200.0", loan.getAmountLoaned().toString());
+        assertEquals(20000L, loan.getAmountLoanedCents());
         assertEquals("10-10-2025 00:00", loan.getLoanReturnDate().format(FORMATTER));
     }
 
@@ -152,8 +152,9 @@ final class LoanDataManagerTest {
 
         var records = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
         assertEquals(List.of(
+                "#FINSIGHT v1 fields=4 records=0000000002",
                 "0|Buy%7CPoop|69.69|10-10-2025 23:59",
-                "1|Eat POOP|200.0|10-10-2025 12:21"
+                "1|Eat POOP|200.00|10-10-2025 12:21"
         ), records);
 
         var loaded = dataManager.tryLoad();
@@ -162,13 +163,13 @@ final class LoanDataManagerTest {
         Loan loanOne = loaded.get(0);
         assertFalse(loanOne.isRepaid());
         assertEquals("Buy|Poop",  loanOne.getDescription());
-        assertEquals("69.69", loanOne.getAmountLoaned().toString());
+        assertEquals(6969L, loanOne.getAmountLoanedCents());
         assertEquals("10-10-2025 23:59", loanOne.getLoanReturnDate().format(FORMATTER));
 
         Loan loanTwo = loaded.get(1);
         assertTrue(loanTwo.isRepaid());
         assertEquals("Eat POOP", loanTwo.getDescription());
-        assertEquals("200.0", loanTwo.getAmountLoaned().toString());
+        assertEquals(20000L, loanTwo.getAmountLoanedCents());
         assertEquals("10-10-2025 12:21", loanTwo.getLoanReturnDate().format(FORMATTER));
     }
 
@@ -188,8 +189,9 @@ final class LoanDataManagerTest {
 
         var records = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
         assertEquals(List.of(
-                "0|Poop Poop|1.0|10-10-2025 00:00",
-                "0|NOT ENOUGH POOP|0.0|10-10-2025 23:59"
+                "#FINSIGHT v1 fields=4 records=0000000002",
+                "0|Poop Poop|1.00|10-10-2025 00:00",
+                "0|NOT ENOUGH POOP|0.00|10-10-2025 23:59"
         ), records);
     }
 
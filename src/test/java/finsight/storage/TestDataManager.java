@@ -92,6 +92,16 @@ final class TestDataManager extends DataManager<TestRecord, Exception> {
         return new TestRecord(unsanitize(line));
     }
 
+    /**
+     * Returns the number of fields written, as the whole value is sanitized into one field.
+     *
+     * @return 1
+     */
+    @Override
+    protected int fieldCount() {
+        return 1;
+    }
+
     /**
      * Converts the given {@link TestRecord} into its sanitized string form
      * for writing to the data file.
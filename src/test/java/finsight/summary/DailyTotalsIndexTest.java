@@ -0,0 +1,87 @@
+package finsight.summary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the totals {@link DailyTotalsIndex} gives for ranges of days and months.
+ *
+ * <p>The suite verifies:
+ * <ul>
+ *   <li>Both ends of a range counted, and days outside it left out.</li>
+ *   <li>Partial first and last months in a monthly breakdown.</li>
+ *   <li>Totals kept current as records are added and removed, however far apart their dates.</li>
+ * </ul>
+ * </p>
+ *
+ * @see DailyTotalsIndex
+ */
+final class DailyTotalsIndexTest {
+    @Test
+    void getTotalCents_inclusiveBoundaries_includesFirstAndLastDay() {
+        DailyTotalsIndex index = new DailyTotalsIndex();
+        index.add(LocalDate.of(2026, 1, 31), 100L);
+        index.add(LocalDate.of(2026, 3, 1), 250L);
+        index.add(LocalDate.of(2026, 3, 1), 50L);
+        index.add(LocalDate.of(2026, 3, 31), 1000L);
+
+        assertEquals(1300L, index.getTotalCents(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)));
+        assertEquals(1400L, index.getTotalCents(LocalDate.of(2026, 1, 31), LocalDate.of(2026, 3, 31)));
+        assertEquals(0L, index.getTotalCents(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 28)));
+        assertEquals(300L, index.getTotalCents(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 1)));
+    }
+
+    @Test
+    void getMonthlyTotals_partialMonths_onlyCountsDaysInRange() {
+        DailyTotalsIndex index = new DailyTotalsIndex();
+        index.add(LocalDate.of(2026, 1, 14), 7L);
+        index.add(LocalDate.of(2026, 1, 31), 100L);
+        index.add(LocalDate.of(2026, 3, 1), 300L);
+        index.add(LocalDate.of(2026, 3, 31), 1000L);
+
+        Map<YearMonth, Long> monthlyTotals = index.getMonthlyTotals(LocalDate.of(2026, 1, 15),
+                LocalDate.of(2026, 3, 30));
+
+        assertEquals(List.of(YearMonth.of(2026, 1), YearMonth.of(2026, 2), YearMonth.of(2026, 3)),
+                List.copyOf(monthlyTotals.keySet()));
+        assertEquals(100L, monthlyTotals.get(YearMonth.of(2026, 1)));
+        assertEquals(0L, monthlyTotals.get(YearMonth.of(2026, 2)));
+        assertEquals(300L, monthlyTotals.get(YearMonth.of(2026, 3)));
+    }
+
+    @Test
+    void getTotalCents_afterAddAndRemove_reflectsChanges() {
+        DailyTotalsIndex index = new DailyTotalsIndex();
+        index.add(LocalDate.of(2026, 3, 1), 250L);
+        index.add(LocalDate.of(2026, 3, 1), 50L);
+        index.add(null, 999L);
+
+        index.add(LocalDate.of(2026, 2, 14), 75L);
+        index.remove(LocalDate.of(2026, 3, 1), 250L);
+        index.remove(null, 999L);
+
+        assertEquals(125L, index.getTotalCents(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)));
+        assertEquals(75L, index.getTotalCents(LocalDate.of(2026, 2, 14), LocalDate.of(2026, 2, 14)));
+        assertEquals(0, index.getUndatedCount());
+    }
+
+    @Test
+    void getTotalCents_recordsFarBeforeAndAfter_keepsEveryDayTotal() {
+        DailyTotalsIndex index = new DailyTotalsIndex();
+        index.add(LocalDate.of(2026, 1, 31), 100L);
+        index.add(LocalDate.of(1990, 6, 1), 7L);
+        index.add(LocalDate.of(2090, 6, 1), 11L);
+        index.add(LocalDate.of(2026, 1, 30), 3L);
+
+        assertEquals(7L, index.getTotalCents(LocalDate.of(1900, 1, 1), LocalDate.of(1990, 6, 1)));
+        assertEquals(11L, index.getTotalCents(LocalDate.of(2090, 6, 1), LocalDate.of(2200, 1, 1)));
+        assertEquals(103L, index.getTotalCents(LocalDate.of(2026, 1, 30), LocalDate.of(2026, 1, 31)));
+        assertEquals(121L, index.getTotalCents(LocalDate.of(1900, 1, 1), LocalDate.of(2200, 1, 1)));
+    }
+}
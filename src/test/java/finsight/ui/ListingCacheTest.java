@@ -0,0 +1,42 @@
+package finsight.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+/**
+ * Verifies when {@link ListingCache} renders a listing again: after a new version or
+ * once the cached listing expires.
+ *
+ * @see ListingCache
+ */
+final class ListingCacheTest {
+    private final ListingCache cache = new ListingCache();
+    private int renderCount = 0;
+    private final Supplier<String> render = () -> "listing " + (++renderCount);
+
+    @Test
+    void get_sameVersion_renderedOnce() {
+        assertEquals("listing 1", cache.get(0, render));
+        assertEquals("listing 1", cache.get(0, render));
+        assertEquals(1, renderCount);
+    }
+
+    @Test
+    void get_newVersion_renderedAgain() {
+        cache.get(0, render);
+
+        assertEquals("listing 2", cache.get(1, render));
+        assertEquals("listing 2", cache.get(1, render));
+    }
+
+    @Test
+    void get_expiredListing_renderedAgain() {
+        cache.get(0, render, () -> System.currentTimeMillis() - 1);
+
+        assertEquals("listing 2", cache.get(0, render, () -> Long.MAX_VALUE));
+        assertEquals("listing 2", cache.get(0, render));
+    }
+}